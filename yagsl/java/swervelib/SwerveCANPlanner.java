@@ -0,0 +1,267 @@
+package swervelib;
+
+import com.ctre.phoenix6.CANBus;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.TreeMap;
+import swervelib.encoders.SwerveAbsoluteEncoder;
+import swervelib.imu.SwerveIMU;
+import swervelib.motors.SwerveMotor;
+import swervelib.telemetry.SwerveDriveTelemetry;
+
+/**
+ * CAN bus bandwidth planner for the drivetrain. Each swerve device is asked which status frames it needs for its role,
+ * signals read by odometry and control at the control period and signals only read by telemetry at the telemetry
+ * period, and every other frame is disabled. The expected utilization of the roboRIO bus and each CANivore is computed
+ * from the frame rates, and the telemetry period is lengthened until every bus fits the budget before anything is
+ * applied. {@link SwerveDriveTelemetry#canUtilizationWarning} is raised if a bus is still over budget.
+ * <p>
+ * Devices which are not swerve devices share the bus, add their frame rate with
+ * {@link SwerveCANPlanner#addLoad(String, double)} before planning.
+ */
+public class SwerveCANPlanner
+{
+
+  /**
+   * Utilization above which the planner lengthens the telemetry period and raises an alert.
+   */
+  public static final  double              UTILIZATION_BUDGET           = 0.7;
+  /**
+   * Longest telemetry period the planner will lengthen to.
+   */
+  public static final  double              MAX_TELEMETRY_PERIOD_SECONDS = 0.25;
+  /**
+   * Time on a 1 Mbit/s CAN 2.0B bus of an extended frame with 8 data bytes, including worst case bit stuffing.
+   */
+  private static final double              CLASSIC_FRAME_SECONDS        = 150e-6;
+  /**
+   * Time on a CAN FD bus with 1 Mbit/s arbitration and 5 Mbit/s data of a frame with the same payload.
+   */
+  private static final double              FD_FRAME_SECONDS             = 60e-6;
+  /**
+   * Control frames per second sent to each motor controller, one setpoint per robot loop.
+   */
+  private static final double              COMMAND_FRAMES_PER_SECOND    = 50;
+  /**
+   * Period of the signals read by odometry and control in seconds.
+   */
+  private final        double              controlPeriodSeconds;
+  /**
+   * Frames per second of devices outside the drivetrain by bus.
+   */
+  private final        Map<String, Double> externalLoad                 = new TreeMap<>();
+  /**
+   * Planned frames per second by bus.
+   */
+  private final        Map<String, Double> framesPerSecond              = new TreeMap<>();
+  /**
+   * Planned utilization by bus in [0, 1].
+   */
+  private final        Map<String, Double> utilization                  = new TreeMap<>();
+  /**
+   * Period of the signals only read by telemetry in seconds.
+   */
+  private              double              telemetryPeriodSeconds;
+  /**
+   * Number of devices whose frames could not be planned.
+   */
+  private              int                 unplannedDevices             = 0;
+
+  /**
+   * Create the planner.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control, usually the odometry period.
+   * @param telemetryPeriodSeconds Requested period of the signals only read by telemetry.
+   */
+  public SwerveCANPlanner(double controlPeriodSeconds, double telemetryPeriodSeconds)
+  {
+    this.controlPeriodSeconds = controlPeriodSeconds;
+    this.telemetryPeriodSeconds = telemetryPeriodSeconds;
+  }
+
+  /**
+   * Normalize a CAN bus name, the roboRIO bus may be given as "" or "rio".
+   *
+   * @param bus CAN bus name.
+   * @return "rio" for the roboRIO bus, otherwise the name.
+   */
+  private static String normalize(String bus)
+  {
+    return bus == null || bus.isEmpty() ? "rio" : bus;
+  }
+
+  /**
+   * Add the frames of devices outside the drivetrain which share a bus.
+   *
+   * @param bus             CAN bus name.
+   * @param framesPerSecond Frames per second sent by those devices.
+   * @return self
+   */
+  public SwerveCANPlanner addLoad(String bus, double framesPerSecond)
+  {
+    externalLoad.merge(normalize(bus), framesPerSecond, Double::sum);
+    return this;
+  }
+
+  /**
+   * Plan and apply the status frame periods of every device in the swerve drive. Should be called while disabled, the
+   * REV devices persist their configuration.
+   *
+   * @param swerveDrive {@link SwerveDrive} to plan.
+   */
+  public void plan(SwerveDrive swerveDrive)
+  {
+    tally(swerveDrive, false);
+    while (getMaxUtilization() > UTILIZATION_BUDGET && telemetryPeriodSeconds < MAX_TELEMETRY_PERIOD_SECONDS)
+    {
+      telemetryPeriodSeconds = Math.min(telemetryPeriodSeconds * 2, MAX_TELEMETRY_PERIOD_SECONDS);
+      tally(swerveDrive, false);
+    }
+    tally(swerveDrive, true);
+
+    StringBuilder overBudget = new StringBuilder();
+    for (Entry<String, Double> bus : utilization.entrySet())
+    {
+      if (bus.getValue() > UTILIZATION_BUDGET)
+      {
+        overBudget.append(overBudget.isEmpty() ? "" : ", ")
+                  .append(bus.getKey()).append(" ").append(Math.round(bus.getValue() * 100)).append("%");
+      }
+    }
+    SwerveDriveTelemetry.canUtilizationWarning.setText(
+        "CAN bus utilization over " + Math.round(UTILIZATION_BUDGET * 100) + "%: " + overBudget +
+        (unplannedDevices > 0 ? " (" + unplannedDevices + " swerve devices not counted)" : ""));
+    SwerveDriveTelemetry.canUtilizationWarning.set(!overBudget.isEmpty());
+  }
+
+  /**
+   * Compute the frame rates of every bus, optionally applying the periods.
+   *
+   * @param swerveDrive {@link SwerveDrive} to plan.
+   * @param apply       Whether to apply the periods to the devices.
+   */
+  private void tally(SwerveDrive swerveDrive, boolean apply)
+  {
+    framesPerSecond.clear();
+    framesPerSecond.putAll(externalLoad);
+    unplannedDevices = 0;
+    for (SwerveModule module : swerveDrive.getModules())
+    {
+      add(module.getDriveMotor(), apply);
+      add(module.getAngleMotor(), apply);
+      SwerveAbsoluteEncoder encoder = module.getAbsoluteEncoder();
+      if (encoder != null)
+      {
+        add(encoder.getCANBus(),
+            encoder.configureStatusFrames(controlPeriodSeconds, telemetryPeriodSeconds, apply),
+            0);
+      }
+    }
+    SwerveIMU imu = swerveDrive.getGyro();
+    if (imu != null)
+    {
+      add(imu.getCANBus(), imu.configureStatusFrames(controlPeriodSeconds, telemetryPeriodSeconds, apply), 0);
+    }
+
+    utilization.clear();
+    for (Entry<String, Double> bus : framesPerSecond.entrySet())
+    {
+      double frameSeconds = !bus.getKey().equals("rio") && new CANBus(bus.getKey()).isNetworkFD()
+                            ? FD_FRAME_SECONDS : CLASSIC_FRAME_SECONDS;
+      utilization.put(bus.getKey(), bus.getValue() * frameSeconds);
+    }
+  }
+
+  /**
+   * Add a motor controller to the plan.
+   *
+   * @param motor {@link SwerveMotor} to add.
+   * @param apply Whether to apply the periods.
+   */
+  private void add(SwerveMotor motor, boolean apply)
+  {
+    add(motor.getCANBus(),
+        motor.configureStatusFrames(controlPeriodSeconds, telemetryPeriodSeconds, apply),
+        COMMAND_FRAMES_PER_SECOND);
+  }
+
+  /**
+   * Add the frames of a device to its bus.
+   *
+   * @param bus           CAN bus of the device, empty if not on a CAN bus or unknown.
+   * @param statusFrames  Status frames per second, {@link Double#NaN} if they cannot be planned.
+   * @param commandFrames Frames per second sent to the device.
+   */
+  private void add(Optional<String> bus, double statusFrames, double commandFrames)
+  {
+    if (Double.isNaN(statusFrames))
+    {
+      unplannedDevices++;
+      statusFrames = 0;
+    }
+    if (bus.isPresent())
+    {
+      framesPerSecond.merge(normalize(bus.get()), statusFrames + commandFrames, Double::sum);
+    }
+  }
+
+  /**
+   * Get the highest planned utilization of any bus.
+   *
+   * @return Utilization in [0, 1], may exceed 1 when the bus is saturated.
+   */
+  public double getMaxUtilization()
+  {
+    double max = 0;
+    for (double value : utilization.values())
+    {
+      max = Math.max(max, value);
+    }
+    return max;
+  }
+
+  /**
+   * Get the planned utilization of a bus.
+   *
+   * @param bus CAN bus name, "rio" or "" for the roboRIO bus.
+   * @return Utilization in [0, 1], 0 if no planned device is on the bus.
+   */
+  public double getUtilization(String bus)
+  {
+    return utilization.getOrDefault(normalize(bus), 0.0);
+  }
+
+  /**
+   * Get the planned utilization of every bus.
+   *
+   * @return Unmodifiable map of bus name to utilization.
+   */
+  public Map<String, Double> getUtilizations()
+  {
+    return Collections.unmodifiableMap(utilization);
+  }
+
+  /**
+   * Get the telemetry period the plan settled on.
+   *
+   * @return Telemetry period in seconds.
+   */
+  public double getTelemetryPeriod()
+  {
+    return telemetryPeriodSeconds;
+  }
+
+  /**
+   * Get the number of devices whose status frames could not be planned, either because they are not CAN devices or
+   * because planning is not supported for them. CAN devices among them keep their defaults and are not counted in the
+   * utilization.
+   *
+   * @return Device count.
+   */
+  public int getUnplannedDeviceCount()
+  {
+    return unplannedDevices;
+  }
+}
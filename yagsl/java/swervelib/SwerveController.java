@@ -1,9 +1,13 @@
 package swervelib;
 
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.filter.SlewRateLimiter;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.math.trajectory.TrapezoidProfile.State;
+import edu.wpi.first.wpilibj.Timer;
 import swervelib.parser.SwerveControllerConfiguration;
 
 /**
@@ -12,6 +16,10 @@ import swervelib.parser.SwerveControllerConfiguration;
 public class SwerveController
 {
 
+  /**
+   * Time in seconds without heading requests after which the heading profile restarts from the current heading.
+   */
+  private static final double                HEADING_PROFILE_RESET_SECONDS = 0.1;
   /**
    * {@link SwerveControllerConfiguration} object storing data to generate the {@link PIDController} for controlling the
    * robot heading, and deadband for heading joystick.
@@ -20,7 +28,7 @@ public class SwerveController
   /**
    * PID Controller for the robot heading.
    */
-  public final PIDController                 thetaController; // TODO: Switch to ProfilePIDController
+  public final PIDController                 thetaController;
   /**
    * Last angle as a scalar [-1,1] the robot was set to.
    */
@@ -37,6 +45,34 @@ public class SwerveController
    * {@link SlewRateLimiter} for angular movement in radians/second.
    */
   public       SlewRateLimiter               angleLimiter = null;
+  /**
+   * Heading setpoint of the profile, continuous in radians.
+   */
+  private final State                        headingSetpoint      = new State();
+  /**
+   * Heading goal of the profile, continuous in radians.
+   */
+  private final State                        headingGoal          = new State();
+  /**
+   * Trapezoid profile of the heading, null when the heading is not profiled.
+   */
+  private       TrapezoidProfile             headingProfile       = null;
+  /**
+   * Constraints of {@link SwerveController#headingProfile}, null when the heading is not profiled.
+   */
+  private       TrapezoidProfile.Constraints headingConstraints   = null;
+  /**
+   * Timestamp of the last computed heading output in seconds.
+   */
+  private       double                       lastHeadingTimestamp = Double.NaN;
+  /**
+   * Heading joystick X of the last joystick angle.
+   */
+  private       double                       lastJoystickX        = Double.NaN;
+  /**
+   * Heading joystick Y of the last joystick angle.
+   */
+  private       double                       lastJoystickY        = Double.NaN;
 
   /**
    * Construct the SwerveController object which is used for determining the speeds of the robot based on controller
@@ -122,6 +158,13 @@ public class SwerveController
    */
   public double getJoystickAngle(double headingX, double headingY)
   {
+    // Several input streams may share the same sticks, skip the hypot and atan2 if nothing moved.
+    if (headingX == lastJoystickX && headingY == lastJoystickY)
+    {
+      return lastAngleScalar;
+    }
+    lastJoystickX = headingX;
+    lastJoystickY = headingY;
     lastAngleScalar =
         withinHypotDeadband(headingX, headingY) ? lastAngleScalar : Math.atan2(headingX, headingY);
     return lastAngleScalar;
@@ -153,14 +196,9 @@ public class SwerveController
     // the center (i. e. has been released), in which case the angle is held at the last valid
     // joystick input (hold
     // position when stick released).
-    double angle =
-        withinHypotDeadband(headingX, headingY) ? lastAngleScalar : Math.atan2(headingX, headingY);
-    ChassisSpeeds speeds = getTargetSpeeds(xInput, yInput, angle, currentHeadingAngleRadians, maxSpeed);
-
     // Used for the position hold feature
-    lastAngleScalar = angle;
-
-    return speeds;
+    double angle = getJoystickAngle(headingX, headingY);
+    return getTargetSpeeds(xInput, yInput, angle, currentHeadingAngleRadians, maxSpeed);
   }
 
   /**
@@ -203,13 +241,13 @@ public class SwerveController
   {
     // Calculates an angular rate using a PIDController and the commanded angle. Returns a value between -1 and 1
     // which is then scaled to be between -maxAngularVelocity and +maxAngularVelocity.
-    return getRawTargetSpeeds(xSpeed, ySpeed,
-                              thetaController.calculate(currentHeadingAngleRadians, targetHeadingAngleRadians) *
-                              config.maxAngularVelocity);
+    return getRawTargetSpeeds(xSpeed, ySpeed, headingCalculate(currentHeadingAngleRadians, targetHeadingAngleRadians));
   }
 
   /**
-   * Calculate the angular velocity given the current and target heading angle in radians.
+   * Calculate the angular velocity given the current and target heading angle in radians. When the heading is profiled
+   * the target is approached along a trapezoid profile, the profile velocity is used as feedforward and the
+   * {@link SwerveController#thetaController} corrects towards the profile position.
    *
    * @param currentHeadingAngleRadians The current heading of the robot in radians.
    * @param targetHeadingAngleRadians  The target heading of the robot in radians.
@@ -217,7 +255,79 @@ public class SwerveController
    */
   public double headingCalculate(double currentHeadingAngleRadians, double targetHeadingAngleRadians)
   {
-    return thetaController.calculate(currentHeadingAngleRadians, targetHeadingAngleRadians) * config.maxAngularVelocity;
+    double now = Timer.getFPGATimestamp();
+    double dt  = now - lastHeadingTimestamp;
+    double output;
+    if (headingProfile == null)
+    {
+      output = thetaController.calculate(currentHeadingAngleRadians, targetHeadingAngleRadians) *
+               config.maxAngularVelocity;
+    } else
+    {
+      if (Double.isNaN(lastHeadingTimestamp) || dt > HEADING_PROFILE_RESET_SECONDS)
+      {
+        headingSetpoint.position = currentHeadingAngleRadians;
+        headingSetpoint.velocity = 0;
+        dt = 0.02;
+      }
+      // Keep the setpoint within half a turn of the heading and take the shortest way to the target.
+      headingSetpoint.position = currentHeadingAngleRadians +
+                                 MathUtil.angleModulus(headingSetpoint.position - currentHeadingAngleRadians);
+      headingGoal.position = headingSetpoint.position +
+                             MathUtil.angleModulus(targetHeadingAngleRadians - headingSetpoint.position);
+      headingGoal.velocity = 0;
+      State next = headingProfile.calculate(dt, headingSetpoint, headingGoal);
+      headingSetpoint.position = next.position;
+      headingSetpoint.velocity = next.velocity;
+      output = MathUtil.clamp(next.velocity +
+                              thetaController.calculate(currentHeadingAngleRadians, next.position) *
+                              config.maxAngularVelocity,
+                              -config.maxAngularVelocity, config.maxAngularVelocity);
+    }
+    lastHeadingTimestamp = now;
+    return output;
+  }
+
+  /**
+   * Profile the heading control with a trapezoid profile. Does nothing if the profile already has these constraints,
+   * and changing the constraints of an active profile keeps its setpoint.
+   *
+   * @param maxAngularVelocity     Maximum angular velocity of the profile in radians per second.
+   * @param maxAngularAcceleration Maximum angular acceleration of the profile in radians per second squared.
+   */
+  public void setHeadingProfile(double maxAngularVelocity, double maxAngularAcceleration)
+  {
+    if (headingConstraints != null && headingConstraints.maxVelocity == maxAngularVelocity &&
+        headingConstraints.maxAcceleration == maxAngularAcceleration)
+    {
+      return;
+    }
+    if (headingProfile == null)
+    {
+      lastHeadingTimestamp = Double.NaN;
+    }
+    headingConstraints = new TrapezoidProfile.Constraints(maxAngularVelocity, maxAngularAcceleration);
+    headingProfile = new TrapezoidProfile(headingConstraints);
+  }
+
+  /**
+   * Stop profiling the heading control, the {@link SwerveController#thetaController} is used directly.
+   */
+  public void disableHeadingProfile()
+  {
+    headingProfile = null;
+    headingConstraints = null;
+    lastHeadingTimestamp = Double.NaN;
+  }
+
+  /**
+   * Whether the heading control is profiled.
+   *
+   * @return True if profiled.
+   */
+  public boolean isHeadingProfiled()
+  {
+    return headingProfile != null;
   }
 
   /**
@@ -12,6 +12,7 @@ import static edu.wpi.first.units.Units.Seconds;
 import static edu.wpi.first.units.Units.Volts;
 
 import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
@@ -50,11 +51,19 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import swervelib.estimator.PoseEstimatorSwerve;
+import swervelib.estimator.SwerveStateEstimator;
 import swervelib.imu.SwerveIMU;
+import swervelib.imu.SwerveIMUSampler;
+import swervelib.math.SwerveKinematicsKernel;
 import swervelib.math.SwerveMath;
+import swervelib.motors.SwerveMotor;
+import swervelib.motors.SwerveMotorGroup;
 import swervelib.parser.Cache;
 import swervelib.parser.SwerveControllerConfiguration;
 import swervelib.parser.SwerveDriveConfiguration;
+import swervelib.replay.SwerveInputsLog;
 import swervelib.simulation.SwerveIMUSimulation;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 import swervelib.simulation.ironmaple.simulation.drivesims.AbstractDriveTrainSimulation;
@@ -62,6 +71,7 @@ import swervelib.simulation.ironmaple.simulation.drivesims.SwerveDriveSimulation
 import swervelib.simulation.ironmaple.simulation.drivesims.configs.DriveTrainSimulationConfig;
 import swervelib.simulation.ironmaple.simulation.drivesims.configs.SwerveModuleSimulationConfig;
 import swervelib.telemetry.Alert;
+import swervelib.telemetry.SwerveDeviceHealth;
 import swervelib.telemetry.SwerveDriveTelemetry;
 import swervelib.telemetry.SwerveDriveTelemetry.TelemetryVerbosity;
 
@@ -83,6 +93,34 @@ public class SwerveDrive implements AutoCloseable
    * Swerve odometry.
    */
   public final  SwerveDrivePoseEstimator swerveDrivePoseEstimator;
+  /**
+   * State estimator used for odometry, defaults to {@link SwerveDrive#swerveDrivePoseEstimator}.
+   */
+  private       SwerveStateEstimator     stateEstimator;
+  /**
+   * Inputs log to record into or replay from, null when disabled.
+   */
+  private       SwerveInputsLog          inputsLog;
+  /**
+   * Power governor limiting acceleration to prevent brownouts, null when disabled.
+   */
+  private       SwerveDrivePowerGovernor powerGovernor;
+  /**
+   * Online wheel radius calibration, null when disabled.
+   */
+  private       SwerveWheelCalibrator    wheelCalibrator;
+  /**
+   * Maximum angular acceleration of the heading profile in radians per second squared, 0 when not profiled.
+   */
+  private       double                   headingMaxAngularAcceleration = 0;
+  /**
+   * Timestamp source for odometry, the FPGA timestamp or the simulation clock in lockstep mode.
+   */
+  private       DoubleSupplier           timestampSupplier = Timer::getFPGATimestamp;
+  /**
+   * Sampler of the IMU at its native rate, null when odometry reads the IMU directly.
+   */
+  private       SwerveIMUSampler         imuSampler        = null;
   /**
    * IMU reading cache for robot readings.
    */
@@ -91,6 +129,10 @@ public class SwerveDrive implements AutoCloseable
    * Swerve modules.
    */
   private final SwerveModule[]           swerveModules;
+  /**
+   * Drive and angle motors of every module, refreshed together once per odometry cycle.
+   */
+  private final SwerveMotorGroup         motorGroup;
   /**
    * WPILib {@link Notifier} to keep odometry up to date.
    */
@@ -109,23 +151,15 @@ public class SwerveDrive implements AutoCloseable
   /**
    * NT4 Publisher for the IMU reading.
    */
-  private final DoublePublisher     rawIMUPublisher
-                                                                                    = NetworkTableInstance.getDefault()
-                                                                                                          .getTable(
-                                                                                                              "SmartDashboard")
-                                                                                                          .getDoubleTopic(
-                                                                                                              "swerve/imu/raw")
-                                                                                                          .publish();
+  private final DoublePublisher     rawIMUPublisher;
   /**
    * NT4 Publisher for the IMU reading adjusted by offset and inversion.
    */
-  private final DoublePublisher     adjustedIMUPublisher
-                                                                                    = NetworkTableInstance.getDefault()
-                                                                                                          .getTable(
-                                                                                                              "SmartDashboard")
-                                                                                                          .getDoubleTopic(
-                                                                                                              "swerve/imu/adjusted")
-                                                                                                          .publish();
+  private final DoublePublisher     adjustedIMUPublisher;
+  /**
+   * Telemetry of this drive, published under {@link SwerveDriveConfiguration#name}.
+   */
+  public final  SwerveDriveTelemetry telemetry;
   /**
    * Field object.
    */
@@ -170,6 +204,31 @@ public class SwerveDrive implements AutoCloseable
    * Amount of seconds the duration of the timestep the speeds should be applied for.
    */
   private       double              discretizationdtSeconds                         = 0.02;
+  /**
+   * Use the primitive {@link SwerveKinematicsKernel} instead of the WPILib objects for every inverse kinematics in the
+   * drive. Both keep the module headings of a stopped chassis separately, change it before driving.
+   */
+  public        boolean             kinematicsKernelEnabled                         = true;
+  /**
+   * Primitive kinematics for the control path.
+   */
+  private final SwerveKinematicsKernel kinematicsKernel;
+  /**
+   * Chassis speeds scratch, [vx, vy, omega].
+   */
+  private final double[]            chassisScratch                                  = new double[3];
+  /**
+   * Module speeds scratch in meters per second.
+   */
+  private final double[]            moduleSpeedsScratch;
+  /**
+   * Module angles scratch in radians.
+   */
+  private final double[]            moduleAnglesScratch;
+  /**
+   * Period of the odometry thread in seconds.
+   */
+  private       double              odometryPeriodSeconds                           = 0.02;
   /**
    * Deadband for speeds in heading correction.
    */
@@ -183,9 +242,34 @@ public class SwerveDrive implements AutoCloseable
    */
   private       SwerveIMUSimulation simIMU;
   /**
-   * Counter to synchronize the modules relative encoder with absolute encoder when not moving.
+   * Consecutive odometry cycles the modules have been stationary, encoder synchronization starts after 5.
    */
   private       int                 moduleSynchronizationCounter                    = 0;
+  /**
+   * Index of the next module checked for encoder drift.
+   */
+  private       int                 moduleSynchronizationIndex                      = 0;
+  /**
+   * Minimum time between the start of two encoder synchronization passes over every module in seconds.
+   */
+  private       double              encoderSynchronizationPeriodSeconds             = 1.0;
+  /**
+   * Timestamp the last encoder synchronization pass started in seconds.
+   */
+  private       double              lastEncoderSynchronizationTimestamp             = Double.NEGATIVE_INFINITY;
+  /**
+   * Period of the device health and encoder drift summaries in seconds, they are formatted for people so they do not
+   * need every cycle.
+   */
+  private       double              summaryPeriodSeconds                            = 0.1;
+  /**
+   * Timestamp the summaries were last built in seconds.
+   */
+  private       double              lastSummaryTimestamp                            = Double.NEGATIVE_INFINITY;
+  /**
+   * Timestamp of the last completed odometry update in seconds.
+   */
+  private volatile double           lastOdometryTimestamp                           = Double.NaN;
   /**
    * The last heading set in radians.
    */
@@ -225,16 +309,37 @@ public class SwerveDrive implements AutoCloseable
     this.attainableMaxRotationalVelocityRadiansPerSecond = Math.PI *
                                                            2; // Defaulting to something reasonable for most robots
     swerveDriveConfiguration = config;
+    telemetry = new SwerveDriveTelemetry(config.name);
+    rawIMUPublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard")
+                                          .getDoubleTopic(config.name + "/imu/raw").publish();
+    adjustedIMUPublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard")
+                                               .getDoubleTopic(config.name + "/imu/adjusted").publish();
     swerveController = new SwerveController(controllerConfig);
     // Create Kinematics from swerve module locations.
     kinematics = new SwerveDriveKinematics(config.moduleLocationsMeters);
+    kinematicsKernel = new SwerveKinematicsKernel(config.moduleLocationsMeters);
+    moduleSpeedsScratch = new double[config.moduleLocationsMeters.length];
+    moduleAnglesScratch = new double[config.moduleLocationsMeters.length];
     odometryThread = new Notifier(this::updateOdometry);
 
     this.swerveModules = config.modules;
+    SwerveMotor[] motors = new SwerveMotor[swerveModules.length * 2];
+    for (SwerveModule module : swerveModules)
+    {
+      motors[module.moduleNumber * 2] = module.getDriveMotor();
+      motors[module.moduleNumber * 2 + 1] = module.getAngleMotor();
+    }
+    motorGroup = new SwerveMotorGroup(odometryPeriodSeconds, motors);
+    motorGroup.refresh();
+    for (SwerveModule module : swerveModules)
+    {
+      module.setTelemetry(telemetry);
+      module.setTimestampSupplier(this::getOdometryTimestamp);
+    }
 
     // Create an integrator for angle if the robot is being simulated to emulate an IMU
     // If the robot is real, instantiate the IMU instead.
-    if (SwerveDriveTelemetry.isSimulation)
+    if (swerveDriveConfiguration.simulation)
     {
       DriveTrainSimulationConfig simulationConfig = DriveTrainSimulationConfig.Default()
                                                                               .withBumperSize(
@@ -285,6 +390,7 @@ public class SwerveDrive implements AutoCloseable
             getYaw(),
             getModulePositions(),
             startingPose); // x,y,heading in radians; Vision measurement std dev, higher=less weight
+    stateEstimator = new PoseEstimatorSwerve(swerveDrivePoseEstimator);
 //
 //    Rotation3d currentGyro = imuReadingCache.getValue();
 //    double offset = currentGyro.getZ() +
@@ -294,39 +400,47 @@ public class SwerveDrive implements AutoCloseable
     // Initialize Telemetry
     if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.POSE.ordinal())
     {
-      SmartDashboard.putData("Field", field);
+      // Only the first drive keeps the plain key so existing dashboards keep working.
+      SmartDashboard.putData(config.name.equals("swerve") ? "Field" : config.name + "/Field", field);
     }
 
     if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.INFO.ordinal())
     {
-      SwerveDriveTelemetry.maxSpeed = maxSpeedMPS;
-      SwerveDriveTelemetry.maxAngularVelocity = swerveController.config.maxAngularVelocity;
-      SwerveDriveTelemetry.moduleCount = swerveModules.length;
-      SwerveDriveTelemetry.sizeFrontBack = Units.metersToInches(SwerveMath.getSwerveModule(swerveModules, true,
+      telemetry.maxSpeed = maxSpeedMPS;
+      telemetry.maxAngularVelocity = swerveController.config.maxAngularVelocity;
+      telemetry.moduleCount = swerveModules.length;
+      telemetry.sizeFrontBack = Units.metersToInches(SwerveMath.getSwerveModule(swerveModules, true,
                                                                                            false).moduleLocation.getX() +
                                                                 SwerveMath.getSwerveModule(swerveModules,
                                                                                            false,
                                                                                            false).moduleLocation.getX());
-      SwerveDriveTelemetry.sizeLeftRight = Units.metersToInches(SwerveMath.getSwerveModule(swerveModules, false,
+      telemetry.sizeLeftRight = Units.metersToInches(SwerveMath.getSwerveModule(swerveModules, false,
                                                                                            true).moduleLocation.getY() +
                                                                 SwerveMath.getSwerveModule(swerveModules,
                                                                                            false,
                                                                                            false).moduleLocation.getY());
-      SwerveDriveTelemetry.wheelLocations = new double[SwerveDriveTelemetry.moduleCount * 2];
+      telemetry.wheelLocations = new double[telemetry.moduleCount * 2];
       for (SwerveModule module : swerveModules)
       {
-        SwerveDriveTelemetry.wheelLocations[module.moduleNumber * 2] = Units.metersToInches(
+        telemetry.wheelLocations[module.moduleNumber * 2] = Units.metersToInches(
             module.configuration.moduleLocation.getX());
-        SwerveDriveTelemetry.wheelLocations[(module.moduleNumber * 2) + 1] = Units.metersToInches(
+        telemetry.wheelLocations[(module.moduleNumber * 2) + 1] = Units.metersToInches(
             module.configuration.moduleLocation.getY());
       }
-      SwerveDriveTelemetry.measuredStates = new double[SwerveDriveTelemetry.moduleCount * 2];
-      SwerveDriveTelemetry.desiredStates = new double[SwerveDriveTelemetry.moduleCount * 2];
-      SwerveDriveTelemetry.desiredStatesObj = new SwerveModuleState[SwerveDriveTelemetry.moduleCount];
-      SwerveDriveTelemetry.measuredStatesObj = new SwerveModuleState[SwerveDriveTelemetry.moduleCount];
+      telemetry.measuredStates = new double[telemetry.moduleCount * 2];
+      telemetry.desiredStates = new double[telemetry.moduleCount * 2];
+      telemetry.desiredStatesObj = new SwerveModuleState[telemetry.moduleCount];
+      telemetry.measuredStatesObj = new SwerveModuleState[telemetry.moduleCount];
     }
 
-    setOdometryPeriod(SwerveDriveTelemetry.isSimulation ? 0.004 : 0.02);
+    if (swerveDriveConfiguration.simulation && SimulatedArena.isLockstep())
+    {
+      // Lockstep mode, the odometry thread is replaced by explicit calls to step().
+      timestampSupplier = SimulatedArena::getTimeSeconds;
+    } else
+    {
+      setOdometryPeriod(swerveDriveConfiguration.simulation ? 0.004 : 0.02);
+    }
 
     checkIfTunerXCompatible();
 
@@ -336,6 +450,7 @@ public class SwerveDrive implements AutoCloseable
   @Override
   public void close()
   {
+    stopIMUSampler();
     imu.close();
     tunerXRecommendation.close();
 
@@ -343,6 +458,11 @@ public class SwerveDrive implements AutoCloseable
     {
       module.close();
     }
+    if (mapleSimDrive != null)
+    {
+      SimulatedArena.getInstance().removeDriveTrainSimulation(mapleSimDrive);
+    }
+    SwerveDriveTelemetry.releaseName(swerveDriveConfiguration.name);
   }
 
   /**
@@ -387,29 +507,97 @@ public class SwerveDrive implements AutoCloseable
   }
 
   /**
-   * Set the odometry update period in seconds.
+   * Set the odometry update period in seconds. In simulation the arena steps one sub-tick per odometry update, select
+   * a {@link swervelib.simulation.ironmaple.simulation.PhysicsQuality} afterwards to split the period further.
    *
    * @param period period in seconds.
    */
   public void setOdometryPeriod(double period)
   {
+    odometryPeriodSeconds = period;
+    motorGroup.setPeriod(period);
     odometryThread.stop();
-    if (SwerveDriveTelemetry.isSimulation)
+    if (swerveDriveConfiguration.simulation)
     {
       SimulatedArena.overrideSimulationTimings(Seconds.of(period), 1);
     }
     odometryThread.startPeriodic(period);
   }
 
+  /**
+   * Plan the CAN bus bandwidth of the drivetrain with a {@link SwerveCANPlanner}. Signals odometry and control read
+   * update every odometry period, telemetry signals at the given period and every other status frame is disabled. Call
+   * while disabled after construction, and again after changing the odometry period.
+   *
+   * @param telemetryPeriodSeconds Requested period of the telemetry signals, lengthened up to
+   *                               {@link SwerveCANPlanner#MAX_TELEMETRY_PERIOD_SECONDS} when a bus is over budget.
+   * @return {@link SwerveCANPlanner} holding the planned utilization of each bus.
+   */
+  public SwerveCANPlanner configureCANBus(double telemetryPeriodSeconds)
+  {
+    SwerveCANPlanner planner = new SwerveCANPlanner(odometryPeriodSeconds, telemetryPeriodSeconds);
+    planner.plan(this);
+    return planner;
+  }
+
   /**
    * Stop the odometry thread in favor of manually updating odometry.
    */
   public void stopOdometryThread()
   {
     odometryThread.stop();
-    if (SwerveDriveTelemetry.isSimulation)
+    if (swerveDriveConfiguration.simulation)
+    {
+      SimulatedArena.overrideSimulationTimings(Seconds.of(TimedRobot.kDefaultPeriod));
+    }
+  }
+
+  /**
+   * Sample the IMU yaw and yaw rate on their own thread at the native rate of the IMU. Odometry then uses the yaw
+   * integrated to the timestamp of each cycle from the samples around it, instead of the latest read. Does nothing in
+   * simulation, where the gyro is stepped with the physics, and is bypassed while an inputs log is set since the
+   * replay IMU logs the reads of the odometry thread.
+   *
+   * @param periodSeconds Sampling period in seconds, the native update period of the IMU such as 0.005 for a NavX at
+   *                      200Hz.
+   */
+  public void startIMUSampler(double periodSeconds)
+  {
+    if (swerveDriveConfiguration.simulation)
+    {
+      return;
+    }
+    if (imuSampler == null)
     {
-      SimulatedArena.overrideSimulationTimings(Seconds.of(TimedRobot.kDefaultPeriod), 5);
+      // One second of samples covers any odometry period.
+      imuSampler = new SwerveIMUSampler(imu, () -> timestampSupplier.getAsDouble(), (int) Math.ceil(1 / periodSeconds));
+      updateIMUSamplerOffset();
+    }
+    imuSampler.start(periodSeconds);
+  }
+
+  /**
+   * Stop sampling the IMU, odometry reads it directly again.
+   */
+  public void stopIMUSampler()
+  {
+    if (imuSampler != null)
+    {
+      odometryLock.lock();
+      imuSampler.close();
+      imuSampler = null;
+      odometryLock.unlock();
+    }
+  }
+
+  /**
+   * Match the yaw offset of the {@link SwerveIMUSampler} to the offset of the IMU.
+   */
+  private void updateIMUSamplerOffset()
+  {
+    if (imuSampler != null)
+    {
+      imuSampler.setOffset(MathUtil.angleModulus(imu.getRawYawRadians() - imu.getRotation3d().getZ()));
     }
   }
 
@@ -448,7 +636,7 @@ public class SwerveDrive implements AutoCloseable
    */
   public Rotation2d getOdometryHeading()
   {
-    return swerveDrivePoseEstimator.getEstimatedPosition().getRotation();
+    return stateEstimator.getEstimatedPosition().getRotation();
   }
 
   /**
@@ -602,7 +790,12 @@ public class SwerveDrive implements AutoCloseable
    */
   public void drive(ChassisSpeeds robotRelativeVelocity, boolean isOpenLoop, Translation2d centerOfRotationMeters)
   {
-    SwerveDriveTelemetry.startCtrlCycle();
+    if (kinematicsKernelEnabled)
+    {
+      driveKernel(robotRelativeVelocity, isOpenLoop, centerOfRotationMeters);
+      return;
+    }
+    telemetry.startCtrlCycle();
     robotRelativeVelocity = movementOptimizations(robotRelativeVelocity,
                                                   chassisVelocityCorrection,
                                                   angularVelocityCorrection);
@@ -624,10 +817,15 @@ public class SwerveDrive implements AutoCloseable
       }
     }
 
+    if (powerGovernor != null)
+    {
+      robotRelativeVelocity = powerGovernor.calculate(robotRelativeVelocity, getRobotVelocity());
+    }
+
     // Display commanded speed for testing
     if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.LOW.ordinal())
     {
-      SwerveDriveTelemetry.desiredChassisSpeedsObj = robotRelativeVelocity;
+      telemetry.desiredChassisSpeedsObj = robotRelativeVelocity;
     }
 
     // Calculate required module states via kinematics
@@ -637,6 +835,83 @@ public class SwerveDrive implements AutoCloseable
     setRawModuleStates(swerveModuleStates, robotRelativeVelocity, isOpenLoop);
   }
 
+  /**
+   * {@link SwerveDrive#drive(ChassisSpeeds, boolean, Translation2d)} on primitives through the
+   * {@link SwerveKinematicsKernel}, same behavior without the intermediate WPILib objects.
+   *
+   * @param robotRelativeVelocity  The chassis speeds to set the robot to achieve.
+   * @param isOpenLoop             Whether to use closed-loop velocity control. Set to true to disable closed-loop.
+   * @param centerOfRotationMeters The center of rotation in meters, 0 is the center of the robot.
+   */
+  private void driveKernel(ChassisSpeeds robotRelativeVelocity, boolean isOpenLoop,
+                           Translation2d centerOfRotationMeters)
+  {
+    telemetry.startCtrlCycle();
+    double[] chassis = chassisScratch;
+    chassis[0] = robotRelativeVelocity.vxMetersPerSecond;
+    chassis[1] = robotRelativeVelocity.vyMetersPerSecond;
+    chassis[2] = robotRelativeVelocity.omegaRadiansPerSecond;
+    if (angularVelocityCorrection)
+    {
+      double skew = getYawAngularVelocity().in(RadiansPerSecond) * angularVelocityCoefficient;
+      if (skew != 0.0)
+      {
+        SwerveKinematicsKernel.rotate(chassis[0], chassis[1], chassis[2], -skew, chassis);
+      }
+    }
+    if (chassisVelocityCorrection)
+    {
+      SwerveKinematicsKernel.discretize(chassis[0], chassis[1], chassis[2], discretizationdtSeconds, chassis);
+    }
+
+    if (headingCorrection)
+    {
+      if (Math.abs(chassis[2]) < HEADING_CORRECTION_DEADBAND
+          && (Math.abs(chassis[0]) > HEADING_CORRECTION_DEADBAND
+              || Math.abs(chassis[1]) > HEADING_CORRECTION_DEADBAND))
+      {
+        chassis[2] = swerveController.headingCalculate(getOdometryHeading().getRadians(), lastHeadingRadians);
+      } else
+      {
+        lastHeadingRadians = getOdometryHeading().getRadians();
+      }
+    }
+
+    if (powerGovernor != null)
+    {
+      powerGovernor.calculate(chassis, getRobotVelocity());
+    }
+
+    if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.LOW.ordinal())
+    {
+      telemetry.desiredChassisSpeedsObj = new ChassisSpeeds(chassis[0], chassis[1], chassis[2]);
+    }
+
+    kinematicsKernel.toModuleStates(chassis[0], chassis[1], chassis[2],
+                                    centerOfRotationMeters.getX(), centerOfRotationMeters.getY(),
+                                    moduleSpeedsScratch, moduleAnglesScratch);
+
+    double maxModuleSpeedMPS = getMaximumModuleDriveVelocity();
+    if ((attainableMaxTranslationalSpeedMetersPerSecond != 0 || attainableMaxRotationalVelocityRadiansPerSecond != 0) &&
+        attainableMaxTranslationalSpeedMetersPerSecond != maxChassisSpeedMPS)
+    {
+      SwerveKinematicsKernel.desaturate(moduleSpeedsScratch, chassis[0], chassis[1], chassis[2],
+                                        maxModuleSpeedMPS,
+                                        attainableMaxTranslationalSpeedMetersPerSecond,
+                                        attainableMaxRotationalVelocityRadiansPerSecond);
+    } else
+    {
+      SwerveKinematicsKernel.desaturate(moduleSpeedsScratch, maxModuleSpeedMPS);
+    }
+
+    for (SwerveModule module : swerveModules)
+    {
+      module.setDesiredState(new SwerveModuleState(moduleSpeedsScratch[module.moduleNumber],
+                                                   Rotation2d.fromRadians(moduleAnglesScratch[module.moduleNumber])),
+                             isOpenLoop, false);
+    }
+  }
+
   /**
    * Set the maximum attainable speeds for desaturation.
    *
@@ -651,6 +926,7 @@ public class SwerveDrive implements AutoCloseable
   {
     this.attainableMaxTranslationalSpeedMetersPerSecond = attainableMaxTranslationalSpeedMetersPerSecond;
     this.attainableMaxRotationalVelocityRadiansPerSecond = attainableMaxRotationalVelocityRadiansPerSecond;
+    updateHeadingProfile();
   }
 
   /**
@@ -667,6 +943,38 @@ public class SwerveDrive implements AutoCloseable
   {
     this.maxChassisSpeedMPS = maxTranslationalSpeedMetersPerSecond;
     this.swerveController.config.maxAngularVelocity = maxRotationalVelocityRadiansPerSecond;
+    updateHeadingProfile();
+  }
+
+  /**
+   * Profile heading control of the {@link SwerveController}, used by heading correction and the heading and aim modes of
+   * {@link SwerveInputStream}. The profile is limited to {@link SwerveDrive#getMaximumChassisAngularVelocity()} and
+   * follows later changes to it.
+   *
+   * @param maxAngularAccelerationRadiansPerSecondSq Maximum angular acceleration in radians per second squared, 0 to
+   *                                                 disable the profile.
+   */
+  public void setHeadingProfile(double maxAngularAccelerationRadiansPerSecondSq)
+  {
+    headingMaxAngularAcceleration = maxAngularAccelerationRadiansPerSecondSq;
+    if (headingMaxAngularAcceleration > 0)
+    {
+      updateHeadingProfile();
+    } else
+    {
+      swerveController.disableHeadingProfile();
+    }
+  }
+
+  /**
+   * Apply the current maximum angular velocity to the heading profile, if enabled.
+   */
+  private void updateHeadingProfile()
+  {
+    if (headingMaxAngularAcceleration > 0)
+    {
+      swerveController.setHeadingProfile(getMaximumChassisAngularVelocity(), headingMaxAngularAcceleration);
+    }
   }
 
   /**
@@ -753,8 +1061,27 @@ public class SwerveDrive implements AutoCloseable
    */
   public void setModuleStates(SwerveModuleState[] desiredStates, boolean isOpenLoop)
   {
-    SwerveDriveTelemetry.startCtrlCycle();
+    telemetry.startCtrlCycle();
     double maxModuleSpeedMPS = getMaximumModuleDriveVelocity();
+    if (kinematicsKernelEnabled)
+    {
+      for (int i = 0; i < desiredStates.length; i++)
+      {
+        moduleSpeedsScratch[i] = desiredStates[i].speedMetersPerSecond;
+        moduleAnglesScratch[i] = desiredStates[i].angle.getRadians();
+      }
+      kinematicsKernel.toChassisSpeeds(moduleSpeedsScratch, moduleAnglesScratch, chassisScratch);
+      kinematicsKernel.toModuleStates(chassisScratch[0], chassisScratch[1], chassisScratch[2], 0, 0,
+                                      moduleSpeedsScratch, moduleAnglesScratch);
+      SwerveKinematicsKernel.desaturate(moduleSpeedsScratch, maxModuleSpeedMPS);
+      for (SwerveModule module : swerveModules)
+      {
+        module.setDesiredState(new SwerveModuleState(moduleSpeedsScratch[module.moduleNumber],
+                                                     Rotation2d.fromRadians(moduleAnglesScratch[module.moduleNumber])),
+                               isOpenLoop, false);
+      }
+      return;
+    }
     desiredStates = kinematics.toSwerveModuleStates(kinematics.toChassisSpeeds(desiredStates));
     SwerveDriveKinematics.desaturateWheelSpeeds(desiredStates, maxModuleSpeedMPS);
 
@@ -776,10 +1103,10 @@ public class SwerveDrive implements AutoCloseable
    */
   public void drive(ChassisSpeeds robotRelativeVelocity, SwerveModuleState[] states, Force[] feedforwardForces)
   {
-    SwerveDriveTelemetry.startCtrlCycle();
+    telemetry.startCtrlCycle();
     if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.LOW.ordinal())
     {
-      SwerveDriveTelemetry.desiredChassisSpeedsObj = robotRelativeVelocity;
+      telemetry.desiredChassisSpeedsObj = robotRelativeVelocity;
     }
     for (SwerveModule module : swerveModules)
     {
@@ -818,14 +1145,14 @@ public class SwerveDrive implements AutoCloseable
    */
   public void setChassisSpeeds(ChassisSpeeds robotRelativeSpeeds)
   {
-    SwerveDriveTelemetry.startCtrlCycle();
+    telemetry.startCtrlCycle();
     robotRelativeSpeeds = movementOptimizations(robotRelativeSpeeds,
                                                 autonomousChassisVelocityCorrection,
                                                 autonomousAngularVelocityCorrection);
 
-    SwerveDriveTelemetry.desiredChassisSpeedsObj = robotRelativeSpeeds;
+    telemetry.desiredChassisSpeedsObj = robotRelativeSpeeds;
 
-    setRawModuleStates(kinematics.toSwerveModuleStates(robotRelativeSpeeds), robotRelativeSpeeds, false);
+    setRawModuleStates(toModuleStates(robotRelativeSpeeds, Translation2d.kZero), robotRelativeSpeeds, false);
   }
 
   /**
@@ -837,7 +1164,7 @@ public class SwerveDrive implements AutoCloseable
   {
 
     odometryLock.lock();
-    Pose2d poseEstimation = swerveDrivePoseEstimator.getEstimatedPosition();
+    Pose2d poseEstimation = stateEstimator.getEstimatedPosition();
     odometryLock.unlock();
     return poseEstimation;
   }
@@ -851,7 +1178,7 @@ public class SwerveDrive implements AutoCloseable
    */
   public Optional<SwerveDriveSimulation> getMapleSimDrive()
   {
-    if (SwerveDriveTelemetry.isSimulation)
+    if (swerveDriveConfiguration.simulation)
     {
       return Optional.of(mapleSimDrive);
     }
@@ -910,14 +1237,18 @@ public class SwerveDrive implements AutoCloseable
   public void resetOdometry(Pose2d pose)
   {
     odometryLock.lock();
-    swerveDrivePoseEstimator.resetPosition(getYaw(), getModulePositions(), pose);
-    if (SwerveDriveTelemetry.isSimulation)
+    stateEstimator.resetPosition(getYaw(), getModulePositions(), pose);
+    if (inputsLog != null)
+    {
+      inputsLog.recordPoseReset(pose);
+    }
+    if (swerveDriveConfiguration.simulation)
     {
       mapleSimDrive.setSimulationWorldPose(pose);
     }
     odometryLock.unlock();
     ChassisSpeeds robotRelativeSpeeds = ChassisSpeeds.fromRobotRelativeSpeeds(new ChassisSpeeds(0, 0, 0), getYaw());
-    kinematics.toSwerveModuleStates(robotRelativeSpeeds);
+    toModuleStates(robotRelativeSpeeds, Translation2d.kZero);
 
   }
 
@@ -983,7 +1314,7 @@ public class SwerveDrive implements AutoCloseable
    */
   public void setGyro(Rotation3d gyro)
   {
-    if (SwerveDriveTelemetry.isSimulation)
+    if (swerveDriveConfiguration.simulation)
     {
       setGyroOffset(simIMU.getGyroRotation3d().minus(gyro));
     } else
@@ -1000,7 +1331,7 @@ public class SwerveDrive implements AutoCloseable
   {
     // Resets the real gyro or the angle accumulator, depending on whether the robot is being
     // simulated
-    if (SwerveDriveTelemetry.isSimulation)
+    if (swerveDriveConfiguration.simulation)
     {
       simIMU.setAngle(0);
     } else
@@ -1064,7 +1395,7 @@ public class SwerveDrive implements AutoCloseable
    */
   public Optional<Translation3d> getAccel()
   {
-    if (!SwerveDriveTelemetry.isSimulation)
+    if (!swerveDriveConfiguration.simulation)
     {
       return imu.getAccel();
     } else
@@ -1072,6 +1403,254 @@ public class SwerveDrive implements AutoCloseable
       return simIMU.getAccel();
     }
   }
+  /**
+   * Fetch the yaw rate of the robot from the IMU, or the simulated gyro in simulation.
+   *
+   * @return Yaw rate as an {@link AngularVelocity}.
+   */
+  public AngularVelocity getYawAngularVelocity()
+  {
+    if (swerveDriveConfiguration.simulation)
+    {
+      return simIMU.getYawAngularVelocity();
+    }
+    return imu.getYawAngularVelocity();
+  }
+
+  /**
+   * Replace the state estimator used for odometry. The new estimator is reset to the current pose.
+   *
+   * @param stateEstimator {@link SwerveStateEstimator} to use, such as
+   *                       {@link swervelib.estimator.ExtendedKalmanFilterSwerve}.
+   */
+  public void setStateEstimator(SwerveStateEstimator stateEstimator)
+  {
+    odometryLock.lock();
+    try
+    {
+      Pose2d currentPose = this.stateEstimator.getEstimatedPosition();
+      stateEstimator.resetPosition(getYaw(), getModulePositions(), currentPose);
+      this.stateEstimator = stateEstimator;
+    } finally
+    {
+      odometryLock.unlock();
+    }
+  }
+
+  /**
+   * Get the state estimator used for odometry.
+   *
+   * @return {@link SwerveStateEstimator} in use.
+   */
+  public SwerveStateEstimator getStateEstimator()
+  {
+    return stateEstimator;
+  }
+
+  /**
+   * Get the primitive kinematics used by the control path.
+   *
+   * @return {@link SwerveKinematicsKernel} of this drive.
+   */
+  public SwerveKinematicsKernel getKinematicsKernel()
+  {
+    return kinematicsKernel;
+  }
+
+  /**
+   * Get the timestamp of the current odometry cycle, the recorded timestamp while replaying an inputs log.
+   *
+   * @return Timestamp in seconds.
+   */
+  private double getOdometryTimestamp()
+  {
+    return inputsLog != null && inputsLog.isReplaying() ? inputsLog.getTimestamp() : timestampSupplier.getAsDouble();
+  }
+
+  /**
+   * Get the timestamp of the last completed odometry update, which changes exactly once per update so it can key
+   * values derived from the pose.
+   *
+   * @return Timestamp in seconds, {@link Double#NaN} before the first update.
+   */
+  public double getLastOdometryTimestamp()
+  {
+    return lastOdometryTimestamp;
+  }
+
+  /**
+   * Set the timestamp source used for odometry and the state estimator. Defaults to {@link Timer#getFPGATimestamp()},
+   * or {@link SimulatedArena#getTimeSeconds()} in lockstep mode. Vision measurements must use the same timebase.
+   *
+   * @param timestampSupplier Timestamp source in seconds.
+   */
+  public void setTimestampSupplier(DoubleSupplier timestampSupplier)
+  {
+    this.timestampSupplier = timestampSupplier;
+  }
+
+  /**
+   * Advance the drive by one period in a fixed order, the physics simulation then odometry. Outputs commanded since
+   * the last step, such as with {@link SwerveDrive#drive(ChassisSpeeds)}, are applied by the physics. In lockstep mode
+   * ({@link SimulatedArena#enableLockstep(long)} called before the {@link SwerveDrive} is created) this is the only
+   * thing that advances the simulation, so calling drive then step in a loop is reproducible bit-for-bit. With several
+   * drives in the arena only the lead drive advances it, so every drive is stepped once per period without advancing
+   * the arena more than once. Outside of lockstep mode it only updates odometry.
+   */
+  public void step()
+  {
+    if (swerveDriveConfiguration.simulation && SimulatedArena.isLockstep() &&
+        (mapleSimDrive == null || SimulatedArena.getInstance().isLeadDriveTrainSimulation(mapleSimDrive)))
+    {
+      SimulatedArena.getInstance().simulationPeriodic();
+    }
+    updateOdometry();
+  }
+
+  /**
+   * Enable the battery aware power governor, which scales the acceleration requested through
+   * {@link SwerveDrive#drive(ChassisSpeeds, boolean, Translation2d)} so the predicted bus voltage stays above the given
+   * floor.
+   *
+   * @param minimumVoltage Predicted bus voltage to stay above in volts, should be above the roboRIO brownout voltage.
+   * @return {@link SwerveDrivePowerGovernor} in use.
+   */
+  public SwerveDrivePowerGovernor enablePowerGovernor(double minimumVoltage)
+  {
+    powerGovernor = new SwerveDrivePowerGovernor(swerveModules, minimumVoltage, this::getOdometryTimestamp);
+    return powerGovernor;
+  }
+
+  /**
+   * Disable the power governor.
+   */
+  public void disablePowerGovernor()
+  {
+    powerGovernor = null;
+  }
+
+  /**
+   * Get the power governor.
+   *
+   * @return {@link SwerveDrivePowerGovernor} in use, empty when disabled.
+   */
+  public Optional<SwerveDrivePowerGovernor> getPowerGovernor()
+  {
+    return Optional.ofNullable(powerGovernor);
+  }
+
+  /**
+   * Enable online wheel radius calibration, fed from every odometry update. Spin in place to calibrate each module.
+   *
+   * @param forgetting Forgetting factor of the fits in (0, 1], 1 keeps every sample, 0.95 follows wear over a match.
+   * @return {@link SwerveWheelCalibrator} in use.
+   */
+  public SwerveWheelCalibrator enableWheelCalibration(double forgetting)
+  {
+    odometryLock.lock();
+    wheelCalibrator = new SwerveWheelCalibrator(swerveModules, kinematics, forgetting);
+    odometryLock.unlock();
+    return wheelCalibrator;
+  }
+
+  /**
+   * Disable online wheel radius calibration.
+   */
+  public void disableWheelCalibration()
+  {
+    odometryLock.lock();
+    wheelCalibrator = null;
+    odometryLock.unlock();
+  }
+
+  /**
+   * Get the wheel radius calibrator.
+   *
+   * @return {@link SwerveWheelCalibrator} in use, empty when disabled.
+   */
+  public Optional<SwerveWheelCalibrator> getWheelCalibrator()
+  {
+    return Optional.ofNullable(wheelCalibrator);
+  }
+
+  /**
+   * Push the confident wheel radius estimates to the drive motor conversion factors and reset the odometry to the
+   * current pose so the change in reported distance does not move it.
+   *
+   * @return Number of modules updated.
+   */
+  public int applyWheelCalibration()
+  {
+    if (wheelCalibrator == null)
+    {
+      return 0;
+    }
+    odometryLock.lock();
+    try
+    {
+      Pose2d pose    = getPose();
+      int    updated = wheelCalibrator.apply();
+      if (updated > 0)
+      {
+        invalidateCache();
+        resetOdometry(pose);
+      }
+      return updated;
+    } finally
+    {
+      odometryLock.unlock();
+    }
+  }
+
+  /**
+   * Set the inputs log written at the end of every odometry cycle. The devices must already be wrapped with the replay
+   * devices, use {@link swervelib.parser.SwerveParser#withInputsLog(SwerveInputsLog)} to do both. When the log is
+   * replaying the odometry thread is stopped and {@link SwerveDrive#replayInputs()} drives the updates instead.
+   *
+   * @param inputsLog {@link SwerveInputsLog} to use, null to disable.
+   */
+  public void setInputsLog(SwerveInputsLog inputsLog)
+  {
+    odometryLock.lock();
+    this.inputsLog = inputsLog;
+    odometryLock.unlock();
+    if (inputsLog != null && inputsLog.isReplaying())
+    {
+      stopOdometryThread();
+    }
+  }
+
+  /**
+   * Run odometry over every remaining cycle of the replaying inputs log as fast as possible. Odometry resets are
+   * applied at the cycle they were recorded in.
+   *
+   * @return Number of cycles replayed.
+   */
+  public long replayInputs()
+  {
+    if (inputsLog == null || !inputsLog.isReplaying())
+    {
+      throw new IllegalStateException("No replaying inputs log set, see SwerveDrive.setInputsLog.");
+    }
+    long cycles = 0;
+    while (inputsLog.nextFrame())
+    {
+      invalidateCache();
+      Optional<Pose2d> reset = inputsLog.pollPoseReset();
+      if (reset.isPresent())
+      {
+        resetOdometry(reset.get());
+      } else if (cycles == 0)
+      {
+        // The estimator was created before any inputs were loaded, re-seed it with the first recorded positions.
+        resetOdometry(getPose());
+      }
+      updateOdometry();
+      cycles++;
+    }
+    return cycles;
+  }
+
 
   /**
    * Sets the drive motors to brake/coast mode.
@@ -1101,6 +1680,17 @@ public class SwerveDrive implements AutoCloseable
     }
   }
 
+  /**
+   * Set the minimum time between encoder synchronization passes. A pass checks every module once, one module per
+   * stationary odometry cycle.
+   *
+   * @param periodSeconds Minimum time between the start of two passes in seconds, default is 1 second.
+   */
+  public void setModuleEncoderAutoSynchronizePeriod(double periodSeconds)
+  {
+    encoderSynchronizationPeriodSeconds = periodSeconds;
+  }
+
 
   /**
    * Point all modules toward the robot center, thus making the robot very difficult to move. Forcing the robot to keep
@@ -1115,14 +1705,14 @@ public class SwerveDrive implements AutoCloseable
           new SwerveModuleState(0, swerveModule.configuration.moduleLocation.getAngle());
       if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.INFO.ordinal())
       {
-        SwerveDriveTelemetry.desiredStatesObj[swerveModule.moduleNumber] = desiredState;
+        telemetry.desiredStatesObj[swerveModule.moduleNumber] = desiredState;
       }
       swerveModule.setDesiredState(desiredState, false, true);
 
     }
 
     // Update kinematics because we are not using setModuleStates
-    kinematics.toSwerveModuleStates(new ChassisSpeeds());
+    toModuleStates(new ChassisSpeeds(), Translation2d.kZero);
   }
 
   /**
@@ -1164,15 +1754,44 @@ public class SwerveDrive implements AutoCloseable
    */
   public void updateOdometry()
   {
-    SwerveDriveTelemetry.startOdomCycle();
+    telemetry.startOdomCycle();
     odometryLock.lock();
 //    invalidateCache();
     try
     {
       // Update odometry
-      swerveDrivePoseEstimator.update(getYaw(), getModulePositions());
+      double timestamp = getOdometryTimestamp();
+      // Sample every sensor once, odometry, encoder synchronization and telemetry share the sample.
+      motorGroup.refresh();
+      // The sampler integrates the yaw to the cycle timestamp, the inputs log needs the reads of this thread.
+      boolean                sampled   = imuSampler != null && imuSampler.getSampleCount() > 0 && inputsLog == null;
+      Rotation2d             yaw       = sampled ? Rotation2d.fromRadians(imuSampler.getYawRadians(timestamp))
+                                                 : getYaw();
+      double                 yawRate   = Double.NaN;
+      if (stateEstimator.usesGyroRate())
+      {
+        yawRate = sampled ? imuSampler.getYawRateRadiansPerSecond(timestamp)
+                          : swerveDriveConfiguration.simulation ? simIMU.getYawAngularVelocity().in(RadiansPerSecond)
+                                                                : imu.getYawRateRadiansPerSecond();
+      }
+      SwerveModulePosition[] positions = new SwerveModulePosition[swerveDriveConfiguration.moduleCount];
+      for (SwerveModule module : swerveModules)
+      {
+        positions[module.moduleNumber] = module.sample();
+      }
+      stateEstimator.update(timestamp,
+                            yaw,
+                            yawRate,
+                            stateEstimator.usesAcceleration() ? getAccel() : Optional.empty(),
+                            positions);
+      if (wheelCalibrator != null)
+      {
+        wheelCalibrator.update(yaw, positions);
+      }
 
-      if (SwerveDriveTelemetry.isSimulation)
+      // With several drives in the arena only the lead drive advances it, once per period.
+      if (swerveDriveConfiguration.simulation && !SimulatedArena.isLockstep() &&
+          (mapleSimDrive == null || SimulatedArena.getInstance().isLeadDriveTrainSimulation(mapleSimDrive)))
       {
         try
         {
@@ -1183,64 +1802,131 @@ public class SwerveDrive implements AutoCloseable
         }
       }
 
-      // Update angle accumulator if the robot is simulated
-      if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.INFO.ordinal())
+      // Telemetry is only computed at the verbosity that publishes it.
+      boolean info = SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.INFO.ordinal();
+      boolean high = SwerveDriveTelemetry.verbosity == TelemetryVerbosity.HIGH;
+      double  sumVelocity = 0;
+      for (SwerveModule module : swerveModules)
       {
-        SwerveDriveTelemetry.measuredChassisSpeedsObj = getRobotVelocity();
-        SwerveDriveTelemetry.robotRotationObj = getOdometryHeading();
+        SwerveModuleState moduleState = module.getSampledState();
+        sumVelocity += Math.abs(moduleState.speedMetersPerSecond);
+        if (info)
+        {
+          telemetry.measuredStatesObj[module.moduleNumber] = moduleState;
+        }
+        if (high)
+        {
+          module.updateTelemetry();
+        }
+      }
+      if (info)
+      {
+        Rotation2d heading = getOdometryHeading();
+        telemetry.measuredChassisSpeedsObj = kinematics.toChassisSpeeds(telemetry.measuredStatesObj);
+        telemetry.robotRotationObj = heading;
+        if (high)
+        {
+          rawIMUPublisher.set(yaw.getDegrees());
+          adjustedIMUPublisher.set(heading.getDegrees());
+        }
       }
 
       if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.POSE.ordinal())
       {
-        if (SwerveDriveTelemetry.isSimulation)
+        if (swerveDriveConfiguration.simulation)
         {
           field.setRobotPose(mapleSimDrive.getSimulatedDriveTrainPose());
-          field.getObject("OdometryPose").setPose(swerveDrivePoseEstimator.getEstimatedPosition());
+          field.getObject("OdometryPose").setPose(stateEstimator.getEstimatedPosition());
           field.getObject("XModules").setPoses(getSwerveModulePoses(mapleSimDrive.getSimulatedDriveTrainPose()));
 
         } else
         {
-          field.setRobotPose(swerveDrivePoseEstimator.getEstimatedPosition());
+          field.setRobotPose(stateEstimator.getEstimatedPosition());
         }
       }
 
-      double sumVelocity = 0;
-      for (SwerveModule module : swerveModules)
+      // Once the robot has been stationary for 100ms check one module per cycle for encoder drift (Inspired by
+      // democrat's SDS lib), only modules drifting past the deadband are synchronized. A pass over every module starts
+      // at most once per period, and simulated encoders never drift.
+      if (sumVelocity > .01)
       {
-        SwerveModuleState moduleState = module.getState();
-        sumVelocity += Math.abs(moduleState.speedMetersPerSecond);
-        if (SwerveDriveTelemetry.verbosity == TelemetryVerbosity.HIGH)
-        {
-          module.updateTelemetry();
-          rawIMUPublisher.set(getYaw().getDegrees());
-          adjustedIMUPublisher.set(getOdometryHeading().getDegrees());
-        }
-        if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.INFO.ordinal())
+        moduleSynchronizationCounter = 0;
+      } else if (++moduleSynchronizationCounter > 5 && !swerveDriveConfiguration.simulation &&
+                 (moduleSynchronizationIndex != 0 ||
+                  timestamp - lastEncoderSynchronizationTimestamp >= encoderSynchronizationPeriodSeconds))
+      {
+        if (moduleSynchronizationIndex == 0)
         {
-          SwerveDriveTelemetry.measuredStatesObj[module.moduleNumber] = moduleState;
+          lastEncoderSynchronizationTimestamp = timestamp;
         }
+        swerveModules[moduleSynchronizationIndex].checkEncoderSynchronization(timestamp);
+        moduleSynchronizationIndex = (moduleSynchronizationIndex + 1) % swerveModules.length;
       }
 
-      // If the robot isn't moving synchronize the encoders every 100ms (Inspired by democrat's SDS
-      // lib)
-      // To ensure that everytime we initialize it works.
-      if (sumVelocity <= .01 && ++moduleSynchronizationCounter > 5)
+      if (info && timestamp - lastSummaryTimestamp >= summaryPeriodSeconds)
       {
-        synchronizeModuleEncoders();
-        moduleSynchronizationCounter = 0;
+        lastSummaryTimestamp = timestamp;
+        telemetry.deviceHealth = getDeviceHealthSummary();
+        telemetry.encoderDrift = getEncoderDriftSummary();
+      }
+      if (info)
+      {
+        telemetry.updateData();
       }
 
-      if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.INFO.ordinal())
+      if (inputsLog != null)
       {
-        SwerveDriveTelemetry.updateData();
+        inputsLog.endFrame(timestamp);
       }
+      lastOdometryTimestamp = timestamp;
     } catch (Exception e)
     {
       odometryLock.unlock();
       throw e;
     }
     odometryLock.unlock();
-    SwerveDriveTelemetry.endOdomCycle();
+    telemetry.endOdomCycle();
+  }
+
+  /**
+   * Get a compact summary of the encoder drift of every module, to spot failing absolute encoders. Odometry telemetry
+   * rebuilds it at most every 100ms.
+   *
+   * @return Drift summary of each module joined by "; ".
+   */
+  public String getEncoderDriftSummary()
+  {
+    StringBuilder summary = new StringBuilder();
+    for (SwerveModule module : swerveModules)
+    {
+      if (summary.length() > 0)
+      {
+        summary.append("; ");
+      }
+      summary.append(module.getEncoderDrift().getSummary());
+    }
+    return summary.toString();
+  }
+
+  /**
+   * Get a compact summary of the degraded swerve devices. Only the absolute encoders are monitored, the motor and IMU
+   * wrappers do not report failed reads. Odometry telemetry rebuilds it at most every 100ms.
+   *
+   * @return "OK" when every monitored device is healthy, otherwise the summary of each degraded device.
+   */
+  public String getDeviceHealthSummary()
+  {
+    StringBuilder summary = null;
+    for (SwerveModule module : swerveModules)
+    {
+      SwerveDeviceHealth health = module.getAbsoluteEncoderHealth();
+      if (!health.isHealthy())
+      {
+        summary = summary == null ? new StringBuilder() : summary.append("; ");
+        summary.append(health.getSummary());
+      }
+    }
+    return summary == null ? "OK" : summary.toString();
   }
 
   /**
@@ -1274,12 +1960,13 @@ public class SwerveDrive implements AutoCloseable
    */
   public void setGyroOffset(Rotation3d offset)
   {
-    if (SwerveDriveTelemetry.isSimulation)
+    if (swerveDriveConfiguration.simulation)
     {
       simIMU.setAngle(offset.getZ());
     } else
     {
       imu.setOffset(offset);
+      updateIMUSamplerOffset();
     }
     imuReadingCache.update();
   }
@@ -1302,7 +1989,7 @@ public class SwerveDrive implements AutoCloseable
                                    Matrix<N3, N1> visionMeasurementStdDevs)
   {
     odometryLock.lock();
-    swerveDrivePoseEstimator.addVisionMeasurement(robotPose, timestamp, visionMeasurementStdDevs);
+    stateEstimator.addVisionMeasurement(robotPose, timestamp, visionMeasurementStdDevs);
     odometryLock.unlock();
   }
 
@@ -1317,7 +2004,7 @@ public class SwerveDrive implements AutoCloseable
   public void setVisionMeasurementStdDevs(Matrix<N3, N1> visionMeasurementStdDevs)
   {
     odometryLock.lock();
-    swerveDrivePoseEstimator.setVisionMeasurementStdDevs(visionMeasurementStdDevs);
+    stateEstimator.setVisionMeasurementStdDevs(visionMeasurementStdDevs);
     odometryLock.unlock();
   }
 
@@ -1332,7 +2019,7 @@ public class SwerveDrive implements AutoCloseable
   public void addVisionMeasurement(Pose2d robotPose, double timestamp)
   {
     odometryLock.lock();
-    swerveDrivePoseEstimator.addVisionMeasurement(robotPose, timestamp);
+    stateEstimator.addVisionMeasurement(robotPose, timestamp);
 //    Pose2d newOdometry = new Pose2d(swerveDrivePoseEstimator.getEstimatedPosition().getTranslation(),
 //                                    robotPose.getRotation());
     odometryLock.unlock();
@@ -1356,6 +2043,17 @@ public class SwerveDrive implements AutoCloseable
     return swerveController;
   }
 
+  /**
+   * Get the group of every drive and angle motor, refreshed once per odometry cycle. Phoenix 6 motors in it read the
+   * values of the last refresh.
+   *
+   * @return {@link SwerveMotorGroup} ordered drive then angle motor of each module by module number.
+   */
+  public SwerveMotorGroup getMotorGroup()
+  {
+    return motorGroup;
+  }
+
   /**
    * Get the {@link SwerveModule}s associated with the {@link SwerveDrive}.
    *
@@ -1494,7 +2192,7 @@ public class SwerveDrive implements AutoCloseable
    */
   public void setChassisDiscretization(boolean enable, double dtSeconds)
   {
-    if (!SwerveDriveTelemetry.isSimulation)
+    if (!swerveDriveConfiguration.simulation)
     {
       chassisVelocityCorrection = enable;
       discretizationdtSeconds = dtSeconds;
@@ -1513,7 +2211,7 @@ public class SwerveDrive implements AutoCloseable
    */
   public void setChassisDiscretization(boolean useInTeleop, boolean useInAuto, double dtSeconds)
   {
-    if (!SwerveDriveTelemetry.isSimulation)
+    if (!swerveDriveConfiguration.simulation)
     {
       chassisVelocityCorrection = useInTeleop;
       autonomousChassisVelocityCorrection = useInAuto;
@@ -1537,7 +2235,7 @@ public class SwerveDrive implements AutoCloseable
    */
   public void setAngularVelocityCompensation(boolean useInTeleop, boolean useInAuto, double angularVelocityCoeff)
   {
-    if (!SwerveDriveTelemetry.isSimulation)
+    if (!swerveDriveConfiguration.simulation)
     {
       angularVelocityCorrection = useInTeleop;
       autonomousAngularVelocityCorrection = useInAuto;
@@ -1606,6 +2304,36 @@ public class SwerveDrive implements AutoCloseable
                                                     chassisVelocityCorrection,
                                                     angularVelocityCorrection);
     }
-    return kinematics.toSwerveModuleStates(robotRelativeVelocity);
+    return toModuleStates(robotRelativeVelocity, Translation2d.kZero);
+  }
+
+  /**
+   * Inverse kinematics through the kinematics in use, the {@link SwerveKinematicsKernel} when
+   * {@link SwerveDrive#kinematicsKernelEnabled} is set, so every path shares the module headings kept for a stopped
+   * chassis.
+   *
+   * @param robotRelativeVelocity  {@link ChassisSpeeds} velocity to use.
+   * @param centerOfRotationMeters The center of rotation in meters, 0 is the center of the robot.
+   * @return {@link SwerveModuleState[]} for each module.
+   */
+  private SwerveModuleState[] toModuleStates(ChassisSpeeds robotRelativeVelocity, Translation2d centerOfRotationMeters)
+  {
+    if (!kinematicsKernelEnabled)
+    {
+      return kinematics.toSwerveModuleStates(robotRelativeVelocity, centerOfRotationMeters);
+    }
+    double[] speeds = new double[swerveModules.length];
+    double[] angles = new double[swerveModules.length];
+    kinematicsKernel.toModuleStates(robotRelativeVelocity.vxMetersPerSecond,
+                                    robotRelativeVelocity.vyMetersPerSecond,
+                                    robotRelativeVelocity.omegaRadiansPerSecond,
+                                    centerOfRotationMeters.getX(), centerOfRotationMeters.getY(),
+                                    speeds, angles);
+    SwerveModuleState[] states = new SwerveModuleState[swerveModules.length];
+    for (int i = 0; i < states.length; i++)
+    {
+      states[i] = new SwerveModuleState(speeds[i], Rotation2d.fromRadians(angles[i]));
+    }
+    return states;
   }
 }
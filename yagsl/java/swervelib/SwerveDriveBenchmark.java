@@ -0,0 +1,596 @@
+package swervelib;
+
+import static edu.wpi.first.units.Units.Seconds;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.units.measure.Time;
+import edu.wpi.first.wpilibj.Timer;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+import swervelib.estimator.SwerveStateEstimator;
+import swervelib.math.SwerveKinematicsKernel;
+import swervelib.math.SwerveShotEvaluator;
+import swervelib.parser.SwerveParser;
+import swervelib.simulation.ironmaple.simulation.PhysicsQuality;
+import swervelib.simulation.ironmaple.simulation.SimulatedArena;
+import swervelib.simulation.ironmaple.simulation.gamepieces.GamePieceOnFieldSimulation;
+
+/**
+ * Class to benchmark the swerve drive and its simulation. Timing results are only meaningful on the hardware they are
+ * meant for, run them on the roboRIO or the simulation host.
+ */
+public class SwerveDriveBenchmark
+{
+
+  /**
+   * Compare a candidate {@link SwerveStateEstimator} against the estimator of the swerve drive on the same inputs. Both
+   * estimators receive every odometry update while the robot drives a weaving path with a varying rotation, and each is
+   * compared against the simulated pose of the drivetrain every cycle. The odometry thread is stopped and the drive is
+   * advanced with {@link SwerveDrive#step()} in lockstep on the arena clock, so each update is stamped with the time
+   * the physics actually reached. Lockstep and the FPGA clock are restored afterwards unless lockstep was already on,
+   * as is the original estimator. Only valid in simulation.
+   *
+   * @param swerveDrive {@link SwerveDrive} to drive, its current estimator is the baseline.
+   * @param candidate   {@link SwerveStateEstimator} to compare, such as
+   *                    {@link swervelib.estimator.ExtendedKalmanFilterSwerve}.
+   * @param cycles      Odometry cycles to run, the first tenth are discarded as warmup for the timing.
+   * @return [baseline RMS position error in meters, candidate RMS position error in meters, baseline RMS heading error
+   *     in radians, candidate RMS heading error in radians, baseline mean update time in seconds, candidate mean update
+   *     time in seconds].
+   */
+  public static double[] compareStateEstimators(SwerveDrive swerveDrive, SwerveStateEstimator candidate, int cycles)
+  {
+    SwerveStateEstimator baseline = swerveDrive.getStateEstimator();
+    PairedStateEstimator paired   = new PairedStateEstimator(baseline, candidate, cycles);
+    boolean              lockstep = SimulatedArena.isLockstep();
+    double[]             errors   = new double[4];
+    swerveDrive.stopOdometryThread();
+    if (!lockstep)
+    {
+      SimulatedArena.enableLockstep(4150);
+      swerveDrive.setTimestampSupplier(SimulatedArena::getTimeSeconds);
+    }
+    swerveDrive.resetOdometry(swerveDrive.getSimulationDriveTrainPose().orElseThrow());
+    swerveDrive.setStateEstimator(paired);
+    try
+    {
+      double start = SimulatedArena.getTimeSeconds();
+      for (int i = 0; i < cycles; i++)
+      {
+        double t = SimulatedArena.getTimeSeconds() - start;
+        swerveDrive.driveFieldOriented(new ChassisSpeeds(2 * Math.cos(0.5 * t), 1.5 * Math.sin(0.7 * t),
+                                                         1.5 * Math.sin(0.3 * t)));
+        swerveDrive.step();
+        Pose2d truth = swerveDrive.getSimulationDriveTrainPose().orElseThrow();
+        for (int e = 0; e < 2; e++)
+        {
+          Pose2d estimate = (e == 0 ? baseline : candidate).getEstimatedPosition();
+          errors[e] += Math.pow(estimate.getTranslation().getDistance(truth.getTranslation()), 2) / cycles;
+          errors[e + 2] += Math.pow(estimate.getRotation().minus(truth.getRotation()).getRadians(), 2) / cycles;
+        }
+      }
+    } finally
+    {
+      swerveDrive.setStateEstimator(baseline);
+      if (!lockstep)
+      {
+        SimulatedArena.disableLockstep();
+        swerveDrive.setTimestampSupplier(Timer::getFPGATimestamp);
+      }
+    }
+    return new double[]{Math.sqrt(errors[0]), Math.sqrt(errors[1]), Math.sqrt(errors[2]), Math.sqrt(errors[3]),
+                        paired.baselineTimer.mean(), paired.candidateTimer.mean()};
+  }
+
+  /**
+   * Compare the {@link SwerveKinematicsKernel} against the WPILib kinematics of the same modules on random chassis
+   * speeds, then time each one discretizing, solving the inverse kinematics and desaturating. Module states are
+   * compared as velocity vectors so stopped modules with different headings do not count. Both kinematics are built
+   * fresh from the module locations so the headings kept by the drive are left alone.
+   *
+   * @param swerveDrive {@link SwerveDrive} whose module locations and maximum module speed to use.
+   * @param samples     Number of random chassis speeds, the first tenth are discarded as warmup for the timing.
+   * @return [largest absolute difference in meters per second, WPILib mean time in seconds, kernel mean time in
+   *     seconds].
+   */
+  public static double[] benchmarkKinematicsKernel(SwerveDrive swerveDrive, int samples)
+  {
+    Translation2d[]        locations   = swerveDrive.swerveDriveConfiguration.moduleLocationsMeters;
+    SwerveDriveKinematics  kinematics  = new SwerveDriveKinematics(locations);
+    SwerveKinematicsKernel kernel      = new SwerveKinematicsKernel(locations);
+    double                 maxSpeed    = swerveDrive.getMaximumModuleDriveVelocity();
+    Random                 random      = new Random(0);
+    double[]               speeds      = new double[locations.length];
+    double[]               angles      = new double[locations.length];
+    double[]               chassis     = new double[3];
+    BenchmarkTimer         wpilibTimer = new BenchmarkTimer(samples);
+    BenchmarkTimer         kernelTimer = new BenchmarkTimer(samples);
+    double                 maxError    = 0;
+    for (int i = 0; i < samples; i++)
+    {
+      ChassisSpeeds speed = new ChassisSpeeds(random.nextDouble(-5, 5),
+                                              random.nextDouble(-5, 5),
+                                              random.nextDouble(-2 * Math.PI, 2 * Math.PI));
+
+      wpilibTimer.start();
+      SwerveModuleState[] expected = kinematics.toSwerveModuleStates(ChassisSpeeds.discretize(speed, 0.02));
+      SwerveDriveKinematics.desaturateWheelSpeeds(expected, maxSpeed);
+      wpilibTimer.stop();
+
+      kernelTimer.start();
+      SwerveKinematicsKernel.discretize(speed.vxMetersPerSecond, speed.vyMetersPerSecond,
+                                        speed.omegaRadiansPerSecond, 0.02, chassis);
+      kernel.toModuleStates(chassis[0], chassis[1], chassis[2], 0, 0, speeds, angles);
+      SwerveKinematicsKernel.desaturate(speeds, maxSpeed);
+      kernelTimer.stop();
+
+      for (int m = 0; m < locations.length; m++)
+      {
+        double expectedX = expected[m].speedMetersPerSecond * expected[m].angle.getCos();
+        double expectedY = expected[m].speedMetersPerSecond * expected[m].angle.getSin();
+        maxError = Math.max(maxError, Math.abs(expectedX - speeds[m] * Math.cos(angles[m])));
+        maxError = Math.max(maxError, Math.abs(expectedY - speeds[m] * Math.sin(angles[m])));
+      }
+    }
+    return new double[]{maxError, wpilibTimer.mean(), kernelTimer.mean()};
+  }
+
+  /**
+   * Solve random drive to pose problems with a {@link SwerveModelPredictiveController}, integrating its commands as a
+   * perfect robot would, and report the solve time percentiles. Run on the roboRIO to check the time budget holds.
+   *
+   * @param controller {@link SwerveModelPredictiveController} to benchmark.
+   * @param solves     Number of solves, the first tenth are discarded as warmup.
+   * @return Solve times in seconds, [50th, 90th, 99th percentile, maximum].
+   */
+  public static double[] benchmarkModelPredictiveController(SwerveModelPredictiveController controller, int solves)
+  {
+    Random         random   = new Random(0);
+    double         dt       = 0.02;
+    Pose2d         pose     = Pose2d.kZero;
+    ChassisSpeeds  velocity = new ChassisSpeeds();
+    Pose2d         goal     = pose;
+    BenchmarkTimer timer    = new BenchmarkTimer(solves);
+    for (int i = 0; i < solves; i++)
+    {
+      if (i % 100 == 0)
+      {
+        goal = new Pose2d(random.nextDouble(0, 16), random.nextDouble(0, 8),
+                          Rotation2d.fromRadians(random.nextDouble(-Math.PI, Math.PI)));
+      }
+      timer.start();
+      ChassisSpeeds command = controller.calculateFieldRelative(pose, velocity, goal);
+      timer.stop();
+      pose = new Pose2d(pose.getX() + command.vxMetersPerSecond * dt,
+                        pose.getY() + command.vyMetersPerSecond * dt,
+                        pose.getRotation().plus(Rotation2d.fromRadians(command.omegaRadiansPerSecond * dt)));
+      velocity = command;
+    }
+    return timer.percentiles(0.5, 0.9, 0.99, 1);
+  }
+
+  /**
+   * Evaluate random shots with a {@link SwerveShotEvaluator} and report the evaluation time. Each shot is from 2 to 6
+   * meters away at a 50 degree launch angle with the launch speed that puts the noiseless trajectory through the center
+   * of a 2 meter high target. Run on the roboRIO to check the samples fit in the loop.
+   *
+   * @param evaluator {@link SwerveShotEvaluator} to benchmark.
+   * @param shots     Number of shots, the first tenth are discarded as warmup.
+   * @return [50th percentile, 99th percentile, maximum evaluation time in seconds, mean hit probability].
+   */
+  public static double[] benchmarkShotEvaluator(SwerveShotEvaluator evaluator, int shots)
+  {
+    Random         random         = new Random(0);
+    double         angle          = Math.toRadians(50);
+    double         height         = 2;
+    Translation3d  tolerance      = new Translation3d(0.3, 0.3, 0.15);
+    BenchmarkTimer timer          = new BenchmarkTimer(shots);
+    double         hitProbability = 0;
+    for (int i = 0; i < shots; i++)
+    {
+      double     distance = random.nextDouble(2, 6);
+      Rotation2d heading  = Rotation2d.fromRadians(random.nextDouble(-Math.PI, Math.PI));
+      double     speed    = Math.sqrt(9.81 * distance * distance /
+                                      (2 * Math.pow(Math.cos(angle), 2) * (distance * Math.tan(angle) - height)));
+      timer.start();
+      SwerveShotEvaluator.Result result = evaluator.evaluate(new Translation3d(distance * heading.getCos(),
+                                                                               distance * heading.getSin(),
+                                                                               height),
+                                                             tolerance, speed, angle, heading, 0, 0);
+      timer.stop();
+      hitProbability += result.hitProbability / shots;
+    }
+    double[] times = timer.percentiles(0.5, 0.99, 1);
+    return new double[]{times[0], times[1], times[2], hitProbability};
+  }
+
+  /**
+   * Benchmark a simulated fleet sharing one arena, adding one robot at a time from the same
+   * configuration. Each cycle drives every robot and updates the odometry of every robot, the first robot also advancing
+   * the arena. The odometry threads are stopped so the cycle is timed on the calling thread. Only valid in simulation.
+   *
+   * @param directory Swerve configuration directory.
+   * @param maxSpeed  Maximum speed in meters per second.
+   * @param robots    Largest fleet size.
+   * @param cycles    Cycles per fleet size, the first tenth are discarded as warmup.
+   * @return Mean cycle time in seconds for 1 to robots robots.
+   * @throws IOException if the configuration cannot be read.
+   */
+  public static double[] benchmarkFleet(File directory, double maxSpeed, int robots, int cycles) throws IOException
+  {
+    List<SwerveDrive> fleet   = new ArrayList<>();
+    double[]          results = new double[robots];
+    ChassisSpeeds     command = new ChassisSpeeds(1, 0, 0.5);
+    try
+    {
+      for (int n = 1; n <= robots; n++)
+      {
+        SwerveDrive drive = new SwerveParser(directory).withName("fleet")
+                                                       .createSwerveDrive(maxSpeed,
+                                                                          new Pose2d(2, n, Rotation2d.kZero));
+        drive.stopOdometryThread();
+        fleet.add(drive);
+        BenchmarkTimer timer = new BenchmarkTimer(cycles);
+        for (int i = 0; i < cycles; i++)
+        {
+          timer.start();
+          for (SwerveDrive robot : fleet)
+          {
+            robot.drive(command);
+          }
+          // The lead robot advances the arena once in its odometry update.
+          for (SwerveDrive robot : fleet)
+          {
+            robot.updateOdometry();
+          }
+          timer.stop();
+        }
+        results[n - 1] = timer.mean();
+      }
+    } finally
+    {
+      for (SwerveDrive robot : fleet)
+      {
+        robot.close();
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Benchmark the physics of an arena with no robots driving, such as the full 2026 field. The field is reset, then
+   * whole robot periods are stepped as fast as possible.
+   *
+   * @param arena         {@link SimulatedArena} to benchmark, its pieces are reset.
+   * @param periods       Robot periods to step, the first tenth are discarded as warmup.
+   * @param levelOfDetail Whether resting game pieces far from the robots sleep.
+   * @return [real time factor, sleeping game pieces at the end], a real time factor above 1 keeps up with real time.
+   */
+  public static double[] benchmarkArena(SimulatedArena arena, int periods, boolean levelOfDetail)
+  {
+    arena.setLevelOfDetail(levelOfDetail);
+    arena.resetFieldForAuto();
+    double         periodSeconds = SimulatedArena.getSimulationDt().in(Seconds) *
+                                   SimulatedArena.getSimulationSubTicksIn1Period();
+    BenchmarkTimer timer         = new BenchmarkTimer(periods);
+    for (int i = 0; i < periods; i++)
+    {
+      timer.start();
+      arena.simulationPeriodic();
+      timer.stop();
+    }
+    return new double[]{periodSeconds / timer.mean(), arena.getLevelOfDetail().getSleepingCount()};
+  }
+
+  /**
+   * Benchmark every {@link PhysicsQuality} on the same scenario. Each preset gets a fresh arena built in lockstep with
+   * the same seed, its field is reset and every game piece is pushed towards the field center so they pile up and
+   * collide, then whole robot periods are stepped. The trajectory error is the RMS distance between each game piece and
+   * the same piece under {@link PhysicsQuality#ACCURATE}, sampled every 10 periods.
+   *
+   * @param arenaFactory Creates the arena to benchmark, such as {@code Arena2026Rebuilt::new}.
+   * @param periods      Robot periods to step per preset, the first tenth are discarded as warmup for the timing.
+   * @return One row per preset in {@link PhysicsQuality#values()} order, [real time factor, trajectory error in
+   *     meters].
+   */
+  public static double[][] benchmarkPhysicsQuality(Supplier<SimulatedArena> arenaFactory, int periods)
+  {
+    PhysicsQuality[] qualities       = PhysicsQuality.values();
+    double[][]       results         = new double[qualities.length][2];
+    int              subTicks        = SimulatedArena.getSimulationSubTicksIn1Period();
+    Time             robotPeriod     = SimulatedArena.getSimulationDt().times(subTicks);
+    boolean          lockstep        = SimulatedArena.isLockstep();
+    List<double[]>   accurateSamples = new ArrayList<>();
+    try
+    {
+      for (int q = 0; q < qualities.length; q++)
+      {
+        SimulatedArena.enableLockstep(4150);
+        SimulatedArena arena = arenaFactory.get();
+        arena.setLevelOfDetail(false);
+        arena.setPhysicsQuality(qualities[q]);
+        SimulatedArena.overrideSimulationTimings(robotPeriod, qualities[q].getSubTicks(robotPeriod));
+        arena.resetFieldForAuto();
+
+        List<GamePieceOnFieldSimulation> pieces = new ArrayList<>(arena.gamePiecesOnField());
+        for (GamePieceOnFieldSimulation piece : pieces)
+        {
+          double dx       = 8.27 - piece.getTransform().getTranslationX();
+          double dy       = 4.03 - piece.getTransform().getTranslationY();
+          double distance = Math.max(Math.hypot(dx, dy), 1e-3);
+          piece.setLinearVelocity(2 * dx / distance, 2 * dy / distance);
+        }
+
+        BenchmarkTimer timer        = new BenchmarkTimer(periods);
+        double         squaredError = 0;
+        int            errorSamples = 0;
+        for (int i = 0; i < periods; i++)
+        {
+          timer.start();
+          arena.simulationPeriodic();
+          timer.stop();
+          if (i % 10 != 9)
+          {
+            continue;
+          }
+          double[] positions = new double[pieces.size() * 2];
+          for (int p = 0; p < pieces.size(); p++)
+          {
+            positions[2 * p] = pieces.get(p).getTransform().getTranslationX();
+            positions[2 * p + 1] = pieces.get(p).getTransform().getTranslationY();
+          }
+          if (qualities[q] == PhysicsQuality.ACCURATE)
+          {
+            accurateSamples.add(positions);
+            continue;
+          }
+          double[] accurate = accurateSamples.get(i / 10);
+          for (int p = 0; p < Math.min(positions.length, accurate.length); p += 2)
+          {
+            squaredError += Math.pow(positions[p] - accurate[p], 2) + Math.pow(positions[p + 1] - accurate[p + 1], 2);
+            errorSamples++;
+          }
+        }
+        arena.shutDown();
+        results[q][0] = robotPeriod.in(Seconds) / timer.mean();
+        results[q][1] = errorSamples == 0 ? 0 : Math.sqrt(squaredError / errorSamples);
+      }
+    } finally
+    {
+      SimulatedArena.overrideSimulationTimings(robotPeriod, subTicks);
+      if (!lockstep)
+      {
+        SimulatedArena.disableLockstep();
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Format the results of {@link SwerveDriveBenchmark#benchmarkPhysicsQuality(Supplier, int)} as a markdown table of
+   * real time factor and trajectory error per preset.
+   *
+   * @param results Rows returned by {@link SwerveDriveBenchmark#benchmarkPhysicsQuality(Supplier, int)}.
+   * @return Markdown table, one row per {@link PhysicsQuality}.
+   */
+  public static String formatPhysicsQualityTable(double[][] results)
+  {
+    StringBuilder    table     = new StringBuilder("| Preset | Real time factor | Trajectory error (m) |\n");
+    PhysicsQuality[] qualities = PhysicsQuality.values();
+    table.append("|---|---|---|\n");
+    for (int q = 0; q < qualities.length; q++)
+    {
+      table.append(String.format("| %s | %.2f | %.4f |\n", qualities[q], results[q][0], results[q][1]));
+    }
+    return table.toString();
+  }
+
+  /**
+   * Times the runs of a benchmark, the first tenth of the runs are discarded as warmup.
+   */
+  private static class BenchmarkTimer
+  {
+
+    /**
+     * Run times in seconds after the warmup.
+     */
+    private final double[] times;
+    /**
+     * Runs discarded as warmup.
+     */
+    private final int      warmup;
+    /**
+     * Runs stopped so far, including the warmup.
+     */
+    private       int      runs = 0;
+    /**
+     * {@link System#nanoTime()} at the start of the current run.
+     */
+    private       long     start;
+
+    /**
+     * Create the timer.
+     *
+     * @param runs Number of runs the benchmark makes.
+     */
+    BenchmarkTimer(int runs)
+    {
+      warmup = runs / 10;
+      times = new double[runs - warmup];
+    }
+
+    /**
+     * Start a run.
+     */
+    void start()
+    {
+      start = System.nanoTime();
+    }
+
+    /**
+     * Stop the current run and record its time unless it is part of the warmup.
+     */
+    void stop()
+    {
+      long elapsed = System.nanoTime() - start;
+      if (runs >= warmup && runs - warmup < times.length)
+      {
+        times[runs - warmup] = elapsed * 1e-9;
+      }
+      runs++;
+    }
+
+    /**
+     * Get the number of recorded runs.
+     *
+     * @return Runs recorded after the warmup.
+     */
+    private int count()
+    {
+      return Math.max(0, Math.min(runs - warmup, times.length));
+    }
+
+    /**
+     * Get the mean run time.
+     *
+     * @return Mean time in seconds of the recorded runs.
+     */
+    double mean()
+    {
+      double total = 0;
+      for (int i = 0; i < count(); i++)
+      {
+        total += times[i];
+      }
+      return total / count();
+    }
+
+    /**
+     * Get percentiles of the run time.
+     *
+     * @param fractions Percentiles as fractions, 1 for the maximum.
+     * @return Run times in seconds at each percentile.
+     */
+    double[] percentiles(double... fractions)
+    {
+      double[] sorted = Arrays.copyOf(times, count());
+      Arrays.sort(sorted);
+      double[] results = new double[fractions.length];
+      for (int i = 0; i < fractions.length; i++)
+      {
+        results[i] = sorted[Math.min(sorted.length - 1, (int) (sorted.length * fractions[i]))];
+      }
+      return results;
+    }
+  }
+
+  /**
+   * Feeds the same odometry updates to two estimators and times each, the pose of the first is reported.
+   */
+  private static class PairedStateEstimator extends SwerveStateEstimator
+  {
+
+    /**
+     * Estimator whose pose is reported.
+     */
+    private final SwerveStateEstimator baseline;
+    /**
+     * Estimator fed the same updates.
+     */
+    private final SwerveStateEstimator candidate;
+    /**
+     * Update times of each estimator.
+     */
+    private final BenchmarkTimer       baselineTimer, candidateTimer;
+
+    /**
+     * Pair two estimators.
+     *
+     * @param baseline  Estimator whose pose is reported.
+     * @param candidate Estimator fed the same updates.
+     * @param updates   Number of updates expected, for the timers.
+     */
+    PairedStateEstimator(SwerveStateEstimator baseline, SwerveStateEstimator candidate, int updates)
+    {
+      this.baseline = baseline;
+      this.candidate = candidate;
+      baselineTimer = new BenchmarkTimer(updates);
+      candidateTimer = new BenchmarkTimer(updates);
+    }
+
+    @Override
+    public void resetPosition(Rotation2d gyroAngle, SwerveModulePosition[] modulePositions, Pose2d pose)
+    {
+      baseline.resetPosition(gyroAngle, modulePositions, pose);
+      candidate.resetPosition(gyroAngle, modulePositions, pose);
+    }
+
+    @Override
+    public void update(double timestampSeconds, Rotation2d gyroAngle, double gyroRateRadiansPerSecond,
+                       Optional<Translation3d> acceleration, SwerveModulePosition[] modulePositions)
+    {
+      baselineTimer.start();
+      baseline.update(timestampSeconds, gyroAngle, gyroRateRadiansPerSecond, acceleration, modulePositions);
+      baselineTimer.stop();
+      candidateTimer.start();
+      candidate.update(timestampSeconds, gyroAngle, gyroRateRadiansPerSecond, acceleration, modulePositions);
+      candidateTimer.stop();
+    }
+
+    @Override
+    public Pose2d getEstimatedPosition()
+    {
+      return baseline.getEstimatedPosition();
+    }
+
+    @Override
+    public void addVisionMeasurement(Pose2d visionRobotPose, double timestampSeconds)
+    {
+      baseline.addVisionMeasurement(visionRobotPose, timestampSeconds);
+      candidate.addVisionMeasurement(visionRobotPose, timestampSeconds);
+    }
+
+    @Override
+    public void addVisionMeasurement(Pose2d visionRobotPose, double timestampSeconds,
+                                     Matrix<N3, N1> visionMeasurementStdDevs)
+    {
+      baseline.addVisionMeasurement(visionRobotPose, timestampSeconds, visionMeasurementStdDevs);
+      candidate.addVisionMeasurement(visionRobotPose, timestampSeconds, visionMeasurementStdDevs);
+    }
+
+    @Override
+    public void setVisionMeasurementStdDevs(Matrix<N3, N1> visionMeasurementStdDevs)
+    {
+      baseline.setVisionMeasurementStdDevs(visionMeasurementStdDevs);
+      candidate.setVisionMeasurementStdDevs(visionMeasurementStdDevs);
+    }
+
+    @Override
+    public boolean usesGyroRate()
+    {
+      return baseline.usesGyroRate() || candidate.usesGyroRate();
+    }
+
+    @Override
+    public boolean usesAcceleration()
+    {
+      return baseline.usesAcceleration() || candidate.usesAcceleration();
+    }
+  }
+}
@@ -0,0 +1,368 @@
+package swervelib;
+
+import static edu.wpi.first.units.Units.Volts;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import java.util.function.DoubleSupplier;
+import swervelib.parser.SwerveModuleConfiguration;
+import swervelib.simulation.ironmaple.simulation.motorsims.SimulatedBattery;
+import swervelib.telemetry.SwerveDriveTelemetry;
+
+/**
+ * Battery aware power governor between {@link SwerveDrive#drive(ChassisSpeeds, boolean, Translation2d)} and the
+ * modules. Every cycle it predicts the supply current the drive and steer motors will draw to reach the requested
+ * chassis speeds from the measured ones, using the {@link DCMotor} models of the modules, and scales the requested
+ * acceleration so the predicted bus voltage stays above a floor. Speeds already reached are never reduced, only how
+ * hard the robot accelerates towards new ones. Only the part of each wheel's acceleration along its direction of travel
+ * loads the drive motor, and braking regenerates, so decelerating is never limited.
+ * <p>
+ * The open circuit voltage of the battery is estimated from the measured voltage and the previous prediction, so loads
+ * outside the drivetrain are accounted for by the measurement. In simulation the voltage of the
+ * {@link SimulatedBattery} is used.
+ */
+public class SwerveDrivePowerGovernor
+{
+
+  /**
+   * Standard gravity in meters per second squared.
+   */
+  private static final double          GRAVITY                    = 9.81;
+  /**
+   * Bisection iterations used to find the acceleration scale.
+   */
+  private static final int             ITERATIONS                 = 12;
+  /**
+   * Drive motor models.
+   */
+  private final        DCMotor[]       driveMotors;
+  /**
+   * Steer motor models.
+   */
+  private final        DCMotor[]       steerMotors;
+  /**
+   * Module x locations in meters.
+   */
+  private final        double[]        moduleX;
+  /**
+   * Module y locations in meters.
+   */
+  private final        double[]        moduleY;
+  /**
+   * Drive gear ratios.
+   */
+  private final        double[]        driveGearRatios;
+  /**
+   * Steer gear ratios.
+   */
+  private final        double[]        steerGearRatios;
+  /**
+   * Wheel radii in meters.
+   */
+  private final        double[]        wheelRadii;
+  /**
+   * Drive stator current limits in amps.
+   */
+  private final        double[]        driveCurrentLimits;
+  /**
+   * Steer stator current limits in amps.
+   */
+  private final        double[]        steerCurrentLimits;
+  /**
+   * Steer rotational inertia of each module in kilogram square meters.
+   */
+  private final        double[]        steerInertia;
+  /**
+   * Swerve modules.
+   */
+  private final        SwerveModule[]  modules;
+  /**
+   * Mass carried by each module in kilograms.
+   */
+  private final        double          massPerModuleKg;
+  /**
+   * Most force each wheel can put on the carpet in newtons.
+   */
+  private final        double          maxWheelForceNewtons;
+  /**
+   * Scratch array for the measured chassis speeds.
+   */
+  private final        double[]        measured                   = new double[3];
+  /**
+   * Timestamp source in seconds, the odometry clock of the drive.
+   */
+  private final        DoubleSupplier  timestampSupplier;
+  /**
+   * Internal resistance of the battery and wiring in ohms.
+   */
+  public               double          batteryResistanceOhms      = 0.02;
+  /**
+   * Predicted bus voltage the governor keeps the drivetrain above in volts.
+   */
+  public               double          minimumVoltage;
+  /**
+   * Timestamp of the previous cycle in seconds.
+   */
+  private              double          lastTimestamp              = Double.NaN;
+  /**
+   * Supply current predicted for the previous cycle in amps.
+   */
+  private              double          lastPredictedCurrent       = 0;
+  /**
+   * Predicted bus voltage of the previous cycle in volts.
+   */
+  private              double          predictedVoltage           = Double.NaN;
+  /**
+   * Acceleration scale applied in the previous cycle in [0, 1].
+   */
+  private              double          scale                      = 1;
+
+  /**
+   * Create the power governor.
+   *
+   * @param modules           Swerve modules of the drivetrain.
+   * @param minimumVoltage    Predicted bus voltage to stay above in volts, should be above the roboRIO brownout
+   *                          voltage.
+   * @param timestampSupplier Timestamp source in seconds used for the cycle time, the odometry clock of the drive.
+   */
+  public SwerveDrivePowerGovernor(SwerveModule[] modules, double minimumVoltage, DoubleSupplier timestampSupplier)
+  {
+    this.modules = modules;
+    this.timestampSupplier = timestampSupplier;
+    this.minimumVoltage = minimumVoltage;
+    int count = modules.length;
+    driveMotors = new DCMotor[count];
+    steerMotors = new DCMotor[count];
+    moduleX = new double[count];
+    moduleY = new double[count];
+    driveGearRatios = new double[count];
+    steerGearRatios = new double[count];
+    wheelRadii = new double[count];
+    driveCurrentLimits = new double[count];
+    steerCurrentLimits = new double[count];
+    steerInertia = new double[count];
+    for (int i = 0; i < count; i++)
+    {
+      SwerveModuleConfiguration configuration = modules[i].configuration;
+      driveMotors[i] = configuration.driveMotor.getSimMotor();
+      steerMotors[i] = configuration.angleMotor.getSimMotor();
+      moduleX[i] = configuration.moduleLocation.getX();
+      moduleY[i] = configuration.moduleLocation.getY();
+      driveGearRatios[i] = configuration.conversionFactors.drive.gearRatio;
+      steerGearRatios[i] = configuration.conversionFactors.angle.gearRatio;
+      wheelRadii[i] = Units.inchesToMeters(configuration.conversionFactors.drive.diameter) / 2;
+      driveCurrentLimits[i] = configuration.physicalCharacteristics.driveMotorCurrentLimit;
+      steerCurrentLimits[i] = configuration.physicalCharacteristics.angleMotorCurrentLimit;
+      steerInertia[i] = configuration.physicalCharacteristics.steerRotationalInertia;
+    }
+    double massKg = modules[0].configuration.physicalCharacteristics.robotMassKg;
+    massPerModuleKg = massKg / count;
+    maxWheelForceNewtons = massPerModuleKg * GRAVITY *
+                           modules[0].configuration.physicalCharacteristics.wheelGripCoefficientOfFriction;
+  }
+
+  /**
+   * Limit the acceleration towards the requested robot relative chassis speeds in place.
+   *
+   * @param chassis  Requested [vx, vy, omega] in meters and radians per second, replaced with the governed speeds.
+   * @param measured Measured robot relative {@link ChassisSpeeds}.
+   */
+  public void calculate(double[] chassis, ChassisSpeeds measured)
+  {
+    double now = timestampSupplier.getAsDouble();
+    double dt  = Double.isNaN(lastTimestamp) ? 0.02 : MathUtil.clamp(now - lastTimestamp, 0.005, 0.1);
+    lastTimestamp = now;
+
+    this.measured[0] = measured.vxMetersPerSecond;
+    this.measured[1] = measured.vyMetersPerSecond;
+    this.measured[2] = measured.omegaRadiansPerSecond;
+
+    double busVoltage = SwerveDriveTelemetry.isSimulation ? SimulatedBattery.getBatteryVoltage().in(Volts)
+                                                          : RobotController.getBatteryVoltage();
+    if (busVoltage <= 0)
+    {
+      // No reading yet.
+      busVoltage = 12;
+    }
+    // Voltage with the drivetrain unloaded, other loads stay included in the measurement.
+    double openCircuitVoltage = busVoltage + lastPredictedCurrent * batteryResistanceOhms;
+    double steerCurrent       = predictSteerCurrent(chassis, busVoltage, dt);
+    double budget             = (openCircuitVoltage - minimumVoltage) / batteryResistanceOhms - steerCurrent;
+
+    double current = predictDriveCurrent(chassis, 1, busVoltage, dt);
+    if (current <= budget)
+    {
+      scale = 1;
+    } else
+    {
+      // Supply current grows with the acceleration scale, bisect for the largest scale within budget.
+      double low  = 0;
+      double high = 1;
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+        double mid = (low + high) / 2;
+        if (predictDriveCurrent(chassis, mid, busVoltage, dt) <= budget)
+        {
+          low = mid;
+        } else
+        {
+          high = mid;
+        }
+      }
+      scale = low;
+      current = predictDriveCurrent(chassis, scale, busVoltage, dt);
+      for (int i = 0; i < 3; i++)
+      {
+        chassis[i] = this.measured[i] + scale * (chassis[i] - this.measured[i]);
+      }
+    }
+    lastPredictedCurrent = current + steerCurrent;
+    predictedVoltage = openCircuitVoltage - lastPredictedCurrent * batteryResistanceOhms;
+  }
+
+  /**
+   * Limit the acceleration towards the requested robot relative chassis speeds.
+   *
+   * @param requested Requested robot relative {@link ChassisSpeeds}.
+   * @param measured  Measured robot relative {@link ChassisSpeeds}.
+   * @return Governed robot relative {@link ChassisSpeeds}.
+   */
+  public ChassisSpeeds calculate(ChassisSpeeds requested, ChassisSpeeds measured)
+  {
+    double[] chassis = {requested.vxMetersPerSecond, requested.vyMetersPerSecond, requested.omegaRadiansPerSecond};
+    calculate(chassis, measured);
+    return new ChassisSpeeds(chassis[0], chassis[1], chassis[2]);
+  }
+
+  /**
+   * Predict the supply current of the drive motors when accelerating a fraction of the way to the requested speeds.
+   *
+   * @param chassis    Requested [vx, vy, omega].
+   * @param scale      Fraction of the requested change in speed applied this cycle.
+   * @param busVoltage Bus voltage in volts.
+   * @param dt         Cycle time in seconds.
+   * @return Total supply current in amps.
+   */
+  private double predictDriveCurrent(double[] chassis, double scale, double busVoltage, double dt)
+  {
+    double total = 0;
+    double vx    = measured[0] + scale * (chassis[0] - measured[0]);
+    double vy    = measured[1] + scale * (chassis[1] - measured[1]);
+    double omega = measured[2] + scale * (chassis[2] - measured[2]);
+    for (int i = 0; i < moduleX.length; i++)
+    {
+      double moduleVx = vx - omega * moduleY[i];
+      double moduleVy = vy + omega * moduleX[i];
+      double ax       = moduleVx - (measured[0] - measured[2] * moduleY[i]);
+      double ay       = moduleVy - (measured[1] + measured[2] * moduleX[i]);
+      double accel    = Math.hypot(ax, ay);
+      double velocity = Math.hypot(moduleVx, moduleVy);
+      if (accel < 1e-9)
+      {
+        continue;
+      }
+      double force = Math.min(massPerModuleKg * accel / dt, maxWheelForceNewtons);
+
+      // Only the force along the direction of travel is made by the drive motor, the rest comes from steering.
+      // Negative force brakes the wheel and regenerates. From rest the wheel points along the acceleration.
+      double tangentialForce = velocity < 1e-3 ? force : force * (ax * moduleVx + ay * moduleVy) / (accel * velocity);
+      // torque (on motor) = force * wheelRadius / gearRatio, motorVelocity = linearVelocity / wheelRadius * gearRatio
+      double torque = tangentialForce * wheelRadii[i] / driveGearRatios[i];
+      double speed  = velocity / wheelRadii[i] * driveGearRatios[i];
+      total += supplyCurrent(driveMotors[i], torque, speed, driveCurrentLimits[i], busVoltage);
+    }
+    return total;
+  }
+
+  /**
+   * Predict the supply current of the steer motors turning to the requested module angles. Each module is assumed to
+   * turn with a bang-bang profile, no faster than one cycle and no faster than the steer motor's free speed.
+   *
+   * @param chassis    Requested [vx, vy, omega].
+   * @param busVoltage Bus voltage in volts.
+   * @param dt         Cycle time in seconds.
+   * @return Total supply current in amps.
+   */
+  private double predictSteerCurrent(double[] chassis, double busVoltage, double dt)
+  {
+    double total = 0;
+    for (int i = 0; i < moduleX.length; i++)
+    {
+      double moduleVx = chassis[0] - chassis[2] * moduleY[i];
+      double moduleVy = chassis[1] + chassis[2] * moduleX[i];
+      if (Math.hypot(moduleVx, moduleVy) < 1e-3)
+      {
+        // Stopped modules hold their angle.
+        continue;
+      }
+      SwerveModuleState state = modules[i].getState();
+      // Modules optimize to the nearest of the two equivalent angles, so the error wraps to [-90, 90] degrees.
+      double error = Math.abs(MathUtil.inputModulus(Math.atan2(moduleVy, moduleVx) - state.angle.getRadians(),
+                                                    -Math.PI / 2, Math.PI / 2));
+      double freeSpeed = steerMotors[i].freeSpeedRadPerSec / steerGearRatios[i];
+      double time      = Math.max(dt, error / freeSpeed);
+      // Bang-bang move of error radians in time t peaks at an acceleration of 4 * error / t^2.
+      double torque = steerInertia[i] * 4 * error / (time * time) / steerGearRatios[i];
+      total += supplyCurrent(steerMotors[i], torque, 0, steerCurrentLimits[i], busVoltage);
+    }
+    return total;
+  }
+
+  /**
+   * Supply current of a motor producing a torque at a speed, with the stator current limited by the motor controller.
+   *
+   * @param motor        Motor model.
+   * @param torque       Motor torque in newton meters, negative when braking.
+   * @param speed        Motor speed in radians per second, not negative.
+   * @param currentLimit Stator current limit in amps, 0 for none.
+   * @param busVoltage   Bus voltage in volts.
+   * @return Supply current in amps, regeneration counts as free.
+   */
+  private static double supplyCurrent(DCMotor motor, double torque, double speed, double currentLimit,
+                                      double busVoltage)
+  {
+    double stator = motor.getCurrent(torque);
+    if (currentLimit > 0)
+    {
+      stator = MathUtil.clamp(stator, -currentLimit, currentLimit);
+    }
+    double voltage = MathUtil.clamp(stator * motor.rOhms + speed / motor.KvRadPerSecPerVolt, -busVoltage, busVoltage);
+    // Supply power equals stator power, I_supply = V_applied * I_stator / V_bus.
+    return Math.max(0, voltage * stator / busVoltage);
+  }
+
+  /**
+   * Get the bus voltage predicted for the last cycle.
+   *
+   * @return Predicted voltage in volts, {@link Double#NaN} before the first cycle.
+   */
+  public double getPredictedVoltage()
+  {
+    return predictedVoltage;
+  }
+
+  /**
+   * Get the supply current predicted for the last cycle.
+   *
+   * @return Predicted drivetrain supply current in amps.
+   */
+  public double getPredictedCurrent()
+  {
+    return lastPredictedCurrent;
+  }
+
+  /**
+   * Get the acceleration scale applied in the last cycle.
+   *
+   * @return Scale in [0, 1], 1 when the requested acceleration fit the budget.
+   */
+  public double getScale()
+  {
+    return scale;
+  }
+}
@@ -14,6 +14,8 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Transform2d;
 import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.numbers.N2;
 import edu.wpi.first.math.trajectory.TrapezoidProfile.State;
@@ -29,6 +31,8 @@ import java.util.function.BooleanSupplier;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 import swervelib.math.SwerveMath;
+import swervelib.math.SwerveShotEvaluator;
+import swervelib.math.SwerveShotSolver;
 
 /**
  * Helper class to easily transform Controller inputs into workable Chassis speeds. Intended to easily create an
@@ -109,6 +113,10 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
    * {@link ProfiledPIDController} for the Rotational axis while driving to a pose. Units are m/s
    */
   private       Optional<ProfiledPIDController>  driveToPoseOmegaPIDController       = Optional.empty();
+  /**
+   * {@link SwerveModelPredictiveController} used instead of the {@link ProfiledPIDController}s while driving to a pose.
+   */
+  private       Optional<SwerveModelPredictiveController> driveToPoseController       = Optional.empty();
   /**
    * Output {@link ChassisSpeeds} based on heading while this is True.
    */
@@ -173,6 +181,18 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
    * Azimuth heading goal for aim.
    */
   private       Optional<Angle>                  aimGoalAngle                        = Optional.empty();
+  /**
+   * Shoot-on-the-move solver used to aim at a virtual target.
+   */
+  private       Optional<SwerveShotSolver>       aimShotSolver                       = Optional.empty();
+  /**
+   * Latest shoot-on-the-move solution, shared by everything reading it within a cycle.
+   */
+  private       Optional<SwerveShotSolver.Solution> aimSolution                      = Optional.empty();
+  /**
+   * Odometry timestamp {@link SwerveInputStream#aimSolution} was solved at in seconds.
+   */
+  private       double                           aimSolutionTimestamp                = Double.NaN;
   /**
    * {@link SwerveController} for simple control over heading.
    */
@@ -255,6 +275,7 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
     this.driveToPose = s.driveToPose;
     this.driveToPoseTranslationPIDController = s.driveToPoseTranslationPIDController;
     this.driveToPoseOmegaPIDController = s.driveToPoseOmegaPIDController;
+    this.driveToPoseController = s.driveToPoseController;
     this.aimTarget = s.aimTarget;
     this.headingEnabled = s.headingEnabled;
     this.aimEnabled = s.aimEnabled;
@@ -274,6 +295,7 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
     this.aimGoalAngle = s.aimGoalAngle;
     this.aimHeadingOffset = s.aimHeadingOffset;
     this.aimHeadingOffsetEnabled = s.aimHeadingOffsetEnabled;
+    this.aimShotSolver = s.aimShotSolver;
   }
 
   /**
@@ -328,6 +350,25 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
     driveToPose = Optional.of(pose);
     driveToPoseTranslationPIDController = Optional.of(xPIDController);
     driveToPoseOmegaPIDController = Optional.of(omegaPIDController);
+    driveToPoseController = Optional.empty();
+    return this;
+  }
+
+  /**
+   * Drive to a given pose with a {@link SwerveModelPredictiveController}, which plans around the module acceleration
+   * limit instead of overshooting.
+   *
+   * @param pose       {@link Supplier<Pose2d>} for ease of use.
+   * @param controller {@link SwerveModelPredictiveController} to drive with.
+   * @return self
+   */
+  public SwerveInputStream driveToPose(Supplier<Pose2d> pose, SwerveModelPredictiveController controller)
+  {
+    controller.reset();
+    driveToPose = Optional.of(pose);
+    driveToPoseController = Optional.of(controller);
+    driveToPoseTranslationPIDController = Optional.empty();
+    driveToPoseOmegaPIDController = Optional.empty();
     return this;
   }
 
@@ -608,6 +649,112 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
     return this;
   }
 
+  /**
+   * Shoot on the move while aiming. Instead of the target the {@link SwerveDrive} aims at a virtual target which
+   * compensates for the robot's field velocity during the time of flight, and the yaw rate needed to keep aiming at it
+   * is added as feedforward. Applied after {@link SwerveInputStream#aimLookahead(Time)}.
+   *
+   * @param timeOfFlight Distance to the target in meters to time of flight in seconds.
+   * @return {@link SwerveInputStream} for chaining.
+   */
+  public SwerveInputStream aimShootOnTheMove(InterpolatingDoubleTreeMap timeOfFlight)
+  {
+    return aimShootOnTheMove(new SwerveShotSolver(timeOfFlight));
+  }
+
+  /**
+   * Shoot on the move while aiming with the given solver.
+   *
+   * @param solver {@link SwerveShotSolver} to use.
+   * @return {@link SwerveInputStream} for chaining.
+   */
+  public SwerveInputStream aimShootOnTheMove(SwerveShotSolver solver)
+  {
+    this.aimShotSolver = Optional.of(solver);
+    this.aimSolution = Optional.empty();
+    return this;
+  }
+
+  /**
+   * Get the shoot-on-the-move solution for the current cycle. Solved at most once per odometry update, so the aim
+   * heading, the {@link SwerveInputStream#aimLock(Angle)} trigger and a shooter reading the time of flight agree.
+   *
+   * @return {@link SwerveShotSolver.Solution}, empty without a target or solver.
+   */
+  public Optional<SwerveShotSolver.Solution> getAimSolution()
+  {
+    if (aimShotSolver.isEmpty() || aimTarget.isEmpty())
+    {
+      return Optional.empty();
+    }
+    double odometryTimestamp = swerveDrive.getLastOdometryTimestamp();
+    if (aimSolution.isEmpty() || odometryTimestamp != aimSolutionTimestamp)
+    {
+      ChassisSpeeds fieldVelocity = swerveDrive.getFieldVelocity();
+      aimSolution = Optional.of(aimShotSolver.get().solve(getTargetVector(aimTarget.get().get()),
+                                                          fieldVelocity.vxMetersPerSecond,
+                                                          fieldVelocity.vyMetersPerSecond));
+      aimSolutionTimestamp = odometryTimestamp;
+    }
+    return aimSolution;
+  }
+
+  /**
+   * Estimate whether a shot released now from the robot's current pose would hit the aim target, for a driver
+   * indicator or to gate the release in auto. The shot leaves in the direction the robot is facing with the robot's
+   * field velocity, including the velocity of the shooter due to the robot's rotation.
+   *
+   * @param evaluator          {@link SwerveShotEvaluator} holding the noise of the shot.
+   * @param shooterOnRobot     Position of the shooter relative to the robot center in meters, Z is its height above
+   *                           the floor.
+   * @param launchSpeedMPS     Launch speed relative to the robot in meters per second.
+   * @param launchAngleRadians Launch angle above the horizon in radians.
+   * @param targetHeightMeters Height of the center of the target above the floor in meters.
+   * @param tolerance          Half size of the target box on each axis in meters.
+   * @return {@link SwerveShotEvaluator.Result} of the shot, empty without an aim target.
+   */
+  public Optional<SwerveShotEvaluator.Result> evaluateAimShot(SwerveShotEvaluator evaluator,
+                                                              Translation3d shooterOnRobot, double launchSpeedMPS,
+                                                              double launchAngleRadians, double targetHeightMeters,
+                                                              Translation3d tolerance)
+  {
+    if (aimTarget.isEmpty())
+    {
+      return Optional.empty();
+    }
+    Pose2d        pose          = swerveDrive.getPose();
+    ChassisSpeeds fieldVelocity = swerveDrive.getFieldVelocity();
+    Translation2d shooter       = shooterOnRobot.toTranslation2d().rotateBy(pose.getRotation());
+    Translation2d target        = aimTarget.get().get().getTranslation().minus(pose.getTranslation()).minus(shooter);
+    double        omega         = fieldVelocity.omegaRadiansPerSecond;
+    return Optional.of(evaluator.evaluate(new Translation3d(target.getX(),
+                                                            target.getY(),
+                                                            targetHeightMeters - shooterOnRobot.getZ()),
+                                          tolerance,
+                                          launchSpeedMPS,
+                                          launchAngleRadians,
+                                          pose.getRotation(),
+                                          fieldVelocity.vxMetersPerSecond - omega * shooter.getY(),
+                                          fieldVelocity.vyMetersPerSecond + omega * shooter.getX()));
+  }
+
+  /**
+   * Get the heading to aim at, including the heading offset when enabled.
+   *
+   * @return Field relative {@link Rotation2d} to aim at.
+   */
+  private Rotation2d getAimHeading()
+  {
+    Rotation2d target = getAimSolution().map(solution -> solution.heading)
+                                        .orElseGet(() -> getTargetVector(aimTarget.orElseThrow().get()).getAngle());
+    if (aimHeadingOffsetEnabled.isPresent() && aimHeadingOffsetEnabled.get().getAsBoolean() &&
+        aimHeadingOffset.isPresent())
+    {
+      target = target.plus(aimHeadingOffset.get());
+    }
+    return target;
+  }
+
   /**
    * Aim feedforward for better tracking of the target.
    *
@@ -642,8 +789,16 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
    */
   public Trigger aimLock(Angle tolerance)
   {
-    return new Trigger(() -> aimEnabled.isPresent() && aimEnabled.get().getAsBoolean() && aimGoalAngle.isPresent() &&
-                             swerveDrive.getOdometryHeading().getMeasure().isNear(aimGoalAngle.get(), tolerance));
+    return new Trigger(() -> {
+      if (aimEnabled.isEmpty() || !aimEnabled.get().getAsBoolean())
+      {
+        return false;
+      }
+      // Share the solve of this cycle with the heading controller when shooting on the move.
+      Optional<Angle> goal = aimShotSolver.isPresent() && aimTarget.isPresent()
+                             ? Optional.of(getAimHeading().getMeasure()) : aimGoalAngle;
+      return goal.isPresent() && swerveDrive.getOdometryHeading().getMeasure().isNear(goal.get(), tolerance);
+    });
   }
 
   /**
@@ -753,7 +908,8 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
     {
       if (driveToPose.isPresent())
       {
-        if (driveToPoseOmegaPIDController.isPresent() && driveToPoseTranslationPIDController.isPresent())
+        if (driveToPoseController.isPresent() ||
+            (driveToPoseOmegaPIDController.isPresent() && driveToPoseTranslationPIDController.isPresent()))
         {
           return SwerveInputMode.DRIVE_TO_POSE;
         }
@@ -851,6 +1007,7 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
         {
           swerveDrive.setHeadingCorrection(false);
         }
+        driveToPoseController.ifPresent(SwerveModelPredictiveController::reset);
       }
     }
   }
@@ -1112,18 +1269,15 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
       }
       case HEADING ->
       {
+        double headingX = controllerHeadingX.get().getAsDouble();
+        double headingY = controllerHeadingY.get().getAsDouble();
+        // getJoystickAngle is already in [-pi, pi], no need for a Rotation2d round trip.
         omegaRadiansPerSecond = swerveController.headingCalculate(swerveDrive.getOdometryHeading().getRadians(),
-                                                                  Rotation2d.fromRadians(
-                                                                                swerveController.getJoystickAngle(
-                                                                                    controllerHeadingX.get()
-                                                                                                      .getAsDouble(),
-                                                                                    controllerHeadingY.get()
-                                                                                                      .getAsDouble()))
-                                                                            .getRadians());
+                                                                  swerveController.getJoystickAngle(headingX,
+                                                                                                    headingY));
 
         // Prevent rotation if controller heading inputs are not past axisDeadband
-        if (Math.abs(controllerHeadingX.get().getAsDouble()) + Math.abs(controllerHeadingY.get().getAsDouble()) <
-            axisDeadband.get())
+        if (Math.abs(headingX) + Math.abs(headingY) < axisDeadband.get())
         {
           omegaRadiansPerSecond = 0;
         }
@@ -1132,25 +1286,22 @@ public class SwerveInputStream implements Supplier<ChassisSpeeds>
       }
       case AIM ->
       {
-        var targetVector = getTargetVector(aimTarget.orElseThrow().get());
-        var targetDistance = targetVector.getNorm();
-        // TODO: Shoot on the move, using
-        //  targetVector = targetVector.div(targetDistance).times(sotmDistanceToRPSMap.get(targetDistance)*flyWheelCircumference)
-        //  var shotVector = targetVector.minus(new Translation2d(currentSpeeds.vxMetersPerSecond, currentSpeeds.vyMetersPerSecond);
-        var shotVector = targetVector;
-        Rotation2d target = shotVector.getAngle();
-        if (aimHeadingOffsetEnabled.isPresent() && aimHeadingOffsetEnabled.get().getAsBoolean() && aimHeadingOffset.isPresent())
-        {
-          target = target.plus(aimHeadingOffset.get());
-        } 
-
+        Rotation2d target = getAimHeading();
         aimGoalAngle = Optional.of(target.getMeasure());
-        omegaRadiansPerSecond = calculateAngularVelocity(target.getMeasure()).in(RadiansPerSecond);
+        omegaRadiansPerSecond = calculateAngularVelocity(target.getMeasure()).in(RadiansPerSecond) +
+                                getAimSolution().map(solution -> solution.yawRateRadiansPerSecond).orElse(0.0);
         speeds = new ChassisSpeeds(vxMetersPerSecond, vyMetersPerSecond, omegaRadiansPerSecond);
         break;
       }
       case DRIVE_TO_POSE ->
       {
+        if (driveToPoseController.isPresent())
+        {
+          currentMode = newMode;
+          return driveToPoseController.get().calculateFieldRelative(swerveDrive.getPose(),
+                                                                    swerveDrive.getFieldVelocity(),
+                                                                    driveToPose.get().get());
+        }
         // Written by team 8865!
         ProfiledPIDController translationPIDController = driveToPoseTranslationPIDController.get();
         ProfiledPIDController rotationPIDController    = driveToPoseOmegaPIDController.get();
@@ -0,0 +1,624 @@
+package swervelib;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.trajectory.Trajectory;
+import java.util.Arrays;
+
+/**
+ * Model predictive path following controller. Each call solves a small quadratic program over a fixed horizon to find
+ * the field relative chassis accelerations which best track a reference trajectory, and returns the velocity reached
+ * after the first step.
+ * <p>
+ * The model is a double integrator per field axis [x, y, theta], so the prediction is exact for any heading and the
+ * reference is the only time varying part. Each step is constrained so no module is asked for more than the maximum
+ * module acceleration, |a| + r |alpha| &lt;= A with r the drive base radius, and a jerk penalty limits how fast the
+ * commanded direction changes so modules are not asked to flip faster than they can steer. The program is solved with
+ * accelerated projected gradient descent, warm started from the previous solution shifted by one step, and stops at
+ * the iteration limit, the convergence tolerance or the time budget, whichever comes first.
+ * <p>
+ * Example:
+ * <pre>
+ * {@code
+ *   SwerveModelPredictiveController mpc = new SwerveModelPredictiveController(20, 0.02, 6.0,
+ *                                                                             swerveDrive.swerveDriveConfiguration.getDriveBaseRadiusMeters());
+ *   SwerveModelPredictiveController.Reference reference =
+ *       SwerveModelPredictiveController.Reference.fromTrajectory(trajectory, Rotation2d.kZero);
+ *   swerveDrive.setChassisSpeeds(mpc.calculate(swerveDrive.getPose(), swerveDrive.getFieldVelocity(),
+ *                                              reference, timer.get()));
+ * }
+ * </pre>
+ */
+public class SwerveModelPredictiveController
+{
+
+  /**
+   * Translation axis weight index.
+   */
+  private static final int        TRANSLATION          = 0;
+  /**
+   * Rotation axis weight index.
+   */
+  private static final int        ROTATION             = 1;
+  /**
+   * Number of solve times kept for the percentiles.
+   */
+  private static final int        SOLVE_TIME_SAMPLES   = 1024;
+  /**
+   * Number of steps in the horizon.
+   */
+  private final        int        horizon;
+  /**
+   * Step length in seconds.
+   */
+  private final        double     dtSeconds;
+  /**
+   * Maximum acceleration of any module in meters per second squared.
+   */
+  private final        double     maxModuleAcceleration;
+  /**
+   * Distance from the center of rotation to the furthest module in meters.
+   */
+  private final        double     driveBaseRadius;
+  /**
+   * Position error weights, [translation, rotation].
+   */
+  private final        double[]   positionWeight       = {40.0, 20.0};
+  /**
+   * Velocity error weights, [translation, rotation].
+   */
+  private final        double[]   velocityWeight       = {2.0, 1.0};
+  /**
+   * Acceleration weights, [translation, rotation].
+   */
+  private final        double[]   accelerationWeight   = {0.01, 0.005};
+  /**
+   * Change of acceleration weights, [translation, rotation].
+   */
+  private final        double[]   jerkWeight           = {0.05, 0.02};
+  /**
+   * Lipschitz constants of the gradient, [translation, rotation].
+   */
+  private final        double[]   lipschitz            = new double[2];
+  /**
+   * Solution, field relative accelerations [x, y, theta][step].
+   */
+  private              double[][] solution;
+  /**
+   * Next iterate scratch.
+   */
+  private              double[][] next;
+  /**
+   * Extrapolated point scratch.
+   */
+  private final        double[][] extrapolated;
+  /**
+   * Gradient scratch.
+   */
+  private final        double[][] gradient;
+  /**
+   * Reference positions [x, y, theta][step], theta is unwrapped around the current heading.
+   */
+  private final        double[][] referencePosition;
+  /**
+   * Reference velocities [x, y, theta][step].
+   */
+  private final        double[][] referenceVelocity;
+  /**
+   * Zeros used when computing the Lipschitz constants.
+   */
+  private final        double[]   zeros;
+  /**
+   * Position error scratch.
+   */
+  private final        double[]   positionError;
+  /**
+   * Velocity error scratch.
+   */
+  private final        double[]   velocityError;
+  /**
+   * Reference sample scratch, [x, y, theta, vx, vy, omega].
+   */
+  private final        double[]   sample               = new double[6];
+  /**
+   * Initial position scratch, [x, y, theta].
+   */
+  private final        double[]   initialPosition      = new double[3];
+  /**
+   * Initial velocity scratch, [vx, vy, omega].
+   */
+  private final        double[]   initialVelocity      = new double[3];
+  /**
+   * Accelerations applied on the last call, used for the jerk penalty on the first step.
+   */
+  private final        double[]   lastAcceleration     = new double[3];
+  /**
+   * Solve times in seconds.
+   */
+  private final        double[]   solveTimes           = new double[SOLVE_TIME_SAMPLES];
+  /**
+   * Number of solves recorded.
+   */
+  private              long       solveCount           = 0;
+  /**
+   * Iterations of the last solve.
+   */
+  private              int        lastIterations       = 0;
+  /**
+   * Whether the Lipschitz constants need to be recomputed.
+   */
+  private              boolean    weightsChanged       = true;
+  /**
+   * Whether the solution holds a previous solve to warm start from.
+   */
+  private              boolean    warm                 = false;
+  /**
+   * Solve time budget in seconds.
+   */
+  private              double     timeBudgetSeconds    = 0.002;
+  /**
+   * Maximum projected gradient iterations per solve.
+   */
+  private              int        maxIterations        = 100;
+  /**
+   * Convergence tolerance on the largest acceleration change of an iteration.
+   */
+  private              double     tolerance            = 1e-4;
+  /**
+   * Goal of {@link SwerveModelPredictiveController#calculateFieldRelative(Pose2d, ChassisSpeeds, Pose2d)}.
+   */
+  private              Pose2d     goal                 = Pose2d.kZero;
+  /**
+   * Reference which holds {@link SwerveModelPredictiveController#goal}.
+   */
+  private final        Reference  goalReference        = (timeSeconds, state) -> {
+    state[0] = goal.getX();
+    state[1] = goal.getY();
+    state[2] = goal.getRotation().getRadians();
+    state[3] = 0;
+    state[4] = 0;
+    state[5] = 0;
+  };
+
+  /**
+   * Construct the controller.
+   *
+   * @param horizon                    Number of steps to predict, 10 to 30 is typical.
+   * @param dtSeconds                  Step length in seconds, usually the robot loop period.
+   * @param maxModuleAccelerationMPSSq Maximum acceleration of a module in meters per second squared.
+   * @param driveBaseRadiusMeters      Distance from the center of rotation to the furthest module in meters.
+   */
+  public SwerveModelPredictiveController(int horizon, double dtSeconds, double maxModuleAccelerationMPSSq,
+                                         double driveBaseRadiusMeters)
+  {
+    if (horizon < 1 || dtSeconds <= 0 || maxModuleAccelerationMPSSq <= 0 || driveBaseRadiusMeters <= 0)
+    {
+      throw new RuntimeException("Model predictive controller parameters must be positive.");
+    }
+    this.horizon = horizon;
+    this.dtSeconds = dtSeconds;
+    this.maxModuleAcceleration = maxModuleAccelerationMPSSq;
+    this.driveBaseRadius = driveBaseRadiusMeters;
+    solution = new double[3][horizon];
+    next = new double[3][horizon];
+    extrapolated = new double[3][horizon];
+    gradient = new double[3][horizon];
+    referencePosition = new double[3][horizon];
+    referenceVelocity = new double[3][horizon];
+    zeros = new double[horizon];
+    positionError = new double[horizon];
+    velocityError = new double[horizon];
+  }
+
+  /**
+   * Set the translation weights.
+   *
+   * @param position     Weight of the position error.
+   * @param velocity     Weight of the velocity error.
+   * @param acceleration Weight of the acceleration.
+   * @param jerk         Weight of the change in acceleration between steps.
+   */
+  public void setTranslationWeights(double position, double velocity, double acceleration, double jerk)
+  {
+    setWeights(TRANSLATION, position, velocity, acceleration, jerk);
+  }
+
+  /**
+   * Set the rotation weights.
+   *
+   * @param position     Weight of the heading error.
+   * @param velocity     Weight of the angular velocity error.
+   * @param acceleration Weight of the angular acceleration.
+   * @param jerk         Weight of the change in angular acceleration between steps.
+   */
+  public void setRotationWeights(double position, double velocity, double acceleration, double jerk)
+  {
+    setWeights(ROTATION, position, velocity, acceleration, jerk);
+  }
+
+  /**
+   * Set the weights of one axis group.
+   *
+   * @param group        {@link SwerveModelPredictiveController#TRANSLATION} or
+   *                     {@link SwerveModelPredictiveController#ROTATION}.
+   * @param position     Weight of the position error.
+   * @param velocity     Weight of the velocity error.
+   * @param acceleration Weight of the acceleration.
+   * @param jerk         Weight of the change in acceleration between steps.
+   */
+  private void setWeights(int group, double position, double velocity, double acceleration, double jerk)
+  {
+    if (position < 0 || velocity < 0 || acceleration <= 0 || jerk < 0)
+    {
+      throw new RuntimeException("Model predictive controller weights must be positive.");
+    }
+    positionWeight[group] = position;
+    velocityWeight[group] = velocity;
+    accelerationWeight[group] = acceleration;
+    jerkWeight[group] = jerk;
+    weightsChanged = true;
+  }
+
+  /**
+   * Set the solve limits.
+   *
+   * @param timeBudgetSeconds Time after which the solve stops with its current iterate, 0.002 by default.
+   * @param maxIterations     Maximum iterations per solve, 100 by default.
+   * @param tolerance         Stop once no acceleration changes more than this in an iteration, 1e-4 by default.
+   */
+  public void setSolverLimits(double timeBudgetSeconds, int maxIterations, double tolerance)
+  {
+    this.timeBudgetSeconds = timeBudgetSeconds;
+    this.maxIterations = maxIterations;
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * Forget the previous solution, call when starting a new path.
+   */
+  public void reset()
+  {
+    for (int axis = 0; axis < 3; axis++)
+    {
+      Arrays.fill(solution[axis], 0);
+    }
+    Arrays.fill(lastAcceleration, 0);
+    warm = false;
+  }
+
+  /**
+   * Calculate the robot relative chassis speeds to follow the reference, to pass to
+   * {@link SwerveDrive#setChassisSpeeds(ChassisSpeeds)}.
+   *
+   * @param currentPose          Estimated pose of the robot.
+   * @param fieldVelocity        Estimated field relative velocity of the robot.
+   * @param reference            {@link Reference} to follow.
+   * @param referenceTimeSeconds Time along the reference of the current cycle.
+   * @return Robot relative {@link ChassisSpeeds}.
+   */
+  public ChassisSpeeds calculate(Pose2d currentPose, ChassisSpeeds fieldVelocity, Reference reference,
+                                 double referenceTimeSeconds)
+  {
+    return ChassisSpeeds.fromFieldRelativeSpeeds(calculateFieldRelative(currentPose, fieldVelocity, reference,
+                                                                        referenceTimeSeconds),
+                                                 currentPose.getRotation());
+  }
+
+  /**
+   * Calculate the field relative chassis speeds to stop at a goal pose.
+   *
+   * @param currentPose   Estimated pose of the robot.
+   * @param fieldVelocity Estimated field relative velocity of the robot.
+   * @param goalPose      Pose to stop at.
+   * @return Field relative {@link ChassisSpeeds}.
+   */
+  public ChassisSpeeds calculateFieldRelative(Pose2d currentPose, ChassisSpeeds fieldVelocity, Pose2d goalPose)
+  {
+    goal = goalPose;
+    return calculateFieldRelative(currentPose, fieldVelocity, goalReference, 0);
+  }
+
+  /**
+   * Calculate the field relative chassis speeds to follow the reference.
+   *
+   * @param currentPose          Estimated pose of the robot.
+   * @param fieldVelocity        Estimated field relative velocity of the robot.
+   * @param reference            {@link Reference} to follow.
+   * @param referenceTimeSeconds Time along the reference of the current cycle.
+   * @return Field relative {@link ChassisSpeeds}.
+   */
+  public ChassisSpeeds calculateFieldRelative(Pose2d currentPose, ChassisSpeeds fieldVelocity, Reference reference,
+                                              double referenceTimeSeconds)
+  {
+    long start = System.nanoTime();
+    if (weightsChanged)
+    {
+      updateLipschitz();
+    }
+
+    double previousHeading = currentPose.getRotation().getRadians();
+    for (int k = 0; k < horizon; k++)
+    {
+      reference.sample(referenceTimeSeconds + (k + 1) * dtSeconds, sample);
+      referencePosition[0][k] = sample[0];
+      referencePosition[1][k] = sample[1];
+      // Unwrap so the error never takes the long way around.
+      previousHeading += MathUtil.angleModulus(sample[2] - previousHeading);
+      referencePosition[2][k] = previousHeading;
+      referenceVelocity[0][k] = sample[3];
+      referenceVelocity[1][k] = sample[4];
+      referenceVelocity[2][k] = sample[5];
+    }
+    double[] position = initialPosition;
+    double[] velocity = initialVelocity;
+    position[0] = currentPose.getX();
+    position[1] = currentPose.getY();
+    position[2] = currentPose.getRotation().getRadians();
+    velocity[0] = fieldVelocity.vxMetersPerSecond;
+    velocity[1] = fieldVelocity.vyMetersPerSecond;
+    velocity[2] = fieldVelocity.omegaRadiansPerSecond;
+
+    if (!warm)
+    {
+      for (int axis = 0; axis < 3; axis++)
+      {
+        Arrays.fill(solution[axis], 0);
+      }
+    }
+    for (int axis = 0; axis < 3; axis++)
+    {
+      System.arraycopy(solution[axis], 0, extrapolated[axis], 0, horizon);
+    }
+
+    double momentum  = 1;
+    int    iteration = 0;
+    while (iteration < maxIterations)
+    {
+      iteration++;
+      double change = 0;
+      for (int axis = 0; axis < 3; axis++)
+      {
+        int group = axis == 2 ? ROTATION : TRANSLATION;
+        gradient(group, position[axis], velocity[axis], lastAcceleration[axis], referencePosition[axis],
+                 referenceVelocity[axis], extrapolated[axis], gradient[axis]);
+        double step = 1.0 / lipschitz[group];
+        for (int k = 0; k < horizon; k++)
+        {
+          next[axis][k] = extrapolated[axis][k] - step * gradient[axis][k];
+        }
+      }
+      for (int k = 0; k < horizon; k++)
+      {
+        project(next, k);
+      }
+
+      double nextMomentum = (1 + Math.sqrt(1 + 4 * momentum * momentum)) / 2;
+      double beta         = (momentum - 1) / nextMomentum;
+      for (int axis = 0; axis < 3; axis++)
+      {
+        for (int k = 0; k < horizon; k++)
+        {
+          double delta = next[axis][k] - solution[axis][k];
+          change = Math.max(change, Math.abs(delta));
+          extrapolated[axis][k] = next[axis][k] + beta * delta;
+        }
+      }
+      momentum = nextMomentum;
+      double[][] swap = solution;
+      solution = next;
+      next = swap;
+
+      if (change < tolerance || (System.nanoTime() - start) * 1e-9 > timeBudgetSeconds)
+      {
+        break;
+      }
+    }
+    lastIterations = iteration;
+
+    ChassisSpeeds command = new ChassisSpeeds(velocity[0] + solution[0][0] * dtSeconds,
+                                              velocity[1] + solution[1][0] * dtSeconds,
+                                              velocity[2] + solution[2][0] * dtSeconds);
+    // Shift the solution by one step to warm start the next cycle.
+    for (int axis = 0; axis < 3; axis++)
+    {
+      lastAcceleration[axis] = solution[axis][0];
+      System.arraycopy(solution[axis], 1, solution[axis], 0, horizon - 1);
+    }
+    warm = true;
+
+    solveTimes[(int) (solveCount % SOLVE_TIME_SAMPLES)] = (System.nanoTime() - start) * 1e-9;
+    solveCount++;
+    return command;
+  }
+
+  /**
+   * Gradient of the cost of one axis with respect to its accelerations, in linear time.
+   * <p>
+   * The position after step K is p0 + K dt v0 + sum over j &lt; K of dt^2 (K - j - 0.5) a_j and the velocity is v0 +
+   * dt sum over j &lt; K of a_j, so the gradient is a backwards running sum of the weighted errors.
+   *
+   * @param group             Weight group.
+   * @param position          Initial position.
+   * @param velocity          Initial velocity.
+   * @param previous          Acceleration applied before the first step.
+   * @param referencePosition Reference positions for steps 1 to N.
+   * @param referenceVelocity Reference velocities for steps 1 to N.
+   * @param acceleration      Accelerations for steps 0 to N - 1.
+   * @param out               Gradient output.
+   */
+  private void gradient(int group, double position, double velocity, double previous, double[] referencePosition,
+                        double[] referenceVelocity, double[] acceleration, double[] out)
+  {
+    double dt   = dtSeconds;
+    double dtSq = dt * dt;
+    double qp   = positionWeight[group];
+    double qv   = velocityWeight[group];
+    double r    = accelerationWeight[group];
+    double rd   = jerkWeight[group];
+    for (int k = 0; k < horizon; k++)
+    {
+      position += velocity * dt + 0.5 * acceleration[k] * dtSq;
+      velocity += acceleration[k] * dt;
+      positionError[k] = qp * (position - referencePosition[k]);
+      velocityError[k] = qv * (velocity - referenceVelocity[k]);
+    }
+    double positionSum         = 0;
+    double weightedPositionSum = 0;
+    double velocitySum         = 0;
+    for (int j = horizon - 1; j >= 0; j--)
+    {
+      positionSum += positionError[j];
+      weightedPositionSum += positionError[j] * (j + 1);
+      velocitySum += velocityError[j];
+      double jerk     = acceleration[j] - (j == 0 ? previous : acceleration[j - 1]);
+      double nextJerk = j < horizon - 1 ? acceleration[j + 1] - acceleration[j] : 0;
+      out[j] = dtSq * (weightedPositionSum - (j + 0.5) * positionSum) + dt * velocitySum
+               + r * acceleration[j] + rd * (jerk - nextJerk);
+    }
+  }
+
+  /**
+   * Project one step onto the module acceleration limit |a| + r |alpha| &lt;= A.
+   *
+   * @param accelerations Accelerations [x, y, theta][step].
+   * @param k             Step index.
+   */
+  private void project(double[][] accelerations, int k)
+  {
+    double ax          = accelerations[0][k];
+    double ay          = accelerations[1][k];
+    double alpha       = accelerations[2][k];
+    double translation = Math.hypot(ax, ay);
+    double rotation    = Math.abs(alpha);
+    double excess      = translation + driveBaseRadius * rotation - maxModuleAcceleration;
+    if (excess <= 0)
+    {
+      return;
+    }
+    double lambda             = excess / (1 + driveBaseRadius * driveBaseRadius);
+    double projectedTranslate = translation - lambda;
+    double projectedRotation  = rotation - lambda * driveBaseRadius;
+    if (projectedTranslate < 0)
+    {
+      projectedTranslate = 0;
+      projectedRotation = maxModuleAcceleration / driveBaseRadius;
+    } else if (projectedRotation < 0)
+    {
+      projectedRotation = 0;
+      projectedTranslate = maxModuleAcceleration;
+    }
+    double scale = translation > 0 ? projectedTranslate / translation : 0;
+    accelerations[0][k] = ax * scale;
+    accelerations[1][k] = ay * scale;
+    accelerations[2][k] = Math.copySign(projectedRotation, alpha);
+  }
+
+  /**
+   * Estimate the largest eigenvalue of each cost Hessian with power iteration, the gradient step is its inverse. The
+   * Hessian only depends on the weights and the horizon so this runs when they change.
+   */
+  private void updateLipschitz()
+  {
+    double[] vector  = new double[horizon];
+    double[] product = new double[horizon];
+    for (int group = 0; group < 2; group++)
+    {
+      Arrays.fill(vector, 1.0 / Math.sqrt(horizon));
+      double eigenvalue = 0;
+      for (int i = 0; i < 50; i++)
+      {
+        // With a zero start, zero reference and no previous acceleration the gradient is the Hessian product.
+        gradient(group, 0, 0, 0, zeros, zeros, vector, product);
+        double norm = 0;
+        for (double value : product)
+        {
+          norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        if (norm == 0)
+        {
+          break;
+        }
+        eigenvalue = norm;
+        for (int k = 0; k < horizon; k++)
+        {
+          vector[k] = product[k] / norm;
+        }
+      }
+      // Margin for the power iteration converging from below.
+      lipschitz[group] = eigenvalue * 1.05 + 1e-9;
+    }
+    weightsChanged = false;
+  }
+
+  /**
+   * Get the number of iterations of the last solve.
+   *
+   * @return Iteration count.
+   */
+  public int getLastIterationCount()
+  {
+    return lastIterations;
+  }
+
+  /**
+   * Get a percentile of the recent solve times, over the last {@value #SOLVE_TIME_SAMPLES} solves.
+   *
+   * @param percentile Percentile in [0, 100].
+   * @return Solve time in seconds, 0 before the first solve.
+   */
+  public double getSolveTimePercentile(double percentile)
+  {
+    int count = (int) Math.min(solveCount, SOLVE_TIME_SAMPLES);
+    if (count == 0)
+    {
+      return 0;
+    }
+    double[] sorted = Arrays.copyOf(solveTimes, count);
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(MathUtil.clamp(percentile, 0, 100) / 100.0 * count) - 1;
+    return sorted[MathUtil.clamp(index, 0, count - 1)];
+  }
+
+  /**
+   * Reference state of the robot over time.
+   */
+  @FunctionalInterface
+  public interface Reference
+  {
+
+    /**
+     * Create a reference from a WPILib {@link Trajectory} with a fixed heading. The trajectory pose rotation is the
+     * direction of travel, not the heading of a holonomic robot.
+     *
+     * @param trajectory {@link Trajectory} to follow.
+     * @param heading    Heading to hold.
+     * @return {@link Reference} of the trajectory.
+     */
+    static Reference fromTrajectory(Trajectory trajectory, Rotation2d heading)
+    {
+      return (timeSeconds, state) -> {
+        Trajectory.State trajectoryState = trajectory.sample(timeSeconds);
+        Rotation2d       direction       = trajectoryState.poseMeters.getRotation();
+        double           speed           = timeSeconds >= trajectory.getTotalTimeSeconds() ? 0
+                                                                                           : trajectoryState.velocityMetersPerSecond;
+        state[0] = trajectoryState.poseMeters.getX();
+        state[1] = trajectoryState.poseMeters.getY();
+        state[2] = heading.getRadians();
+        state[3] = speed * direction.getCos();
+        state[4] = speed * direction.getSin();
+        state[5] = 0;
+      };
+    }
+
+    /**
+     * Sample the reference.
+     *
+     * @param timeSeconds Time along the reference.
+     * @param state       Output [x, y, theta, vx, vy, omega], field relative in meters, radians and per second.
+     */
+    void sample(double timeSeconds, double[] state);
+  }
+}
@@ -1,10 +1,12 @@
 package swervelib;
 
+import static edu.wpi.first.units.Units.DegreesPerSecond;
 import static edu.wpi.first.units.Units.InchesPerSecond;
 import static edu.wpi.first.units.Units.MetersPerSecond;
 import static edu.wpi.first.units.Units.RadiansPerSecond;
 import static edu.wpi.first.units.Units.RotationsPerSecond;
 
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
@@ -15,7 +17,9 @@ import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.units.measure.LinearVelocity;
 import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import java.util.function.DoubleSupplier;
 import swervelib.encoders.SparkMaxEncoderSwerve;
 import swervelib.encoders.SwerveAbsoluteEncoder;
 import swervelib.math.SwerveMath;
@@ -28,8 +32,10 @@ import swervelib.parser.SwerveModuleConfiguration;
 import swervelib.parser.SwerveModulePhysicalCharacteristics;
 import swervelib.simulation.SwerveModuleSimulation;
 import swervelib.telemetry.Alert;
+import swervelib.telemetry.SwerveDeviceHealth;
 import swervelib.telemetry.SwerveDriveTelemetry;
 import swervelib.telemetry.SwerveDriveTelemetry.TelemetryVerbosity;
+import swervelib.telemetry.SwerveEncoderDrift;
 
 /**
  * The Swerve Module class which represents and controls Swerve Modules for the swerve drive.
@@ -65,6 +71,54 @@ public class SwerveModule implements AutoCloseable
    * Absolute encoder for swerve drive.
    */
   private final SwerveAbsoluteEncoder  absoluteEncoder;
+  /**
+   * Health monitor of the absolute encoder.
+   */
+  private final SwerveDeviceHealth     absoluteEncoderHealth;
+  /**
+   * Drift statistics between the angle motor encoder and the absolute encoder.
+   */
+  private final SwerveEncoderDrift     encoderDrift;
+  /**
+   * Whether the module runs against the physics simulation.
+   */
+  private final boolean                simulation;
+  /**
+   * Last angle taken by {@link SwerveModule#sample()} in degrees, used to rate limit estimates.
+   */
+  private volatile double              lastAbsoluteAngle            = Double.NaN;
+  /**
+   * Timestamp of {@link SwerveModule#lastAbsoluteAngle} in seconds.
+   */
+  private volatile double              lastAbsoluteAngleTimestamp   = 0;
+  /**
+   * Timestamp source of the drive this module belongs to, in seconds.
+   */
+  private       DoubleSupplier         timestampSupplier            = Timer::getFPGATimestamp;
+  /**
+   * Telemetry of the drive this module belongs to, null until added to a {@link SwerveDrive}.
+   */
+  private       SwerveDriveTelemetry   telemetry;
+  /**
+   * Position taken by the last {@link SwerveModule#sample()}.
+   */
+  private       SwerveModulePosition   samplePosition               = new SwerveModulePosition();
+  /**
+   * State taken by the last {@link SwerveModule#sample()}.
+   */
+  private       SwerveModuleState      sampleState                  = new SwerveModuleState();
+  /**
+   * Adjusted absolute encoder angle in degrees taken by the last {@link SwerveModule#sample()}.
+   */
+  private       double                 sampleAbsolutePosition       = 0;
+  /**
+   * Raw absolute encoder reading in degrees taken by the last {@link SwerveModule#sample()}, NaN when it was not read.
+   */
+  private       double                 sampleRawAbsolutePosition    = Double.NaN;
+  /**
+   * Relative angle in degrees taken by the last {@link SwerveModule#sample()}.
+   */
+  private       double                 sampleRelativePosition       = 0;
   /**
    * An {@link Alert} for if pushing the Absolute Encoder offset to the encoder fails.
    */
@@ -186,6 +240,34 @@ public class SwerveModule implements AutoCloseable
    */
   public SwerveModule(int moduleNumber, SwerveModuleConfiguration moduleConfiguration)
   {
+    this(moduleNumber, moduleConfiguration, "swerve");
+  }
+
+  /**
+   * Construct the swerve module and initialize the swerve module motors and absolute encoder.
+   *
+   * @param moduleNumber        Module number for kinematics.
+   * @param moduleConfiguration Module constants containing CAN ID's and conversion factors.
+   * @param telemetryName       Telemetry name of the drive the module belongs to, the root of the module topics.
+   */
+  public SwerveModule(int moduleNumber, SwerveModuleConfiguration moduleConfiguration, String telemetryName)
+  {
+    this(moduleNumber, moduleConfiguration, telemetryName, SwerveDriveTelemetry.isSimulation);
+  }
+
+  /**
+   * Construct the swerve module and initialize the swerve module motors and absolute encoder.
+   *
+   * @param moduleNumber        Module number for kinematics.
+   * @param moduleConfiguration Module constants containing CAN ID's and conversion factors.
+   * @param telemetryName       Telemetry name of the drive the module belongs to, the root of the module topics.
+   * @param simulation          Whether the module runs against the physics simulation, false when replaying recorded
+   *                            inputs.
+   */
+  public SwerveModule(int moduleNumber, SwerveModuleConfiguration moduleConfiguration, String telemetryName,
+                      boolean simulation)
+  {
+    this.simulation = simulation;
     //    angle = 0;
     //    speed = 0;
     //    omega = 0;
@@ -213,13 +295,15 @@ public class SwerveModule implements AutoCloseable
 
     // Config angle encoders
     absoluteEncoder = moduleConfiguration.absoluteEncoder;
+    absoluteEncoderHealth = new SwerveDeviceHealth(moduleConfiguration.name + " absolute encoder");
+    encoderDrift = new SwerveEncoderDrift(moduleConfiguration.name);
     if (absoluteEncoder != null)
     {
       absoluteEncoder.factoryDefault();
       absoluteEncoder.configure(moduleConfiguration.absoluteEncoderInverted);
     }
 
-    if (SwerveDriveTelemetry.isSimulation)
+    if (simulation)
     {
       simModule = new SwerveModuleSimulation();
     }
@@ -273,21 +357,21 @@ public class SwerveModule implements AutoCloseable
                                      AlertType.kWarning);
 
     rawAbsoluteAnglePublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard").getDoubleTopic(
-        "swerve/modules/" + configuration.name + "/Raw Absolute Encoder").publish();
+        telemetryName + "/modules/" + configuration.name + "/Raw Absolute Encoder").publish();
     adjAbsoluteAnglePublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard").getDoubleTopic(
-        "swerve/modules/" + configuration.name + "/Adjusted Absolute Encoder").publish();
+        telemetryName + "/modules/" + configuration.name + "/Adjusted Absolute Encoder").publish();
     absoluteEncoderIssuePublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard").getBooleanTopic(
-        "swerve/modules/" + configuration.name + "/Absolute Encoder Read Issue").publish();
+        telemetryName + "/modules/" + configuration.name + "/Absolute Encoder Read Issue").publish();
     rawAnglePublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard").getDoubleTopic(
-        "swerve/modules/" + configuration.name + "/Raw Angle Encoder").publish();
+        telemetryName + "/modules/" + configuration.name + "/Raw Angle Encoder").publish();
     rawDriveEncoderPublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard").getDoubleTopic(
-        "swerve/modules/" + configuration.name + "/Raw Drive Encoder").publish();
+        telemetryName + "/modules/" + configuration.name + "/Raw Drive Encoder").publish();
     rawDriveVelocityPublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard").getDoubleTopic(
-        "swerve/modules/" + configuration.name + "/Raw Drive Velocity").publish();
+        telemetryName + "/modules/" + configuration.name + "/Raw Drive Velocity").publish();
     speedSetpointPublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard").getDoubleTopic(
-        "swerve/modules/" + configuration.name + "/Speed Setpoint").publish();
+        telemetryName + "/modules/" + configuration.name + "/Speed Setpoint").publish();
     angleSetpointPublisher = NetworkTableInstance.getDefault().getTable("SmartDashboard").getDoubleTopic(
-        "swerve/modules/" + configuration.name + "/Angle Setpoint").publish();
+        telemetryName + "/modules/" + configuration.name + "/Angle Setpoint").publish();
   }
 
   @Override
@@ -369,6 +453,37 @@ public class SwerveModule implements AutoCloseable
     }
   }
 
+  /**
+   * Measure the drift between the angle motor encoder and the absolute encoder from the last
+   * {@link SwerveModule#sample()} and queue a synchronization if it is above the deadband. Called by the
+   * {@link SwerveDrive} for one stationary module per cycle so the blocking position write is spread across cycles.
+   *
+   * @param timestamp Timestamp of the measurement in seconds.
+   * @return True if a synchronization was queued.
+   */
+  public boolean checkEncoderSynchronization(double timestamp)
+  {
+    if (absoluteEncoder == null || !synchronizeEncoderEnabled || !absoluteEncoderHealth.isHealthy())
+    {
+      return false;
+    }
+    double  drift = MathUtil.inputModulus(sampleAbsolutePosition - sampleRelativePosition, -180, 180);
+    boolean queue = Math.abs(drift) >= synchronizeEncoderDeadband;
+    encoderDrift.record(drift, timestamp, queue);
+    synchronizeEncoderQueued |= queue;
+    return queue;
+  }
+
+  /**
+   * Get the drift statistics between the angle motor encoder and the absolute encoder.
+   *
+   * @return {@link SwerveEncoderDrift} of the module.
+   */
+  public SwerveEncoderDrift getEncoderDrift()
+  {
+    return encoderDrift;
+  }
+
   /**
    * Enable auto synchronization for encoders during a match. This will only occur when the modules are not moving for a
    * few seconds.
@@ -512,10 +627,11 @@ public class SwerveModule implements AutoCloseable
 
     // Prevent module rotation if angle is the same as the previous angle.
     // Synchronize encoders if queued and send in the current position as the value from the absolute encoder.
-    if (absoluteEncoder != null && synchronizeEncoderQueued && synchronizeEncoderEnabled)
+    if (synchronizeEncoderQueued && absoluteEncoder != null && synchronizeEncoderEnabled)
     {
       double absoluteEncoderPosition = getAbsolutePosition();
-      if (Math.abs(angleMotor.getPosition() - absoluteEncoderPosition) >= synchronizeEncoderDeadband)
+      if (Math.abs(MathUtil.inputModulus(absoluteEncoderPosition - angleMotor.getPosition(), -180, 180)) >=
+          synchronizeEncoderDeadband)
       {
         angleMotor.setPosition(absoluteEncoderPosition);
       }
@@ -528,15 +644,14 @@ public class SwerveModule implements AutoCloseable
 
     lastState = desiredState;
 
-    if (SwerveDriveTelemetry.isSimulation)
+    if (simulation)
     {
       simModule.updateStateAndPosition(desiredState);
     }
 
-    // TODO: Change and move to SwerveDriveTelemetry
-    if (SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.INFO.ordinal())
+    if (telemetry != null && SwerveDriveTelemetry.verbosity.ordinal() >= TelemetryVerbosity.INFO.ordinal())
     {
-      SwerveDriveTelemetry.desiredStatesObj[moduleNumber] = desiredState;
+      telemetry.desiredStatesObj[moduleNumber] = desiredState;
     }
 
     if (SwerveDriveTelemetry.verbosity == TelemetryVerbosity.HIGH)
@@ -545,9 +660,9 @@ public class SwerveModule implements AutoCloseable
       angleSetpointPublisher.set(desiredState.angle.getDegrees());
     }
 
-    if (moduleNumber == SwerveDriveTelemetry.moduleCount - 1)
+    if (telemetry != null && moduleNumber == telemetry.moduleCount - 1)
     {
-      SwerveDriveTelemetry.endCtrlCycle();
+      telemetry.endCtrlCycle();
     }
   }
 
@@ -630,7 +745,7 @@ public class SwerveModule implements AutoCloseable
   {
     double     velocity;
     Rotation2d azimuth;
-    if (!SwerveDriveTelemetry.isSimulation)
+    if (!simulation)
     {
       velocity = driveVelocityCache.getValue();
       azimuth = Rotation2d.fromDegrees(getAbsolutePosition());
@@ -650,7 +765,7 @@ public class SwerveModule implements AutoCloseable
   {
     double     position;
     Rotation2d azimuth;
-    if (!SwerveDriveTelemetry.isSimulation)
+    if (!simulation)
     {
       position = drivePositionCache.getValue();
       azimuth = Rotation2d.fromDegrees(getAbsolutePosition());
@@ -661,6 +776,51 @@ public class SwerveModule implements AutoCloseable
     return new SwerveModulePosition(position, azimuth);
   }
 
+  /**
+   * Sample the position and state of the module once for the cycle, sharing one azimuth read between them. Odometry,
+   * encoder synchronization and telemetry read the sample instead of reading the module again.
+   *
+   * @return {@link SwerveModulePosition} of the swerve module.
+   */
+  public SwerveModulePosition sample()
+  {
+    if (simulation)
+    {
+      samplePosition = simModule.getPosition();
+      sampleState = simModule.getState();
+      sampleAbsolutePosition = sampleState.angle.getDegrees();
+      sampleRelativePosition = sampleAbsolutePosition;
+    } else
+    {
+      sampleAbsolutePosition = readAbsolutePosition(true);
+      sampleRelativePosition = getRelativePosition();
+      Rotation2d azimuth = Rotation2d.fromDegrees(sampleAbsolutePosition);
+      samplePosition = new SwerveModulePosition(drivePositionCache.getValue(), azimuth);
+      sampleState = new SwerveModuleState(driveVelocityCache.getValue(), azimuth);
+    }
+    return samplePosition;
+  }
+
+  /**
+   * Get the position taken by the last {@link SwerveModule#sample()}.
+   *
+   * @return Sampled {@link SwerveModulePosition}.
+   */
+  public SwerveModulePosition getSampledPosition()
+  {
+    return samplePosition;
+  }
+
+  /**
+   * Get the state taken by the last {@link SwerveModule#sample()}.
+   *
+   * @return Sampled {@link SwerveModuleState}.
+   */
+  public SwerveModuleState getSampledState()
+  {
+    return sampleState;
+  }
+
   /**
    * Get the absolute position. Falls back to relative position on reading failure.
    *
@@ -672,31 +832,70 @@ public class SwerveModule implements AutoCloseable
   }
 
   /**
-   * Get the absolute position. Falls back to relative position on reading failure.
+   * Get the absolute position. Falls back to relative position on reading failure. Safe to call from any thread, the
+   * encoder health is only read here and is recorded by {@link SwerveModule#sample()}.
    *
    * @return Absolute encoder angle in degrees in the range [0, 360).
    */
   public double getRawAbsolutePosition()
+  {
+    return readAbsolutePosition(false);
+  }
+
+  /**
+   * Read the absolute position, falling back to the estimate while the encoder is degraded or fails to read.
+   *
+   * @param record Record the read in the encoder health and the estimate rate limit. Only the odometry thread through
+   *               {@link SwerveModule#sample()} records, so the health state has a single writer.
+   * @return Absolute encoder angle in degrees in the range [0, 360).
+   */
+  private double readAbsolutePosition(boolean record)
   {
     /* During simulation, when no absolute encoders are available, we return the state from the simulation module instead. */
-    if (SwerveDriveTelemetry.isSimulation)
+    if (simulation)
     {
       Rotation2d absolutePosition = simModule.getState().angle;
       return absolutePosition.getDegrees();
     }
 
     double angle;
-    if (absoluteEncoder != null)
+    double now = timestampSupplier.getAsDouble();
+    if (record)
+    {
+      sampleRawAbsolutePosition = Double.NaN;
+    }
+    if (absoluteEncoder != null &&
+        (record ? absoluteEncoderHealth.shouldRead() : absoluteEncoderHealth.isHealthy()))
     {
-      angle = absoluteEncoder.getAbsolutePosition() - angleOffset;
-      if (absoluteEncoder.readingError)
+      long    start        = System.nanoTime();
+      double  raw          = absoluteEncoder.getAbsolutePosition();
+      boolean readingError = absoluteEncoder.readingError;
+      angle = raw - angleOffset;
+      if (record)
       {
-        angle = getRelativePosition();
+        absoluteEncoderHealth.record(readingError, (System.nanoTime() - start) * 1e-9);
+        if (!readingError)
+        {
+          sampleRawAbsolutePosition = raw;
+        }
+      }
+      if (readingError)
+      {
+        angle = getEstimatedAbsolutePosition(now);
       }
+    } else if (absoluteEncoder != null)
+    {
+      // Degraded, wait for the next probe instead of retrying every cycle.
+      angle = getEstimatedAbsolutePosition(now);
     } else
     {
       angle = getRelativePosition();
     }
+    if (record)
+    {
+      lastAbsoluteAngle = angle;
+      lastAbsoluteAngleTimestamp = now;
+    }
     if (optimizeSwerveModuleState)
     {
       angle %= 360;
@@ -709,6 +908,27 @@ public class SwerveModule implements AutoCloseable
     return angle;
   }
 
+  /**
+   * Estimate the absolute position from the relative position while the absolute encoder is unavailable. The estimate
+   * may not move away from the last angle faster than the module can physically turn, so a glitching relative encoder
+   * cannot snap the module.
+   *
+   * @param now Current timestamp in seconds.
+   * @return Estimated angle in degrees, without the [0, 360) wrap.
+   */
+  private double getEstimatedAbsolutePosition(double now)
+  {
+    double relative  = getRelativePosition();
+    double lastAngle = lastAbsoluteAngle;
+    if (Double.isNaN(lastAngle))
+    {
+      return relative;
+    }
+    double maxStep = getMaxAngularVelocity().in(DegreesPerSecond) * Math.max(now - lastAbsoluteAngleTimestamp, 0);
+    double delta   = MathUtil.inputModulus(relative - lastAngle, -180, 180);
+    return lastAngle + MathUtil.clamp(delta, -maxStep, maxStep);
+  }
+
   /**
    * Get the relative angle in degrees.
    *
@@ -886,6 +1106,37 @@ public class SwerveModule implements AutoCloseable
     angleOffset = configuration.angleOffset;
   }
 
+  /**
+   * Set the telemetry of the drive this module belongs to.
+   *
+   * @param telemetry {@link SwerveDriveTelemetry} of the drive.
+   */
+  void setTelemetry(SwerveDriveTelemetry telemetry)
+  {
+    this.telemetry = telemetry;
+  }
+
+  /**
+   * Set the timestamp source of the drive this module belongs to, used to rate limit the absolute position estimates
+   * while the absolute encoder is degraded.
+   *
+   * @param timestampSupplier Timestamp source in seconds.
+   */
+  void setTimestampSupplier(DoubleSupplier timestampSupplier)
+  {
+    this.timestampSupplier = timestampSupplier;
+  }
+
+  /**
+   * Get the health monitor of the absolute encoder.
+   *
+   * @return {@link SwerveDeviceHealth} of the absolute encoder.
+   */
+  public SwerveDeviceHealth getAbsoluteEncoderHealth()
+  {
+    return absoluteEncoderHealth;
+  }
+
   /**
    * Get if the last Absolute Encoder had a read issue, such as it does not exist.
    *
@@ -949,36 +1200,22 @@ public class SwerveModule implements AutoCloseable
   }
 
   /**
-   * Update data sent to {@link SmartDashboard}.
+   * Update data sent to {@link SmartDashboard} from the last {@link SwerveModule#sample()}.
    */
   public void updateTelemetry()
   {
-    if (absoluteEncoder != null)
-    {
-      rawAbsoluteAnglePublisher.set(absoluteEncoder.getAbsolutePosition());
-    }
-    if (SwerveDriveTelemetry.isSimulation && SwerveDriveTelemetry.verbosity == TelemetryVerbosity.HIGH)
+    if (!Double.isNaN(sampleRawAbsolutePosition))
     {
-      SwerveModulePosition pos   = simModule.getPosition();
-      SwerveModuleState    state = simModule.getState();
-      rawAnglePublisher.set(pos.angle.getDegrees());
-      rawDriveEncoderPublisher.set(pos.distanceMeters);
-      rawDriveVelocityPublisher.set(state.speedMetersPerSecond);
-      // For code coverage
-      angleMotor.getPosition();
-      drivePositionCache.getValue();
-      driveVelocityCache.getValue();
-    } else
-    {
-      rawAnglePublisher.set(angleMotor.getPosition());
-      rawDriveEncoderPublisher.set(drivePositionCache.getValue());
-      rawDriveVelocityPublisher.set(driveVelocityCache.getValue());
+      rawAbsoluteAnglePublisher.set(sampleRawAbsolutePosition);
     }
-    adjAbsoluteAnglePublisher.set(getAbsolutePosition());
+    rawAnglePublisher.set(sampleRelativePosition);
+    rawDriveEncoderPublisher.set(samplePosition.distanceMeters);
+    rawDriveVelocityPublisher.set(sampleState.speedMetersPerSecond);
+    adjAbsoluteAnglePublisher.set(sampleAbsolutePosition);
     absoluteEncoderIssuePublisher.set(getAbsoluteEncoderReadIssue());
-
   }
 
+
   /**
    * Invalidate the {@link Cache} objects used by {@link SwerveModule}.
    */
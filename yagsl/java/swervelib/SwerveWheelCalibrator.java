@@ -0,0 +1,435 @@
+package swervelib;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Twist2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.util.Units;
+import java.util.Arrays;
+
+/**
+ * Online wheel radius calibration from the gyro and the module odometry. Tread wear shrinks the wheels over a
+ * competition, so the drive encoders report more distance than the robot travels.
+ * <p>
+ * While the robot spins in place every wheel rolls along a circle around the center, so the distance it should report
+ * is the gyro yaw change times its distance from the center. The ratio of that to the reported distance is the ratio of
+ * the effective wheel radius to the configured one, estimated per module. During normal driving the yaw change of the
+ * gyro is compared with the yaw change implied by the module odometry, which gives one scale shared by every module
+ * that reflects both the wheel radius and the track geometry.
+ * <p>
+ * Both scales are streaming least squares fits through the origin with exponential forgetting, so they follow wear
+ * over a match and report a 95% confidence half width. The gyro cannot tell a smaller wheel from a wider track, so the
+ * per module scale is attributed to the wheel radius with the module locations taken as exact.
+ */
+public class SwerveWheelCalibrator
+{
+
+  /**
+   * Yaw change in radians accumulated before a window becomes a sample.
+   */
+  private static final double                 WINDOW_RADIANS       = Math.PI / 2;
+  /**
+   * Largest ratio of translation to wheel arc length for a step to count as spinning in place.
+   */
+  private static final double                 SPIN_TRANSLATION     = 0.1;
+  /**
+   * Smallest kinematic yaw change in radians for a step to count.
+   */
+  private static final double                 MIN_STEP_RADIANS     = 1e-4;
+  /**
+   * Swerve modules.
+   */
+  private final        SwerveModule[]         modules;
+  /**
+   * Kinematics of the drive.
+   */
+  private final        SwerveDriveKinematics  kinematics;
+  /**
+   * Distance of each module from the center of rotation in meters.
+   */
+  private final        double[]               moduleRadii;
+  /**
+   * Drive conversion factor each module was created with.
+   */
+  private final        double[]               baseConversionFactors;
+  /**
+   * Configured wheel radius of each module in meters.
+   */
+  private final        double[]               baseWheelRadii;
+  /**
+   * Scale applied to the drive conversion factor of each module so far.
+   */
+  private final        double[]               appliedScales;
+  /**
+   * Per module wheel radius scale fits.
+   */
+  private final        Estimate[]             wheelScales;
+  /**
+   * Shared scale fit from normal driving.
+   */
+  private final        Estimate               trackScale;
+  /**
+   * Module positions of the previous update.
+   */
+  private final        SwerveModulePosition[] lastPositions;
+  /**
+   * Module distance change of each module in the current spin window in meters.
+   */
+  private final        double[]               spinDistances;
+  /**
+   * Scratch array for the module position changes.
+   */
+  private final        SwerveModulePosition[] deltas;
+  /**
+   * Gyro yaw change of the current spin window in radians.
+   */
+  private              double                 spinYaw              = 0;
+  /**
+   * Gyro yaw change of the current driving window in radians.
+   */
+  private              double                 driveYaw             = 0;
+  /**
+   * Kinematic yaw change of the current driving window in radians.
+   */
+  private              double                 driveKinematicYaw    = 0;
+  /**
+   * Gyro yaw of the previous update, null before the first one.
+   */
+  private              Rotation2d             lastYaw;
+  /**
+   * Confidence half width relative to the scale below which {@link SwerveWheelCalibrator#apply()} applies a scale.
+   */
+  public               double                 applyConfidence      = 0.01;
+  /**
+   * Samples required before {@link SwerveWheelCalibrator#apply()} applies a scale.
+   */
+  public               int                    applySamples         = 5;
+
+  /**
+   * Create the calibrator.
+   *
+   * @param modules    Swerve modules of the drivetrain.
+   * @param kinematics Kinematics of the drivetrain.
+   * @param forgetting Forgetting factor of the fits in (0, 1], 1 keeps every sample, 0.95 follows wear over a match.
+   */
+  public SwerveWheelCalibrator(SwerveModule[] modules, SwerveDriveKinematics kinematics, double forgetting)
+  {
+    this.modules = modules;
+    this.kinematics = kinematics;
+    int count = modules.length;
+    moduleRadii = new double[count];
+    baseConversionFactors = new double[count];
+    baseWheelRadii = new double[count];
+    appliedScales = new double[count];
+    wheelScales = new Estimate[count];
+    lastPositions = new SwerveModulePosition[count];
+    spinDistances = new double[count];
+    deltas = new SwerveModulePosition[count];
+    for (SwerveModule module : modules)
+    {
+      int i = module.moduleNumber;
+      moduleRadii[i] = module.configuration.moduleLocation.getNorm();
+      baseConversionFactors[i] = module.configuration.conversionFactors.drive.factor;
+      baseWheelRadii[i] = Units.inchesToMeters(module.configuration.conversionFactors.drive.diameter) / 2;
+      appliedScales[i] = 1;
+      wheelScales[i] = new Estimate(forgetting);
+    }
+    trackScale = new Estimate(forgetting);
+  }
+
+  /**
+   * Update the calibration with the odometry sample of this cycle, called by {@link SwerveDrive#updateOdometry()}.
+   *
+   * @param yaw       Gyro yaw.
+   * @param positions Module positions, indexed by module number.
+   */
+  public void update(Rotation2d yaw, SwerveModulePosition[] positions)
+  {
+    if (lastYaw == null)
+    {
+      reset(yaw, positions);
+      return;
+    }
+    double gyroYaw = yaw.minus(lastYaw).getRadians();
+    for (int i = 0; i < positions.length; i++)
+    {
+      deltas[i] = new SwerveModulePosition(positions[i].distanceMeters - lastPositions[i].distanceMeters,
+                                           positions[i].angle);
+    }
+    reset(yaw, positions);
+
+    Twist2d twist = kinematics.toTwist2d(deltas);
+    if (Math.abs(twist.dtheta) < MIN_STEP_RADIANS)
+    {
+      return;
+    }
+
+    // Normal driving, compare the gyro and kinematic yaw.
+    driveYaw += gyroYaw;
+    driveKinematicYaw += twist.dtheta;
+    if (Math.abs(driveYaw) >= WINDOW_RADIANS)
+    {
+      trackScale.add(Math.abs(driveKinematicYaw), Math.abs(driveYaw));
+      driveYaw = 0;
+      driveKinematicYaw = 0;
+    }
+
+    // Spinning in place, compare each wheel arc with its reported distance. Any translation ends the window.
+    double arc = Math.abs(twist.dtheta) * averageRadius();
+    if (Math.hypot(twist.dx, twist.dy) > SPIN_TRANSLATION * arc)
+    {
+      spinYaw = 0;
+      Arrays.fill(spinDistances, 0);
+      return;
+    }
+    spinYaw += gyroYaw;
+    for (int i = 0; i < deltas.length; i++)
+    {
+      spinDistances[i] += Math.abs(deltas[i].distanceMeters);
+    }
+    if (Math.abs(spinYaw) >= WINDOW_RADIANS)
+    {
+      for (int i = 0; i < spinDistances.length; i++)
+      {
+        wheelScales[i].add(spinDistances[i], Math.abs(spinYaw) * moduleRadii[i]);
+        spinDistances[i] = 0;
+      }
+      spinYaw = 0;
+    }
+  }
+
+  /**
+   * Start the next step from the given sample.
+   *
+   * @param yaw       Gyro yaw.
+   * @param positions Module positions.
+   */
+  private void reset(Rotation2d yaw, SwerveModulePosition[] positions)
+  {
+    lastYaw = yaw;
+    for (int i = 0; i < positions.length; i++)
+    {
+      lastPositions[i] = positions[i];
+    }
+  }
+
+  /**
+   * Average distance of the modules from the center of rotation.
+   *
+   * @return Radius in meters.
+   */
+  private double averageRadius()
+  {
+    double sum = 0;
+    for (double radius : moduleRadii)
+    {
+      sum += radius;
+    }
+    return sum / moduleRadii.length;
+  }
+
+  /**
+   * Get the ratio of the effective wheel radius to the currently applied one of a module, from spinning in place.
+   *
+   * @param moduleNumber Module number.
+   * @return Scale, 1 when no samples have been taken.
+   */
+  public double getWheelScale(int moduleNumber)
+  {
+    return wheelScales[moduleNumber].getScale();
+  }
+
+  /**
+   * Get the 95% confidence half width of {@link SwerveWheelCalibrator#getWheelScale(int)}.
+   *
+   * @param moduleNumber Module number.
+   * @return Half width, infinite with fewer than two samples.
+   */
+  public double getWheelScaleConfidence(int moduleNumber)
+  {
+    return wheelScales[moduleNumber].getConfidence();
+  }
+
+  /**
+   * Get the estimated effective wheel radius of a module.
+   *
+   * @param moduleNumber Module number.
+   * @return Wheel radius in meters.
+   */
+  public double getWheelRadiusMeters(int moduleNumber)
+  {
+    return baseWheelRadii[moduleNumber] * appliedScales[moduleNumber] * getWheelScale(moduleNumber);
+  }
+
+  /**
+   * Get the ratio of the gyro yaw to the yaw implied by module odometry while driving, which reflects both the wheel
+   * radius and the track geometry. Above 1 the odometry under reports rotation.
+   *
+   * @return Scale, 1 when no samples have been taken.
+   */
+  public double getTrackScale()
+  {
+    return trackScale.getScale();
+  }
+
+  /**
+   * Get the 95% confidence half width of {@link SwerveWheelCalibrator#getTrackScale()}.
+   *
+   * @return Half width, infinite with fewer than two samples.
+   */
+  public double getTrackScaleConfidence()
+  {
+    return trackScale.getConfidence();
+  }
+
+  /**
+   * Apply the wheel scales which are confident enough to the drive motor conversion factors through
+   * {@link SwerveModule#setDriveMotorConversionFactor(double)}. The drive positions jump when the factor changes, so
+   * the odometry should be reset to the current pose afterwards, {@link SwerveDrive#applyWheelCalibration()} does so.
+   *
+   * @return Number of modules updated.
+   */
+  public int apply()
+  {
+    int updated = 0;
+    for (SwerveModule module : modules)
+    {
+      int      i        = module.moduleNumber;
+      Estimate estimate = wheelScales[i];
+      if (estimate.getSamples() >= applySamples && estimate.getConfidence() <= applyConfidence * estimate.getScale())
+      {
+        appliedScales[i] *= estimate.getScale();
+        module.setDriveMotorConversionFactor(baseConversionFactors[i] * appliedScales[i]);
+        wheelScales[i] = new Estimate(estimate.forgetting);
+        updated++;
+      }
+    }
+    if (updated > 0)
+    {
+      // The new factors make the stored positions stale.
+      lastYaw = null;
+      trackScale.clear();
+    }
+    return updated;
+  }
+
+  /**
+   * Get the scale applied to the drive motor conversion factor of a module so far.
+   *
+   * @param moduleNumber Module number.
+   * @return Applied scale, 1 before the first {@link SwerveWheelCalibrator#apply()}.
+   */
+  public double getAppliedScale(int moduleNumber)
+  {
+    return appliedScales[moduleNumber];
+  }
+
+  /**
+   * Get a compact summary of the calibration for telemetry.
+   *
+   * @return Summary such as "r=[0.0505, 0.0504, 0.0506, 0.0505]m track=1.002±0.004".
+   */
+  public String getSummary()
+  {
+    StringBuilder summary = new StringBuilder("r=[");
+    for (int i = 0; i < modules.length; i++)
+    {
+      summary.append(i == 0 ? "" : ", ").append(String.format("%.4f", getWheelRadiusMeters(i)));
+    }
+    return summary.append(String.format("]m track=%.3f±%.3f", getTrackScale(), getTrackScaleConfidence()))
+                  .toString();
+  }
+
+  /**
+   * Streaming least squares fit of y = scale * x with exponential forgetting.
+   */
+  static class Estimate
+  {
+
+    /**
+     * Weight kept by the previous samples with every new sample.
+     */
+    private final double forgetting;
+    /**
+     * Weighted sums of x * x, x * y and y * y.
+     */
+    private       double sxx, sxy, syy;
+    /**
+     * Effective number of samples.
+     */
+    private       double weight;
+    /**
+     * Number of samples.
+     */
+    private       int    samples;
+
+    /**
+     * Create an empty fit.
+     *
+     * @param forgetting Weight kept by the previous samples with every new sample, in (0, 1].
+     */
+    Estimate(double forgetting)
+    {
+      this.forgetting = forgetting;
+    }
+
+    /**
+     * Add a sample.
+     *
+     * @param x Reported value.
+     * @param y Reference value.
+     */
+    void add(double x, double y)
+    {
+      sxx = forgetting * sxx + x * x;
+      sxy = forgetting * sxy + x * y;
+      syy = forgetting * syy + y * y;
+      weight = forgetting * weight + 1;
+      samples++;
+    }
+
+    /**
+     * Remove every sample.
+     */
+    void clear()
+    {
+      sxx = sxy = syy = weight = 0;
+      samples = 0;
+    }
+
+    /**
+     * Get the fitted scale.
+     *
+     * @return Scale, 1 when empty.
+     */
+    double getScale()
+    {
+      return sxx > 0 ? sxy / sxx : 1;
+    }
+
+    /**
+     * Get the 95% confidence half width of the scale.
+     *
+     * @return Half width, infinite with fewer than two samples.
+     */
+    double getConfidence()
+    {
+      if (samples < 2 || sxx <= 0)
+      {
+        return Double.POSITIVE_INFINITY;
+      }
+      double residual = Math.max(syy - sxy * sxy / sxx, 0) / Math.max(weight - 1, 1e-9);
+      return 1.96 * Math.sqrt(residual / sxx);
+    }
+
+    /**
+     * Get the number of samples.
+     *
+     * @return Samples added since created or cleared.
+     */
+    int getSamples()
+    {
+      return samples;
+    }
+  }
+}
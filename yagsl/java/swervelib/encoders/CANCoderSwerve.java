@@ -5,6 +5,7 @@ import static edu.wpi.first.units.Units.Milliseconds;
 import static edu.wpi.first.units.Units.Rotations;
 import static edu.wpi.first.units.Units.Seconds;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusCode;
 import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.CANcoderConfiguration;
@@ -16,6 +17,7 @@ import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.wpilibj.Alert;
 import edu.wpi.first.wpilibj.Alert.AlertType;
+import java.util.Optional;
 
 /**
  * Swerve Absolute Encoder for CTRE CANCoders.
@@ -175,16 +177,8 @@ public class CANCoderSwerve extends SwerveAbsoluteEncoder
       readingFaulty.set(false);
     }
 
-    // Taken from democat's library.
-    // Source: https://github.com/democat3457/swerve-lib/blob/7c03126b8c22f23a501b2c2742f9d173a5bcbc40/src/main/java/com/swervedrivespecialties/swervelib/ctre/CanCoderFactoryBuilder.java#L51-L74
-    for (int i = 0; i < maximumRetries; i++)
-    {
-      if (angle.getStatus() == StatusCode.OK)
-      {
-        break;
-      }
-      angle.waitForUpdate(STATUS_TIMEOUT_SECONDS);
-    }
+    // A single non-blocking read, the module's health monitor re-probes a failing encoder with backoff instead of
+    // waiting for updates inline.
     if (angle.getStatus() != StatusCode.OK)
     {
       readingError = true;
@@ -248,4 +242,36 @@ public class CANCoderSwerve extends SwerveAbsoluteEncoder
   {
     return velocity.refresh().getValue().in(DegreesPerSecond);
   }
+
+  /**
+   * Get the CAN bus the {@link CANcoder} is on.
+   *
+   * @return CAN bus name.
+   */
+  @Override
+  public Optional<String> getCANBus()
+  {
+    return Optional.of(encoder.getNetwork());
+  }
+
+  /**
+   * Set the update frequencies of the absolute position at the control period and the velocity and magnet health at
+   * the telemetry period, the rest are disabled with {@link CANcoder#optimizeBusUtilization()}.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return Status frames per second sent by the {@link CANcoder}, one frame per signal.
+   */
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    if (apply)
+    {
+      angle.setUpdateFrequency(1 / controlPeriodSeconds);
+      BaseStatusSignal.setUpdateFrequencyForAll(1 / telemetryPeriodSeconds, velocity, magnetHealth);
+      encoder.optimizeBusUtilization();
+    }
+    return 1 / controlPeriodSeconds + 2 / telemetryPeriodSeconds;
+  }
 }
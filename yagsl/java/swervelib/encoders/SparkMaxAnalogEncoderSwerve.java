@@ -217,4 +217,18 @@ public class SparkMaxAnalogEncoderSwerve extends SwerveAbsoluteEncoder
   {
     return encoder.getVelocity();
   }
+
+  /**
+   * The encoder frames are sent by the {@link SparkMax} it is attached to and planned with it.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return 0
+   */
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    return 0;
+  }
 }
@@ -1,5 +1,7 @@
 package swervelib.encoders;
 
+import java.util.Optional;
+
 /**
  * Swerve abstraction class to define a standard interface with absolute encoders for swerve modules..
  */
@@ -66,4 +68,30 @@ public abstract class SwerveAbsoluteEncoder implements AutoCloseable
    * @return velocity in degrees/sec.
    */
   public abstract double getVelocity();
+
+  /**
+   * Get the CAN bus the encoder sends its own frames on.
+   *
+   * @return CAN bus name, "rio" or "" for the roboRIO bus, empty if the encoder is not a CAN device, reports through
+   * the motor controller or is unknown.
+   */
+  public Optional<String> getCANBus()
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * Set the status frame periods of the signals swerve reads from this encoder and disable the rest. The absolute
+   * position is read every control period, velocity and health only for telemetry.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return Status frames per second sent by the encoder with these periods, {@link Double#NaN} if status frames
+   * cannot be planned for this encoder.
+   */
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    return Double.NaN;
+  }
 }
@@ -0,0 +1,834 @@
+package swervelib.estimator;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import java.util.Arrays;
+import java.util.Optional;
+import swervelib.math.SwerveKinematicsKernel;
+
+/**
+ * Fixed-size extended Kalman filter over the robot pose, field-relative velocity and gyroscope offset. Fuses module
+ * positions, gyroscope yaw and yaw rate, the accelerometer and vision. Module slip is detected from the least-squares
+ * residual of the forward kinematics and lowers the trust in wheel odometry for that cycle.
+ * <p>
+ * The state is [x, y, theta, vx, vy, omega, gyroOffset] in meters, radians and field-relative velocities. Every
+ * measurement is applied as a sequence of scalar updates so no matrices are inverted and nothing is allocated after
+ * construction. The last {@link ExtendedKalmanFilterSwerve#historySize} updates are kept so a delayed vision
+ * measurement is applied at its timestamp and the newer updates are replayed on top of it.
+ */
+public class ExtendedKalmanFilterSwerve extends SwerveStateEstimator
+{
+
+  /**
+   * Number of states.
+   */
+  private static final int    STATES              = 7;
+  /**
+   * Field-relative X position index.
+   */
+  private static final int    X                   = 0;
+  /**
+   * Field-relative Y position index.
+   */
+  private static final int    Y                   = 1;
+  /**
+   * Heading index.
+   */
+  private static final int    THETA               = 2;
+  /**
+   * Field-relative X velocity index.
+   */
+  private static final int    VX                  = 3;
+  /**
+   * Field-relative Y velocity index.
+   */
+  private static final int    VY                  = 4;
+  /**
+   * Angular velocity index.
+   */
+  private static final int    OMEGA               = 5;
+  /**
+   * Gyroscope offset index, heading = gyro yaw + offset.
+   */
+  private static final int    GYRO_OFFSET         = 6;
+  /**
+   * Number of recorded inputs per update.
+   */
+  private static final int    INPUTS              = 16;
+  /**
+   * Recorded input index of the time since the previous update.
+   */
+  private static final int    IN_DT               = 0;
+  /**
+   * Recorded input index of the robot-relative X velocity from wheel odometry.
+   */
+  private static final int    IN_ODOM_VX          = 1;
+  /**
+   * Recorded input index of the robot-relative Y velocity from wheel odometry.
+   */
+  private static final int    IN_ODOM_VY          = 2;
+  /**
+   * Recorded input index of the angular velocity from wheel odometry.
+   */
+  private static final int    IN_ODOM_OMEGA       = 3;
+  /**
+   * Recorded input index of the wheel odometry linear velocity variance.
+   */
+  private static final int    IN_ODOM_VAR         = 4;
+  /**
+   * Recorded input index of the wheel odometry angular velocity variance.
+   */
+  private static final int    IN_ODOM_OMEGA_VAR   = 5;
+  /**
+   * Recorded input index of the gyroscope yaw.
+   */
+  private static final int    IN_GYRO_YAW         = 6;
+  /**
+   * Recorded input index of the gyroscope yaw rate.
+   */
+  private static final int    IN_GYRO_RATE        = 7;
+  /**
+   * Recorded input index of the robot-relative X acceleration.
+   */
+  private static final int    IN_ACCEL_X          = 8;
+  /**
+   * Recorded input index of the robot-relative Y acceleration.
+   */
+  private static final int    IN_ACCEL_Y          = 9;
+  /**
+   * Recorded input index of the vision X position.
+   */
+  private static final int    IN_VISION_X         = 10;
+  /**
+   * Recorded input index of the vision Y position.
+   */
+  private static final int    IN_VISION_Y         = 11;
+  /**
+   * Recorded input index of the vision heading.
+   */
+  private static final int    IN_VISION_THETA     = 12;
+  /**
+   * Recorded input index of the vision X variance.
+   */
+  private static final int    IN_VISION_VAR_X     = 13;
+  /**
+   * Recorded input index of the vision Y variance.
+   */
+  private static final int    IN_VISION_VAR_Y     = 14;
+  /**
+   * Recorded input index of the vision heading variance.
+   */
+  private static final int    IN_VISION_VAR_THETA = 15;
+  /**
+   * Module X locations in meters.
+   */
+  private final        double[] moduleX;
+  /**
+   * Module Y locations in meters.
+   */
+  private final        double[] moduleY;
+  /**
+   * Least-squares forward kinematics, maps module displacements to a robot-relative twist.
+   */
+  private final        SwerveKinematicsKernel kinematics;
+  /**
+   * Mean squared module distance from the center of the robot.
+   */
+  private final        double   meanModuleRadiusSquared;
+  /**
+   * Module distances from the previous update.
+   */
+  private final        double[] lastDistances;
+  /**
+   * Module displacements for the current update, [dx0, dy0, dx1, dy1, ...].
+   */
+  private final        double[] moduleDisplacements;
+  /**
+   * Robot-relative twist for the current update, [dx, dy, dtheta].
+   */
+  private final        double[] twist               = new double[3];
+  /**
+   * State estimate.
+   */
+  private final        double[] state               = new double[STATES];
+  /**
+   * State covariance, row major.
+   */
+  private final        double[] covariance          = new double[STATES * STATES];
+  /**
+   * Scratch covariance column used by the scalar update.
+   */
+  private final        double[] scratchColumn       = new double[STATES];
+  /**
+   * Inputs of the current update before they are recorded.
+   */
+  private final        double[] currentInputs       = new double[INPUTS];
+  /**
+   * Number of updates kept for replaying delayed measurements.
+   */
+  private final        int      historySize;
+  /**
+   * Recorded update timestamps.
+   */
+  private final        double[] historyTimestamps;
+  /**
+   * Recorded update inputs.
+   */
+  private final        double[] historyInputs;
+  /**
+   * Recorded posterior states.
+   */
+  private final        double[] historyStates;
+  /**
+   * Recorded posterior covariances.
+   */
+  private final        double[] historyCovariances;
+  /**
+   * Index of the next history slot to write.
+   */
+  private              int      historyHead         = 0;
+  /**
+   * Number of valid history entries.
+   */
+  private              int      historyCount        = 0;
+  /**
+   * Default vision standard deviations [x, y, theta].
+   */
+  private final        double[] visionStdDevs       = {0.9, 0.9, 0.9};
+  /**
+   * Timestamp of the previous update in seconds.
+   */
+  private              double   lastTimestamp       = Double.NaN;
+  /**
+   * Process noise of the linear acceleration in meters per second squared.
+   */
+  private              double   accelerationStdDev  = 3.0;
+  /**
+   * Process noise of the angular acceleration in radians per second squared.
+   */
+  private              double   angularAccelerationStdDev = 6.0;
+  /**
+   * Wheel odometry linear velocity standard deviation in meters per second.
+   */
+  private              double   wheelVelocityStdDev = 0.05;
+  /**
+   * Wheel odometry angular velocity standard deviation in radians per second.
+   */
+  private              double   wheelOmegaStdDev    = 0.05;
+  /**
+   * Multiplier on the squared kinematic residual added to the wheel odometry variance.
+   */
+  private              double   slipSensitivity     = 4.0;
+  /**
+   * Gyroscope yaw standard deviation in radians.
+   */
+  private              double   gyroYawStdDev       = 0.002;
+  /**
+   * Gyroscope yaw rate standard deviation in radians per second.
+   */
+  private              double   gyroRateStdDev      = 0.02;
+  /**
+   * Gyroscope drift in radians per square root second.
+   */
+  private              double   gyroDriftStdDev     = 0.001;
+  /**
+   * Whether the gyroscope yaw rate is fused.
+   */
+  private              boolean  gyroRateEnabled     = true;
+  /**
+   * Whether the accelerometer is used as the process input.
+   */
+  private              boolean  accelerometerEnabled = false;
+  /**
+   * Root mean square module slip velocity of the last update in meters per second.
+   */
+  private              double   lastSlipVelocity    = 0;
+  /**
+   * Cached estimated pose, rebuilt only when the state changes.
+   */
+  private              Pose2d   cachedPose          = null;
+
+  /**
+   * Construct the estimator keeping 256 updates of history.
+   *
+   * @param moduleLocations Module locations relative to the center of the robot in meters.
+   * @param gyroAngle       Current gyroscope yaw.
+   * @param modulePositions Current module positions.
+   * @param initialPose     Starting field-relative pose.
+   */
+  public ExtendedKalmanFilterSwerve(Translation2d[] moduleLocations, Rotation2d gyroAngle,
+                                    SwerveModulePosition[] modulePositions, Pose2d initialPose)
+  {
+    this(moduleLocations, gyroAngle, modulePositions, initialPose, 256);
+  }
+
+  /**
+   * Construct the estimator.
+   *
+   * @param moduleLocations Module locations relative to the center of the robot in meters.
+   * @param gyroAngle       Current gyroscope yaw.
+   * @param modulePositions Current module positions.
+   * @param initialPose     Starting field-relative pose.
+   * @param historySize     Number of updates kept for replaying delayed vision measurements, at 250Hz odometry 256
+   *                        covers about one second.
+   */
+  public ExtendedKalmanFilterSwerve(Translation2d[] moduleLocations, Rotation2d gyroAngle,
+                                    SwerveModulePosition[] modulePositions, Pose2d initialPose, int historySize)
+  {
+    int moduleCount = moduleLocations.length;
+    moduleX = new double[moduleCount];
+    moduleY = new double[moduleCount];
+    lastDistances = new double[moduleCount];
+    moduleDisplacements = new double[moduleCount * 2];
+    kinematics = new SwerveKinematicsKernel(moduleLocations);
+
+    double sumRadiusSquared = 0;
+    for (int i = 0; i < moduleCount; i++)
+    {
+      moduleX[i] = moduleLocations[i].getX();
+      moduleY[i] = moduleLocations[i].getY();
+      sumRadiusSquared += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+    }
+    meanModuleRadiusSquared = sumRadiusSquared / moduleCount;
+
+    this.historySize = historySize;
+    historyTimestamps = new double[historySize];
+    historyInputs = new double[historySize * INPUTS];
+    historyStates = new double[historySize * STATES];
+    historyCovariances = new double[historySize * STATES * STATES];
+
+    resetPosition(gyroAngle, modulePositions, initialPose);
+  }
+
+  @Override
+  public void resetPosition(Rotation2d gyroAngle, SwerveModulePosition[] modulePositions, Pose2d pose)
+  {
+    Arrays.fill(state, 0);
+    Arrays.fill(covariance, 0);
+    state[X] = pose.getX();
+    state[Y] = pose.getY();
+    state[THETA] = pose.getRotation().getRadians();
+    state[GYRO_OFFSET] = MathUtil.angleModulus(state[THETA] - gyroAngle.getRadians());
+    covariance[X * STATES + X] = 1e-4;
+    covariance[Y * STATES + Y] = 1e-4;
+    covariance[THETA * STATES + THETA] = 1e-6;
+    covariance[VX * STATES + VX] = 1e-2;
+    covariance[VY * STATES + VY] = 1e-2;
+    covariance[OMEGA * STATES + OMEGA] = 1e-2;
+    covariance[GYRO_OFFSET * STATES + GYRO_OFFSET] = 1e-6;
+    for (int i = 0; i < lastDistances.length; i++)
+    {
+      lastDistances[i] = modulePositions[i].distanceMeters;
+    }
+    lastTimestamp = Double.NaN;
+    historyHead = 0;
+    historyCount = 0;
+    cachedPose = pose;
+  }
+
+  @Override
+  public void update(double timestampSeconds, Rotation2d gyroAngle, double gyroRateRadiansPerSecond,
+                     Optional<Translation3d> acceleration, SwerveModulePosition[] modulePositions)
+  {
+    double dt = Double.isNaN(lastTimestamp) ? 0 : timestampSeconds - lastTimestamp;
+    lastTimestamp = timestampSeconds;
+
+    // Module displacements over this cycle using the current module angle.
+    for (int i = 0; i < lastDistances.length; i++)
+    {
+      double delta = modulePositions[i].distanceMeters - lastDistances[i];
+      lastDistances[i] = modulePositions[i].distanceMeters;
+      moduleDisplacements[2 * i] = delta * modulePositions[i].angle.getCos();
+      moduleDisplacements[2 * i + 1] = delta * modulePositions[i].angle.getSin();
+    }
+    double residualSquared = solveTwist();
+
+    if (dt <= 0)
+    {
+      // No time has passed to form a velocity, apply the displacement directly without recording it.
+      double heading = state[THETA] + 0.5 * twist[2];
+      double cos     = Math.cos(heading), sin = Math.sin(heading);
+      state[X] += cos * twist[0] - sin * twist[1];
+      state[Y] += sin * twist[0] + cos * twist[1];
+      state[THETA] = MathUtil.angleModulus(state[THETA] + twist[2]);
+      cachedPose = null;
+      return;
+    }
+
+    double slipVelocitySquared = residualSquared / (dt * dt * lastDistances.length);
+    lastSlipVelocity = Math.sqrt(slipVelocitySquared);
+
+    currentInputs[IN_DT] = dt;
+    currentInputs[IN_ODOM_VX] = twist[0] / dt;
+    currentInputs[IN_ODOM_VY] = twist[1] / dt;
+    currentInputs[IN_ODOM_OMEGA] = twist[2] / dt;
+    currentInputs[IN_ODOM_VAR] = wheelVelocityStdDev * wheelVelocityStdDev + slipSensitivity * slipVelocitySquared;
+    currentInputs[IN_ODOM_OMEGA_VAR] = wheelOmegaStdDev * wheelOmegaStdDev +
+                                       slipSensitivity * slipVelocitySquared / meanModuleRadiusSquared;
+    currentInputs[IN_GYRO_YAW] = gyroAngle.getRadians();
+    currentInputs[IN_GYRO_RATE] = gyroRateEnabled ? gyroRateRadiansPerSecond : Double.NaN;
+    if (accelerometerEnabled && acceleration.isPresent())
+    {
+      currentInputs[IN_ACCEL_X] = acceleration.get().getX();
+      currentInputs[IN_ACCEL_Y] = acceleration.get().getY();
+    } else
+    {
+      currentInputs[IN_ACCEL_X] = Double.NaN;
+      currentInputs[IN_ACCEL_Y] = Double.NaN;
+    }
+    currentInputs[IN_VISION_X] = Double.NaN;
+
+    step(currentInputs, 0);
+    record(timestampSeconds, currentInputs);
+  }
+
+  /**
+   * Solve the least-squares robot-relative twist from {@link ExtendedKalmanFilterSwerve#moduleDisplacements} into
+   * {@link ExtendedKalmanFilterSwerve#twist}.
+   *
+   * @return Sum of the squared residuals of the module displacements in square meters.
+   */
+  private double solveTwist()
+  {
+    kinematics.toChassisSpeeds(moduleDisplacements, twist);
+    double residualSquared = 0;
+    for (int i = 0; i < moduleX.length; i++)
+    {
+      double rx = twist[0] - twist[2] * moduleY[i] - moduleDisplacements[2 * i];
+      double ry = twist[1] + twist[2] * moduleX[i] - moduleDisplacements[2 * i + 1];
+      residualSquared += rx * rx + ry * ry;
+    }
+    return residualSquared;
+  }
+
+  /**
+   * Run one predict and correct step from recorded inputs.
+   *
+   * @param inputs Input array.
+   * @param offset Offset of the inputs in the array.
+   */
+  private void step(double[] inputs, int offset)
+  {
+    double dt = inputs[offset + IN_DT];
+    predict(dt, inputs[offset + IN_ACCEL_X], inputs[offset + IN_ACCEL_Y]);
+
+    // Wheel odometry is robot-relative, rotate it into the field using the heading at the middle of the cycle.
+    double heading = state[THETA] - 0.5 * inputs[offset + IN_ODOM_OMEGA] * dt;
+    double cos     = Math.cos(heading), sin = Math.sin(heading);
+    double vx      = inputs[offset + IN_ODOM_VX], vy = inputs[offset + IN_ODOM_VY];
+    scalarUpdate(VX, 1, -1, 0, cos * vx - sin * vy - state[VX], inputs[offset + IN_ODOM_VAR]);
+    scalarUpdate(VY, 1, -1, 0, sin * vx + cos * vy - state[VY], inputs[offset + IN_ODOM_VAR]);
+    scalarUpdate(OMEGA, 1, -1, 0, inputs[offset + IN_ODOM_OMEGA] - state[OMEGA], inputs[offset + IN_ODOM_OMEGA_VAR]);
+
+    // Gyroscope yaw measures heading - offset.
+    scalarUpdate(THETA, 1, GYRO_OFFSET, -1,
+                 MathUtil.angleModulus(inputs[offset + IN_GYRO_YAW] - (state[THETA] - state[GYRO_OFFSET])),
+                 gyroYawStdDev * gyroYawStdDev);
+    if (!Double.isNaN(inputs[offset + IN_GYRO_RATE]))
+    {
+      scalarUpdate(OMEGA, 1, -1, 0, inputs[offset + IN_GYRO_RATE] - state[OMEGA], gyroRateStdDev * gyroRateStdDev);
+    }
+    if (!Double.isNaN(inputs[offset + IN_VISION_X]))
+    {
+      applyVision(inputs[offset + IN_VISION_X], inputs[offset + IN_VISION_Y], inputs[offset + IN_VISION_THETA],
+                  inputs[offset + IN_VISION_VAR_X], inputs[offset + IN_VISION_VAR_Y],
+                  inputs[offset + IN_VISION_VAR_THETA]);
+    }
+    state[THETA] = MathUtil.angleModulus(state[THETA]);
+    state[GYRO_OFFSET] = MathUtil.angleModulus(state[GYRO_OFFSET]);
+    cachedPose = null;
+  }
+
+  /**
+   * Constant velocity prediction, using the robot-relative acceleration as the input when available.
+   *
+   * @param dt     Time step in seconds.
+   * @param accelX Robot-relative X acceleration, {@link Double#NaN} if unused.
+   * @param accelY Robot-relative Y acceleration, {@link Double#NaN} if unused.
+   */
+  private void predict(double dt, double accelX, double accelY)
+  {
+    double ax = 0, ay = 0;
+    if (!Double.isNaN(accelX))
+    {
+      double cos = Math.cos(state[THETA]), sin = Math.sin(state[THETA]);
+      ax = cos * accelX - sin * accelY;
+      ay = sin * accelX + cos * accelY;
+    }
+    state[X] += state[VX] * dt + 0.5 * ax * dt * dt;
+    state[Y] += state[VY] * dt + 0.5 * ay * dt * dt;
+    state[THETA] += state[OMEGA] * dt;
+    state[VX] += ax * dt;
+    state[VY] += ay * dt;
+
+    // P = F P F^T with F = I + dt on (x, vx), (y, vy), (theta, omega), done in place. Rows and columns 3-5 are read
+    // before they could be modified since only rows and columns 0-2 change.
+    for (int i = 0; i < 3; i++)
+    {
+      for (int k = 0; k < STATES; k++)
+      {
+        covariance[i * STATES + k] += dt * covariance[(i + 3) * STATES + k];
+      }
+    }
+    for (int j = 0; j < 3; j++)
+    {
+      for (int k = 0; k < STATES; k++)
+      {
+        covariance[k * STATES + j] += dt * covariance[k * STATES + j + 3];
+      }
+    }
+
+    // Discrete white noise acceleration model, diagonal approximation.
+    double linear  = accelerationStdDev * accelerationStdDev;
+    double angular = angularAccelerationStdDev * angularAccelerationStdDev;
+    double dt3     = dt * dt * dt / 3.0;
+    covariance[X * STATES + X] += linear * dt3;
+    covariance[Y * STATES + Y] += linear * dt3;
+    covariance[THETA * STATES + THETA] += angular * dt3;
+    covariance[VX * STATES + VX] += linear * dt;
+    covariance[VY * STATES + VY] += linear * dt;
+    covariance[OMEGA * STATES + OMEGA] += angular * dt;
+    covariance[GYRO_OFFSET * STATES + GYRO_OFFSET] += gyroDriftStdDev * gyroDriftStdDev * dt;
+  }
+
+  /**
+   * Apply a scalar measurement whose measurement row has at most two non-zero entries.
+   *
+   * @param i          First state index.
+   * @param hi         Measurement coefficient of the first state.
+   * @param j          Second state index, -1 if unused.
+   * @param hj         Measurement coefficient of the second state.
+   * @param innovation Measurement minus the predicted measurement.
+   * @param variance   Measurement variance.
+   */
+  private void scalarUpdate(int i, double hi, int j, double hj, double innovation, double variance)
+  {
+    // P H^T
+    for (int k = 0; k < STATES; k++)
+    {
+      scratchColumn[k] = covariance[k * STATES + i] * hi + (j >= 0 ? covariance[k * STATES + j] * hj : 0);
+    }
+    double innovationVariance = scratchColumn[i] * hi + (j >= 0 ? scratchColumn[j] * hj : 0) + variance;
+    if (!(innovationVariance > 0))
+    {
+      return;
+    }
+    double gainScale = 1.0 / innovationVariance;
+    for (int k = 0; k < STATES; k++)
+    {
+      state[k] += scratchColumn[k] * gainScale * innovation;
+    }
+    // P -= K (H P) = (P H^T)(P H^T)^T / S since P is symmetric.
+    for (int r = 0; r < STATES; r++)
+    {
+      double gain = scratchColumn[r] * gainScale;
+      for (int c = 0; c < STATES; c++)
+      {
+        covariance[r * STATES + c] -= gain * scratchColumn[c];
+      }
+    }
+  }
+
+  /**
+   * Apply a vision measurement to the current state.
+   *
+   * @param x             Vision X in meters.
+   * @param y             Vision Y in meters.
+   * @param theta         Vision heading in radians.
+   * @param varianceX     X variance.
+   * @param varianceY     Y variance.
+   * @param varianceTheta Heading variance.
+   */
+  private void applyVision(double x, double y, double theta, double varianceX, double varianceY, double varianceTheta)
+  {
+    scalarUpdate(X, 1, -1, 0, x - state[X], varianceX);
+    scalarUpdate(Y, 1, -1, 0, y - state[Y], varianceY);
+    scalarUpdate(THETA, 1, -1, 0, MathUtil.angleModulus(theta - state[THETA]), varianceTheta);
+  }
+
+  /**
+   * Record the inputs and the posterior of the current update.
+   *
+   * @param timestampSeconds Timestamp of the update.
+   * @param inputs           Inputs of the update.
+   */
+  private void record(double timestampSeconds, double[] inputs)
+  {
+    historyTimestamps[historyHead] = timestampSeconds;
+    System.arraycopy(inputs, 0, historyInputs, historyHead * INPUTS, INPUTS);
+    savePosterior(historyHead);
+    historyHead = (historyHead + 1) % historySize;
+    historyCount = Math.min(historyCount + 1, historySize);
+  }
+
+  /**
+   * Save the current state and covariance into a history slot.
+   *
+   * @param slot History slot.
+   */
+  private void savePosterior(int slot)
+  {
+    System.arraycopy(state, 0, historyStates, slot * STATES, STATES);
+    System.arraycopy(covariance, 0, historyCovariances, slot * STATES * STATES, STATES * STATES);
+  }
+
+  /**
+   * Restore the state and covariance from a history slot.
+   *
+   * @param slot History slot.
+   */
+  private void restorePosterior(int slot)
+  {
+    System.arraycopy(historyStates, slot * STATES, state, 0, STATES);
+    System.arraycopy(historyCovariances, slot * STATES * STATES, covariance, 0, STATES * STATES);
+  }
+
+  @Override
+  public Pose2d getEstimatedPosition()
+  {
+    if (cachedPose == null)
+    {
+      cachedPose = new Pose2d(state[X], state[Y], Rotation2d.fromRadians(state[THETA]));
+    }
+    return cachedPose;
+  }
+
+  /**
+   * Get the estimated field-relative velocity of the robot.
+   *
+   * @return Field-relative {@link ChassisSpeeds}.
+   */
+  public ChassisSpeeds getEstimatedFieldVelocity()
+  {
+    return new ChassisSpeeds(state[VX], state[VY], state[OMEGA]);
+  }
+
+  /**
+   * Get the root mean square module slip velocity detected on the last update.
+   *
+   * @return Slip velocity in meters per second, 0 when the modules agree with rigid body motion.
+   */
+  public double getLastSlipVelocity()
+  {
+    return lastSlipVelocity;
+  }
+
+  @Override
+  public void addVisionMeasurement(Pose2d visionRobotPose, double timestampSeconds)
+  {
+    addVisionMeasurement(visionRobotPose.getX(), visionRobotPose.getY(), visionRobotPose.getRotation().getRadians(),
+                         timestampSeconds,
+                         visionStdDevs[0] * visionStdDevs[0],
+                         visionStdDevs[1] * visionStdDevs[1],
+                         visionStdDevs[2] * visionStdDevs[2]);
+  }
+
+  @Override
+  public void addVisionMeasurement(Pose2d visionRobotPose, double timestampSeconds,
+                                   Matrix<N3, N1> visionMeasurementStdDevs)
+  {
+    double stdX = visionMeasurementStdDevs.get(0, 0);
+    double stdY = visionMeasurementStdDevs.get(1, 0);
+    double stdT = visionMeasurementStdDevs.get(2, 0);
+    addVisionMeasurement(visionRobotPose.getX(), visionRobotPose.getY(), visionRobotPose.getRotation().getRadians(),
+                         timestampSeconds, stdX * stdX, stdY * stdY, stdT * stdT);
+  }
+
+  /**
+   * Apply a vision measurement at its timestamp and replay the newer updates.
+   *
+   * @param x                Vision X in meters.
+   * @param y                Vision Y in meters.
+   * @param theta            Vision heading in radians.
+   * @param timestampSeconds Timestamp of the measurement.
+   * @param varianceX        X variance.
+   * @param varianceY        Y variance.
+   * @param varianceTheta    Heading variance.
+   */
+  private void addVisionMeasurement(double x, double y, double theta, double timestampSeconds, double varianceX,
+                                    double varianceY, double varianceTheta)
+  {
+    if (historyCount == 0)
+    {
+      applyVision(x, y, theta, varianceX, varianceY, varianceTheta);
+      state[THETA] = MathUtil.angleModulus(state[THETA]);
+      cachedPose = null;
+      return;
+    }
+
+    // Find the newest update at or before the measurement.
+    int newest = Math.floorMod(historyHead - 1, historySize);
+    int slot   = -1;
+    int back   = 0;
+    for (; back < historyCount; back++)
+    {
+      int candidate = Math.floorMod(newest - back, historySize);
+      if (historyTimestamps[candidate] <= timestampSeconds)
+      {
+        slot = candidate;
+        break;
+      }
+    }
+    if (slot < 0)
+    {
+      // Older than the whole history, same as the WPILib estimator it is discarded.
+      return;
+    }
+
+    mergeVisionIntoHistory(slot, x, y, theta, varianceX, varianceY, varianceTheta);
+    restorePosterior(slot);
+    applyVision(x, y, theta, varianceX, varianceY, varianceTheta);
+    state[THETA] = MathUtil.angleModulus(state[THETA]);
+    savePosterior(slot);
+
+    // Replay every newer update on top of the corrected state.
+    for (int replayed = back - 1; replayed >= 0; replayed--)
+    {
+      int replaySlot = Math.floorMod(newest - replayed, historySize);
+      step(historyInputs, replaySlot * INPUTS);
+      savePosterior(replaySlot);
+    }
+    cachedPose = null;
+  }
+
+  /**
+   * Store a vision measurement in a history slot so it survives later replays. Two measurements in the same slot are
+   * fused into one since sequential scalar updates of the same state are equivalent to their product.
+   *
+   * @param slot          History slot.
+   * @param x             Vision X in meters.
+   * @param y             Vision Y in meters.
+   * @param theta         Vision heading in radians.
+   * @param varianceX     X variance.
+   * @param varianceY     Y variance.
+   * @param varianceTheta Heading variance.
+   */
+  private void mergeVisionIntoHistory(int slot, double x, double y, double theta, double varianceX, double varianceY,
+                                      double varianceTheta)
+  {
+    int offset = slot * INPUTS;
+    if (Double.isNaN(historyInputs[offset + IN_VISION_X]))
+    {
+      historyInputs[offset + IN_VISION_X] = x;
+      historyInputs[offset + IN_VISION_Y] = y;
+      historyInputs[offset + IN_VISION_THETA] = theta;
+      historyInputs[offset + IN_VISION_VAR_X] = varianceX;
+      historyInputs[offset + IN_VISION_VAR_Y] = varianceY;
+      historyInputs[offset + IN_VISION_VAR_THETA] = varianceTheta;
+      return;
+    }
+    fuse(offset + IN_VISION_X, offset + IN_VISION_VAR_X, x, varianceX, false);
+    fuse(offset + IN_VISION_Y, offset + IN_VISION_VAR_Y, y, varianceY, false);
+    fuse(offset + IN_VISION_THETA, offset + IN_VISION_VAR_THETA, theta, varianceTheta, true);
+  }
+
+  /**
+   * Fuse a scalar measurement into a recorded one.
+   *
+   * @param valueIndex    Index of the recorded value.
+   * @param varianceIndex Index of the recorded variance.
+   * @param value         New value.
+   * @param variance      New variance.
+   * @param angle         Whether the value is an angle in radians.
+   */
+  private void fuse(int valueIndex, int varianceIndex, double value, double variance, boolean angle)
+  {
+    double oldValue    = historyInputs[valueIndex];
+    double oldVariance = historyInputs[varianceIndex];
+    double difference  = angle ? MathUtil.angleModulus(value - oldValue) : value - oldValue;
+    double weight      = oldVariance / (oldVariance + variance);
+    double fused       = oldValue + weight * difference;
+    historyInputs[valueIndex] = angle ? MathUtil.angleModulus(fused) : fused;
+    historyInputs[varianceIndex] = oldVariance * variance / (oldVariance + variance);
+  }
+
+  @Override
+  public void setVisionMeasurementStdDevs(Matrix<N3, N1> visionMeasurementStdDevs)
+  {
+    visionStdDevs[0] = visionMeasurementStdDevs.get(0, 0);
+    visionStdDevs[1] = visionMeasurementStdDevs.get(1, 0);
+    visionStdDevs[2] = visionMeasurementStdDevs.get(2, 0);
+  }
+
+  /**
+   * Set the process noise.
+   *
+   * @param accelerationStdDev        Linear acceleration standard deviation in meters per second squared.
+   * @param angularAccelerationStdDev Angular acceleration standard deviation in radians per second squared.
+   */
+  public void setProcessStdDevs(double accelerationStdDev, double angularAccelerationStdDev)
+  {
+    this.accelerationStdDev = accelerationStdDev;
+    this.angularAccelerationStdDev = angularAccelerationStdDev;
+  }
+
+  /**
+   * Set the wheel odometry trust.
+   *
+   * @param velocityStdDev  Linear velocity standard deviation in meters per second.
+   * @param omegaStdDev     Angular velocity standard deviation in radians per second.
+   * @param slipSensitivity Multiplier on the squared module slip velocity added to the wheel variance, 0 disables slip
+   *                        detection.
+   */
+  public void setWheelStdDevs(double velocityStdDev, double omegaStdDev, double slipSensitivity)
+  {
+    this.wheelVelocityStdDev = velocityStdDev;
+    this.wheelOmegaStdDev = omegaStdDev;
+    this.slipSensitivity = slipSensitivity;
+  }
+
+  /**
+   * Set the gyroscope trust.
+   *
+   * @param yawStdDev   Yaw standard deviation in radians.
+   * @param rateStdDev  Yaw rate standard deviation in radians per second.
+   * @param driftStdDev Drift of the gyroscope in radians per square root second.
+   */
+  public void setGyroStdDevs(double yawStdDev, double rateStdDev, double driftStdDev)
+  {
+    this.gyroYawStdDev = yawStdDev;
+    this.gyroRateStdDev = rateStdDev;
+    this.gyroDriftStdDev = driftStdDev;
+  }
+
+  /**
+   * Enable fusing the gyroscope yaw rate, enabled by default.
+   *
+   * @param enabled Enable state.
+   */
+  public void setGyroRateEnabled(boolean enabled)
+  {
+    gyroRateEnabled = enabled;
+  }
+
+  /**
+   * Enable the accelerometer as the process input, disabled by default since the IMU must be mounted level and at the
+   * center of rotation for it to help.
+   *
+   * @param enabled Enable state.
+   */
+  public void setAccelerometerEnabled(boolean enabled)
+  {
+    accelerometerEnabled = enabled;
+  }
+
+  @Override
+  public boolean usesGyroRate()
+  {
+    return gyroRateEnabled;
+  }
+
+  @Override
+  public boolean usesAcceleration()
+  {
+    return accelerometerEnabled;
+  }
+}
@@ -0,0 +1,81 @@
+package swervelib.estimator;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import java.util.Optional;
+
+/**
+ * {@link SwerveStateEstimator} backed by the WPILib {@link SwerveDrivePoseEstimator}. This is the default estimator.
+ */
+public class PoseEstimatorSwerve extends SwerveStateEstimator
+{
+
+  /**
+   * WPILib pose estimator.
+   */
+  private final SwerveDrivePoseEstimator poseEstimator;
+
+  /**
+   * Wrap an existing {@link SwerveDrivePoseEstimator}.
+   *
+   * @param poseEstimator {@link SwerveDrivePoseEstimator} to use.
+   */
+  public PoseEstimatorSwerve(SwerveDrivePoseEstimator poseEstimator)
+  {
+    this.poseEstimator = poseEstimator;
+  }
+
+  @Override
+  public void resetPosition(Rotation2d gyroAngle, SwerveModulePosition[] modulePositions, Pose2d pose)
+  {
+    poseEstimator.resetPosition(gyroAngle, modulePositions, pose);
+  }
+
+  @Override
+  public void update(double timestampSeconds, Rotation2d gyroAngle, double gyroRateRadiansPerSecond,
+                     Optional<Translation3d> acceleration, SwerveModulePosition[] modulePositions)
+  {
+    poseEstimator.updateWithTime(timestampSeconds, gyroAngle, modulePositions);
+  }
+
+  @Override
+  public Pose2d getEstimatedPosition()
+  {
+    return poseEstimator.getEstimatedPosition();
+  }
+
+  @Override
+  public void addVisionMeasurement(Pose2d visionRobotPose, double timestampSeconds)
+  {
+    poseEstimator.addVisionMeasurement(visionRobotPose, timestampSeconds);
+  }
+
+  @Override
+  public void addVisionMeasurement(Pose2d visionRobotPose, double timestampSeconds,
+                                   Matrix<N3, N1> visionMeasurementStdDevs)
+  {
+    poseEstimator.addVisionMeasurement(visionRobotPose, timestampSeconds, visionMeasurementStdDevs);
+  }
+
+  @Override
+  public void setVisionMeasurementStdDevs(Matrix<N3, N1> visionMeasurementStdDevs)
+  {
+    poseEstimator.setVisionMeasurementStdDevs(visionMeasurementStdDevs);
+  }
+
+  /**
+   * Get the underlying WPILib {@link SwerveDrivePoseEstimator}.
+   *
+   * @return {@link SwerveDrivePoseEstimator} in use.
+   */
+  public SwerveDrivePoseEstimator getPoseEstimator()
+  {
+    return poseEstimator;
+  }
+}
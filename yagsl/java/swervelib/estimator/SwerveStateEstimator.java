@@ -0,0 +1,93 @@
+package swervelib.estimator;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import java.util.Optional;
+
+/**
+ * Swerve state estimator abstraction to define a standard interface between odometry sources and a swerve drive.
+ */
+public abstract class SwerveStateEstimator
+{
+
+  /**
+   * Reset the estimator to the given pose. Gyro angle and module positions do not need to be reset beforehand.
+   *
+   * @param gyroAngle       Current gyroscope yaw as a {@link Rotation2d}.
+   * @param modulePositions Current {@link SwerveModulePosition}s of the modules.
+   * @param pose            Field-relative {@link Pose2d} to reset to.
+   */
+  public abstract void resetPosition(Rotation2d gyroAngle, SwerveModulePosition[] modulePositions, Pose2d pose);
+
+  /**
+   * Update the estimator with the latest sensor readings. Should be called every odometry cycle.
+   *
+   * @param timestampSeconds         Timestamp of the readings in seconds.
+   * @param gyroAngle                Gyroscope yaw as a {@link Rotation2d}.
+   * @param gyroRateRadiansPerSecond Gyroscope yaw rate in radians per second, {@link Double#NaN} if not read.
+   * @param acceleration             Robot-relative acceleration in meters per second squared, empty if not read.
+   * @param modulePositions          {@link SwerveModulePosition}s of the modules.
+   */
+  public abstract void update(double timestampSeconds, Rotation2d gyroAngle, double gyroRateRadiansPerSecond,
+                              Optional<Translation3d> acceleration, SwerveModulePosition[] modulePositions);
+
+  /**
+   * Get the current estimated pose of the robot.
+   *
+   * @return Field-relative {@link Pose2d} of the robot.
+   */
+  public abstract Pose2d getEstimatedPosition();
+
+  /**
+   * Add a vision measurement using the default vision standard deviations.
+   *
+   * @param visionRobotPose  Robot {@link Pose2d} as measured by vision.
+   * @param timestampSeconds Timestamp the measurement was taken at, on the same timebase as
+   *                         {@link SwerveStateEstimator#update}.
+   */
+  public abstract void addVisionMeasurement(Pose2d visionRobotPose, double timestampSeconds);
+
+  /**
+   * Add a vision measurement with the given standard deviations.
+   *
+   * @param visionRobotPose          Robot {@link Pose2d} as measured by vision.
+   * @param timestampSeconds         Timestamp the measurement was taken at, on the same timebase as
+   *                                 {@link SwerveStateEstimator#update}.
+   * @param visionMeasurementStdDevs Standard deviations of the measurement in the form [x, y, theta], in meters and
+   *                                 radians.
+   */
+  public abstract void addVisionMeasurement(Pose2d visionRobotPose, double timestampSeconds,
+                                            Matrix<N3, N1> visionMeasurementStdDevs);
+
+  /**
+   * Set the default standard deviations used for vision measurements.
+   *
+   * @param visionMeasurementStdDevs Standard deviations in the form [x, y, theta], in meters and radians.
+   */
+  public abstract void setVisionMeasurementStdDevs(Matrix<N3, N1> visionMeasurementStdDevs);
+
+  /**
+   * Whether the estimator uses the gyroscope yaw rate. When false the swerve drive does not read it.
+   *
+   * @return True if {@link SwerveStateEstimator#update} should be given the gyroscope yaw rate.
+   */
+  public boolean usesGyroRate()
+  {
+    return false;
+  }
+
+  /**
+   * Whether the estimator uses the accelerometer. When false the swerve drive does not read it.
+   *
+   * @return True if {@link SwerveStateEstimator#update} should be given the IMU acceleration.
+   */
+  public boolean usesAcceleration()
+  {
+    return false;
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * State estimators used by {@link swervelib.SwerveDrive} for odometry. All extend
+ * {@link swervelib.estimator.SwerveStateEstimator}.
+ */
+package swervelib.estimator;
@@ -130,6 +130,12 @@ public class ADIS16470Swerve extends SwerveIMU
     return yawVel.mut_setMagnitude(imu.getRate());
   }
 
+  @Override
+  public double getYawRateRadiansPerSecond()
+  {
+    return Math.toRadians(invertedIMU ? -imu.getRate() : imu.getRate());
+  }
+
   /**
    * Get the instantiated IMU object.
    *
@@ -171,12 +171,34 @@ public class NavXSwerve extends SwerveIMU
             .times(9.81));
   }
 
+  /**
+   * Fetch the yaw from the NavX quaternion without any zeroing, the same as the Z of
+   * {@link NavXSwerve#getRawRotation3d()} without creating it.
+   *
+   * @return Yaw in radians, CCW positive.
+   */
+  @Override
+  public double getRawYawRadians()
+  {
+    double w    = imu.getQuaternionW(), x = imu.getQuaternionX(), y = imu.getQuaternionY(), z = imu.getQuaternionZ();
+    double norm = w * w + x * x + y * y + z * z;
+    double yaw  = Math.atan2(2.0 * (w * z + x * y), norm - 2.0 * (y * y + z * z));
+    return inverted ? -yaw : yaw;
+  }
+
   @Override
   public MutAngularVelocity getYawAngularVelocity()
   {
     return yawVel.mut_setMagnitude(imu.getRate());
   }
 
+  @Override
+  public double getYawRateRadiansPerSecond()
+  {
+    // getRate() is clockwise positive like getAngle(), the yaw is counter-clockwise positive.
+    return Math.toRadians(inverted ? imu.getRate() : -imu.getRate());
+  }
+
   /**
    * Get the instantiated NavX({@link AHRS}) IMU object.
    *
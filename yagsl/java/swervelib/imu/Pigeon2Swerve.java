@@ -2,6 +2,7 @@ package swervelib.imu;
 
 import static edu.wpi.first.units.Units.DegreesPerSecond;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.Pigeon2Configuration;
 import com.ctre.phoenix6.configs.Pigeon2Configurator;
@@ -186,4 +187,42 @@ public class Pigeon2Swerve extends SwerveIMU
   {
     return imu;
   }
+
+  /**
+   * Get the CAN bus the {@link Pigeon2} is on.
+   *
+   * @return CAN bus name.
+   */
+  @Override
+  public Optional<String> getCANBus()
+  {
+    return Optional.of(imu.getNetwork());
+  }
+
+  /**
+   * Set the update frequencies of the quaternion used by {@link Pigeon2#getRotation3d()} and the yaw rate at the
+   * control period and the acceleration at the telemetry period, the rest are disabled with
+   * {@link Pigeon2#optimizeBusUtilization()}.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return Status frames per second sent by the {@link Pigeon2}, one frame per signal.
+   */
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    if (apply)
+    {
+      BaseStatusSignal.setUpdateFrequencyForAll(1 / controlPeriodSeconds,
+                                                imu.getQuatW(),
+                                                imu.getQuatX(),
+                                                imu.getQuatY(),
+                                                imu.getQuatZ(),
+                                                imu.getAngularVelocityZWorld());
+      BaseStatusSignal.setUpdateFrequencyForAll(1 / telemetryPeriodSeconds, xAcc.get(), yAcc.get(), zAcc.get());
+      imu.optimizeBusUtilization();
+    }
+    return 5 / controlPeriodSeconds + 3 / telemetryPeriodSeconds;
+  }
 }
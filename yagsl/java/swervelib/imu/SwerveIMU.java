@@ -1,5 +1,7 @@
 package swervelib.imu;
 
+import static edu.wpi.first.units.Units.RadiansPerSecond;
+
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Translation3d;
 import edu.wpi.first.units.measure.MutAngularVelocity;
@@ -61,16 +63,64 @@ public abstract class SwerveIMU implements AutoCloseable
   public abstract Optional<Translation3d> getAccel();
 
   /**
-   * Fetch the rotation rate from the IMU as {@link MutAngularVelocity}
+   * Fetch the rotation rate from the IMU as {@link MutAngularVelocity}, in the sign convention of the device. Use
+   * {@link SwerveIMU#getYawRateRadiansPerSecond()} for a rate that matches the yaw.
    *
    * @return {@link MutAngularVelocity} of the rotation rate.
    */
   public abstract MutAngularVelocity getYawAngularVelocity();
 
+  /**
+   * Fetch the yaw from the IMU without any zeroing in radians, CCW positive. Used by {@link SwerveIMUSampler} at the
+   * native rate of the IMU, override to read it without creating a {@link Rotation3d}.
+   *
+   * @return Yaw of {@link SwerveIMU#getRawRotation3d()} in radians.
+   */
+  public double getRawYawRadians()
+  {
+    return getRawRotation3d().getZ();
+  }
+
+  /**
+   * Fetch the yaw rate from the IMU in radians per second, CCW positive and inverted with the yaw. Used by
+   * {@link SwerveIMUSampler} at the native rate of the IMU, override to read it without the unit conversion.
+   *
+   * @return Yaw rate in radians per second, {@link SwerveIMU#getYawAngularVelocity()} unless overridden.
+   */
+  public double getYawRateRadiansPerSecond()
+  {
+    return getYawAngularVelocity().in(RadiansPerSecond);
+  }
+
   /**
    * Get the instantiated IMU object.
    *
    * @return IMU object.
    */
   public abstract Object getIMU();
+
+  /**
+   * Get the CAN bus the IMU is on.
+   *
+   * @return CAN bus name, "rio" or "" for the roboRIO bus, empty if the IMU is not a CAN device or it is unknown.
+   */
+  public Optional<String> getCANBus()
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * Set the status frame periods of the signals swerve reads from this IMU and disable the rest. Orientation and yaw
+   * rate are read every control period, acceleration only for telemetry.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return Status frames per second sent by the IMU with these periods, {@link Double#NaN} if status frames cannot be
+   * planned for this IMU.
+   */
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    return Double.NaN;
+  }
 }
@@ -0,0 +1,250 @@
+package swervelib.imu;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.Notifier;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Samples the yaw and yaw rate of a {@link SwerveIMU} on its own thread at the native rate of the device, faster than
+ * the odometry polls it, into a lock-free ring buffer of timestamped samples. Odometry then asks for the yaw at the
+ * timestamp of its module sample instead of the latest read, so no sample between polls is lost.
+ * <p>
+ * Between two samples the yaw is integrated from the linearly interpolated yaw rate and corrected so it meets the
+ * absolute yaw of the next sample, past the newest sample it is extrapolated with the newest yaw rate. Everything is
+ * done in primitives, the offset is applied about the vertical axis only since odometry only uses the yaw.
+ * <p>
+ * The sampler thread is the only writer and readers never block it, a read overwritten while it was in progress is
+ * retried.
+ */
+public class SwerveIMUSampler implements AutoCloseable
+{
+
+  /**
+   * Longest time in seconds the yaw is extrapolated past the newest sample.
+   */
+  public static final double MAX_EXTRAPOLATION_SECONDS = 0.1;
+
+  /**
+   * IMU to sample.
+   */
+  private final SwerveIMU      imu;
+  /**
+   * Timestamp source in seconds, the same as the odometry timestamps.
+   */
+  private final DoubleSupplier timestampSupplier;
+  /**
+   * Thread sampling the IMU.
+   */
+  private final Notifier       notifier;
+  /**
+   * Ring buffer of sample timestamps in seconds.
+   */
+  private final double[]       timestamps;
+  /**
+   * Ring buffer of raw yaws in radians, CCW positive and continuous.
+   */
+  private final double[]       yaws;
+  /**
+   * Ring buffer of yaw rates in radians per second.
+   */
+  private final double[]       rates;
+  /**
+   * Ring buffer index mask, the capacity is a power of two.
+   */
+  private final int            mask;
+  /**
+   * Number of samples published, the newest is at index written - 1.
+   */
+  private final AtomicLong     written       = new AtomicLong();
+  /**
+   * Yaw offset in radians subtracted from the raw yaw.
+   */
+  private volatile double      offsetRadians = 0;
+  /**
+   * Last raw yaw read by the sampler thread, to unwrap the next one.
+   */
+  private double               lastRawYaw    = Double.NaN;
+
+  /**
+   * Create the sampler, it does not sample until {@link SwerveIMUSampler#start(double)}.
+   *
+   * @param imu               {@link SwerveIMU} to sample.
+   * @param timestampSupplier Timestamp source in seconds, must match the timestamps yaws are requested at.
+   * @param capacity          Samples kept, rounded up to a power of two. Should cover a few odometry periods at the
+   *                          sampling rate.
+   */
+  public SwerveIMUSampler(SwerveIMU imu, DoubleSupplier timestampSupplier, int capacity)
+  {
+    int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+    this.imu = imu;
+    this.timestampSupplier = timestampSupplier;
+    timestamps = new double[size];
+    yaws = new double[size];
+    rates = new double[size];
+    mask = size - 1;
+    notifier = new Notifier(this::sample);
+    notifier.setName("IMU Sampler");
+  }
+
+  /**
+   * Start sampling.
+   *
+   * @param periodSeconds Sampling period in seconds, the native update period of the IMU such as 0.005 for a NavX at
+   *                      200Hz.
+   */
+  public void start(double periodSeconds)
+  {
+    notifier.stop();
+    notifier.startPeriodic(periodSeconds);
+  }
+
+  /**
+   * Stop sampling, the samples already taken are kept.
+   */
+  public void stop()
+  {
+    notifier.stop();
+  }
+
+  @Override
+  public void close()
+  {
+    notifier.close();
+  }
+
+  /**
+   * Set the yaw offset, like {@link SwerveIMU#setOffset(edu.wpi.first.math.geometry.Rotation3d)}.
+   *
+   * @param offsetRadians Yaw offset in radians subtracted from every yaw.
+   */
+  public void setOffset(double offsetRadians)
+  {
+    this.offsetRadians = offsetRadians;
+  }
+
+  /**
+   * Take one sample, called by the sampler thread. May be called directly instead of starting the thread.
+   */
+  public void sample()
+  {
+    double timestamp = timestampSupplier.getAsDouble();
+    double yaw       = imu.getRawYawRadians();
+    double rate      = imu.getYawRateRadiansPerSecond();
+    // Unwrap so yaws of consecutive samples can be interpolated directly.
+    if (!Double.isNaN(lastRawYaw))
+    {
+      yaw = lastRawYaw + MathUtil.angleModulus(yaw - lastRawYaw);
+    }
+    lastRawYaw = yaw;
+
+    long count = written.get();
+    int  index = (int) (count & mask);
+    timestamps[index] = timestamp;
+    yaws[index] = yaw;
+    rates[index] = rate;
+    written.lazySet(count + 1);
+  }
+
+  /**
+   * Get the number of samples taken since the sampler was created.
+   *
+   * @return Samples taken.
+   */
+  public long getSampleCount()
+  {
+    return written.get();
+  }
+
+  /**
+   * Get the yaw at a timestamp, integrated from the samples around it.
+   *
+   * @param timestamp Timestamp in seconds from the same source as the sampler.
+   * @return Yaw in radians CCW positive and not wrapped, {@link Double#NaN} if no sample was taken yet.
+   */
+  public double getYawRadians(double timestamp)
+  {
+    while (true)
+    {
+      long count = written.get();
+      if (count == 0)
+      {
+        return Double.NaN;
+      }
+      // The oldest slot may be in the middle of being overwritten.
+      long   oldest = Math.max(0, count - mask);
+      long   i      = count - 1;
+      double yaw;
+      while (i > oldest && timestamps[(int) (i & mask)] > timestamp)
+      {
+        i--;
+      }
+      int    index = (int) (i & mask);
+      double t0    = timestamps[index];
+      double yaw0  = yaws[index];
+      double rate0 = rates[index];
+      if (i == count - 1)
+      {
+        yaw = yaw0 + rate0 * MathUtil.clamp(timestamp - t0, 0, MAX_EXTRAPOLATION_SECONDS);
+      } else if (timestamp <= t0 || timestamps[(int) ((i + 1) & mask)] <= t0)
+      {
+        yaw = yaw0;
+      } else
+      {
+        int    next  = (int) ((i + 1) & mask);
+        double h     = timestamps[next] - t0;
+        double rate1 = rates[next];
+        double dt    = timestamp - t0;
+        // Integrate the linearly interpolated rate, then spread the drift against the next absolute yaw.
+        double integrated = rate0 * dt + (rate1 - rate0) * dt * dt / (2 * h);
+        double drift      = yaws[next] - (yaw0 + (rate0 + rate1) * h / 2);
+        yaw = yaw0 + integrated + drift * dt / h;
+      }
+
+      VarHandle.loadLoadFence();
+      if (written.get() - i <= mask)
+      {
+        return yaw - offsetRadians;
+      }
+    }
+  }
+
+  /**
+   * Get the yaw rate at a timestamp, interpolated from the samples around it.
+   *
+   * @param timestamp Timestamp in seconds from the same source as the sampler.
+   * @return Yaw rate in radians per second, {@link Double#NaN} if no sample was taken yet.
+   */
+  public double getYawRateRadiansPerSecond(double timestamp)
+  {
+    while (true)
+    {
+      long count = written.get();
+      if (count == 0)
+      {
+        return Double.NaN;
+      }
+      long oldest = Math.max(0, count - mask);
+      long i      = count - 1;
+      while (i > oldest && timestamps[(int) (i & mask)] > timestamp)
+      {
+        i--;
+      }
+      int    index = (int) (i & mask);
+      double rate  = rates[index];
+      if (i != count - 1 && timestamp > timestamps[index] && timestamps[(int) ((i + 1) & mask)] > timestamps[index])
+      {
+        int    next = (int) ((i + 1) & mask);
+        double t    = (timestamp - timestamps[index]) / (timestamps[next] - timestamps[index]);
+        rate += (rates[next] - rate) * t;
+      }
+
+      VarHandle.loadLoadFence();
+      if (written.get() - i <= mask)
+      {
+        return rate;
+      }
+    }
+  }
+}
@@ -0,0 +1,328 @@
+package swervelib.math;
+
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * Allocation free swerve kinematics on primitive arrays. Mirrors the WPILib {@link
+ * edu.wpi.first.math.kinematics.SwerveDriveKinematics}, {@link edu.wpi.first.math.kinematics.ChassisSpeeds#discretize}
+ * and desaturation math without creating {@link edu.wpi.first.math.kinematics.ChassisSpeeds},
+ * {@link edu.wpi.first.math.geometry.Rotation2d} or EJML matrices on every call.
+ * <p>
+ * Chassis speeds are passed as [vx, vy, omega] in meters per second and radians per second, module speeds and angles as
+ * parallel arrays in meters per second and radians. Output arrays may alias input arrays unless noted otherwise.
+ */
+public class SwerveKinematicsKernel
+{
+
+  /**
+   * Module X locations in meters.
+   */
+  private final double[] moduleX;
+  /**
+   * Module Y locations in meters.
+   */
+  private final double[] moduleY;
+  /**
+   * Forward kinematics, the 3 x 2N row major pseudo-inverse of the inverse kinematics.
+   */
+  private final double[] forwardKinematics;
+  /**
+   * Last module headings in radians, kept when the chassis is commanded to stop like WPILib.
+   */
+  private final double[] moduleHeadings;
+
+  /**
+   * Create the kernel for the given module layout.
+   *
+   * @param moduleLocations Module locations relative to the center of the robot in meters.
+   */
+  public SwerveKinematicsKernel(Translation2d... moduleLocations)
+  {
+    int moduleCount = moduleLocations.length;
+    if (moduleCount < 2)
+    {
+      throw new IllegalArgumentException("A swerve drive requires at least two modules");
+    }
+    moduleX = new double[moduleCount];
+    moduleY = new double[moduleCount];
+    moduleHeadings = new double[moduleCount];
+    forwardKinematics = new double[3 * moduleCount * 2];
+
+    double sumX = 0, sumY = 0, sumRadiusSquared = 0;
+    for (int i = 0; i < moduleCount; i++)
+    {
+      moduleX[i] = moduleLocations[i].getX();
+      moduleY[i] = moduleLocations[i].getY();
+      sumX += moduleX[i];
+      sumY += moduleY[i];
+      sumRadiusSquared += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+    }
+
+    // Inverse kinematics A is 2N x 3 with rows [1, 0, -y] and [0, 1, x], the forward kinematics is (A^T A)^-1 A^T.
+    double[] ataInverse = invert3x3(new double[]{moduleCount, 0, -sumY,
+                                                 0, moduleCount, sumX,
+                                                 -sumY, sumX, sumRadiusSquared});
+    int columns = moduleCount * 2;
+    for (int row = 0; row < 3; row++)
+    {
+      for (int i = 0; i < moduleCount; i++)
+      {
+        forwardKinematics[row * columns + 2 * i] = ataInverse[row * 3] - ataInverse[row * 3 + 2] * moduleY[i];
+        forwardKinematics[row * columns + 2 * i + 1] = ataInverse[row * 3 + 1] + ataInverse[row * 3 + 2] * moduleX[i];
+      }
+    }
+  }
+
+  /**
+   * Invert a 3x3 row major matrix using cofactors.
+   *
+   * @param m Matrix to invert.
+   * @return Inverse of the matrix.
+   */
+  private static double[] invert3x3(double[] m)
+  {
+    double c00 = m[4] * m[8] - m[5] * m[7];
+    double c01 = m[5] * m[6] - m[3] * m[8];
+    double c02 = m[3] * m[7] - m[4] * m[6];
+    double det = m[0] * c00 + m[1] * c01 + m[2] * c02;
+    if (Math.abs(det) < 1e-12)
+    {
+      throw new IllegalArgumentException("Module locations are degenerate, forward kinematics has no solution.");
+    }
+    double inv = 1.0 / det;
+    return new double[]{
+        c00 * inv, (m[2] * m[7] - m[1] * m[8]) * inv, (m[1] * m[5] - m[2] * m[4]) * inv,
+        c01 * inv, (m[0] * m[8] - m[2] * m[6]) * inv, (m[2] * m[3] - m[0] * m[5]) * inv,
+        c02 * inv, (m[1] * m[6] - m[0] * m[7]) * inv, (m[0] * m[4] - m[1] * m[3]) * inv};
+  }
+
+  /**
+   * Get the number of modules.
+   *
+   * @return Module count.
+   */
+  public int getModuleCount()
+  {
+    return moduleX.length;
+  }
+
+  /**
+   * Inverse kinematics, chassis speeds to module speeds and angles. When all chassis speeds are zero the modules keep
+   * their last heading with zero speed, same as WPILib.
+   *
+   * @param vx                Robot relative X velocity in meters per second.
+   * @param vy                Robot relative Y velocity in meters per second.
+   * @param omega             Angular velocity in radians per second.
+   * @param centerOfRotationX Center of rotation X in meters.
+   * @param centerOfRotationY Center of rotation Y in meters.
+   * @param speeds            Output module speeds in meters per second.
+   * @param angles            Output module angles in radians.
+   */
+  public void toModuleStates(double vx, double vy, double omega, double centerOfRotationX, double centerOfRotationY,
+                             double[] speeds, double[] angles)
+  {
+    if (vx == 0 && vy == 0 && omega == 0)
+    {
+      for (int i = 0; i < moduleX.length; i++)
+      {
+        speeds[i] = 0;
+        angles[i] = moduleHeadings[i];
+      }
+      return;
+    }
+    for (int i = 0; i < moduleX.length; i++)
+    {
+      double x     = vx - omega * (moduleY[i] - centerOfRotationY);
+      double y     = vy + omega * (moduleX[i] - centerOfRotationX);
+      double speed = Math.hypot(x, y);
+      double angle = speed > 1e-6 ? Math.atan2(y, x) : 0;
+      speeds[i] = speed;
+      angles[i] = angle;
+      moduleHeadings[i] = angle;
+    }
+  }
+
+  /**
+   * Forward kinematics from module velocity vectors, least squares over all modules.
+   *
+   * @param moduleVectors Module vectors [x0, y0, x1, y1, ...], velocities or displacements.
+   * @param chassis       Output [vx, vy, omega], or a twist [dx, dy, dtheta] for displacements. Must not alias the
+   *                      input.
+   */
+  public void toChassisSpeeds(double[] moduleVectors, double[] chassis)
+  {
+    int columns = moduleX.length * 2;
+    for (int row = 0; row < 3; row++)
+    {
+      double sum    = 0;
+      int    offset = row * columns;
+      for (int column = 0; column < columns; column++)
+      {
+        sum += forwardKinematics[offset + column] * moduleVectors[column];
+      }
+      chassis[row] = sum;
+    }
+  }
+
+  /**
+   * Forward kinematics from module speeds and angles, least squares over all modules.
+   *
+   * @param speeds  Module speeds in meters per second.
+   * @param angles  Module angles in radians.
+   * @param chassis Output [vx, vy, omega].
+   */
+  public void toChassisSpeeds(double[] speeds, double[] angles, double[] chassis)
+  {
+    int    columns = moduleX.length * 2;
+    double vx      = 0, vy = 0, omega = 0;
+    for (int i = 0; i < moduleX.length; i++)
+    {
+      double x = speeds[i] * Math.cos(angles[i]);
+      double y = speeds[i] * Math.sin(angles[i]);
+      vx += forwardKinematics[2 * i] * x + forwardKinematics[2 * i + 1] * y;
+      vy += forwardKinematics[columns + 2 * i] * x + forwardKinematics[columns + 2 * i + 1] * y;
+      omega += forwardKinematics[2 * columns + 2 * i] * x + forwardKinematics[2 * columns + 2 * i + 1] * y;
+    }
+    chassis[0] = vx;
+    chassis[1] = vy;
+    chassis[2] = omega;
+  }
+
+  /**
+   * Discretize continuous chassis speeds over one control period, same as
+   * {@link edu.wpi.first.math.kinematics.ChassisSpeeds#discretize(double, double, double, double)}.
+   *
+   * @param vx        Robot relative X velocity in meters per second.
+   * @param vy        Robot relative Y velocity in meters per second.
+   * @param omega     Angular velocity in radians per second.
+   * @param dtSeconds Control period in seconds.
+   * @param chassis   Output [vx, vy, omega].
+   */
+  public static void discretize(double vx, double vy, double omega, double dtSeconds, double[] chassis)
+  {
+    // Twist of the pose reached by holding the speeds for dt, the same as Pose2d.log.
+    double dx          = vx * dtSeconds;
+    double dy          = vy * dtSeconds;
+    double dtheta      = omega * dtSeconds;
+    double halfDtheta  = dtheta / 2.0;
+    double cosMinusOne = Math.cos(dtheta) - 1;
+    double halfThetaByTanOfHalfDtheta;
+    if (Math.abs(cosMinusOne) < 1e-9)
+    {
+      halfThetaByTanOfHalfDtheta = 1.0 - 1.0 / 12.0 * dtheta * dtheta;
+    } else
+    {
+      halfThetaByTanOfHalfDtheta = -(halfDtheta * Math.sin(dtheta)) / cosMinusOne;
+    }
+    chassis[0] = (dx * halfThetaByTanOfHalfDtheta + dy * halfDtheta) / dtSeconds;
+    chassis[1] = (dy * halfThetaByTanOfHalfDtheta - dx * halfDtheta) / dtSeconds;
+    chassis[2] = omega;
+  }
+
+  /**
+   * Rotate the translational part of robot relative chassis speeds, used for angular velocity skew correction.
+   *
+   * @param vx      Robot relative X velocity in meters per second.
+   * @param vy      Robot relative Y velocity in meters per second.
+   * @param omega   Angular velocity in radians per second.
+   * @param radians Rotation to apply, counter-clockwise positive.
+   * @param chassis Output [vx, vy, omega].
+   */
+  public static void rotate(double vx, double vy, double omega, double radians, double[] chassis)
+  {
+    double cos = Math.cos(radians), sin = Math.sin(radians);
+    chassis[0] = vx * cos - vy * sin;
+    chassis[1] = vx * sin + vy * cos;
+    chassis[2] = omega;
+  }
+
+  /**
+   * Scale module speeds down so none exceed the maximum, same as
+   * {@link edu.wpi.first.math.kinematics.SwerveDriveKinematics#desaturateWheelSpeeds} without chassis limits.
+   *
+   * @param speeds               Module speeds in meters per second, modified in place.
+   * @param maxModuleSpeedMeters Maximum module speed in meters per second.
+   */
+  public static void desaturate(double[] speeds, double maxModuleSpeedMeters)
+  {
+    double realMaxSpeed = 0;
+    for (double speed : speeds)
+    {
+      realMaxSpeed = Math.max(realMaxSpeed, Math.abs(speed));
+    }
+    if (realMaxSpeed > maxModuleSpeedMeters)
+    {
+      double scale = maxModuleSpeedMeters / realMaxSpeed;
+      for (int i = 0; i < speeds.length; i++)
+      {
+        speeds[i] *= scale;
+      }
+    }
+  }
+
+  /**
+   * Scale module speeds down using the attainable chassis limits, same as
+   * {@link edu.wpi.first.math.kinematics.SwerveDriveKinematics#desaturateWheelSpeeds} with chassis limits.
+   *
+   * @param speeds                          Module speeds in meters per second, modified in place.
+   * @param vx                              Desired robot relative X velocity in meters per second.
+   * @param vy                              Desired robot relative Y velocity in meters per second.
+   * @param omega                           Desired angular velocity in radians per second.
+   * @param attainableMaxModuleSpeed        Maximum module speed in meters per second.
+   * @param attainableMaxTranslationalSpeed Maximum chassis translational speed in meters per second.
+   * @param attainableMaxRotationalVelocity Maximum chassis angular velocity in radians per second.
+   */
+  public static void desaturate(double[] speeds, double vx, double vy, double omega, double attainableMaxModuleSpeed,
+                                double attainableMaxTranslationalSpeed, double attainableMaxRotationalVelocity)
+  {
+    double realMaxSpeed = 0;
+    for (double speed : speeds)
+    {
+      realMaxSpeed = Math.max(realMaxSpeed, Math.abs(speed));
+    }
+    if (attainableMaxTranslationalSpeed == 0 || attainableMaxRotationalVelocity == 0 || realMaxSpeed == 0)
+    {
+      return;
+    }
+    double translationalK = Math.hypot(vx, vy) / attainableMaxTranslationalSpeed;
+    double rotationalK    = Math.abs(omega) / attainableMaxRotationalVelocity;
+    double k              = Math.max(translationalK, rotationalK);
+    double scale          = Math.min(k * attainableMaxModuleSpeed / realMaxSpeed, 1);
+    for (int i = 0; i < speeds.length; i++)
+    {
+      speeds[i] *= scale;
+    }
+  }
+
+  /**
+   * Minimize the change in module angles by reversing the drive direction when the module would turn more than 90
+   * degrees, same as {@link edu.wpi.first.math.kinematics.SwerveModuleState#optimize}.
+   *
+   * @param speeds        Desired module speeds in meters per second, modified in place.
+   * @param angles        Desired module angles in radians, modified in place.
+   * @param currentAngles Current module angles in radians.
+   */
+  public static void optimize(double[] speeds, double[] angles, double[] currentAngles)
+  {
+    for (int i = 0; i < speeds.length; i++)
+    {
+      double delta = angles[i] - currentAngles[i];
+      delta = Math.atan2(Math.sin(delta), Math.cos(delta));
+      if (Math.abs(delta) > Math.PI / 2.0)
+      {
+        speeds[i] = -speeds[i];
+        angles[i] = Math.atan2(-Math.sin(angles[i]), -Math.cos(angles[i]));
+      }
+    }
+  }
+
+  /**
+   * Reset the headings kept for a stopped chassis.
+   *
+   * @param angles Module angles in radians.
+   */
+  public void resetHeadings(double[] angles)
+  {
+    System.arraycopy(angles, 0, moduleHeadings, 0, moduleHeadings.length);
+  }
+}
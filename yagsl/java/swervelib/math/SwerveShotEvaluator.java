@@ -0,0 +1,296 @@
+package swervelib.math;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import java.util.Random;
+
+/**
+ * Monte-Carlo estimate of whether a shot scores before it is released. Each sample perturbs the launch speed, the
+ * launch angle, the heading and the robot velocity with Gaussian noise, flies the ballistic trajectory and checks it
+ * against a target box like {@code GamePieceProjectile#willHitTarget()}: at 20ms steps for at most 2 seconds, hitting
+ * when the piece is within the tolerance of the target on every axis.
+ * <p>
+ * The samples are held as parallel arrays and advanced one time step at a time across all of them, so thousands of
+ * samples fit in a robot loop. The noise is drawn once when the evaluator is created, so evaluating similar shots on
+ * consecutive loops compares them on the same samples and the probability does not flicker.
+ */
+public class SwerveShotEvaluator
+{
+
+  /**
+   * Time step of the trajectory in seconds, the same as the preview of a launched projectile.
+   */
+  public static final double TIME_STEP_SECONDS = 0.02;
+  /**
+   * Time steps evaluated per trajectory.
+   */
+  public static final int    MAX_STEPS         = 100;
+
+  /**
+   * Gravitational acceleration in meters per second squared.
+   */
+  private final double    gravity;
+  /**
+   * Launch speed noise per sample in meters per second.
+   */
+  private final double[]  speedNoise;
+  /**
+   * Cosine and sine of the launch angle noise per sample.
+   */
+  private final double[]  pitchNoiseCos, pitchNoiseSin;
+  /**
+   * Cosine and sine of the heading noise per sample.
+   */
+  private final double[]  yawNoiseCos, yawNoiseSin;
+  /**
+   * Robot velocity noise per sample in meters per second.
+   */
+  private final double[]  vxNoise, vyNoise;
+  /**
+   * Launch velocity of each sample in meters per second.
+   */
+  private final double[]  sampleVx, sampleVy, sampleVz;
+  /**
+   * Offset from the target to each sample at its closest step in meters, on each axis.
+   */
+  private final double[]  missX, missY, missZ;
+  /**
+   * Closest approach of each sample as the largest offset to tolerance ratio of any axis, below 1 is a hit.
+   */
+  private final double[]  closest;
+  /**
+   * Whether each sample may still hit the target.
+   */
+  private final boolean[] flying;
+
+  /**
+   * Create the evaluator and draw its noise.
+   *
+   * @param samples                  Trajectories per evaluation.
+   * @param launchSpeedStdDev        Standard deviation of the launch speed in meters per second.
+   * @param launchAngleStdDevRadians Standard deviation of the launch angle above the horizon in radians.
+   * @param headingStdDevRadians     Standard deviation of the heading in radians.
+   * @param robotVelocityStdDev      Standard deviation of each axis of the field relative robot velocity in meters per
+   *                                 second.
+   * @param gravity                  Gravitational acceleration in meters per second squared, 9.81 on the real robot or
+   *                                 {@code GamePieceProjectile.GRAVITY} to match the simulation.
+   * @param seed                     Seed of the noise.
+   */
+  public SwerveShotEvaluator(int samples, double launchSpeedStdDev, double launchAngleStdDevRadians,
+                             double headingStdDevRadians, double robotVelocityStdDev, double gravity, long seed)
+  {
+    if (samples < 1)
+    {
+      throw new IllegalArgumentException("A shot evaluator needs at least one sample");
+    }
+    this.gravity = gravity;
+    speedNoise = new double[samples];
+    pitchNoiseCos = new double[samples];
+    pitchNoiseSin = new double[samples];
+    yawNoiseCos = new double[samples];
+    yawNoiseSin = new double[samples];
+    vxNoise = new double[samples];
+    vyNoise = new double[samples];
+    sampleVx = new double[samples];
+    sampleVy = new double[samples];
+    sampleVz = new double[samples];
+    missX = new double[samples];
+    missY = new double[samples];
+    missZ = new double[samples];
+    closest = new double[samples];
+    flying = new boolean[samples];
+
+    Random random = new Random(seed);
+    for (int i = 0; i < samples; i++)
+    {
+      double pitch = random.nextGaussian() * launchAngleStdDevRadians;
+      double yaw   = random.nextGaussian() * headingStdDevRadians;
+      speedNoise[i] = random.nextGaussian() * launchSpeedStdDev;
+      pitchNoiseCos[i] = Math.cos(pitch);
+      pitchNoiseSin[i] = Math.sin(pitch);
+      yawNoiseCos[i] = Math.cos(yaw);
+      yawNoiseSin[i] = Math.sin(yaw);
+      vxNoise[i] = random.nextGaussian() * robotVelocityStdDev;
+      vyNoise[i] = random.nextGaussian() * robotVelocityStdDev;
+    }
+  }
+
+  /**
+   * Create the evaluator with 2000 samples, 9.81 m/s^2 of gravity and a fixed seed.
+   *
+   * @param launchSpeedStdDev        Standard deviation of the launch speed in meters per second.
+   * @param launchAngleStdDevRadians Standard deviation of the launch angle above the horizon in radians.
+   * @param headingStdDevRadians     Standard deviation of the heading in radians.
+   * @param robotVelocityStdDev      Standard deviation of each axis of the field relative robot velocity in meters per
+   *                                 second.
+   */
+  public SwerveShotEvaluator(double launchSpeedStdDev, double launchAngleStdDevRadians, double headingStdDevRadians,
+                             double robotVelocityStdDev)
+  {
+    this(2000, launchSpeedStdDev, launchAngleStdDevRadians, headingStdDevRadians, robotVelocityStdDev, 9.81, 0);
+  }
+
+  /**
+   * Get the number of samples per evaluation.
+   *
+   * @return Trajectories per evaluation.
+   */
+  public int getSampleCount()
+  {
+    return closest.length;
+  }
+
+  /**
+   * Evaluate a shot. Not thread safe, the samples are reused by every evaluation.
+   *
+   * @param targetVector       Field relative vector from the shooter to the target center in meters, Z is the height
+   *                           of the target above the shooter.
+   * @param tolerance          Half size of the target box on each axis in meters, like
+   *                           {@code GamePieceProjectile#withTargetTolerance}.
+   * @param launchSpeedMPS     Launch speed relative to the robot in meters per second.
+   * @param launchAngleRadians Launch angle above the horizon in radians.
+   * @param heading            Field relative heading of the shot.
+   * @param vx                 Field relative velocity of the shooter along X in meters per second.
+   * @param vy                 Field relative velocity of the shooter along Y in meters per second.
+   * @return {@link Result} of the evaluation.
+   */
+  public Result evaluate(Translation3d targetVector, Translation3d tolerance, double launchSpeedMPS,
+                         double launchAngleRadians, Rotation2d heading, double vx, double vy)
+  {
+    int    samples    = closest.length;
+    double targetX    = targetVector.getX(), targetY = targetVector.getY(), targetZ = targetVector.getZ();
+    double toleranceX = tolerance.getX(), toleranceY = tolerance.getY(), toleranceZ = tolerance.getZ();
+    double pitchCos   = Math.cos(launchAngleRadians), pitchSin = Math.sin(launchAngleRadians);
+    double yawCos     = heading.getCos(), yawSin = heading.getSin();
+
+    for (int i = 0; i < samples; i++)
+    {
+      double speed      = launchSpeedMPS + speedNoise[i];
+      double horizontal = speed * (pitchCos * pitchNoiseCos[i] - pitchSin * pitchNoiseSin[i]);
+      sampleVx[i] = vx + vxNoise[i] + horizontal * (yawCos * yawNoiseCos[i] - yawSin * yawNoiseSin[i]);
+      sampleVy[i] = vy + vyNoise[i] + horizontal * (yawSin * yawNoiseCos[i] + yawCos * yawNoiseSin[i]);
+      sampleVz[i] = speed * (pitchSin * pitchNoiseCos[i] + pitchCos * pitchNoiseSin[i]);
+      closest[i] = Double.POSITIVE_INFINITY;
+      flying[i] = true;
+    }
+
+    int hits = 0, remaining = samples;
+    for (int step = 0; step < MAX_STEPS && remaining > 0; step++)
+    {
+      double t    = step * TIME_STEP_SECONDS;
+      double drop = 0.5 * gravity * t * t;
+      for (int i = 0; i < samples; i++)
+      {
+        if (!flying[i])
+        {
+          continue;
+        }
+        double dx    = sampleVx[i] * t - targetX;
+        double dy    = sampleVy[i] * t - targetY;
+        double dz    = sampleVz[i] * t - drop - targetZ;
+        double ratio = Math.max(Math.abs(dx) / toleranceX, Math.max(Math.abs(dy) / toleranceY,
+                                                                    Math.abs(dz) / toleranceZ));
+        if (ratio < closest[i])
+        {
+          closest[i] = ratio;
+          missX[i] = dx;
+          missY[i] = dy;
+          missZ[i] = dz;
+        }
+        // A hit ends the flight, so does falling below the target box as it can only get further away.
+        boolean hit = ratio < 1;
+        if (hit || (dz < -toleranceZ && sampleVz[i] < gravity * t))
+        {
+          flying[i] = false;
+          remaining--;
+          hits += hit ? 1 : 0;
+        }
+      }
+    }
+
+    double sumX = 0, sumY = 0, sumZ = 0, sumXX = 0, sumYY = 0, sumZZ = 0;
+    for (int i = 0; i < samples; i++)
+    {
+      sumX += missX[i];
+      sumY += missY[i];
+      sumZ += missZ[i];
+      sumXX += missX[i] * missX[i];
+      sumYY += missY[i] * missY[i];
+      sumZZ += missZ[i] * missZ[i];
+    }
+    Translation3d mean = new Translation3d(sumX / samples, sumY / samples, sumZ / samples);
+    Translation3d standardDeviation = new Translation3d(
+        Math.sqrt(Math.max(0, sumXX / samples - mean.getX() * mean.getX())),
+        Math.sqrt(Math.max(0, sumYY / samples - mean.getY() * mean.getY())),
+        Math.sqrt(Math.max(0, sumZZ / samples - mean.getZ() * mean.getZ())));
+    return new Result((double) hits / samples, mean, standardDeviation);
+  }
+
+  /**
+   * Evaluate a shot from its launch velocity, such as the velocity of a {@code GamePieceProjectile} before it is
+   * launched. The robot velocity is already part of the launch velocity, so the speed and angle noise applies to their
+   * sum.
+   *
+   * @param targetVector   Field relative vector from the shooter to the target center in meters.
+   * @param tolerance      Half size of the target box on each axis in meters.
+   * @param launchVelocity Field relative launch velocity in meters per second.
+   * @return {@link Result} of the evaluation.
+   */
+  public Result evaluate(Translation3d targetVector, Translation3d tolerance, Translation3d launchVelocity)
+  {
+    double horizontal = Math.hypot(launchVelocity.getX(), launchVelocity.getY());
+    return evaluate(targetVector,
+                    tolerance,
+                    launchVelocity.getNorm(),
+                    Math.atan2(launchVelocity.getZ(), horizontal),
+                    horizontal < 1e-9 ? Rotation2d.kZero : new Rotation2d(launchVelocity.getX(), launchVelocity.getY()),
+                    0,
+                    0);
+  }
+
+  /**
+   * Get the offset from the target to each sample at its closest step, from the last evaluation. The arrays are
+   * reused by the next evaluation.
+   *
+   * @return Offsets in meters as [x, y, z] arrays indexed by sample.
+   */
+  public double[][] getMisses()
+  {
+    return new double[][]{missX, missY, missZ};
+  }
+
+  /**
+   * Result of a {@link SwerveShotEvaluator#evaluate(Translation3d, Translation3d, double, double, Rotation2d, double,
+   * double)}.
+   */
+  public static class Result
+  {
+
+    /**
+     * Fraction of the samples which hit the target box.
+     */
+    public final double        hitProbability;
+    /**
+     * Mean offset from the target center at the closest step of each sample in meters, the bias of the shot.
+     */
+    public final Translation3d meanMiss;
+    /**
+     * Standard deviation of the offset from the target center at the closest step in meters, the spread of the shot.
+     */
+    public final Translation3d missStandardDeviation;
+
+    /**
+     * Create a result.
+     *
+     * @param hitProbability        Fraction of the samples which hit the target box.
+     * @param meanMiss              Mean offset from the target center in meters.
+     * @param missStandardDeviation Standard deviation of the offset from the target center in meters.
+     */
+    Result(double hitProbability, Translation3d meanMiss, Translation3d missStandardDeviation)
+    {
+      this.hitProbability = hitProbability;
+      this.meanMiss = meanMiss;
+      this.missStandardDeviation = missStandardDeviation;
+    }
+  }
+}
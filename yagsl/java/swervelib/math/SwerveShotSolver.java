@@ -0,0 +1,148 @@
+package swervelib.math;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap;
+
+/**
+ * Field relative shoot-on-the-move solver. A game piece leaves the robot with the robot's field velocity, so aiming at
+ * the target misses by that velocity times the time of flight. The solver aims at a virtual target, the target moved
+ * back by the robot velocity times the time of flight, where the time of flight itself depends on the distance to the
+ * virtual target. It iterates the fixed point t = timeOfFlight(|target - v * t|) until the time of flight settles or
+ * the iteration cap is reached.
+ * <p>
+ * The yaw rate needed to keep pointing at the virtual target while driving at a constant velocity is returned as a
+ * feedforward for the heading controller.
+ */
+public class SwerveShotSolver
+{
+
+  /**
+   * Distance to the target in meters to time of flight in seconds.
+   */
+  private final InterpolatingDoubleTreeMap timeOfFlight;
+  /**
+   * Iteration cap.
+   */
+  private final int                        maxIterations;
+  /**
+   * Change in time of flight in seconds below which the solve has converged.
+   */
+  private final double                     toleranceSeconds;
+
+  /**
+   * Create the solver.
+   *
+   * @param timeOfFlight     Distance to the target in meters to time of flight in seconds.
+   * @param maxIterations    Iteration cap, 5 is usually enough as the time of flight changes slowly with distance.
+   * @param toleranceSeconds Change in time of flight in seconds below which the solve has converged.
+   */
+  public SwerveShotSolver(InterpolatingDoubleTreeMap timeOfFlight, int maxIterations, double toleranceSeconds)
+  {
+    this.timeOfFlight = timeOfFlight;
+    this.maxIterations = maxIterations;
+    this.toleranceSeconds = toleranceSeconds;
+  }
+
+  /**
+   * Create the solver with a cap of 5 iterations and a tolerance of 1ms.
+   *
+   * @param timeOfFlight Distance to the target in meters to time of flight in seconds.
+   */
+  public SwerveShotSolver(InterpolatingDoubleTreeMap timeOfFlight)
+  {
+    this(timeOfFlight, 5, 0.001);
+  }
+
+  /**
+   * Solve for the virtual target.
+   *
+   * @param targetVector Field relative vector from the robot to the target in meters.
+   * @param vx           Field relative robot velocity along X in meters per second.
+   * @param vy           Field relative robot velocity along Y in meters per second.
+   * @return {@link Solution} of the solve.
+   */
+  public Solution solve(Translation2d targetVector, double vx, double vy)
+  {
+    double targetX    = targetVector.getX();
+    double targetY    = targetVector.getY();
+    double virtualX   = targetX;
+    double virtualY   = targetY;
+    double time       = timeOfFlight.get(Math.hypot(targetX, targetY));
+    boolean converged = false;
+    int    iterations = 0;
+    while (iterations < maxIterations)
+    {
+      iterations++;
+      virtualX = targetX - vx * time;
+      virtualY = targetY - vy * time;
+      double nextTime = timeOfFlight.get(Math.hypot(virtualX, virtualY));
+      double change   = Math.abs(nextTime - time);
+      time = nextTime;
+      if (change < toleranceSeconds)
+      {
+        converged = true;
+        break;
+      }
+    }
+    virtualX = targetX - vx * time;
+    virtualY = targetY - vy * time;
+
+    // The virtual target is fixed while the velocity is constant, so the bearing changes at (r x -v) / |r|^2.
+    double distanceSquared = virtualX * virtualX + virtualY * virtualY;
+    double yawRate         = distanceSquared < 1e-6 ? 0 : (virtualY * vx - virtualX * vy) / distanceSquared;
+    return new Solution(new Translation2d(virtualX, virtualY), time, yawRate, iterations, converged);
+  }
+
+  /**
+   * Result of a {@link SwerveShotSolver#solve(Translation2d, double, double)}.
+   */
+  public static class Solution
+  {
+
+    /**
+     * Field relative vector from the robot to the virtual target in meters.
+     */
+    public final Translation2d virtualTargetVector;
+    /**
+     * Field relative heading to aim at.
+     */
+    public final Rotation2d    heading;
+    /**
+     * Time of flight to the virtual target in seconds.
+     */
+    public final double        timeOfFlightSeconds;
+    /**
+     * Feedforward yaw rate to keep aiming at the virtual target in radians per second.
+     */
+    public final double        yawRateRadiansPerSecond;
+    /**
+     * Iterations used.
+     */
+    public final int           iterations;
+    /**
+     * Whether the time of flight settled within the iteration cap.
+     */
+    public final boolean       converged;
+
+    /**
+     * Create a solution.
+     *
+     * @param virtualTargetVector     Field relative vector from the robot to the virtual target in meters.
+     * @param timeOfFlightSeconds     Time of flight to the virtual target in seconds.
+     * @param yawRateRadiansPerSecond Feedforward yaw rate in radians per second.
+     * @param iterations              Iterations used.
+     * @param converged               Whether the time of flight settled within the iteration cap.
+     */
+    Solution(Translation2d virtualTargetVector, double timeOfFlightSeconds, double yawRateRadiansPerSecond,
+             int iterations, boolean converged)
+    {
+      this.virtualTargetVector = virtualTargetVector;
+      this.heading = virtualTargetVector.getAngle();
+      this.timeOfFlightSeconds = timeOfFlightSeconds;
+      this.yawRateRadiansPerSecond = yawRateRadiansPerSecond;
+      this.iterations = iterations;
+      this.converged = converged;
+    }
+  }
+}
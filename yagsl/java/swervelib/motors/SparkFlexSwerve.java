@@ -530,4 +530,52 @@ public class SparkFlexSwerve extends SwerveMotor
     }
   }
 
+  /**
+   * Get the CAN bus the {@link SparkFlex} is on, REV devices are always on the roboRIO bus.
+   *
+   * @return "rio"
+   */
+  @Override
+  public Optional<String> getCANBus()
+  {
+    return Optional.of("rio");
+  }
+
+  /**
+   * Set the status frame periods, the primary encoder frame and the frame of an attached absolute encoder at the
+   * control period and the applied output and faults frames at the telemetry period. All other frames are disabled.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return Status frames per second sent by the {@link SparkFlex}.
+   */
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    boolean absolute = absoluteEncoder.isPresent();
+    if (apply)
+    {
+      int controlMs   = (int) Math.round(controlPeriodSeconds * 1000);
+      int telemetryMs = (int) Math.round(telemetryPeriodSeconds * 1000);
+      cfg.signals
+          .appliedOutputPeriodMs(telemetryMs)
+          .faultsPeriodMs(telemetryMs)
+          .primaryEncoderPositionAlwaysOn(true)
+          .primaryEncoderPositionPeriodMs(controlMs)
+          .primaryEncoderVelocityAlwaysOn(isDriveMotor)
+          .primaryEncoderVelocityPeriodMs(controlMs)
+          .absoluteEncoderPositionAlwaysOn(absolute)
+          .absoluteEncoderPositionPeriodMs(controlMs)
+          .absoluteEncoderVelocityAlwaysOn(false)
+          .analogPositionAlwaysOn(false)
+          .analogVelocityAlwaysOn(false)
+          .analogVoltageAlwaysOn(false)
+          .externalOrAltEncoderPositionAlwaysOn(false)
+          .externalOrAltEncoderVelocityAlwaysOn(false)
+          .iAccumulationAlwaysOn(false);
+      burnFlash();
+    }
+    return (absolute ? 2 : 1) / controlPeriodSeconds + 2 / telemetryPeriodSeconds;
+  }
 }
@@ -552,4 +552,57 @@ public class SparkMaxSwerve extends SwerveMotor
       configureSparkMax(() -> encoder.setPosition(position));
     }
   }
+
+  /**
+   * Get the CAN bus the {@link SparkMax} is on, REV devices are always on the roboRIO bus.
+   *
+   * @return "rio"
+   */
+  @Override
+  public Optional<String> getCANBus()
+  {
+    return Optional.of("rio");
+  }
+
+  /**
+   * Set the status frame periods, the primary encoder frame and the frame of an attached absolute encoder at the
+   * control period and the applied output and faults frames at the telemetry period. All other frames are disabled.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return Status frames per second sent by the {@link SparkMax}.
+   */
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    boolean dutyCycle = absoluteEncoder.isPresent() && absoluteEncoder.get() instanceof SparkMaxEncoderSwerve;
+    boolean analog    = absoluteEncoder.isPresent() && absoluteEncoder.get() instanceof SparkMaxAnalogEncoderSwerve;
+    if (apply)
+    {
+      int controlMs   = (int) Math.round(controlPeriodSeconds * 1000);
+      int telemetryMs = (int) Math.round(telemetryPeriodSeconds * 1000);
+      cfg.signals
+          .appliedOutputPeriodMs(telemetryMs)
+          .faultsPeriodMs(telemetryMs)
+          .primaryEncoderPositionAlwaysOn(true)
+          .primaryEncoderPositionPeriodMs(controlMs)
+          .primaryEncoderVelocityAlwaysOn(isDriveMotor)
+          .primaryEncoderVelocityPeriodMs(controlMs)
+          .absoluteEncoderPositionAlwaysOn(dutyCycle)
+          .absoluteEncoderPositionPeriodMs(controlMs)
+          .absoluteEncoderVelocityAlwaysOn(false)
+          .analogPositionAlwaysOn(analog)
+          .analogVoltageAlwaysOn(analog)
+          .analogVelocityAlwaysOn(analog)
+          .analogPositionPeriodMs(controlMs)
+          .analogVoltagePeriodMs(controlMs)
+          .analogVelocityPeriodMs(controlMs)
+          .externalOrAltEncoderPositionAlwaysOn(false)
+          .externalOrAltEncoderVelocityAlwaysOn(false)
+          .iAccumulationAlwaysOn(false);
+      burnFlash();
+    }
+    return (1 + (dutyCycle ? 1 : 0) + (analog ? 1 : 0)) / controlPeriodSeconds + 2 / telemetryPeriodSeconds;
+  }
 }
@@ -1,6 +1,7 @@
 package swervelib.motors;
 
 import edu.wpi.first.math.system.plant.DCMotor;
+import java.util.Optional;
 import swervelib.encoders.SwerveAbsoluteEncoder;
 import swervelib.parser.PIDFConfig;
 
@@ -200,4 +201,29 @@ public abstract class SwerveMotor implements AutoCloseable
    * @return connected absolute encoder state.
    */
   public abstract boolean usingExternalFeedbackSensor();
+
+  /**
+   * Get the CAN bus the motor controller is on.
+   *
+   * @return CAN bus name, "rio" or "" for the roboRIO bus, empty if unknown.
+   */
+  public Optional<String> getCANBus()
+  {
+    return Optional.empty();
+  }
+
+  /**
+   * Set the status frame periods of the signals swerve reads from this motor controller and disable the rest. Drive
+   * motors need position and velocity every control period, angle motors only position.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return Status frames per second sent by the motor controller with these periods, {@link Double#NaN} if status
+   * frames cannot be planned for this motor controller.
+   */
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    return Double.NaN;
+  }
 }
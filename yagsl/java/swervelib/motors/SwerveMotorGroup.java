@@ -0,0 +1,168 @@
+package swervelib.motors;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import edu.wpi.first.wpilibj.Timer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Group of {@link SwerveMotor}s read and written together so one cycle makes the fewest native calls.
+ * <p>
+ * Phoenix 6 motors ({@link TalonFXSwerve}, {@link TalonFXSSwerve}) refresh their position and velocity with one
+ * {@link BaseStatusSignal#refreshAll(BaseStatusSignal...)} per CAN bus in {@link SwerveMotorGroup#refresh()} instead of
+ * one refresh per read, their getters then return the refreshed values without a call of their own unless the last
+ * refresh is older than the refresh period. REV and Thrifty motors already serve reads from the periodic status frames
+ * cached by the vendor library, so they and any other motor are read one by one, which is already the minimum. No
+ * vendor sends one control frame to several devices, so writes stay with each module.
+ */
+public class SwerveMotorGroup
+{
+
+  /**
+   * Motors in the group.
+   */
+  private final SwerveMotor[]        motors;
+  /**
+   * Signals of the batched motors, one array per CAN bus.
+   */
+  private final BaseStatusSignal[][] signals;
+  /**
+   * Told the timestamp of each refresh, one per batched motor.
+   */
+  private final DoubleConsumer[]     refreshListeners;
+  /**
+   * Number of motors refreshed in a batch.
+   */
+  private final int                  batched;
+
+  /**
+   * Create a motor group, the Phoenix 6 motors in it are switched to batch refresh so
+   * {@link SwerveMotorGroup#refresh()} should be called every period. Reads refresh on their own when the last refresh
+   * is older than the period.
+   *
+   * @param periodSeconds Period {@link SwerveMotorGroup#refresh()} is called at in seconds.
+   * @param motors        Motors in the group.
+   */
+  public SwerveMotorGroup(double periodSeconds, SwerveMotor... motors)
+  {
+    this.motors = motors;
+    Map<String, List<BaseStatusSignal>> buses     = new LinkedHashMap<>();
+    List<DoubleConsumer>                listeners = new ArrayList<>();
+    for (SwerveMotor motor : motors)
+    {
+      BaseStatusSignal[] motorSignals;
+      if (motor instanceof TalonFXSwerve)
+      {
+        motorSignals = ((TalonFXSwerve) motor).enableBatchRefresh(periodSeconds);
+        listeners.add(((TalonFXSwerve) motor)::batchRefreshed);
+      } else if (motor instanceof TalonFXSSwerve)
+      {
+        motorSignals = ((TalonFXSSwerve) motor).enableBatchRefresh(periodSeconds);
+        listeners.add(((TalonFXSSwerve) motor)::batchRefreshed);
+      } else
+      {
+        continue;
+      }
+      buses.computeIfAbsent(motor.getCANBus().orElse(""), bus -> new ArrayList<>()).addAll(List.of(motorSignals));
+    }
+    signals = new BaseStatusSignal[buses.size()][];
+    int i = 0;
+    for (List<BaseStatusSignal> busSignals : buses.values())
+    {
+      signals[i++] = busSignals.toArray(new BaseStatusSignal[0]);
+    }
+    refreshListeners = listeners.toArray(new DoubleConsumer[0]);
+    batched = refreshListeners.length;
+  }
+
+  /**
+   * Refresh the batched signals, one native call per CAN bus.
+   */
+  public void refresh()
+  {
+    for (BaseStatusSignal[] busSignals : signals)
+    {
+      BaseStatusSignal.refreshAll(busSignals);
+    }
+    double timestamp = Timer.getFPGATimestamp();
+    for (DoubleConsumer listener : refreshListeners)
+    {
+      listener.accept(timestamp);
+    }
+  }
+
+  /**
+   * Change the period {@link SwerveMotorGroup#refresh()} is called at, reads of the batched motors refresh on their own
+   * when the last refresh is older than it.
+   *
+   * @param periodSeconds Refresh period in seconds.
+   */
+  public void setPeriod(double periodSeconds)
+  {
+    for (SwerveMotor motor : motors)
+    {
+      if (motor instanceof TalonFXSwerve)
+      {
+        ((TalonFXSwerve) motor).enableBatchRefresh(periodSeconds);
+      } else if (motor instanceof TalonFXSSwerve)
+      {
+        ((TalonFXSSwerve) motor).enableBatchRefresh(periodSeconds);
+      }
+    }
+  }
+
+  /**
+   * Get the position of a motor as of the last {@link SwerveMotorGroup#refresh()}.
+   *
+   * @param index Index of the motor in the group.
+   * @return Position in meters or degrees.
+   */
+  public double getPosition(int index)
+  {
+    return motors[index].getPosition();
+  }
+
+  /**
+   * Get the velocity of a motor as of the last {@link SwerveMotorGroup#refresh()}.
+   *
+   * @param index Index of the motor in the group.
+   * @return Velocity in meters per second or degrees per second.
+   */
+  public double getVelocity(int index)
+  {
+    return motors[index].getVelocity();
+  }
+
+  /**
+   * Get the motors in the group.
+   *
+   * @return Motors, indexed like the group.
+   */
+  public SwerveMotor[] getMotors()
+  {
+    return motors;
+  }
+
+  /**
+   * Get the number of motors refreshed in a batch.
+   *
+   * @return Batched motors, the rest are read one by one.
+   */
+  public int getBatchedCount()
+  {
+    return batched;
+  }
+
+  /**
+   * Get the number of native refresh calls {@link SwerveMotorGroup#refresh()} makes.
+   *
+   * @return One per CAN bus with batched motors.
+   */
+  public int getRefreshCallCount()
+  {
+    return signals.length;
+  }
+}
@@ -4,6 +4,7 @@ import static edu.wpi.first.units.Units.Degrees;
 import static edu.wpi.first.units.Units.Rotations;
 import static edu.wpi.first.units.Units.Volts;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.CANBus;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.configs.TalonFXConfigurator;
@@ -14,6 +15,8 @@ import com.ctre.phoenix6.signals.FeedbackSensorSourceValue;
 import com.ctre.phoenix6.signals.InvertedValue;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.Timer;
+import java.util.Optional;
 import swervelib.encoders.SwerveAbsoluteEncoder;
 import swervelib.parser.PIDFConfig;
 import swervelib.telemetry.SwerveDriveTelemetry;
@@ -60,6 +63,15 @@ public class TalonFXSwerve extends SwerveMotor
    * Current TalonFX Configurator.
    */
   private       TalonFXConfigurator  cfg;
+  /**
+   * Longest time in seconds reads use the signals refreshed by a {@link SwerveMotorGroup} before refreshing them
+   * themselves, 0 when the motor is not batched.
+   */
+  private       double               batchRefreshPeriod      = 0;
+  /**
+   * FPGA timestamp in seconds of the last batch refresh.
+   */
+  private volatile double            lastBatchRefresh        = Double.NEGATIVE_INFINITY;
 
 
   /**
@@ -362,7 +374,7 @@ public class TalonFXSwerve extends SwerveMotor
   @Override
   public double getVelocity()
   {
-    return motor.getVelocity().getValue().magnitude();
+    return motor.getVelocity(isBatchRefreshStale()).getValue().magnitude();
   }
 
   /**
@@ -373,7 +385,43 @@ public class TalonFXSwerve extends SwerveMotor
   @Override
   public double getPosition()
   {
-    return motor.getPosition().getValue().magnitude();
+    return motor.getPosition(isBatchRefreshStale()).getValue().magnitude();
+  }
+
+  /**
+   * Hand the position and velocity signals to a {@link SwerveMotorGroup} which refreshes them together with
+   * {@link BaseStatusSignal#refreshAll(BaseStatusSignal...)}, {@link TalonFXSwerve#getPosition()} and
+   * {@link TalonFXSwerve#getVelocity()} then read the last refreshed value without a call of their own. Reads refresh
+   * the signals themselves when the last batch refresh is older than the period, such as after the odometry thread
+   * stops. Call again to change the period.
+   *
+   * @param periodSeconds Period the group refreshes the signals at in seconds, the odometry period.
+   * @return Position and velocity signals.
+   */
+  public BaseStatusSignal[] enableBatchRefresh(double periodSeconds)
+  {
+    batchRefreshPeriod = periodSeconds;
+    return new BaseStatusSignal[]{motor.getPosition(false), motor.getVelocity(false)};
+  }
+
+  /**
+   * Record a batch refresh of the signals handed out by {@link TalonFXSwerve#enableBatchRefresh(double)}.
+   *
+   * @param timestampSeconds FPGA timestamp of the refresh in seconds.
+   */
+  public void batchRefreshed(double timestampSeconds)
+  {
+    lastBatchRefresh = timestampSeconds;
+  }
+
+  /**
+   * Whether reads must refresh the position and velocity signals themselves.
+   *
+   * @return True when the motor is not batched or the last batch refresh is older than the batch refresh period.
+   */
+  private boolean isBatchRefreshStale()
+  {
+    return batchRefreshPeriod <= 0 || Timer.getFPGATimestamp() - lastBatchRefresh > batchRefreshPeriod;
   }
 
   /**
@@ -464,4 +512,51 @@ public class TalonFXSwerve extends SwerveMotor
   {
     return absoluteEncoder;
   }
+
+  /**
+   * Get the CAN bus the TalonFX is on.
+   *
+   * @return CAN bus name.
+   */
+  @Override
+  public Optional<String> getCANBus()
+  {
+    return Optional.of(motor.getNetwork());
+  }
+
+  /**
+   * Set the update frequencies of the signals this class reads and disable the rest with
+   * {@link TalonFX#optimizeBusUtilization()}. Position, and velocity for drive motors, update at the control period,
+   * duty cycle, motor voltage and angle motor velocity at the telemetry period. The frame estimate counts one frame
+   * per signal, an upper bound since Phoenix packs signals updated at the same frequency together.
+   *
+   * @param controlPeriodSeconds   Period of the signals read by odometry and control.
+   * @param telemetryPeriodSeconds Period of the signals only read by telemetry.
+   * @param apply                  Whether to apply the periods, false to only estimate the frame rate.
+   * @return Status frames per second sent by the TalonFX.
+   */
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    if (apply)
+    {
+      if (isDriveMotor)
+      {
+        BaseStatusSignal.setUpdateFrequencyForAll(1 / controlPeriodSeconds, motor.getPosition(), motor.getVelocity());
+        BaseStatusSignal.setUpdateFrequencyForAll(1 / telemetryPeriodSeconds,
+                                                  motor.getDutyCycle(),
+                                                  motor.getMotorVoltage());
+      } else
+      {
+        BaseStatusSignal.setUpdateFrequencyForAll(1 / controlPeriodSeconds, motor.getPosition());
+        BaseStatusSignal.setUpdateFrequencyForAll(1 / telemetryPeriodSeconds,
+                                                  motor.getVelocity(),
+                                                  motor.getDutyCycle(),
+                                                  motor.getMotorVoltage());
+      }
+      motor.optimizeBusUtilization();
+    }
+    return isDriveMotor ? 2 / controlPeriodSeconds + 2 / telemetryPeriodSeconds
+                        : 1 / controlPeriodSeconds + 3 / telemetryPeriodSeconds;
+  }
 }
@@ -8,6 +8,7 @@ import swervelib.simulation.ironmaple.simulation.drivesims.GyroSimulation;
 import swervelib.SwerveModule;
 import swervelib.imu.SwerveIMU;
 import swervelib.math.SwerveMath;
+import swervelib.telemetry.SwerveDriveTelemetry;
 
 /**
  * Swerve drive configurations used during SwerveDrive construction.
@@ -19,6 +20,14 @@ public class SwerveDriveConfiguration
    * Number of modules on the robot.
    */
   public final int                                 moduleCount;
+  /**
+   * Telemetry name of the drive, unique in this JVM.
+   */
+  public final String                              name;
+  /**
+   * Whether the drive runs against the physics simulation, false when replaying recorded inputs in simulation.
+   */
+  public final boolean                             simulation;
   /**
    * Swerve Module locations.
    */
@@ -50,10 +59,61 @@ public class SwerveDriveConfiguration
       boolean invertedIMU,
       SwerveModulePhysicalCharacteristics physicalCharacteristics)
   {
+    this(moduleConfigs, swerveIMU, invertedIMU, physicalCharacteristics, "swerve");
+  }
+
+  /**
+   * Create swerve drive configuration for one of several drives in the JVM.
+   *
+   * @param moduleConfigs           Module configuration.
+   * @param swerveIMU               Swerve IMU.
+   * @param invertedIMU             Invert the IMU.
+   * @param physicalCharacteristics {@link SwerveModulePhysicalCharacteristics} to store in association with self.
+   * @param name                    Telemetry name of the drive, a number is appended if another drive already uses it.
+   */
+  public SwerveDriveConfiguration(
+      SwerveModuleConfiguration[] moduleConfigs,
+      SwerveIMU swerveIMU,
+      boolean invertedIMU,
+      SwerveModulePhysicalCharacteristics physicalCharacteristics,
+      String name)
+  {
+    this(moduleConfigs, swerveIMU, invertedIMU, physicalCharacteristics, name, SwerveDriveTelemetry.isSimulation);
+  }
+
+  /**
+   * Create swerve drive configuration for one of several drives in the JVM.
+   *
+   * @param moduleConfigs           Module configuration.
+   * @param swerveIMU               Swerve IMU.
+   * @param invertedIMU             Invert the IMU.
+   * @param physicalCharacteristics {@link SwerveModulePhysicalCharacteristics} to store in association with self.
+   * @param name                    Telemetry name of the drive, a number is appended if another drive already uses it.
+   * @param simulation              Whether the drive runs against the physics simulation, false to run the robot code
+   *                                paths such as when replaying recorded inputs.
+   */
+  public SwerveDriveConfiguration(
+      SwerveModuleConfiguration[] moduleConfigs,
+      SwerveIMU swerveIMU,
+      boolean invertedIMU,
+      SwerveModulePhysicalCharacteristics physicalCharacteristics,
+      String name,
+      boolean simulation)
+  {
+    this.simulation = simulation;
+    this.name = SwerveDriveTelemetry.claimName(name);
     this.moduleCount = moduleConfigs.length;
     this.imu = swerveIMU;
-    swerveIMU.setInverted(invertedIMU);
-    this.modules = createModules(moduleConfigs);
+    try
+    {
+      swerveIMU.setInverted(invertedIMU);
+      this.modules = createModules(moduleConfigs);
+    } catch (RuntimeException e)
+    {
+      // The configuration is never used, free the name for the next attempt.
+      SwerveDriveTelemetry.releaseName(this.name);
+      throw e;
+    }
     this.moduleLocationsMeters = new Translation2d[moduleConfigs.length];
     for (SwerveModule module : modules)
     {
@@ -73,7 +133,7 @@ public class SwerveDriveConfiguration
     SwerveModule[] modArr = new SwerveModule[swerves.length];
     for (int i = 0; i < swerves.length; i++)
     {
-      modArr[i] = new SwerveModule(i, swerves[i]);
+      modArr[i] = new SwerveModule(i, swerves[i], name, simulation);
     }
     return modArr;
   }
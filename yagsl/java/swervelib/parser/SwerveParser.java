@@ -6,15 +6,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.wpi.first.math.geometry.Pose2d;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
 import swervelib.SwerveDrive;
 import swervelib.SwerveModule;
+import swervelib.imu.SwerveIMU;
 import swervelib.math.SwerveMath;
 import swervelib.parser.json.ControllerPropertiesJson;
 import swervelib.parser.json.ModuleJson;
 import swervelib.parser.json.PIDFPropertiesJson;
 import swervelib.parser.json.PhysicalPropertiesJson;
 import swervelib.parser.json.SwerveDriveJson;
+import swervelib.replay.ReplayEncoderSwerve;
+import swervelib.replay.ReplayIMUSwerve;
+import swervelib.replay.ReplayMotorSwerve;
+import swervelib.replay.SwerveInputsLog;
+import swervelib.telemetry.SwerveDriveTelemetry;
 
 /**
  * Helper class used to parse the JSON directory with specified configuration options.
@@ -22,30 +27,34 @@ import swervelib.parser.json.SwerveDriveJson;
 public class SwerveParser
 {
 
-  /**
-   * Module number mapped to the JSON name.
-   */
-  private static final HashMap<String, Integer> moduleConfigs = new HashMap<>();
   /**
    * Parsed swervedrive.json
    */
-  public static        SwerveDriveJson          swerveDriveJson;
+  public final SwerveDriveJson          swerveDriveJson;
   /**
    * Parsed controllerproperties.json
    */
-  public static        ControllerPropertiesJson controllerPropertiesJson;
+  public final ControllerPropertiesJson controllerPropertiesJson;
   /**
    * Parsed modules/pidfproperties.json
    */
-  public static        PIDFPropertiesJson       pidfPropertiesJson;
+  public final PIDFPropertiesJson       pidfPropertiesJson;
   /**
    * Parsed modules/physicalproperties.json
    */
-  public static        PhysicalPropertiesJson   physicalPropertiesJson;
+  public final PhysicalPropertiesJson   physicalPropertiesJson;
   /**
    * Array holding the module jsons given in {@link SwerveDriveJson}.
    */
-  public static        ModuleJson[]             moduleJsons;
+  public final ModuleJson[]             moduleJsons;
+  /**
+   * Inputs log to record into or replay from, null when disabled.
+   */
+  private      SwerveInputsLog          inputsLog;
+  /**
+   * Telemetry name of the created {@link SwerveDrive}, used as the NetworkTables root.
+   */
+  private      String                   name = "swerve";
 
   /**
    * Construct a swerve parser. Will throw an error if there is a missing file.
@@ -79,7 +88,6 @@ public class SwerveParser
     moduleJsons = new ModuleJson[swerveDriveJson.modules.length];
     for (int i = 0; i < moduleJsons.length; i++)
     {
-      moduleConfigs.put(swerveDriveJson.modules[i], i);
       File moduleFile = new File(directory, "modules/" + swerveDriveJson.modules[i]);
       assert moduleFile.exists();
       moduleJsons[i] = new ObjectMapper()
@@ -98,7 +106,15 @@ public class SwerveParser
   public static SwerveModule getModuleConfigurationByName(
       String name, SwerveDriveConfiguration driveConfiguration)
   {
-    return driveConfiguration.modules[moduleConfigs.get(name + ".json")];
+    for (SwerveModule module : driveConfiguration.modules)
+    {
+      // Modules are named after their JSON file.
+      if (module.configuration.name.equals(name + ".json"))
+      {
+        return module;
+      }
+    }
+    throw new RuntimeException("No swerve module configured from " + name + ".json");
   }
 
   /**
@@ -187,18 +203,68 @@ public class SwerveParser
               pidfPropertiesJson.drive,
               physicalPropertiesJson.createPhysicalProperties(),
               swerveDriveJson.modules[i]);
+      if (inputsLog != null)
+      {
+        SwerveModuleConfiguration configuration = moduleConfigurations[i];
+        configuration.driveMotor = new ReplayMotorSwerve(configuration.driveMotor, inputsLog, true);
+        configuration.angleMotor = new ReplayMotorSwerve(configuration.angleMotor, inputsLog, false);
+        if (configuration.absoluteEncoder != null)
+        {
+          configuration.absoluteEncoder = new ReplayEncoderSwerve(configuration.absoluteEncoder, inputsLog);
+        }
+      }
+    }
+    SwerveIMU imu = swerveDriveJson.imu.createIMU();
+    if (inputsLog != null)
+    {
+      imu = new ReplayIMUSwerve(imu, inputsLog);
     }
     SwerveDriveConfiguration swerveDriveConfiguration =
         new SwerveDriveConfiguration(
             moduleConfigurations,
-            swerveDriveJson.imu.createIMU(),
+            imu,
             swerveDriveJson.invertedIMU,
-            physicalPropertiesJson.createPhysicalProperties());
+            physicalPropertiesJson.createPhysicalProperties(),
+            name,
+            // Replay runs the real robot code paths against recorded inputs, not the physics simulation.
+            SwerveDriveTelemetry.isSimulation && (inputsLog == null || !inputsLog.isReplaying()));
 
-    return new SwerveDrive(
+    SwerveDrive swerveDrive = new SwerveDrive(
         swerveDriveConfiguration,
         controllerPropertiesJson.createControllerConfiguration(swerveDriveConfiguration, maxSpeed),
         maxSpeed,
         initialPose);
+    if (inputsLog != null)
+    {
+      swerveDrive.setInputsLog(inputsLog);
+    }
+    return swerveDrive;
+  }
+
+  /**
+   * Record every sensor read of the created {@link SwerveDrive} into the log, or replay the reads from it. Must be set
+   * before {@link SwerveParser#createSwerveDrive(double)} and the same JSON configuration must be used to record and
+   * replay.
+   *
+   * @param inputsLog {@link SwerveInputsLog} to use, null to disable.
+   * @return This {@link SwerveParser} for chaining.
+   */
+  public SwerveParser withInputsLog(SwerveInputsLog inputsLog)
+  {
+    this.inputsLog = inputsLog;
+    return this;
+  }
+
+  /**
+   * Set the telemetry name of the created {@link SwerveDrive}, allowing several drives to run in the same program such
+   * as a fleet in simulation. The name is made unique if it is already in use.
+   *
+   * @param name NetworkTables root of the drive, "swerve" by default.
+   * @return This {@link SwerveParser} for chaining.
+   */
+  public SwerveParser withName(String name)
+  {
+    this.name = name;
+    return this;
   }
 }
@@ -0,0 +1,161 @@
+package swervelib.replay;
+
+import java.util.Optional;
+import swervelib.encoders.SwerveAbsoluteEncoder;
+
+/**
+ * {@link SwerveAbsoluteEncoder} which records the reads of another {@link SwerveAbsoluteEncoder} into a
+ * {@link SwerveInputsLog}, or returns the recorded reads when the log is replaying. The reading error flag is recorded
+ * with the position so replay takes the same fallback paths.
+ */
+public class ReplayEncoderSwerve extends SwerveAbsoluteEncoder
+{
+
+  /**
+   * Absolute position slot offset.
+   */
+  private static final int                   POSITION      = 0;
+  /**
+   * Reading error slot offset, 1 when the reading was faulty.
+   */
+  private static final int                   READING_ERROR = 1;
+  /**
+   * Velocity slot offset.
+   */
+  private static final int                   VELOCITY      = 2;
+  /**
+   * Encoder being recorded, may be null while replaying.
+   */
+  private final        SwerveAbsoluteEncoder encoder;
+  /**
+   * Inputs log.
+   */
+  private final        SwerveInputsLog       log;
+  /**
+   * First slot of this encoder in the log.
+   */
+  private final        int                   slot;
+
+  /**
+   * Wrap an absolute encoder for recording or replay.
+   *
+   * @param encoder {@link SwerveAbsoluteEncoder} to record, may be null while replaying.
+   * @param log     {@link SwerveInputsLog} to record into or replay from.
+   */
+  public ReplayEncoderSwerve(SwerveAbsoluteEncoder encoder, SwerveInputsLog log)
+  {
+    this.encoder = encoder;
+    this.log = log;
+    this.slot = log.allocate(3);
+  }
+
+  /**
+   * Whether the encoder should be used, false while replaying.
+   *
+   * @return True if the wrapped encoder is live.
+   */
+  private boolean live()
+  {
+    return encoder != null && !log.isReplaying();
+  }
+
+  @Override
+  public void close()
+  {
+    if (encoder != null)
+    {
+      encoder.close();
+    }
+  }
+
+  @Override
+  public void factoryDefault()
+  {
+    if (live())
+    {
+      encoder.factoryDefault();
+    }
+  }
+
+  @Override
+  public void clearStickyFaults()
+  {
+    if (live())
+    {
+      encoder.clearStickyFaults();
+    }
+  }
+
+  @Override
+  public void configure(boolean inverted)
+  {
+    if (live())
+    {
+      encoder.configure(inverted);
+    }
+  }
+
+  @Override
+  public double getAbsolutePosition()
+  {
+    if (live())
+    {
+      double position = encoder.getAbsolutePosition();
+      readingError = encoder.readingError;
+      log.put(slot + POSITION, position);
+      log.put(slot + READING_ERROR, readingError ? 1 : 0);
+      return position;
+    }
+    readingError = log.get(slot + READING_ERROR) == 1;
+    return log.get(slot + POSITION);
+  }
+
+  @Override
+  public Object getAbsoluteEncoder()
+  {
+    return encoder == null ? null : encoder.getAbsoluteEncoder();
+  }
+
+  @Override
+  public boolean setAbsoluteEncoderOffset(double offset)
+  {
+    // Forwarded while replaying too, the module must take the same offset path as the recording. Without an encoder
+    // the offset is applied in software.
+    return encoder != null && encoder.setAbsoluteEncoderOffset(offset);
+  }
+
+  @Override
+  public double getVelocity()
+  {
+    if (live())
+    {
+      double velocity = encoder.getVelocity();
+      log.put(slot + VELOCITY, velocity);
+      return velocity;
+    }
+    return log.get(slot + VELOCITY);
+  }
+
+  @Override
+  public Optional<String> getCANBus()
+  {
+    return encoder == null ? Optional.empty() : encoder.getCANBus();
+  }
+
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    // Nothing is sent on the bus while replaying.
+    return live() ? encoder.configureStatusFrames(controlPeriodSeconds, telemetryPeriodSeconds, apply) : Double.NaN;
+  }
+
+  /**
+   * Get the encoder being recorded.
+   *
+   * @return Wrapped {@link SwerveAbsoluteEncoder}, may be null.
+   */
+  public SwerveAbsoluteEncoder getRecordedEncoder()
+  {
+    return encoder;
+  }
+}
@@ -0,0 +1,225 @@
+package swervelib.replay;
+
+import static edu.wpi.first.units.Units.DegreesPerSecond;
+
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.units.measure.MutAngularVelocity;
+import java.util.Optional;
+import swervelib.imu.SwerveIMU;
+
+/**
+ * {@link SwerveIMU} which records the reads of another {@link SwerveIMU} into a {@link SwerveInputsLog}, or returns
+ * the recorded reads when the log is replaying.
+ */
+public class ReplayIMUSwerve extends SwerveIMU
+{
+
+  /**
+   * Raw rotation slot offset, [roll, pitch, yaw] in radians.
+   */
+  private static final int                RAW_ROTATION  = 0;
+  /**
+   * Rotation slot offset, [roll, pitch, yaw] in radians.
+   */
+  private static final int                ROTATION      = 3;
+  /**
+   * Yaw rate slot offset in degrees per second.
+   */
+  private static final int                YAW_RATE      = 6;
+  /**
+   * Acceleration slot offset, [x, y, z] in meters per second squared or {@link Double#NaN} when unsupported.
+   */
+  private static final int                ACCELERATION  = 7;
+  /**
+   * Slot offset of the yaw rate matching the yaw, CCW positive in radians per second.
+   */
+  private static final int                YAW_RATE_CCW  = 10;
+  /**
+   * IMU being recorded, may be null while replaying.
+   */
+  private final        SwerveIMU          imu;
+  /**
+   * Inputs log.
+   */
+  private final        SwerveInputsLog    log;
+  /**
+   * First slot of this IMU in the log.
+   */
+  private final        int                slot;
+  /**
+   * Mutable {@link MutAngularVelocity} for readings.
+   */
+  private final        MutAngularVelocity yawVel        = new MutAngularVelocity(0, 0, DegreesPerSecond);
+
+  /**
+   * Wrap an IMU for recording or replay.
+   *
+   * @param imu {@link SwerveIMU} to record, may be null while replaying.
+   * @param log {@link SwerveInputsLog} to record into or replay from.
+   */
+  public ReplayIMUSwerve(SwerveIMU imu, SwerveInputsLog log)
+  {
+    this.imu = imu;
+    this.log = log;
+    this.slot = log.allocate(11);
+  }
+
+  /**
+   * Whether the IMU should be used, false while replaying.
+   *
+   * @return True if the wrapped IMU is live.
+   */
+  private boolean live()
+  {
+    return imu != null && !log.isReplaying();
+  }
+
+  /**
+   * Record or replay a rotation.
+   *
+   * @param offset   Slot offset.
+   * @param rotation Live reading, ignored while replaying.
+   * @return Reading.
+   */
+  private Rotation3d rotation(int offset, Rotation3d rotation)
+  {
+    if (live())
+    {
+      log.put(slot + offset, rotation.getX());
+      log.put(slot + offset + 1, rotation.getY());
+      log.put(slot + offset + 2, rotation.getZ());
+      return rotation;
+    }
+    return new Rotation3d(log.get(slot + offset), log.get(slot + offset + 1), log.get(slot + offset + 2));
+  }
+
+  @Override
+  public void close()
+  {
+    if (imu != null)
+    {
+      imu.close();
+    }
+  }
+
+  @Override
+  public void factoryDefault()
+  {
+    if (live())
+    {
+      imu.factoryDefault();
+    }
+  }
+
+  @Override
+  public void clearStickyFaults()
+  {
+    if (live())
+    {
+      imu.clearStickyFaults();
+    }
+  }
+
+  @Override
+  public void setOffset(Rotation3d offset)
+  {
+    if (live())
+    {
+      imu.setOffset(offset);
+    }
+  }
+
+  @Override
+  public void setInverted(boolean invertIMU)
+  {
+    if (live())
+    {
+      imu.setInverted(invertIMU);
+    }
+  }
+
+  @Override
+  public Rotation3d getRawRotation3d()
+  {
+    return rotation(RAW_ROTATION, live() ? imu.getRawRotation3d() : null);
+  }
+
+  @Override
+  public Rotation3d getRotation3d()
+  {
+    return rotation(ROTATION, live() ? imu.getRotation3d() : null);
+  }
+
+  @Override
+  public Optional<Translation3d> getAccel()
+  {
+    if (live())
+    {
+      Optional<Translation3d> accel = imu.getAccel();
+      log.put(slot + ACCELERATION, accel.map(Translation3d::getX).orElse(Double.NaN));
+      log.put(slot + ACCELERATION + 1, accel.map(Translation3d::getY).orElse(Double.NaN));
+      log.put(slot + ACCELERATION + 2, accel.map(Translation3d::getZ).orElse(Double.NaN));
+      return accel;
+    }
+    double x = log.get(slot + ACCELERATION);
+    if (Double.isNaN(x))
+    {
+      return Optional.empty();
+    }
+    return Optional.of(new Translation3d(x, log.get(slot + ACCELERATION + 1), log.get(slot + ACCELERATION + 2)));
+  }
+
+  @Override
+  public MutAngularVelocity getYawAngularVelocity()
+  {
+    if (live())
+    {
+      MutAngularVelocity rate = imu.getYawAngularVelocity();
+      log.put(slot + YAW_RATE, rate.in(DegreesPerSecond));
+      return rate;
+    }
+    return yawVel.mut_setMagnitude(log.get(slot + YAW_RATE));
+  }
+
+  @Override
+  public double getYawRateRadiansPerSecond()
+  {
+    if (live())
+    {
+      double rate = imu.getYawRateRadiansPerSecond();
+      log.put(slot + YAW_RATE_CCW, rate);
+      return rate;
+    }
+    return log.get(slot + YAW_RATE_CCW);
+  }
+
+  @Override
+  public Object getIMU()
+  {
+    return imu == null ? null : imu.getIMU();
+  }
+
+  @Override
+  public Optional<String> getCANBus()
+  {
+    return imu == null ? Optional.empty() : imu.getCANBus();
+  }
+
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    // Nothing is sent on the bus while replaying.
+    return live() ? imu.configureStatusFrames(controlPeriodSeconds, telemetryPeriodSeconds, apply) : Double.NaN;
+  }
+
+  /**
+   * Get the IMU being recorded.
+   *
+   * @return Wrapped {@link SwerveIMU}, may be null.
+   */
+  public SwerveIMU getRecordedIMU()
+  {
+    return imu;
+  }
+}
@@ -0,0 +1,328 @@
+package swervelib.replay;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import java.util.Optional;
+import swervelib.encoders.SwerveAbsoluteEncoder;
+import swervelib.motors.SwerveMotor;
+import swervelib.parser.PIDFConfig;
+
+/**
+ * {@link SwerveMotor} which records the reads of another {@link SwerveMotor} into a {@link SwerveInputsLog}, or
+ * returns the recorded reads when the log is replaying. Outputs and configuration are forwarded while recording and
+ * ignored while replaying.
+ */
+public class ReplayMotorSwerve extends SwerveMotor
+{
+
+  /**
+   * Position slot offset.
+   */
+  private static final int             POSITION       = 0;
+  /**
+   * Velocity slot offset.
+   */
+  private static final int             VELOCITY       = 1;
+  /**
+   * Voltage slot offset.
+   */
+  private static final int             VOLTAGE        = 2;
+  /**
+   * Applied output slot offset.
+   */
+  private static final int             APPLIED_OUTPUT = 3;
+  /**
+   * Motor being recorded, may be null while replaying.
+   */
+  private final        SwerveMotor     motor;
+  /**
+   * Inputs log.
+   */
+  private final        SwerveInputsLog log;
+  /**
+   * First slot of this motor in the log.
+   */
+  private final        int             slot;
+
+  /**
+   * Wrap a motor for recording or replay.
+   *
+   * @param motor        {@link SwerveMotor} to record, may be null while replaying.
+   * @param log          {@link SwerveInputsLog} to record into or replay from.
+   * @param isDriveMotor Whether this is a drive motor.
+   */
+  public ReplayMotorSwerve(SwerveMotor motor, SwerveInputsLog log, boolean isDriveMotor)
+  {
+    this.motor = motor;
+    this.log = log;
+    this.isDriveMotor = isDriveMotor;
+    this.slot = log.allocate(4);
+    if (motor != null)
+    {
+      this.simMotor = motor.simMotor;
+    }
+  }
+
+  /**
+   * Whether the motor should be used, false while replaying.
+   *
+   * @return True if the wrapped motor is live.
+   */
+  private boolean live()
+  {
+    return motor != null && !log.isReplaying();
+  }
+
+  /**
+   * Read a value from the wrapped motor while recording, or from the log while replaying.
+   *
+   * @param offset Slot offset.
+   * @param value  Live reading, ignored while replaying.
+   * @return Reading.
+   */
+  private double read(int offset, double value)
+  {
+    log.put(slot + offset, value);
+    return value;
+  }
+
+  @Override
+  public void close()
+  {
+    if (motor != null)
+    {
+      motor.close();
+    }
+  }
+
+  @Override
+  public void factoryDefaults()
+  {
+    if (live())
+    {
+      motor.factoryDefaults();
+    }
+  }
+
+  @Override
+  public void clearStickyFaults()
+  {
+    if (live())
+    {
+      motor.clearStickyFaults();
+    }
+  }
+
+  @Override
+  public SwerveMotor setAbsoluteEncoder(SwerveAbsoluteEncoder encoder)
+  {
+    if (live())
+    {
+      motor.setAbsoluteEncoder(encoder);
+    }
+    return this;
+  }
+
+  @Override
+  public void configureIntegratedEncoder(double positionConversionFactor)
+  {
+    if (live())
+    {
+      motor.configureIntegratedEncoder(positionConversionFactor);
+    }
+  }
+
+  @Override
+  public void configurePIDF(PIDFConfig config)
+  {
+    if (live())
+    {
+      motor.configurePIDF(config);
+    }
+  }
+
+  @Override
+  public void configurePIDWrapping(double minInput, double maxInput)
+  {
+    if (live())
+    {
+      motor.configurePIDWrapping(minInput, maxInput);
+    }
+  }
+
+  @Override
+  public void disablePIDWrapping()
+  {
+    if (live())
+    {
+      motor.disablePIDWrapping();
+    }
+  }
+
+  @Override
+  public void setMotorBrake(boolean isBrakeMode)
+  {
+    if (live())
+    {
+      motor.setMotorBrake(isBrakeMode);
+    }
+  }
+
+  @Override
+  public void setInverted(boolean inverted)
+  {
+    if (live())
+    {
+      motor.setInverted(inverted);
+    }
+  }
+
+  @Override
+  public void burnFlash()
+  {
+    if (live())
+    {
+      motor.burnFlash();
+    }
+  }
+
+  @Override
+  public void set(double percentOutput)
+  {
+    if (live())
+    {
+      motor.set(percentOutput);
+    }
+  }
+
+  @Override
+  public void setReference(double setpoint, double feedforward)
+  {
+    if (live())
+    {
+      motor.setReference(setpoint, feedforward);
+    }
+  }
+
+  @Override
+  public void setReference(double setpoint, double feedforward, double position)
+  {
+    if (live())
+    {
+      motor.setReference(setpoint, feedforward, position);
+    }
+  }
+
+  @Override
+  public double getVoltage()
+  {
+    return live() ? read(VOLTAGE, motor.getVoltage()) : log.get(slot + VOLTAGE);
+  }
+
+  @Override
+  public void setVoltage(double voltage)
+  {
+    if (live())
+    {
+      motor.setVoltage(voltage);
+    }
+  }
+
+  @Override
+  public double getAppliedOutput()
+  {
+    return live() ? read(APPLIED_OUTPUT, motor.getAppliedOutput()) : log.get(slot + APPLIED_OUTPUT);
+  }
+
+  @Override
+  public double getVelocity()
+  {
+    return live() ? read(VELOCITY, motor.getVelocity()) : log.get(slot + VELOCITY);
+  }
+
+  @Override
+  public double getPosition()
+  {
+    return live() ? read(POSITION, motor.getPosition()) : log.get(slot + POSITION);
+  }
+
+  @Override
+  public void setPosition(double position)
+  {
+    if (live())
+    {
+      motor.setPosition(position);
+    }
+  }
+
+  @Override
+  public void setVoltageCompensation(double nominalVoltage)
+  {
+    if (live())
+    {
+      motor.setVoltageCompensation(nominalVoltage);
+    }
+  }
+
+  @Override
+  public void setCurrentLimit(int currentLimit)
+  {
+    if (live())
+    {
+      motor.setCurrentLimit(currentLimit);
+    }
+  }
+
+  @Override
+  public void setLoopRampRate(double rampRate)
+  {
+    if (live())
+    {
+      motor.setLoopRampRate(rampRate);
+    }
+  }
+
+  @Override
+  public Object getMotor()
+  {
+    return motor == null ? null : motor.getMotor();
+  }
+
+  @Override
+  public DCMotor getSimMotor()
+  {
+    if (simMotor == null)
+    {
+      simMotor = motor == null ? DCMotor.getNEO(1) : motor.getSimMotor();
+    }
+    return simMotor;
+  }
+
+  @Override
+  public boolean usingExternalFeedbackSensor()
+  {
+    return motor != null && motor.usingExternalFeedbackSensor();
+  }
+
+  @Override
+  public Optional<String> getCANBus()
+  {
+    return motor == null ? Optional.empty() : motor.getCANBus();
+  }
+
+  @Override
+  public double configureStatusFrames(double controlPeriodSeconds, double telemetryPeriodSeconds, boolean apply)
+  {
+    // Nothing is sent on the bus while replaying.
+    return live() ? motor.configureStatusFrames(controlPeriodSeconds, telemetryPeriodSeconds, apply) : Double.NaN;
+  }
+
+  /**
+   * Get the motor being recorded.
+   *
+   * @return Wrapped {@link SwerveMotor}, may be null.
+   */
+  public SwerveMotor getRecordedMotor()
+  {
+    return motor;
+  }
+}
@@ -0,0 +1,495 @@
+package swervelib.replay;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import swervelib.telemetry.Alert;
+
+/**
+ * Per-cycle log of every sensor read made through the replay devices. While recording, the replay devices store their
+ * latest readings into slots and {@link SwerveInputsLog#endFrame(double)} encodes them once per odometry cycle into one
+ * of a fixed ring of reusable buffers, the encoded frames are written to the stream by a background thread so the
+ * odometry thread never waits on storage. When storage falls behind and every buffer is queued, frames are dropped
+ * with an alert instead of growing the heap, the next written frame carries every change since the last written one.
+ * While replaying, {@link SwerveInputsLog#nextFrame()} loads the next cycle and the replay devices return those
+ * readings instead of touching hardware.
+ * <p>
+ * The binary format is a header of [magic, version, slot count] followed by one frame per cycle. Each frame is the
+ * timestamp, a bitmask of the slots which changed since the previous frame and the changed values, so idle sensors
+ * cost one bit per cycle.
+ */
+public class SwerveInputsLog implements AutoCloseable
+{
+
+  /**
+   * File magic, "YAGL".
+   */
+  private static final int              MAGIC          = 0x5941474C;
+  /**
+   * Format version.
+   */
+  private static final short            VERSION        = 1;
+  /**
+   * Pose reset slots, [reset count, x, y, theta], so odometry resets are replayed at the same cycle.
+   */
+  private static final int              POSE_RESET     = 0;
+  /**
+   * Number of reusable frame buffers, how many frames may wait for the writer before frames are dropped.
+   */
+  private static final int              BUFFERS        = 64;
+  /**
+   * Longest time in milliseconds the writer waits for a frame before checking whether to flush or stop.
+   */
+  private static final long             POLL_MILLIS    = 100;
+  /**
+   * Period in nanoseconds the writer flushes the stream buffer at, so a crash loses at most this much of the log.
+   */
+  private static final long             FLUSH_NANOS    = 1_000_000_000L;
+  /**
+   * Whether this log is being replayed.
+   */
+  private final        boolean          replaying;
+  /**
+   * Output stream while recording.
+   */
+  private final        DataOutputStream output;
+  /**
+   * Input stream while replaying.
+   */
+  private final        DataInputStream  input;
+  /**
+   * Thread writing the encoded frames while recording, null when replaying. It owns the output stream and closes it.
+   */
+  private final        Thread           writer;
+  /**
+   * Frame buffers ready to be encoded into.
+   */
+  private final        BlockingQueue<ByteBuffer> freeBuffers  = new ArrayBlockingQueue<>(BUFFERS);
+  /**
+   * Encoded frames waiting for the writer.
+   */
+  private final        BlockingQueue<ByteBuffer> queuedFrames = new ArrayBlockingQueue<>(BUFFERS);
+  /**
+   * Alert raised when recording fails, recording stops but the robot keeps running.
+   */
+  private final        Alert            recordingError = new Alert("Swerve Drive",
+                                                                   "Input recording failed and has been stopped.",
+                                                                   AlertType.kError);
+  /**
+   * Alert raised when frames are dropped because the writer fell behind.
+   */
+  private final        Alert            droppedFrames  = new Alert("Swerve Drive",
+                                                                   "Input recording fell behind and dropped frames.",
+                                                                   AlertType.kWarning);
+  /**
+   * Current slot values.
+   */
+  private              double[]         values         = new double[0];
+  /**
+   * Slot values of the previously written frame.
+   */
+  private              double[]         lastValues     = new double[0];
+  /**
+   * Bitmask of changed slots.
+   */
+  private              long[]           changed        = new long[0];
+  /**
+   * Number of allocated slots.
+   */
+  private              int              slotCount      = 0;
+  /**
+   * Whether the header has been written or read, after which no slots may be allocated.
+   */
+  private              boolean          started        = false;
+  /**
+   * Whether the log is still usable.
+   */
+  private volatile     boolean          open           = true;
+  /**
+   * Whether {@link SwerveInputsLog#close()} was called, the writer drains the queued frames then stops.
+   */
+  private volatile     boolean          closing        = false;
+  /**
+   * Timestamp of the current frame in seconds.
+   */
+  private              double           timestamp      = Double.NaN;
+  /**
+   * Number of frames written or read.
+   */
+  private              long             frameCount     = 0;
+  /**
+   * Number of pose resets recorded or replayed.
+   */
+  private              double           poseResets     = 0;
+  /**
+   * Number of frames dropped because every buffer was queued.
+   */
+  private              long             droppedCount   = 0;
+
+  /**
+   * Construct the log.
+   *
+   * @param output Output stream while recording, null when replaying.
+   * @param input  Input stream while replaying, null when recording.
+   */
+  private SwerveInputsLog(OutputStream output, InputStream input)
+  {
+    this.replaying = input != null;
+    this.output = output == null ? null : new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+    this.input = input == null ? null : new DataInputStream(new BufferedInputStream(input, 1 << 16));
+    allocate(4);
+    values[POSE_RESET] = 0;
+    if (output == null)
+    {
+      this.writer = null;
+    } else
+    {
+      this.writer = new Thread(this::writeFrames, "Swerve Inputs Log");
+      writer.setDaemon(true);
+      writer.start();
+    }
+  }
+
+  /**
+   * Create a log which records the sensor reads into the given stream.
+   *
+   * @param output Stream to write to, usually a {@link java.io.FileOutputStream} on a USB drive.
+   * @return {@link SwerveInputsLog} in recording mode.
+   */
+  public static SwerveInputsLog record(OutputStream output)
+  {
+    return new SwerveInputsLog(output, null);
+  }
+
+  /**
+   * Create a log which replays the sensor reads from the given stream.
+   *
+   * @param input Stream of a previously recorded log.
+   * @return {@link SwerveInputsLog} in replay mode.
+   */
+  public static SwerveInputsLog replay(InputStream input)
+  {
+    return new SwerveInputsLog(null, input);
+  }
+
+  /**
+   * Allocate consecutive slots for a device. Devices must be created in the same order when recording and replaying.
+   *
+   * @param count Number of slots.
+   * @return Index of the first slot.
+   */
+  synchronized int allocate(int count)
+  {
+    if (started)
+    {
+      throw new IllegalStateException("Replay devices must be created before the first input frame.");
+    }
+    int first = slotCount;
+    slotCount += count;
+    values = Arrays.copyOf(values, slotCount);
+    Arrays.fill(values, first, slotCount, Double.NaN);
+    lastValues = Arrays.copyOf(lastValues, slotCount);
+    Arrays.fill(lastValues, first, slotCount, Double.NaN);
+    changed = new long[(slotCount + 63) >>> 6];
+    return first;
+  }
+
+  /**
+   * Store a reading while recording.
+   *
+   * @param slot  Slot index.
+   * @param value Reading.
+   */
+  void put(int slot, double value)
+  {
+    values[slot] = value;
+  }
+
+  /**
+   * Get the reading of the current frame.
+   *
+   * @param slot Slot index.
+   * @return Reading, {@link Double#NaN} if never recorded.
+   */
+  double get(int slot)
+  {
+    return values[slot];
+  }
+
+  /**
+   * Record an odometry reset, written with the current cycle.
+   *
+   * @param pose Pose odometry was reset to.
+   */
+  public void recordPoseReset(Pose2d pose)
+  {
+    if (replaying)
+    {
+      return;
+    }
+    values[POSE_RESET] = ++poseResets;
+    values[POSE_RESET + 1] = pose.getX();
+    values[POSE_RESET + 2] = pose.getY();
+    values[POSE_RESET + 3] = pose.getRotation().getRadians();
+  }
+
+  /**
+   * Get the odometry reset recorded in the current frame, if one has not been returned yet.
+   *
+   * @return Pose odometry was reset to, empty if there was no reset this frame.
+   */
+  public Optional<Pose2d> pollPoseReset()
+  {
+    if (!replaying || values[POSE_RESET] == poseResets)
+    {
+      return Optional.empty();
+    }
+    poseResets = values[POSE_RESET];
+    return Optional.of(new Pose2d(values[POSE_RESET + 1], values[POSE_RESET + 2],
+                                  Rotation2d.fromRadians(values[POSE_RESET + 3])));
+  }
+
+  /**
+   * Whether the log is replaying recorded inputs.
+   *
+   * @return True when replaying, false when recording.
+   */
+  public boolean isReplaying()
+  {
+    return replaying;
+  }
+
+  /**
+   * Get the timestamp of the current frame.
+   *
+   * @return Timestamp in seconds, {@link Double#NaN} before the first frame.
+   */
+  public double getTimestamp()
+  {
+    return timestamp;
+  }
+
+  /**
+   * Get the number of frames written or read so far.
+   *
+   * @return Frame count.
+   */
+  public long getFrameCount()
+  {
+    return frameCount;
+  }
+
+  /**
+   * Get the number of frames dropped because the writer fell behind.
+   *
+   * @return Dropped frame count.
+   */
+  public long getDroppedFrameCount()
+  {
+    return droppedCount;
+  }
+
+  /**
+   * Encode the readings of the current cycle and queue them for writing. Does nothing while replaying, after a write
+   * failure or once closed. Only copies the changed slots into a free buffer, the stream is written on the background
+   * thread. When no buffer is free the frame is dropped and its changes are carried into the next written frame.
+   *
+   * @param timestampSeconds Timestamp of the cycle in seconds.
+   */
+  public synchronized void endFrame(double timestampSeconds)
+  {
+    if (replaying || !open || closing)
+    {
+      return;
+    }
+    boolean writeHeader = !started;
+    if (writeHeader)
+    {
+      started = true;
+      // Slots are fixed from here, so every buffer fits the header and a frame with every slot changed.
+      int capacity = Integer.BYTES * 2 + Short.BYTES + Double.BYTES * (1 + slotCount) + Long.BYTES * changed.length;
+      for (int i = 0; i < BUFFERS; i++)
+      {
+        freeBuffers.add(ByteBuffer.allocate(capacity));
+      }
+    }
+    ByteBuffer frame = freeBuffers.poll();
+    if (frame == null)
+    {
+      droppedCount++;
+      droppedFrames.set(true);
+      return;
+    }
+    Arrays.fill(changed, 0);
+    for (int i = 0; i < slotCount; i++)
+    {
+      // Compare raw bits so NaN and -0.0 are treated as values.
+      if (Double.doubleToRawLongBits(values[i]) != Double.doubleToRawLongBits(lastValues[i]))
+      {
+        changed[i >>> 6] |= 1L << (i & 63);
+      }
+    }
+    if (writeHeader)
+    {
+      frame.putInt(MAGIC).putShort(VERSION).putInt(slotCount);
+    }
+    frame.putDouble(timestampSeconds);
+    for (long mask : changed)
+    {
+      frame.putLong(mask);
+    }
+    for (int i = 0; i < slotCount; i++)
+    {
+      if ((changed[i >>> 6] & (1L << (i & 63))) != 0)
+      {
+        frame.putDouble(values[i]);
+        lastValues[i] = values[i];
+      }
+    }
+    timestamp = timestampSeconds;
+    frameCount++;
+    queuedFrames.add(frame);
+  }
+
+  /**
+   * Write the queued frames to the stream until closed, on the background thread. The stream is flushed every
+   * {@link SwerveInputsLog#FLUSH_NANOS} and closed once the queue is drained after {@link SwerveInputsLog#close()}.
+   */
+  private void writeFrames()
+  {
+    long lastFlush = System.nanoTime();
+    try
+    {
+      while (open && !(closing && queuedFrames.isEmpty()))
+      {
+        ByteBuffer frame = queuedFrames.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (frame != null)
+        {
+          output.write(frame.array(), 0, frame.position());
+          frame.clear();
+          freeBuffers.add(frame);
+        }
+        if (System.nanoTime() - lastFlush >= FLUSH_NANOS)
+        {
+          output.flush();
+          lastFlush = System.nanoTime();
+        }
+      }
+    } catch (IOException e)
+    {
+      open = false;
+      recordingError.set(true);
+    } catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+    try
+    {
+      output.close();
+    } catch (IOException e)
+    {
+      recordingError.set(true);
+    }
+  }
+
+  /**
+   * Load the next recorded cycle.
+   *
+   * @return True if a frame was loaded, false at the end of the log.
+   */
+  public synchronized boolean nextFrame()
+  {
+    if (!replaying || !open)
+    {
+      return false;
+    }
+    try
+    {
+      if (!started)
+      {
+        if (input.readInt() != MAGIC)
+        {
+          throw new RuntimeException("Not a swerve inputs log.");
+        }
+        short version = input.readShort();
+        if (version != VERSION)
+        {
+          throw new RuntimeException("Unsupported swerve inputs log version " + version + ".");
+        }
+        int recordedSlots = input.readInt();
+        if (recordedSlots != slotCount)
+        {
+          throw new RuntimeException("Swerve inputs log has " + recordedSlots + " slots but " + slotCount +
+                                     " were allocated, the devices do not match the recording.");
+        }
+        started = true;
+      }
+      double frameTimestamp = input.readDouble();
+      for (int i = 0; i < changed.length; i++)
+      {
+        changed[i] = input.readLong();
+      }
+      for (int i = 0; i < slotCount; i++)
+      {
+        if ((changed[i >>> 6] & (1L << (i & 63))) != 0)
+        {
+          values[i] = input.readDouble();
+        }
+      }
+      timestamp = frameTimestamp;
+      frameCount++;
+      return true;
+    } catch (EOFException e)
+    {
+      open = false;
+      return false;
+    } catch (IOException e)
+    {
+      open = false;
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Close the log. While recording this waits up to a second for the writer to drain the queued frames, the writer
+   * closes the stream once it has, so a slow drive is never closed under it.
+   */
+  @Override
+  public synchronized void close()
+  {
+    if (writer != null)
+    {
+      closing = true;
+      try
+      {
+        writer.join(1000);
+      } catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+      return;
+    }
+    open = false;
+    try
+    {
+      input.close();
+    } catch (IOException e)
+    {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,6 @@
+/**
+ * Input recording and replay for the swerve drive. Devices wrapped in {@link swervelib.replay.ReplayMotorSwerve},
+ * {@link swervelib.replay.ReplayEncoderSwerve} and {@link swervelib.replay.ReplayIMUSwerve} record every read into a
+ * {@link swervelib.replay.SwerveInputsLog} so the same {@link swervelib.SwerveDrive} can be run again without hardware.
+ */
+package swervelib.replay;
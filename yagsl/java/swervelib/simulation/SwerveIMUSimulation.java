@@ -6,6 +6,7 @@ import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Translation3d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.units.measure.AngularVelocity;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import java.util.Optional;
 import swervelib.simulation.ironmaple.simulation.drivesims.GyroSimulation;
@@ -78,6 +79,16 @@ public class SwerveIMUSimulation
     return Optional.empty();
   }
 
+  /**
+   * Fetch the simulated yaw rate of the robot.
+   *
+   * @return Yaw rate as an {@link AngularVelocity}.
+   */
+  public AngularVelocity getYawAngularVelocity()
+  {
+    return gyroSimulation.getMeasuredAngularVelocity();
+  }
+
   /**
    * Update the odometry of the simulated {@link swervelib.SwerveDrive} and post the {@link swervelib.SwerveModule}
    * states to the {@link Field2d}.
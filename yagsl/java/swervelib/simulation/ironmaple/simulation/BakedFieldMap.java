@@ -0,0 +1,232 @@
+package swervelib.simulation.ironmaple.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.dyn4j.collision.narrowphase.Gjk;
+import org.dyn4j.dynamics.Body;
+import org.dyn4j.dynamics.BodyFixture;
+import org.dyn4j.geometry.AABB;
+import org.dyn4j.geometry.Circle;
+import org.dyn4j.geometry.Convex;
+import org.dyn4j.geometry.MassType;
+import org.dyn4j.geometry.Polygon;
+import org.dyn4j.geometry.Segment;
+import org.dyn4j.geometry.Transform;
+import org.dyn4j.geometry.Vector2;
+
+/**
+ *
+ *
+ * <h1>The Static Obstacles of a Field, Baked Once and Shared.</h1>
+ *
+ * <p>Baking a {@link SimulatedArena.FieldMap} moves every obstacle into field coordinates, so they can all be fixtures
+ * of one static body instead of one body each. The baked shapes are immutable and shared by every arena built from the
+ * same map, on any thread, each arena only creates its own body and fixtures around them with
+ * {@link #createStaticBody()}.
+ *
+ * <p>Season arenas obtain their map through {@link #of(Object, Supplier)}, which bakes it the first time and caches it
+ * for every later arena.
+ *
+ * <p>The same geometry can be rasterized into a pathfinding grid with {@link #getNavGrid(double, double, double,
+ * double)}, so the pathfinder and the physics agree on where the obstacles are.
+ */
+public final class BakedFieldMap {
+    /** Friction of the field obstacles. */
+    public static final double FRICTION = 0.6;
+    /** Restitution of the field obstacles. */
+    public static final double RESTITUTION = 0.3;
+
+    private static final Map<Object, BakedFieldMap> CACHE = new ConcurrentHashMap<>();
+
+    private final List<Convex> shapes;
+    private final List<Convex> unbakedShapes;
+    private final List<Transform> unbakedTransforms;
+    private final Map<List<Double>, boolean[][]> navGrids = new ConcurrentHashMap<>();
+
+    private BakedFieldMap(List<Convex> shapes, List<Convex> unbakedShapes, List<Transform> unbakedTransforms) {
+        this.shapes = Collections.unmodifiableList(shapes);
+        this.unbakedShapes = Collections.unmodifiableList(unbakedShapes);
+        this.unbakedTransforms = Collections.unmodifiableList(unbakedTransforms);
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Cached Baked Map.</h2>
+     *
+     * @param key identifies the map and its parameters, such as {@code List.of(MyFieldMap.class, withRamps)}
+     * @param fieldMap builds the map, only called the first time the key is seen
+     * @return the baked map, the same instance for every call with an equal key
+     */
+    public static BakedFieldMap of(Object key, Supplier<? extends SimulatedArena.FieldMap> fieldMap) {
+        return CACHE.computeIfAbsent(key, k -> bake(fieldMap.get()));
+    }
+
+    /**
+     *
+     *
+     * <h2>Bakes a Map Without Caching It.</h2>
+     *
+     * <p>Polygons, rectangles, segments and circles are copied into field coordinates. Any other shape is kept with its
+     * transform and becomes a body of its own.
+     *
+     * @param fieldMap the map to bake
+     * @return the baked map
+     */
+    public static BakedFieldMap bake(SimulatedArena.FieldMap fieldMap) {
+        List<Convex> shapes = new ArrayList<>();
+        List<Convex> unbakedShapes = new ArrayList<>();
+        List<Transform> unbakedTransforms = new ArrayList<>();
+        for (int i = 0; i < fieldMap.obstacleShapes.size(); i++) {
+            Convex shape = fieldMap.obstacleShapes.get(i);
+            Transform transform = fieldMap.obstacleTransforms.get(i);
+            Convex baked = toFieldCoordinates(shape, transform);
+            if (baked != null) shapes.add(baked);
+            else {
+                unbakedShapes.add(shape);
+                unbakedTransforms.add(transform.copy());
+            }
+        }
+        return new BakedFieldMap(shapes, unbakedShapes, unbakedTransforms);
+    }
+
+    private static Convex toFieldCoordinates(Convex shape, Transform transform) {
+        if (shape instanceof Segment segment)
+            return new Segment(
+                    transform.getTransformed(segment.getPoint1()), transform.getTransformed(segment.getPoint2()));
+        if (shape instanceof Polygon polygon) {
+            Vector2[] vertices = polygon.getVertices();
+            Vector2[] transformed = new Vector2[vertices.length];
+            for (int i = 0; i < vertices.length; i++) transformed[i] = transform.getTransformed(vertices[i]);
+            return new Polygon(transformed);
+        }
+        if (shape instanceof Circle circle) {
+            Circle transformed = new Circle(circle.getRadius());
+            transformed.translate(transform.getTransformed(circle.getCenter()));
+            return transformed;
+        }
+        return null;
+    }
+
+    /**
+     *
+     *
+     * <h2>Creates the Static Body of the Field.</h2>
+     *
+     * <p>Called once per arena, a dyn4j body belongs to a single world. The fixtures reference the shared shapes.
+     *
+     * @return the bodies to add to the physics world, one holding every baked obstacle followed by one per unbaked
+     *     obstacle
+     */
+    public List<Body> createStaticBody() {
+        List<Body> bodies = new ArrayList<>(1 + unbakedShapes.size());
+        Body field = new Body();
+        for (Convex shape : shapes) addObstacleFixture(field, shape);
+        field.setMass(MassType.INFINITE);
+        bodies.add(field);
+        for (int i = 0; i < unbakedShapes.size(); i++) {
+            Body obstacle = new Body();
+            addObstacleFixture(obstacle, unbakedShapes.get(i));
+            obstacle.setMass(MassType.INFINITE);
+            obstacle.getTransform().set(unbakedTransforms.get(i));
+            bodies.add(obstacle);
+        }
+        return bodies;
+    }
+
+    private static void addObstacleFixture(Body body, Convex shape) {
+        final BodyFixture fixture = body.addFixture(shape);
+        fixture.setFriction(FRICTION);
+        fixture.setRestitution(RESTITUTION);
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Baked Shapes.</h2>
+     *
+     * @return the obstacles in field coordinates, which must not be modified
+     */
+    public List<Convex> getShapes() {
+        return shapes;
+    }
+
+    /**
+     *
+     *
+     * <h2>Checks Whether a Robot Fits at a Point.</h2>
+     *
+     * @param x the x position on the field in meters
+     * @param y the y position on the field in meters
+     * @param clearanceMeters the radius of the robot, the point is blocked within this distance of an obstacle
+     * @return whether the point is inside or within the clearance of any obstacle
+     */
+    public boolean isBlocked(double x, double y, double clearanceMeters) {
+        Transform at = new Transform();
+        at.translate(x, y);
+        Circle probe = new Circle(Math.max(clearanceMeters, 1e-6));
+        Gjk gjk = new Gjk();
+        for (Convex shape : shapes) if (gjk.detect(shape, Transform.IDENTITY, probe, at)) return true;
+        for (int i = 0; i < unbakedShapes.size(); i++)
+            if (gjk.detect(unbakedShapes.get(i), unbakedTransforms.get(i), probe, at)) return true;
+        return false;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Pathfinding Grid of the Field.</h2>
+     *
+     * <p>Laid out like the grid of a PathPlanner {@code navgrid.json}, a node is blocked when its center is within the
+     * clearance of an obstacle. Grids are computed once per set of parameters and shared, they must not be modified.
+     *
+     * @param nodeSizeMeters the side of a node in meters
+     * @param fieldLength the length of the field along x in meters
+     * @param fieldWidth the width of the field along y in meters
+     * @param clearanceMeters the radius of the robot in meters
+     * @return the grid as {@code [row along y][column along x]}, true where a node is blocked
+     */
+    public boolean[][] getNavGrid(
+            double nodeSizeMeters, double fieldLength, double fieldWidth, double clearanceMeters) {
+        if (nodeSizeMeters <= 0) throw new IllegalArgumentException("Node size must be positive");
+        return navGrids.computeIfAbsent(
+                List.of(nodeSizeMeters, fieldLength, fieldWidth, clearanceMeters),
+                k -> rasterize(nodeSizeMeters, fieldLength, fieldWidth, clearanceMeters));
+    }
+
+    private boolean[][] rasterize(double nodeSize, double fieldLength, double fieldWidth, double clearance) {
+        int columns = (int) Math.ceil(fieldLength / nodeSize), rows = (int) Math.ceil(fieldWidth / nodeSize);
+        boolean[][] grid = new boolean[rows][columns];
+        if (rows == 0 || columns == 0) return grid;
+        Circle probe = new Circle(Math.max(clearance, 1e-6));
+        Transform at = new Transform();
+        Gjk gjk = new Gjk();
+        for (Convex shape : shapes) rasterize(grid, nodeSize, shape, Transform.IDENTITY, probe, at, gjk);
+        for (int i = 0; i < unbakedShapes.size(); i++)
+            rasterize(grid, nodeSize, unbakedShapes.get(i), unbakedTransforms.get(i), probe, at, gjk);
+        return grid;
+    }
+
+    private static void rasterize(
+            boolean[][] grid, double nodeSize, Convex shape, Transform transform, Circle probe, Transform at, Gjk gjk) {
+        // Only the nodes under the bounds of the shape grown by the probe can be blocked by it.
+        AABB bounds = shape.createAABB(transform);
+        double margin = probe.getRadius();
+        int firstColumn = Math.max(0, (int) Math.floor((bounds.getMinX() - margin) / nodeSize));
+        int lastColumn = Math.min(grid[0].length - 1, (int) Math.floor((bounds.getMaxX() + margin) / nodeSize));
+        int firstRow = Math.max(0, (int) Math.floor((bounds.getMinY() - margin) / nodeSize));
+        int lastRow = Math.min(grid.length - 1, (int) Math.floor((bounds.getMaxY() + margin) / nodeSize));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                if (grid[row][column]) continue;
+                at.identity();
+                at.translate((column + 0.5) * nodeSize, (row + 0.5) * nodeSize);
+                grid[row][column] = gjk.detect(shape, transform, probe, at);
+            }
+        }
+    }
+}
@@ -10,7 +10,9 @@ import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.Distance;
 import swervelib.simulation.ironmaple.simulation.gamepieces.GamePiece;
 
+import java.util.ArrayList;
 import java.util.List;
+import org.dyn4j.geometry.AABB;
 import org.dyn4j.geometry.Rectangle;
 import org.dyn4j.geometry.Vector2;
 
@@ -40,6 +42,9 @@ public abstract class Goal implements SimulatedArena.Simulatable {
 
     protected final boolean allowGrounded;
 
+    /** Pieces of this goal's type inside its scoring bounds this sub-tick, filled by the {@link GoalScoringIndex}. */
+    final List<GamePiece> candidates = new ArrayList<>();
+
     /**
      *
      *
@@ -93,6 +98,7 @@ public abstract class Goal implements SimulatedArena.Simulatable {
         maxZ = minZ + height.in(Units.Meters);
 
         xyBox.translate(new Vector2(position.getX(), position.getY()));
+        arena.getGoalScoringIndex().register(this);
     }
 
     /**
@@ -125,22 +131,83 @@ public abstract class Goal implements SimulatedArena.Simulatable {
      *
      *
      * <h2>Handles the update triggers for the goal object.</h2>
+     *
+     * <p>Only the pieces of this goal's type inside its {@link #getScoringBounds()} are checked, the arena's
+     * {@link GoalScoringIndex} collects them once per sub-tick for every goal.
      */
     @Override
     public void simulationSubTick(int subTickNum) {
-        if (gamePieceCount >= max) return; // Early exit if already at max
-        /// Use list filtering for more efficient bulk checking.
-        // Get all pieces of our type as a list.
-        arena.getGamePiecesByType(gamePieceType).stream()
-                .filter(gamePiece -> checkGrounded(gamePiece))
-                .filter(this::checkValidity)
-                .limit(max - gamePieceCount) // Only score what we can
-                .forEach(
-                        gamePiece -> { // If a piece passes, score it.
-                            gamePieceCount++;
-                            this.addPoints();
-                            arena.removePiece(gamePiece);
-                        });
+        for (GamePiece gamePiece : candidates) {
+            if (gamePieceCount >= max) return; // Only score what we can
+            if (!checkGrounded(gamePiece) || !checkValidity(gamePiece)) continue;
+            // An overlapping goal may have scored the piece first this sub-tick.
+            if (!arena.removePiece(gamePiece)) continue;
+            gamePieceCount++;
+            this.addPoints();
+        }
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Bounds of the Scoring Volume.</h2>
+     *
+     * <p>A piece outside of these bounds is never checked against this goal, so children that override
+     * {@link #checkCollision(GamePiece)} with a different shape must override this to cover it. Read once, on the
+     * first sub-tick after the goal is created.
+     *
+     * @return the axis-aligned box which contains every point {@link #checkCollision(GamePiece)} accepts
+     */
+    public ScoringBounds getScoringBounds() {
+        AABB aabb = xyBox.createAABB();
+        return new ScoringBounds(aabb.getMinX(), aabb.getMinY(), minZ, aabb.getMaxX(), aabb.getMaxY(), maxZ);
+    }
+
+    /**
+     *
+     *
+     * <h2>An Axis-Aligned Box Around a Scoring Volume.</h2>
+     *
+     * @param minX the smallest x coordinate in meters
+     * @param minY the smallest y coordinate in meters
+     * @param minZ the smallest height in meters
+     * @param maxX the largest x coordinate in meters
+     * @param maxY the largest y coordinate in meters
+     * @param maxZ the largest height in meters
+     */
+    public record ScoringBounds(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        /**
+         *
+         *
+         * <h2>Creates the Bounds of a Sphere.</h2>
+         *
+         * @param center the center of the sphere
+         * @param radiusMeters the radius of the sphere in meters
+         * @return the box around the sphere
+         */
+        public static ScoringBounds ofSphere(Translation3d center, double radiusMeters) {
+            return new ScoringBounds(
+                    center.getX() - radiusMeters,
+                    center.getY() - radiusMeters,
+                    center.getZ() - radiusMeters,
+                    center.getX() + radiusMeters,
+                    center.getY() + radiusMeters,
+                    center.getZ() + radiusMeters);
+        }
+
+        /**
+         *
+         *
+         * <h2>Checks Whether a Point is Inside the Bounds.</h2>
+         *
+         * @param x the x coordinate in meters
+         * @param y the y coordinate in meters
+         * @param z the height in meters
+         * @return whether the point is inside or on the boundary
+         */
+        public boolean contains(double x, double y, double z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
     }
 
     /**
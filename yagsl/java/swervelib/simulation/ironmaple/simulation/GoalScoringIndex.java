@@ -0,0 +1,151 @@
+package swervelib.simulation.ironmaple.simulation;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import org.dyn4j.dynamics.Body;
+import swervelib.simulation.ironmaple.simulation.gamepieces.GamePiece;
+
+/**
+ *
+ *
+ * <h1>Spatial Index of the Scoring Volumes of {@link Goal}s.</h1>
+ *
+ * <p>Every goal registers itself with its arena, and once per sub-tick the arena hands this index all of its game
+ * pieces. A uniform grid of cells over the goals' {@link Goal#getScoringBounds()} lets each piece be rejected with one
+ * cell lookup when no goal is near it, read from its physics body without building a {@link Pose3d}. Only pieces
+ * inside the bounds of a goal of their type become candidates of that goal, so the checks in
+ * {@link Goal#simulationSubTick(int)} scale with the pieces near goals instead of every piece times every goal.
+ */
+public class GoalScoringIndex {
+    /** Side of a grid cell in meters. */
+    public static final double CELL_SIZE_METERS = 0.5;
+
+    private final List<Goal> goals = new ArrayList<>();
+    private boolean dirty = false;
+
+    private Goal.ScoringBounds[] bounds = new Goal.ScoringBounds[0];
+    private int[][] cells = null;
+    private double originX, originY;
+    private int columns, rows;
+
+    /**
+     *
+     *
+     * <h2>Registers a Goal.</h2>
+     *
+     * <p>Called by the {@link Goal} constructor, its bounds are read on the next {@link #update(Collection)} so
+     * children may finish constructing first.
+     *
+     * @param goal the goal to register
+     */
+    public void register(Goal goal) {
+        goals.add(goal);
+        dirty = true;
+    }
+
+    /**
+     *
+     *
+     * <h2>Rebuilds the Grid on the Next Update.</h2>
+     *
+     * <p>Only needed if a goal changes the bounds it returns from {@link Goal#getScoringBounds()}.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     *
+     *
+     * <h2>Collects the Candidates of Every Goal.</h2>
+     *
+     * <p>Called once per sub-tick by the arena, after the physics step and the intakes and before the goals tick.
+     *
+     * @param gamePieces all game pieces in the arena
+     */
+    public void update(Collection<GamePiece> gamePieces) {
+        if (dirty) rebuild();
+        for (Goal goal : goals) goal.candidates.clear();
+        if (cells == null) return;
+
+        for (GamePiece gamePiece : gamePieces) {
+            Pose3d pose = null;
+            double x, y;
+            if (gamePiece instanceof Body body) {
+                x = body.getTransform().getTranslationX();
+                y = body.getTransform().getTranslationY();
+            } else {
+                pose = gamePiece.getPose3d();
+                x = pose.getX();
+                y = pose.getY();
+            }
+
+            int column = (int) Math.floor((x - originX) / CELL_SIZE_METERS);
+            int row = (int) Math.floor((y - originY) / CELL_SIZE_METERS);
+            if (column < 0 || column >= columns || row < 0 || row >= rows) continue;
+            int[] cell = cells[row * columns + column];
+            if (cell == null) continue;
+
+            for (int index : cell) {
+                Goal goal = goals.get(index);
+                if (!Objects.equals(goal.gamePieceType, gamePiece.getType())) continue;
+                if (pose == null) pose = gamePiece.getPose3d();
+                if (bounds[index].contains(pose.getX(), pose.getY(), pose.getZ())) goal.candidates.add(gamePiece);
+            }
+        }
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Number of Registered Goals.</h2>
+     *
+     * @return the number of goals in the index
+     */
+    public int getGoalCount() {
+        return goals.size();
+    }
+
+    private void rebuild() {
+        dirty = false;
+        bounds = new Goal.ScoringBounds[goals.size()];
+        if (goals.isEmpty()) {
+            cells = null;
+            return;
+        }
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = goals.get(i).getScoringBounds();
+            minX = Math.min(minX, bounds[i].minX());
+            minY = Math.min(minY, bounds[i].minY());
+            maxX = Math.max(maxX, bounds[i].maxX());
+            maxY = Math.max(maxY, bounds[i].maxY());
+        }
+        originX = minX;
+        originY = minY;
+        columns = (int) Math.floor((maxX - minX) / CELL_SIZE_METERS) + 1;
+        rows = (int) Math.floor((maxY - minY) / CELL_SIZE_METERS) + 1;
+
+        cells = new int[columns * rows][];
+        for (int i = 0; i < bounds.length; i++) {
+            int firstColumn = (int) Math.floor((bounds[i].minX() - originX) / CELL_SIZE_METERS);
+            int lastColumn = (int) Math.floor((bounds[i].maxX() - originX) / CELL_SIZE_METERS);
+            int firstRow = (int) Math.floor((bounds[i].minY() - originY) / CELL_SIZE_METERS);
+            int lastRow = (int) Math.floor((bounds[i].maxY() - originY) / CELL_SIZE_METERS);
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    int[] cell = cells[row * columns + column];
+                    cell = cell == null ? new int[1] : Arrays.copyOf(cell, cell.length + 1);
+                    cell[cell.length - 1] = i;
+                    cells[row * columns + column] = cell;
+                }
+            }
+        }
+    }
+}
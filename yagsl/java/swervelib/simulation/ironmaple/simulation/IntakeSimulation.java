@@ -14,12 +14,18 @@ import java.util.Queue;
 import java.util.function.Predicate;
 import org.dyn4j.collision.CollisionBody;
 import org.dyn4j.collision.Fixture;
+import org.dyn4j.collision.narrowphase.Gjk;
+import org.dyn4j.collision.narrowphase.Separation;
 import org.dyn4j.dynamics.Body;
 import org.dyn4j.dynamics.BodyFixture;
 import org.dyn4j.dynamics.contact.Contact;
 import org.dyn4j.dynamics.contact.SolvedContact;
+import org.dyn4j.geometry.AABB;
+import org.dyn4j.geometry.Circle;
 import org.dyn4j.geometry.Convex;
 import org.dyn4j.geometry.Rectangle;
+import org.dyn4j.geometry.Segment;
+import org.dyn4j.geometry.Transform;
 import org.dyn4j.geometry.Vector2;
 import org.dyn4j.world.ContactCollisionData;
 import org.dyn4j.world.listener.ContactListener;
@@ -45,12 +51,17 @@ import org.dyn4j.world.listener.ContactListener;
  * <ul>
  *   <li>1. The type of the game piece ({@link org.ironmaple.simulation.gamepieces.GamePieceOnFieldSimulation#type})
  *       matches {@link #targetedGamePieceType}.
- *   <li>2. The {@link org.ironmaple.simulation.gamepieces.GamePieceOnFieldSimulation} is in contact with the intake
- *       (and not other parts of the robot).
+ *   <li>2. The {@link org.ironmaple.simulation.gamepieces.GamePieceOnFieldSimulation} touches the intake (and not
+ *       other parts of the robot) at the end of a sub-tick, or the intake swept through it during the sub-tick.
  *   <li>3. The intake is turned on via {@link #startIntake()}.
  *   <li>4. The number of game pieces in the intake ({@link #gamePiecesInIntakeCount}) is less than {@link #capacity}.
  * </ul>
  *
+ * <p>Detection is swept rather than driven by contact callbacks: each sub-tick the motion of every nearby piece
+ * relative to the intake is tested against the intake's shape, see {@link #collectSweptGamePieces(IntakeSweepIndex)}.
+ * A fast robot therefore collects pieces that it would tunnel through between two sub-ticks, and the simulation does
+ * not need more sub-ticks to keep thin intakes reliable.
+ *
  * <p><strong>Note:</strong> This class simulates an idealized "touch it, get it" intake and does not model the actual
  * functioning of an intake mechanism.
  */
@@ -64,6 +75,15 @@ public class IntakeSimulation extends BodyFixture {
     private final String targetedGamePieceType;
     private Predicate<GamePieceOnFieldSimulation> customIntakeCondition = gp -> true;
 
+    /** Distance in meters within which a piece touches the intake, the dyn4j linear slop. */
+    private static final double CONTACT_DISTANCE_METERS = 0.005;
+
+    private static final Transform IDENTITY = new Transform();
+
+    private final Transform startTransform = new Transform();
+    private final Gjk gjk = new Gjk();
+    private final Separation separation = new Separation();
+
     public enum IntakeSide {
         FRONT,
         LEFT,
@@ -294,6 +314,9 @@ public class IntakeSimulation extends BodyFixture {
      *
      * <h2>The {@link ContactListener} for the Intake Simulation.</h2>
      *
+     * <p>The arena no longer registers it, as it detects pieces with
+     * {@link #collectSweptGamePieces(IntakeSweepIndex)} instead. It can still be added to a physics world manually.
+     *
      * <p>This class can be added to the simulation world to detect and manage contacts between the intake and
      * {@link GamePieceOnFieldSimulation} instances of the type {@link #targetedGamePieceType}.
      *
@@ -310,26 +333,11 @@ public class IntakeSimulation extends BodyFixture {
             final Fixture fixture1 = collision.getFixture1(), fixture2 = collision.getFixture2();
 
             if (collisionBody1 instanceof GamePieceOnFieldSimulation gamePiece
-                    && Objects.equals(gamePiece.type, targetedGamePieceType)
+                    && canCollect(gamePiece)
                     && fixture2 == IntakeSimulation.this) flagGamePieceForRemoval(gamePiece);
             else if (collisionBody2 instanceof GamePieceOnFieldSimulation gamePiece
-                    && Objects.equals(gamePiece.type, targetedGamePieceType)
+                    && canCollect(gamePiece)
                     && fixture1 == IntakeSimulation.this) flagGamePieceForRemoval(gamePiece);
-
-            boolean coralOrAlgaeIntake = "Coral".equals(IntakeSimulation.this.targetedGamePieceType)
-                    || "Algae".equals(IntakeSimulation.this.targetedGamePieceType);
-            if (collisionBody1 instanceof ReefscapeCoralAlgaeStack stack
-                    && coralOrAlgaeIntake
-                    && fixture2 == IntakeSimulation.this) flagGamePieceForRemoval(stack);
-            else if (collisionBody2 instanceof ReefscapeCoralAlgaeStack stack
-                    && coralOrAlgaeIntake
-                    && fixture1 == IntakeSimulation.this) flagGamePieceForRemoval(stack);
-        }
-
-        private void flagGamePieceForRemoval(GamePieceOnFieldSimulation gamePiece) {
-            if (!customIntakeCondition.test(gamePiece)) return;
-            gamePiecesToRemove.add(gamePiece);
-            gamePiecesInIntakeCount++;
         }
 
         /* functions not used */
@@ -352,6 +360,75 @@ public class IntakeSimulation extends BodyFixture {
         public void postSolve(ContactCollisionData collision, SolvedContact contact) {}
     }
 
+    private boolean canCollect(GamePieceOnFieldSimulation gamePiece) {
+        if (Objects.equals(gamePiece.type, targetedGamePieceType)) return true;
+        return gamePiece instanceof ReefscapeCoralAlgaeStack
+                && ("Coral".equals(targetedGamePieceType) || "Algae".equals(targetedGamePieceType));
+    }
+
+    private void flagGamePieceForRemoval(GamePieceOnFieldSimulation gamePiece) {
+        if (!customIntakeCondition.test(gamePiece)) return;
+        gamePiecesToRemove.add(gamePiece);
+        gamePiecesInIntakeCount++;
+    }
+
+    /**
+     *
+     *
+     * <h2>Records the Pose of the Intake Before the Physics Step.</h2>
+     *
+     * <p>Called by the arena at the start of each sub-tick, before {@link #collectSweptGamePieces(IntakeSweepIndex)}.
+     */
+    public void beginSubTick() {
+        startTransform.set(driveTrainSimulation.getTransform());
+    }
+
+    /**
+     *
+     *
+     * <h2>Collects the Pieces the Intake Touched or Swept Through During the Sub-Tick.</h2>
+     *
+     * <p>Called by the arena after the physics step. For each candidate from the index, the path of the piece's center
+     * relative to the intake, from its pose before the step to its pose after, is tested against the intake's shape in
+     * the chassis frame. A piece is collected when:
+     *
+     * <ul>
+     *   <li>its shape is within 5mm (the dyn4j linear slop) of the intake after the step, like a contact, or
+     *   <li>its relative path comes within its radius of the intake (its center crosses the intake for pieces that are
+     *       not circles), which catches pieces that tunneled through the intake during the step.
+     * </ul>
+     *
+     * @param index the motion of the game pieces during the sub-tick
+     */
+    public void collectSweptGamePieces(IntakeSweepIndex index) {
+        if (!intakeRunning || gamePiecesInIntakeCount >= capacity) return;
+        final Transform endTransform = driveTrainSimulation.getTransform();
+        final AABB sweptRegion = getShape().createAABB(startTransform).union(getShape().createAABB(endTransform));
+
+        index.forEachCandidate(sweptRegion, i -> {
+            if (gamePiecesInIntakeCount >= capacity) return;
+            final GamePieceOnFieldSimulation gamePiece = index.getPiece(i);
+            if (!canCollect(gamePiece) || !touchesOrSweeps(gamePiece, index, i, endTransform)) return;
+            if (!customIntakeCondition.test(gamePiece) || !index.claim(i)) return;
+            gamePiecesToRemove.add(gamePiece);
+            gamePiecesInIntakeCount++;
+        });
+    }
+
+    private boolean touchesOrSweeps(
+            GamePieceOnFieldSimulation gamePiece, IntakeSweepIndex index, int i, Transform endTransform) {
+        final Convex pieceShape = gamePiece.getFixture(0).getShape();
+        if (!gjk.distance(getShape(), endTransform, pieceShape, gamePiece.getTransform(), separation)
+                || separation.getDistance() <= CONTACT_DISTANCE_METERS) return true;
+
+        final Vector2 start = startTransform.getInverseTransformed(new Vector2(index.getStartX(i), index.getStartY(i)));
+        final Vector2 end = endTransform.getInverseTransformed(new Vector2(index.getEndX(i), index.getEndY(i)));
+        if (start.distanceSquared(end) < 1e-12) return false;
+        final double radius = pieceShape instanceof Circle circle ? circle.getRadius() : 0;
+        return !gjk.distance(getShape(), IDENTITY, new Segment(start, end), IDENTITY, separation)
+                || separation.getDistance() <= radius;
+    }
+
     /**
      *
      *
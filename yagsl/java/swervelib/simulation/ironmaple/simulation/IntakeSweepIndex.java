@@ -0,0 +1,209 @@
+package swervelib.simulation.ironmaple.simulation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+import org.dyn4j.geometry.AABB;
+import swervelib.simulation.ironmaple.simulation.gamepieces.GamePiece;
+import swervelib.simulation.ironmaple.simulation.gamepieces.GamePieceOnFieldSimulation;
+
+/**
+ *
+ *
+ * <h1>Spatial Index of the Motion of Game Pieces over One Sub-Tick.</h1>
+ *
+ * <p>Before the physics step the arena records where every game piece on the field starts, after it the pieces are
+ * bucketed by where they end into a uniform grid. An {@link IntakeSimulation} then queries the cells under the volume
+ * it swept during the sub-tick and tests the relative motion of each candidate against its shape, so a piece is
+ * collected even when the intake passed through it between two sub-ticks.
+ *
+ * <p>Each piece can be claimed by one intake per sub-tick.
+ */
+public class IntakeSweepIndex {
+    /** Side of a grid cell in meters. */
+    public static final double CELL_SIZE_METERS = 0.5;
+
+    private GamePieceOnFieldSimulation[] pieces = new GamePieceOnFieldSimulation[64];
+    private double[] startX = new double[64], startY = new double[64];
+    private boolean[] claimed = new boolean[64];
+    private int count = 0;
+
+    private int[] cellStarts = new int[1], cellPieces = new int[64];
+    private double originX, originY;
+    private int columns = 0, rows = 0;
+    private double maxDisplacement = 0, maxRadius = 0;
+
+    /**
+     *
+     *
+     * <h2>Records Where Every Game Piece Starts.</h2>
+     *
+     * <p>Called by the arena right before the physics step.
+     *
+     * @param gamePieces all game pieces in the arena, only those on the field are indexed
+     */
+    public void begin(Collection<GamePiece> gamePieces) {
+        count = 0;
+        for (GamePiece gamePiece : gamePieces) {
+            if (!(gamePiece instanceof GamePieceOnFieldSimulation piece)) continue;
+            if (count == pieces.length) {
+                pieces = Arrays.copyOf(pieces, count * 2);
+                startX = Arrays.copyOf(startX, count * 2);
+                startY = Arrays.copyOf(startY, count * 2);
+                claimed = Arrays.copyOf(claimed, count * 2);
+            }
+            pieces[count] = piece;
+            startX[count] = piece.getTransform().getTranslationX();
+            startY[count] = piece.getTransform().getTranslationY();
+            claimed[count] = false;
+            count++;
+        }
+    }
+
+    /**
+     *
+     *
+     * <h2>Buckets the Game Pieces by Where They End.</h2>
+     *
+     * <p>Called by the arena right after the physics step, before the intakes query it.
+     */
+    public void end() {
+        maxDisplacement = 0;
+        maxRadius = 0;
+        if (count == 0) {
+            columns = rows = 0;
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            double x = getEndX(i), y = getEndY(i);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxDisplacement = Math.max(maxDisplacement, Math.hypot(x - startX[i], y - startY[i]));
+            maxRadius = Math.max(maxRadius, pieces[i].getRotationDiscRadius());
+        }
+        originX = minX;
+        originY = minY;
+        columns = (int) ((maxX - minX) / CELL_SIZE_METERS) + 1;
+        rows = (int) ((maxY - minY) / CELL_SIZE_METERS) + 1;
+
+        // Counting sort of the pieces by cell, cellStarts[c] to cellStarts[c + 1] index into cellPieces.
+        if (cellStarts.length < columns * rows + 1) cellStarts = new int[columns * rows + 1];
+        else Arrays.fill(cellStarts, 0, columns * rows + 1, 0);
+        if (cellPieces.length < count) cellPieces = new int[pieces.length];
+        for (int i = 0; i < count; i++) cellStarts[cellOf(i) + 1]++;
+        for (int c = 0; c < columns * rows; c++) cellStarts[c + 1] += cellStarts[c];
+        int[] next = Arrays.copyOf(cellStarts, columns * rows);
+        for (int i = 0; i < count; i++) cellPieces[next[cellOf(i)]++] = i;
+    }
+
+    /**
+     *
+     *
+     * <h2>Visits the Pieces Which May Have Crossed a Region.</h2>
+     *
+     * <p>The region is grown by the farthest any piece moved during the sub-tick and the largest piece, so every piece
+     * whose path or shape touches the region is visited, along with some that do not.
+     *
+     * @param region the region swept by an intake during the sub-tick
+     * @param action called with the index of each candidate piece
+     */
+    public void forEachCandidate(AABB region, IntConsumer action) {
+        if (columns == 0) return;
+        double margin = maxDisplacement + maxRadius;
+        int firstColumn = Math.max(0, (int) Math.floor((region.getMinX() - margin - originX) / CELL_SIZE_METERS));
+        int lastColumn =
+                Math.min(columns - 1, (int) Math.floor((region.getMaxX() + margin - originX) / CELL_SIZE_METERS));
+        int firstRow = Math.max(0, (int) Math.floor((region.getMinY() - margin - originY) / CELL_SIZE_METERS));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((region.getMaxY() + margin - originY) / CELL_SIZE_METERS));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) action.accept(cellPieces[k]);
+            }
+        }
+    }
+
+    /**
+     *
+     *
+     * <h2>Claims a Piece for an Intake.</h2>
+     *
+     * @param index the index of the piece
+     * @return whether the piece was unclaimed, false if another intake already collected it this sub-tick
+     */
+    public boolean claim(int index) {
+        if (claimed[index]) return false;
+        claimed[index] = true;
+        return true;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains an Indexed Piece.</h2>
+     *
+     * @param index the index of the piece
+     * @return the game piece
+     */
+    public GamePieceOnFieldSimulation getPiece(int index) {
+        return pieces[index];
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the X Position of a Piece Before the Step.</h2>
+     *
+     * @param index the index of the piece
+     * @return the x position of the piece before the physics step, in meters
+     */
+    public double getStartX(int index) {
+        return startX[index];
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Y Position of a Piece Before the Step.</h2>
+     *
+     * @param index the index of the piece
+     * @return the y position of the piece before the physics step, in meters
+     */
+    public double getStartY(int index) {
+        return startY[index];
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the X Position of a Piece After the Step.</h2>
+     *
+     * @param index the index of the piece
+     * @return the x position of the piece after the physics step, in meters
+     */
+    public double getEndX(int index) {
+        return pieces[index].getTransform().getTranslationX();
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Y Position of a Piece After the Step.</h2>
+     *
+     * @param index the index of the piece
+     * @return the y position of the piece after the physics step, in meters
+     */
+    public double getEndY(int index) {
+        return pieces[index].getTransform().getTranslationY();
+    }
+
+    private int cellOf(int index) {
+        int column = (int) ((getEndX(index) - originX) / CELL_SIZE_METERS);
+        int row = (int) ((getEndY(index) - originY) / CELL_SIZE_METERS);
+        return row * columns + column;
+    }
+}
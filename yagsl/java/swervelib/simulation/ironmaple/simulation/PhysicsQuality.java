@@ -0,0 +1,89 @@
+package swervelib.simulation.ironmaple.simulation;
+
+import static edu.wpi.first.units.Units.Seconds;
+
+import edu.wpi.first.units.measure.Time;
+import org.dyn4j.dynamics.ContinuousDetectionMode;
+import org.dyn4j.dynamics.Settings;
+
+/**
+ *
+ *
+ * <h1>Presets of Physics Fidelity for a {@link SimulatedArena}.</h1>
+ *
+ * <p>Each preset sets how long a sub-tick may be, how many iterations the dyn4j solver spends on velocity and position
+ * constraints, which bodies get continuous collision detection, and whether game pieces on the field collide with each
+ * other. Select one with {@link SimulatedArena#setPhysicsQuality(PhysicsQuality)}, at any time.
+ *
+ * <ul>
+ *   <li>{@link #ACCURATE}: short sub-ticks and a converged solver, for validating mechanisms and autonomous routines.
+ *   <li>{@link #BALANCED}: the default, 5 sub-ticks per 20ms period and the engine's default solver.
+ *   <li>{@link #FAST}: few sub-ticks, a coarse solver, and pieces which pass through each other, for crowded fields on
+ *       slow machines or running many matches.
+ * </ul>
+ */
+public enum PhysicsQuality {
+    ACCURATE(0.0025, 20, 10, ContinuousDetectionMode.ALL, true),
+    BALANCED(
+            0.004,
+            EngineDefaults.SETTINGS.getVelocityConstraintSolverIterations(),
+            EngineDefaults.SETTINGS.getPositionConstraintSolverIterations(),
+            EngineDefaults.SETTINGS.getContinuousDetectionMode(),
+            true),
+    FAST(0.010, 4, 2, ContinuousDetectionMode.BULLETS_ONLY, false);
+
+    /** Longest sub-tick in seconds, the robot period is split into as many sub-ticks as needed to stay below it. */
+    public final double maxSubTickSeconds;
+    /** Iterations of the dyn4j velocity constraint solver per sub-tick. */
+    public final int velocityIterations;
+    /** Iterations of the dyn4j position constraint solver per sub-tick. */
+    public final int positionIterations;
+    /** Bodies checked for tunneling between sub-ticks, game pieces are bullets. */
+    public final ContinuousDetectionMode continuousDetectionMode;
+    /** Whether game pieces on the field collide with each other, they always collide with robots and the field. */
+    public final boolean piecesCollide;
+
+    PhysicsQuality(
+            double maxSubTickSeconds,
+            int velocityIterations,
+            int positionIterations,
+            ContinuousDetectionMode continuousDetectionMode,
+            boolean piecesCollide) {
+        this.maxSubTickSeconds = maxSubTickSeconds;
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+        this.continuousDetectionMode = continuousDetectionMode;
+        this.piecesCollide = piecesCollide;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Number of Sub-Ticks for a Robot Period.</h2>
+     *
+     * @param robotPeriod the period of {@link SimulatedArena#simulationPeriodic()}
+     * @return the fewest sub-ticks no longer than {@link #maxSubTickSeconds}, at least one
+     */
+    public int getSubTicks(Time robotPeriod) {
+        // The small tolerance keeps 20ms / 4ms at 5 sub-ticks despite rounding.
+        return Math.max(1, (int) Math.ceil(robotPeriod.in(Seconds) / maxSubTickSeconds - 1e-9));
+    }
+
+    /**
+     *
+     *
+     * <h2>Applies the Solver Settings to a Physics World.</h2>
+     *
+     * @param settings the settings of the physics world, modified in place
+     */
+    void apply(Settings settings) {
+        settings.setVelocityConstraintSolverIterations(velocityIterations);
+        settings.setPositionConstraintSolverIterations(positionIterations);
+        settings.setContinuousDetectionMode(continuousDetectionMode);
+    }
+
+    /** Settings of a new dyn4j world, read apart from the enum so they exist when the constants are built. */
+    private static final class EngineDefaults {
+        private static final Settings SETTINGS = new Settings();
+    }
+}
@@ -1,6 +1,8 @@
 package swervelib.simulation.ironmaple.simulation;
 
+import static edu.wpi.first.units.Units.Amps;
 import static edu.wpi.first.units.Units.Seconds;
+import static edu.wpi.first.units.Units.Volts;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
@@ -15,29 +17,34 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.TimedRobot;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.Timer;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import org.dyn4j.collision.CategoryFilter;
+import org.dyn4j.collision.Filter;
 import org.dyn4j.dynamics.Body;
 import org.dyn4j.dynamics.BodyFixture;
+import org.dyn4j.dynamics.Settings;
 import org.dyn4j.geometry.Convex;
 import org.dyn4j.geometry.Geometry;
-import org.dyn4j.geometry.MassType;
+import org.dyn4j.geometry.Transform;
 import org.dyn4j.world.PhysicsWorld;
 import org.dyn4j.world.World;
 import swervelib.simulation.ironmaple.simulation.drivesims.AbstractDriveTrainSimulation;
 import swervelib.simulation.ironmaple.simulation.gamepieces.GamePiece;
+import swervelib.simulation.ironmaple.simulation.gamepieces.GamePieceLevelOfDetail;
 import swervelib.simulation.ironmaple.simulation.gamepieces.GamePieceOnFieldSimulation;
 import swervelib.simulation.ironmaple.simulation.gamepieces.GamePieceProjectile;
 import swervelib.simulation.ironmaple.simulation.motorsims.SimulatedBattery;
 import swervelib.simulation.ironmaple.simulation.opponentsim.OpponentManager;
 import swervelib.simulation.ironmaple.simulation.seasonspecific.rebuilt2026.Arena2026Rebuilt;
 import swervelib.simulation.ironmaple.utils.mathutils.GeometryConvertor;
+import swervelib.simulation.ironmaple.utils.mathutils.MapleCommonMath;
 
 /**
  *
@@ -77,6 +84,8 @@ public abstract class SimulatedArena {
     public Map<String, Double> blueScoringBreakdown = new Hashtable<String, Double>();
     protected Map<String, DoublePublisher> redPublishers = new Hashtable<String, DoublePublisher>();
     protected Map<String, DoublePublisher> bluePublishers = new Hashtable<String, DoublePublisher>();
+    private final Map<String, Integer> redHandles = new Hashtable<String, Integer>();
+    private final Map<String, Integer> blueHandles = new Hashtable<String, Integer>();
 
     public NetworkTable redTable =
             NetworkTableInstance.getDefault().getTable("SmartDashboard/MapleSim/MatchData/Breakdown/Red Alliance");
@@ -239,13 +248,104 @@ public abstract class SimulatedArena {
         SIMULATION_DT = robotPeriod.div(SIMULATION_SUB_TICKS_IN_1_PERIOD);
     }
 
+    /**
+     *
+     *
+     * <h2>Overrides the Robot Period, Letting the Physics Quality Choose the Sub-Ticks.</h2>
+     *
+     * <p>The number of sub-ticks comes from {@link PhysicsQuality#getSubTicks(Time)} of the main arena's
+     * {@link #getPhysicsQuality()}, or {@link PhysicsQuality#BALANCED} before the main arena is created.
+     *
+     * @param robotPeriod the time between two calls of {@link #simulationPeriodic()}
+     * @see #overrideSimulationTimings(Time, int)
+     */
+    public static synchronized void overrideSimulationTimings(Time robotPeriod) {
+        PhysicsQuality quality = instance == null ? PhysicsQuality.BALANCED : instance.physicsQuality;
+        overrideSimulationTimings(robotPeriod, quality.getSubTicks(robotPeriod));
+    }
+
+    private static boolean lockstep = false;
+    private static double simulationTimeSeconds = 0;
+
+    /**
+     *
+     *
+     * <h2>Enables the deterministic lockstep mode.</h2>
+     *
+     * <p>In lockstep mode the simulation never reads the wall clock. Time only advances by
+     * {@link #getSimulationDt()} for each sub-tick, and all randomness comes from a generator seeded with the given
+     * seed. Two runs with the same seed and the same inputs produce identical results regardless of machine load.
+     *
+     * <p>This method should be called before any simulation objects are created, since some of them draw random values
+     * on construction. The caller is responsible for calling {@link #simulationPeriodic()} (or
+     * <code>SwerveDrive.step()</code>) instead of relying on a background thread.
+     *
+     * @param seed the seed for {@link MapleCommonMath#setRandomSeed(long)}
+     */
+    public static synchronized void enableLockstep(long seed) {
+        lockstep = true;
+        simulationTimeSeconds = 0;
+        MapleCommonMath.setRandomSeed(seed);
+    }
+
+    /**
+     *
+     *
+     * <h2>Disables the deterministic lockstep mode.</h2>
+     */
+    public static synchronized void disableLockstep() {
+        lockstep = false;
+    }
+
+    /**
+     *
+     *
+     * <h2>Whether the simulation runs in lockstep mode.</h2>
+     *
+     * @return <code>true</code> if {@link #enableLockstep(long)} was called
+     */
+    public static boolean isLockstep() {
+        return lockstep;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the current simulation time.</h2>
+     *
+     * <p>In lockstep mode this is the virtual time advanced by the sub-ticks, otherwise it is the FPGA timestamp.
+     *
+     * @return the simulation time, in seconds
+     */
+    public static double getTimeSeconds() {
+        return lockstep ? simulationTimeSeconds : Timer.getFPGATimestamp();
+    }
+
     protected final World<Body> physicsWorld;
+    private final BakedFieldMap fieldMap;
     protected final Set<AbstractDriveTrainSimulation> driveTrainSimulations;
 
     protected final Set<GamePiece> gamePieces;
     protected final List<Simulatable> customSimulations;
 
     private final List<IntakeSimulation> intakeSimulations;
+    private final IntakeSweepIndex intakeSweepIndex = new IntakeSweepIndex();
+
+    private PhysicsQuality physicsQuality = PhysicsQuality.BALANCED;
+    /** Filter of pieces which pass through each other, they still collide with every body without a category. */
+    private static final CategoryFilter PIECES_PASS_THROUGH = new CategoryFilter(2, ~2L);
+
+    /** Pieces removed since the last sub-tick ended, recycled once nothing in the sub-tick can reference them. */
+    private final List<GamePiece> removedGamePieces = new ArrayList<>();
+
+    protected final GamePieceLevelOfDetail levelOfDetail;
+    protected final GoalScoringIndex goalScoringIndex;
+
+    protected final SimulationTelemetry telemetry;
+    private final int matchClockHandle, batteryCurrentHandle, batteryVoltageHandle, periodCpuTimeHandle;
+    private final int levelOfDetailSection, batterySection, driveTrainSection, projectileSection, physicsSection,
+            intakeSection, goalSection, customSection;
+    private boolean levelOfDetailEnabled = false;
 
     /**
      *
@@ -259,13 +359,43 @@ public abstract class SimulatedArena {
      * @param obstaclesMap the season-specific field map containing the layout of obstacles for the simulation
      */
     protected SimulatedArena(FieldMap obstaclesMap) {
+        this(BakedFieldMap.bake(obstaclesMap));
+    }
+
+    /**
+     *
+     *
+     * <h2>Constructs a new simulation arena with a baked field map of obstacles.</h2>
+     *
+     * <p>The static obstacles are added to the physics world as a single body. Season arenas pass a map cached with
+     * {@link BakedFieldMap#of}, so the field is only built once however many arenas are created.
+     *
+     * @param fieldMap the baked season-specific field map
+     */
+    protected SimulatedArena(BakedFieldMap fieldMap) {
+        this.fieldMap = fieldMap;
         this.physicsWorld = new World<>();
         this.physicsWorld.setGravity(PhysicsWorld.ZERO_GRAVITY);
-        for (Body obstacle : obstaclesMap.obstacles) this.physicsWorld.addBody(obstacle);
-        this.driveTrainSimulations = new HashSet<>();
+        for (Body obstacle : fieldMap.createStaticBody()) this.physicsWorld.addBody(obstacle);
+        this.driveTrainSimulations = new LinkedHashSet<>();
         customSimulations = new ArrayList<>();
-        this.gamePieces = new HashSet<>();
+        this.gamePieces = new LinkedHashSet<>();
         this.intakeSimulations = new ArrayList<>();
+        this.levelOfDetail = new GamePieceLevelOfDetail(physicsWorld);
+        this.goalScoringIndex = new GoalScoringIndex();
+        this.telemetry = new SimulationTelemetry();
+        this.matchClockHandle = telemetry.addDouble(matchClockPublisher);
+        this.batteryCurrentHandle = telemetry.addDouble("/SmartDashboard/BatterySim/TotalCurrent (Amps)");
+        this.batteryVoltageHandle = telemetry.addDouble("/SmartDashboard/BatterySim/BatteryVoltage (Volts)");
+        this.periodCpuTimeHandle = telemetry.addDouble("/SmartDashboard/MapleArenaSimulation/Dyn4jEngineCPUTimeMS");
+        this.levelOfDetailSection = telemetry.addSection("LevelOfDetail");
+        this.batterySection = telemetry.addSection("Battery");
+        this.driveTrainSection = telemetry.addSection("DriveTrains");
+        this.projectileSection = telemetry.addSection("Projectiles");
+        this.physicsSection = telemetry.addSection("PhysicsStep");
+        this.intakeSection = telemetry.addSection("Intakes");
+        this.goalSection = telemetry.addSection("GoalIndex");
+        this.customSection = telemetry.addSection("CustomSimulations");
         setupValueForMatchBreakdown("TotalScore");
         setupValueForMatchBreakdown("TeleopScore");
         setupValueForMatchBreakdown("Auto/AutoScore");
@@ -318,14 +448,13 @@ public abstract class SimulatedArena {
      * <p>The intake simulation should be bound to an {@link AbstractDriveTrainSimulation} and becomes part of its
      * collision space.
      *
-     * <p>This method immediately starts the {@link org.ironmaple.simulation.IntakeSimulation.GamePieceContactListener},
-     * which listens for contact between the intake and any game piece.
+     * <p>From the next sub-tick on, the intake collects the pieces it touches or sweeps through while it is running,
+     * see {@link IntakeSimulation#collectSweptGamePieces(IntakeSweepIndex)}.
      *
      * @param intakeSimulation the intake simulation to be registered
      */
     protected synchronized void addIntakeSimulation(IntakeSimulation intakeSimulation) {
         this.intakeSimulations.add(intakeSimulation);
-        this.physicsWorld.addContactListener(intakeSimulation.getGamePieceContactListener());
     }
 
     /**
@@ -347,6 +476,73 @@ public abstract class SimulatedArena {
         this.driveTrainSimulations.add(driveTrainSimulation);
     }
 
+    /**
+     *
+     *
+     * <h2>Removes an {@link AbstractDriveTrainSimulation} from the Simulation.</h2>
+     *
+     * <p>The collision space of the drive train is removed from the simulation world and it is no longer ticked.
+     *
+     * @param driveTrainSimulation the drivetrain simulation to be removed
+     */
+    public synchronized void removeDriveTrainSimulation(AbstractDriveTrainSimulation driveTrainSimulation) {
+        this.physicsWorld.removeBody(driveTrainSimulation);
+
+        this.driveTrainSimulations.remove(driveTrainSimulation);
+    }
+
+    /**
+     *
+     *
+     * <h2>Whether a Drive Train Leads the Simulation.</h2>
+     *
+     * <p>When several robots share the arena, each robot calling {@link #simulationPeriodic()} would advance the
+     * simulation several times per period. Only the lead drive train, the earliest one still registered, should call
+     * it.
+     *
+     * @param driveTrainSimulation the drivetrain simulation to check
+     * @return true if it is the earliest registered drive train
+     */
+    public synchronized boolean isLeadDriveTrainSimulation(AbstractDriveTrainSimulation driveTrainSimulation) {
+        return !driveTrainSimulations.isEmpty()
+                && driveTrainSimulations.iterator().next() == driveTrainSimulation;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains a Game Piece on the Field to Reset and Add.</h2>
+     *
+     * <p>Used when a {@link GamePieceProjectile} touches ground. Season arenas override this to serve their game pieces
+     * from a {@link swervelib.simulation.ironmaple.simulation.gamepieces.GamePiecePool}, together with
+     * {@link #recycleGamePiece(GamePiece)}.
+     *
+     * @param info the info of the game piece type
+     * @return a game piece which is not in the arena, to be reset with
+     *     {@link GamePieceOnFieldSimulation#reset(Pose2d, Translation2d)}
+     */
+    public GamePieceOnFieldSimulation obtainGamePieceOnField(GamePieceOnFieldSimulation.GamePieceInfo info) {
+        return new GamePieceOnFieldSimulation(info, new Pose2d());
+    }
+
+    /**
+     *
+     *
+     * <h2>Recycles a Game Piece Removed from the Arena.</h2>
+     *
+     * <p>Called at the end of the sub-tick in which the piece was removed, or right away by {@link #clearGamePieces()},
+     * so goals and intakes of that sub-tick never see it reused. Does nothing by default, season arenas return their
+     * pooled pieces here.
+     *
+     * @param gamePiece the removed game piece
+     */
+    protected void recycleGamePiece(GamePiece gamePiece) {}
+
+    private void recycleRemovedGamePieces() {
+        for (GamePiece gamePiece : removedGamePieces) recycleGamePiece(gamePiece);
+        removedGamePieces.clear();
+    }
+
     /**
      *
      *
@@ -360,6 +556,7 @@ public abstract class SimulatedArena {
      * @param gamePiece the game piece to be registered in the simulation
      */
     public synchronized void addGamePiece(GamePieceOnFieldSimulation gamePiece) {
+        applyPieceFilter(gamePiece);
         this.physicsWorld.addBody(gamePiece);
         this.gamePieces.add(gamePiece);
     }
@@ -386,20 +583,28 @@ public abstract class SimulatedArena {
      *
      *
      * <h2>Publishes the match breakdown data to network tables</h2>
+     *
+     * <p>Sets the values in the {@link SimulationTelemetry} snapshot, they are written on its next flush.
      */
     protected void publishBreakdown() {
 
-        for (String key : redScoringBreakdown.keySet()) {
-            if (!redPublishers.containsKey(key))
-                redPublishers.put(key, redTable.getDoubleTopic(key).publish());
-
-            redPublishers.get(key).set(redScoringBreakdown.get(key));
+        for (Map.Entry<String, Double> entry : redScoringBreakdown.entrySet()) {
+            Integer handle = redHandles.get(entry.getKey());
+            if (handle == null) {
+                redPublishers.put(entry.getKey(), redTable.getDoubleTopic(entry.getKey()).publish());
+                handle = telemetry.addDouble(redPublishers.get(entry.getKey()));
+                redHandles.put(entry.getKey(), handle);
+            }
+            telemetry.set(handle, entry.getValue());
         }
-        for (String key : blueScoringBreakdown.keySet()) {
-            if (!bluePublishers.containsKey(key))
-                bluePublishers.put(key, blueTable.getDoubleTopic(key).publish());
-
-            bluePublishers.get(key).set(blueScoringBreakdown.get(key));
+        for (Map.Entry<String, Double> entry : blueScoringBreakdown.entrySet()) {
+            Integer handle = blueHandles.get(entry.getKey());
+            if (handle == null) {
+                bluePublishers.put(entry.getKey(), blueTable.getDoubleTopic(entry.getKey()).publish());
+                handle = telemetry.addDouble(bluePublishers.get(entry.getKey()));
+                blueHandles.put(entry.getKey(), handle);
+            }
+            telemetry.set(handle, entry.getValue());
         }
 
         // genericInfoTable.getDoubleTopic("currentMatchTime").publish().set(blueScore);
@@ -505,7 +710,10 @@ public abstract class SimulatedArena {
      */
     public synchronized boolean removeGamePiece(GamePieceOnFieldSimulation gamePiece) {
         this.physicsWorld.removeBody(gamePiece);
-        return this.gamePieces.remove(gamePiece);
+        this.levelOfDetail.remove(gamePiece);
+        if (!this.gamePieces.remove(gamePiece)) return false;
+        removedGamePieces.add(gamePiece);
+        return true;
     }
 
     public synchronized boolean removePiece(GamePiece toRemove) {
@@ -515,6 +723,101 @@ public abstract class SimulatedArena {
         return removeProjectile((GamePieceProjectile) toRemove);
     }
 
+    /**
+     *
+     *
+     * <h2>Enables or Disables Level of Detail for Game Pieces.</h2>
+     *
+     * <p>When enabled, game pieces on the field which are at rest and far from every robot and moving piece are taken
+     * out of the physics world until something comes near them, see {@link GamePieceLevelOfDetail}. Disabling it puts
+     * every sleeping piece back.
+     *
+     * @param enabled whether resting pieces far from any robot should sleep
+     */
+    public synchronized void setLevelOfDetail(boolean enabled) {
+        if (!enabled) levelOfDetail.wakeAll();
+        levelOfDetailEnabled = enabled;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Level of Detail for Game Pieces.</h2>
+     *
+     * @return the {@link GamePieceLevelOfDetail} of this arena, to tune its radii or read how many pieces sleep
+     */
+    public GamePieceLevelOfDetail getLevelOfDetail() {
+        return levelOfDetail;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Scoring Index of the Goals.</h2>
+     *
+     * <p>Every {@link Goal} created with this arena registers with it, so each sub-tick only the pieces inside a goal's
+     * scoring bounds are checked against that goal.
+     *
+     * @return the {@link GoalScoringIndex} of this arena
+     */
+    public GoalScoringIndex getGoalScoringIndex() {
+        return goalScoringIndex;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Static Obstacles of the Field.</h2>
+     *
+     * <p>Can generate a pathfinding grid matching the obstacles robots collide with, see
+     * {@link BakedFieldMap#getNavGrid(double, double, double, double)}.
+     *
+     * @return the baked field map this arena was built from, shared with other arenas of the same field
+     */
+    public BakedFieldMap getFieldMap() {
+        return fieldMap;
+    }
+
+    /**
+     *
+     *
+     * <h2>Selects the Physics Quality.</h2>
+     *
+     * <p>The solver settings, continuous collision detection and collisions between pieces apply to this arena right
+     * away. The sub-ticks are shared by every arena, so they only change when this is the main arena, keeping the
+     * current robot period.
+     *
+     * @param quality the {@link PhysicsQuality} preset
+     */
+    public synchronized void setPhysicsQuality(PhysicsQuality quality) {
+        this.physicsQuality = quality;
+        Settings settings = physicsWorld.getSettings();
+        quality.apply(settings);
+        physicsWorld.setSettings(settings);
+        for (GamePiece gamePiece : gamePieces)
+            if (gamePiece instanceof GamePieceOnFieldSimulation pieceOnField) applyPieceFilter(pieceOnField);
+
+        if (instance == this) overrideSimulationTimings(SIMULATION_DT.times(SIMULATION_SUB_TICKS_IN_1_PERIOD));
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Physics Quality.</h2>
+     *
+     * @return the {@link PhysicsQuality} preset of this arena, {@link PhysicsQuality#BALANCED} by default
+     */
+    public PhysicsQuality getPhysicsQuality() {
+        return physicsQuality;
+    }
+
+    private void applyPieceFilter(GamePieceOnFieldSimulation gamePiece) {
+        for (BodyFixture fixture : gamePiece.getFixtures()) {
+            if (!physicsQuality.piecesCollide) fixture.setFilter(PIECES_PASS_THROUGH);
+            else if (fixture.getFilter() == PIECES_PASS_THROUGH) fixture.setFilter(Filter.DEFAULT_FILTER);
+        }
+    }
+
     /**
      *
      *
@@ -526,7 +829,9 @@ public abstract class SimulatedArena {
      * @return <code>true</code> if this set contained the specified element
      */
     public synchronized boolean removeProjectile(GamePieceProjectile gamePieceLaunched) {
-        return this.gamePieces.remove(gamePieceLaunched);
+        if (!this.gamePieces.remove(gamePieceLaunched)) return false;
+        removedGamePieces.add(gamePieceLaunched);
+        return true;
     }
 
     /**
@@ -538,8 +843,11 @@ public abstract class SimulatedArena {
      */
     public synchronized void clearGamePieces() {
         for (GamePieceOnFieldSimulation gamePiece : this.gamePiecesOnField()) this.physicsWorld.removeBody(gamePiece);
+        this.levelOfDetail.clear();
 
+        removedGamePieces.addAll(this.gamePieces);
         this.gamePieces.clear();
+        recycleRemovedGamePieces();
         this.blueScore = 0;
         this.redScore = 0;
     }
@@ -567,19 +875,30 @@ public abstract class SimulatedArena {
      * iterate through 5 Sub-ticks by default.
      *
      * <p>The amount of CPU Time that the Dyn4j engine uses in displayed in <code>
-     * SmartDashboard/MapleArenaSimulation/Dyn4jEngineCPUTimeMS</code>, usually performance is not a concern
+     * SmartDashboard/MapleArenaSimulation/Dyn4jEngineCPUTimeMS</code>, usually performance is not a concern. The time
+     * of each section of the sub-ticks is displayed under <code>SmartDashboard/MapleArenaSimulation/CPU</code>.
+     *
+     * <p>All simulation telemetry is written once at the end of the period, see {@link #getTelemetry()}.
      */
     public synchronized void simulationPeriodic() {
         /* obtain lock to the simulated arena class to block any calls to overrideTimings() */
         synchronized (SimulatedArena.class) {
             final long t0 = System.nanoTime();
+            if (levelOfDetailEnabled) levelOfDetail.update(driveTrainSimulations, gamePieces);
+            telemetry.addCpuTime(levelOfDetailSection, System.nanoTime() - t0);
             // move through a few sub-periods in each update
             for (int i = 0; i < SIMULATION_SUB_TICKS_IN_1_PERIOD; i++) simulationSubTick(i);
 
-            matchClock += (System.currentTimeMillis() - lastMeasuredTimestamp)/1000.0;
+            if (lockstep) {
+                matchClock += SIMULATION_SUB_TICKS_IN_1_PERIOD * SIMULATION_DT.in(Seconds);
+            } else {
+                matchClock += (System.currentTimeMillis() - lastMeasuredTimestamp)/1000.0;
+            }
             lastMeasuredTimestamp = System.currentTimeMillis();
 
-            SmartDashboard.putNumber("MapleArenaSimulation/Dyn4jEngineCPUTimeMS", (System.nanoTime() - t0) / 1000000.0);
+            telemetry.set(periodCpuTimeHandle, (System.nanoTime() - t0) / 1000000.0);
+            publishTelemetry();
+            telemetry.flush();
 
             if (resetFieldSubscriber.get()) {
                 SimulatedArena.getInstance().resetFieldForAuto();
@@ -600,31 +919,91 @@ public abstract class SimulatedArena {
      *   <li>Updating all registered {@link AbstractDriveTrainSimulation} objects.
      *   <li>Updating all {@link GamePieceProjectile} objects in the simulation.
      *   <li>Stepping the physics world with the specified sub-tick duration.
-     *   <li>Removing any game pieces as detected by the {@link IntakeSimulation} objects.
+     *   <li>Removing any game pieces the {@link IntakeSimulation} objects touched or swept through during the step,
+     *       from the motion of the pieces recorded in the {@link IntakeSweepIndex}.
+     *   <li>Collecting the pieces inside the scoring bounds of each {@link Goal} in the {@link GoalScoringIndex}.
      *   <li>Executing any additional sub-tick actions registered via
      *       {@link SimulatedArena#addCustomSimulation(Simulatable)} .
      * </ul>
      */
     protected void simulationSubTick(int subTickNum) {
+        long t = System.nanoTime();
         SimulatedBattery.simulationSubTick();
+        t = lap(batterySection, t);
         driveTrainSimulations.forEach(AbstractDriveTrainSimulation::simulationSubTick);
+        t = lap(driveTrainSection, t);
 
         GamePieceProjectile.updateGamePieceProjectiles(this, this.gamePieceLaunched());
+        t = lap(projectileSection, t);
+
+        // Intakes sweep the motion of the pieces over the step, so only record it while one is running.
+        boolean intakesRunning = false;
+        for (IntakeSimulation intake : intakeSimulations) intakesRunning |= intake.isRunning();
+        if (intakesRunning) {
+            intakeSimulations.forEach(IntakeSimulation::beginSubTick);
+            intakeSweepIndex.begin(gamePieces);
+        }
+        t = lap(intakeSection, t);
 
         this.physicsWorld.step(1, SIMULATION_DT.in(Seconds));
+        if (lockstep) simulationTimeSeconds += SIMULATION_DT.in(Seconds);
+        t = lap(physicsSection, t);
 
+        if (intakesRunning) {
+            intakeSweepIndex.end();
+            intakeSimulations.forEach(intake -> intake.collectSweptGamePieces(intakeSweepIndex));
+        }
         intakeSimulations.forEach(intake -> intake.removeObtainedGamePieces(this));
+        t = lap(intakeSection, t);
+        goalScoringIndex.update(gamePieces);
+        t = lap(goalSection, t);
         customSimulations.forEach(sim -> sim.simulationSubTick(subTickNum));
+        recycleRemovedGamePieces();
+        lap(customSection, t);
+    }
+
+    /**
+     *
+     *
+     * <h2>Sets the Values Published Once per Period.</h2>
+     *
+     * <p>Called at the end of {@link #simulationPeriodic()}, right before the {@link SimulationTelemetry} is flushed.
+     * Season arenas override this to set their own values in {@link #telemetry}, and must call super.
+     */
+    protected void publishTelemetry() {
+        telemetry.set(batteryCurrentHandle, SimulatedBattery.getFilteredCurrentDrawn().in(Amps));
+        telemetry.set(batteryVoltageHandle, SimulatedBattery.getBatteryVoltage().in(Volts));
 
         replaceValueInMatchBreakDown(true, "TotalScore", blueScore);
         replaceValueInMatchBreakDown(false, "TotalScore", redScore);
 
         if (shouldPublishMatchBreakdown) {
             publishBreakdown();
-            matchClockPublisher.set(matchClock);
+            telemetry.set(matchClockHandle, matchClock);
         }
     }
 
+    /**
+     *
+     *
+     * <h2>Obtains the Telemetry of the Arena.</h2>
+     *
+     * <p>Use it to write the telemetry from a background thread with
+     * {@link SimulationTelemetry#setAsynchronous(boolean)}, or to read the CPU time of each section of the simulation
+     * with {@link SimulationTelemetry#getCpuBreakdown()}.
+     *
+     * @return the {@link SimulationTelemetry} flushed at the end of each {@link #simulationPeriodic()}
+     */
+    public SimulationTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    private long lap(int section, long start) {
+        long now = System.nanoTime();
+        telemetry.addCpuTime(section, now - start);
+        return now;
+    }
+
     /**
      *
      *
@@ -633,7 +1012,7 @@ public abstract class SimulatedArena {
      * @return all grounded (aka not projectile) pieces on the field as a set of GamePieceOnFieldSimulation objects
      */
     public synchronized Set<GamePieceOnFieldSimulation> gamePiecesOnField() {
-        Set<GamePieceOnFieldSimulation> returnList = new HashSet<GamePieceOnFieldSimulation>();
+        Set<GamePieceOnFieldSimulation> returnList = new LinkedHashSet<GamePieceOnFieldSimulation>();
         for (GamePiece gamePiece : this.gamePieces) {
             if (gamePiece.isGrounded()) {
                 returnList.add((GamePieceOnFieldSimulation) gamePiece);
@@ -651,7 +1030,7 @@ public abstract class SimulatedArena {
      * @return all projectile pieces on the field as a set of GamePieceProjectile objects
      */
     public synchronized Set<GamePieceProjectile> gamePieceLaunched() {
-        Set<GamePieceProjectile> returnList = new HashSet<GamePieceProjectile>();
+        Set<GamePieceProjectile> returnList = new LinkedHashSet<GamePieceProjectile>();
         for (GamePiece gamePiece : this.gamePieces) {
             if (!gamePiece.isGrounded()) {
                 returnList.add((GamePieceProjectile) gamePiece);
@@ -712,7 +1091,7 @@ public abstract class SimulatedArena {
      */
     public synchronized List<GamePiece> getGamePiecesByType(String type) {
         final List<GamePiece> gamePiecesPoses = new ArrayList<>(this.gamePieces);
-      return gamePiecesPoses.stream().filter(gamePiece -> !Objects.equals(gamePiece.getType(), type)).toList();
+      return gamePiecesPoses.stream().filter(gamePiece -> Objects.equals(gamePiece.getType(), type)).toList();
     }
 
     /**
@@ -752,7 +1131,8 @@ public abstract class SimulatedArena {
      * class to store the field map for that specific season's game.
      */
     public abstract static class FieldMap {
-        private final List<Body> obstacles = new ArrayList<>();
+        final List<Convex> obstacleShapes = new ArrayList<>();
+        final List<Transform> obstacleTransforms = new ArrayList<>();
 
         protected void addBorderLine(Translation2d startingPoint, Translation2d endingPoint) {
             addCustomObstacle(
@@ -767,20 +1147,8 @@ public abstract class SimulatedArena {
         }
 
         protected void addCustomObstacle(Convex shape, Pose2d absolutePositionOnField) {
-            final Body obstacle = createObstacle(shape);
-
-            obstacle.getTransform().set(GeometryConvertor.toDyn4jTransform(absolutePositionOnField));
-
-            obstacles.add(obstacle);
-        }
-
-        private static Body createObstacle(Convex shape) {
-            final Body obstacle = new Body();
-            obstacle.setMass(MassType.INFINITE);
-            final BodyFixture fixture = obstacle.addFixture(shape);
-            fixture.setFriction(0.6);
-            fixture.setRestitution(0.3);
-            return obstacle;
+            obstacleShapes.add(shape);
+            obstacleTransforms.add(GeometryConvertor.toDyn4jTransform(absolutePositionOnField));
         }
     }
 }
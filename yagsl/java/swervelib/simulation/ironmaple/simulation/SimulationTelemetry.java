@@ -0,0 +1,231 @@
+package swervelib.simulation.ironmaple.simulation;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ *
+ * <h1>Per-Period Snapshot of the Simulation Telemetry.</h1>
+ *
+ * <p>Values set during the sub-ticks only overwrite a slot of the snapshot, looked up by a handle resolved once when
+ * the value is added, and {@link #flush()} writes every slot that changed to NetworkTables once per robot period. With
+ * {@link #setAsynchronous(boolean)} the writes happen on a background thread while the next period is simulated.
+ *
+ * <p>It also sums the CPU time of each section of the simulation over the period, see {@link #addSection(String)}.
+ */
+public class SimulationTelemetry {
+    /** Table under which the CPU time of each section is published, in milliseconds per robot period. */
+    public static final String CPU_TABLE = "/SmartDashboard/MapleArenaSimulation/CPU/";
+
+    private DoublePublisher[] doublePublishers = new DoublePublisher[16];
+    private BooleanPublisher[] booleanPublishers = new BooleanPublisher[16];
+    private final Map<String, Integer> sections = new LinkedHashMap<>();
+    private double[] values = new double[16], pendingValues = new double[0];
+    private boolean[] dirty = new boolean[16], pendingDirty = new boolean[0];
+    private long[] sectionNanos = new long[8];
+    private double[] sectionMillis = new double[8];
+    private int[] sectionHandles = new int[8];
+    private int count = 0;
+
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private ExecutorService writer = null;
+
+    /**
+     *
+     *
+     * <h2>Adds a Number to the Snapshot.</h2>
+     *
+     * @param publisher the publisher the value is written to on {@link #flush()}
+     * @return the handle to {@link #set(int, double)} the value with
+     */
+    public synchronized int addDouble(DoublePublisher publisher) {
+        return add(publisher, null);
+    }
+
+    /**
+     *
+     *
+     * <h2>Adds a Number to the Snapshot.</h2>
+     *
+     * @param topic the full NetworkTables topic, such as <code>/SmartDashboard/BatterySim/BatteryVoltage (Volts)</code>
+     * @return the handle to {@link #set(int, double)} the value with
+     */
+    public int addDouble(String topic) {
+        return addDouble(NetworkTableInstance.getDefault().getDoubleTopic(topic).publish());
+    }
+
+    /**
+     *
+     *
+     * <h2>Adds a Boolean to the Snapshot.</h2>
+     *
+     * @param publisher the publisher the value is written to on {@link #flush()}
+     * @return the handle to {@link #set(int, boolean)} the value with
+     */
+    public synchronized int addBoolean(BooleanPublisher publisher) {
+        return add(null, publisher);
+    }
+
+    /**
+     *
+     *
+     * <h2>Adds a Section of the Simulation to the CPU Breakdown.</h2>
+     *
+     * <p>Its CPU time is published to {@link #CPU_TABLE} plus the name, in milliseconds per robot period.
+     *
+     * @param name the name of the section, such as "PhysicsStep"
+     * @return the handle to {@link #addCpuTime(int, long)} with, the same for the same name
+     */
+    public synchronized int addSection(String name) {
+        Integer section = sections.get(name);
+        if (section != null) return section;
+        section = sections.size();
+        if (section == sectionNanos.length) {
+            sectionNanos = Arrays.copyOf(sectionNanos, section * 2);
+            sectionHandles = Arrays.copyOf(sectionHandles, section * 2);
+            sectionMillis = Arrays.copyOf(sectionMillis, section * 2);
+        }
+        sectionHandles[section] = addDouble(CPU_TABLE + name + "MS");
+        sections.put(name, section);
+        return section;
+    }
+
+    /**
+     *
+     *
+     * <h2>Sets a Number in the Snapshot.</h2>
+     *
+     * @param handle the handle from {@link #addDouble(DoublePublisher)}
+     * @param value the value to publish on the next {@link #flush()}
+     */
+    public synchronized void set(int handle, double value) {
+        values[handle] = value;
+        dirty[handle] = true;
+    }
+
+    /**
+     *
+     *
+     * <h2>Sets a Boolean in the Snapshot.</h2>
+     *
+     * @param handle the handle from {@link #addBoolean(BooleanPublisher)}
+     * @param value the value to publish on the next {@link #flush()}
+     */
+    public synchronized void set(int handle, boolean value) {
+        set(handle, value ? 1 : 0);
+    }
+
+    /**
+     *
+     *
+     * <h2>Adds CPU Time to a Section.</h2>
+     *
+     * @param section the handle from {@link #addSection(String)}
+     * @param nanos the CPU time in nanoseconds, usually the difference of two {@link System#nanoTime()}
+     */
+    public synchronized void addCpuTime(int section, long nanos) {
+        sectionNanos[section] += nanos;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the CPU Breakdown of the Last Period.</h2>
+     *
+     * @return the CPU time of each section in milliseconds up to the last {@link #flush()}, in the order added
+     */
+    public synchronized Map<String, Double> getCpuBreakdown() {
+        Map<String, Double> breakdown = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> section : sections.entrySet())
+            breakdown.put(section.getKey(), sectionMillis[section.getValue()]);
+        return breakdown;
+    }
+
+    /**
+     *
+     *
+     * <h2>Sets Whether the Values are Written on a Background Thread.</h2>
+     *
+     * @param asynchronous whether {@link #flush()} hands the snapshot to a background thread instead of writing it
+     */
+    public synchronized void setAsynchronous(boolean asynchronous) {
+        if (asynchronous && writer == null) {
+            writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MapleSim Telemetry");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else if (!asynchronous && writer != null) {
+            writer.shutdown();
+            writer = null;
+        }
+    }
+
+    /**
+     *
+     *
+     * <h2>Writes the Snapshot to NetworkTables.</h2>
+     *
+     * <p>Called once per robot period, publishes the values changed and the CPU breakdown since the last flush. When
+     * asynchronous and the background thread is still writing the last snapshot, the changes are kept for the next
+     * flush instead. The CPU breakdown is taken every period regardless, so a skipped flush never adds two periods
+     * together.
+     */
+    public synchronized void flush() {
+        for (int section = 0; section < sections.size(); section++) {
+            sectionMillis[section] = sectionNanos[section] / 1e6;
+            set(sectionHandles[section], sectionMillis[section]);
+            sectionNanos[section] = 0;
+        }
+        if (writer != null && !flushing.compareAndSet(false, true)) return;
+
+        if (pendingValues.length != values.length) {
+            pendingValues = new double[values.length];
+            pendingDirty = new boolean[values.length];
+        }
+        System.arraycopy(values, 0, pendingValues, 0, count);
+        System.arraycopy(dirty, 0, pendingDirty, 0, count);
+        Arrays.fill(dirty, 0, count, false);
+
+        // Adding a value grows new arrays, the captured ones stay valid for the writer.
+        final int pendingCount = count;
+        final DoublePublisher[] doubles = doublePublishers;
+        final BooleanPublisher[] booleans = booleanPublishers;
+        if (writer == null) {
+            write(doubles, booleans, pendingCount);
+            return;
+        }
+        writer.execute(() -> {
+            write(doubles, booleans, pendingCount);
+            flushing.set(false);
+        });
+    }
+
+    private int add(DoublePublisher doublePublisher, BooleanPublisher booleanPublisher) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+            dirty = Arrays.copyOf(dirty, count * 2);
+            doublePublishers = Arrays.copyOf(doublePublishers, count * 2);
+            booleanPublishers = Arrays.copyOf(booleanPublishers, count * 2);
+        }
+        doublePublishers[count] = doublePublisher;
+        booleanPublishers[count] = booleanPublisher;
+        return count++;
+    }
+
+    private void write(DoublePublisher[] doubles, BooleanPublisher[] booleans, int pendingCount) {
+        for (int handle = 0; handle < pendingCount; handle++) {
+            if (!pendingDirty[handle]) continue;
+            if (doubles[handle] != null) doubles[handle].set(pendingValues[handle]);
+            else booleans[handle].set(pendingValues[handle] != 0);
+        }
+    }
+}
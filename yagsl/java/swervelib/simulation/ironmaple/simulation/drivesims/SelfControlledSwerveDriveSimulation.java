@@ -14,7 +14,6 @@ import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.units.measure.*;
-import edu.wpi.first.wpilibj.Timer;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 import swervelib.simulation.ironmaple.simulation.drivesims.configs.DriveTrainSimulationConfig;
 import swervelib.simulation.ironmaple.simulation.motorsims.SimulatedMotorController;
@@ -110,7 +109,7 @@ public class SelfControlledSwerveDriveSimulation {
         final SwerveModulePosition[][] cachedModulePositions = getCachedModulePositions();
         for (int i = 0; i < SimulatedArena.getSimulationSubTicksIn1Period(); i++)
             poseEstimator.updateWithTime(
-                    Timer.getFPGATimestamp()
+                    SimulatedArena.getTimeSeconds()
                             - SimulatedArena.getSimulationDt().in(Seconds)
                             * (SimulatedArena.getSimulationDt().in(Seconds) - i),
                     swerveDriveSimulation.gyroSimulation.getCachedGyroReadings()[i],
@@ -12,6 +12,7 @@ import swervelib.simulation.ironmaple.simulation.motorsims.MapleMotorSim;
 import swervelib.simulation.ironmaple.simulation.motorsims.SimMotorConfigs;
 import swervelib.simulation.ironmaple.simulation.motorsims.SimulatedBattery;
 import swervelib.simulation.ironmaple.simulation.motorsims.SimulatedMotorController;
+import swervelib.simulation.ironmaple.utils.mathutils.MapleCommonMath;
 
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -71,7 +72,7 @@ public class SwerveModuleSimulation {
 
     private SimulatedMotorController driveMotorController;
 
-    private final Angle steerRelativeEncoderOffSet = Radians.of((Math.random() - 0.5) * 30);
+    private final Angle steerRelativeEncoderOffSet = Radians.of((MapleCommonMath.generateRandomUniform() - 0.5) * 30);
     private final Queue<Angle> driveWheelFinalPositionCache;
     private final Queue<Rotation2d> steerAbsolutePositionCache;
 
@@ -0,0 +1,198 @@
+package swervelib.simulation.ironmaple.simulation.gamepieces;
+
+import edu.wpi.first.math.geometry.Pose3d;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.dyn4j.dynamics.Body;
+import org.dyn4j.world.World;
+import swervelib.simulation.ironmaple.simulation.drivesims.AbstractDriveTrainSimulation;
+
+/**
+ *
+ *
+ * <h1>Level of Detail for Game Pieces on the Field.</h1>
+ *
+ * <p>Most game pieces on a crowded field, such as the 400 fuel of the 2026 game, lie still far away from every robot,
+ * yet each one is stepped, broad-phased and contact-solved by the physics engine every sub-tick.
+ *
+ * <p>This class puts a {@link GamePieceOnFieldSimulation} to sleep when it is at rest and no robot or moving piece is
+ * near it: its body is taken out of the physics world, while the piece stays in the arena so its pose is still
+ * reported and it still counts for scoring. A sleeping piece wakes, and its body goes back into the world, as soon as
+ * anything that could touch it comes within the wake radius:
+ *
+ * <ul>
+ *   <li>a drivetrain, which also covers its intakes and bumpers,
+ *   <li>a game piece on the field which is moving, so pushed pieces wake the pieces they are pushed into,
+ *   <li>a projectile low enough to land.
+ * </ul>
+ *
+ * <p>Pieces only go to sleep beyond the wake radius plus a margin so they do not toggle at the boundary.
+ */
+public class GamePieceLevelOfDetail {
+    /** Speed in meters per second below which a piece on the field counts as at rest. */
+    public static final double REST_SPEED_MPS = 0.05;
+    /** Height in meters below which a projectile may land and wake the pieces below it. */
+    public static final double LANDING_HEIGHT_METERS = 0.5;
+
+    private final World<Body> physicsWorld;
+    private final Set<GamePieceOnFieldSimulation> sleepingPieces = new LinkedHashSet<>();
+    private double[] wakerX = new double[16], wakerY = new double[16];
+    private int wakerCount = 0;
+    private double wakeRadiusMeters = 1.5, sleepMarginMeters = 0.5;
+
+    /**
+     *
+     *
+     * <h2>Creates the Level of Detail for a Physics World.</h2>
+     *
+     * @param physicsWorld the physics world the game pieces are simulated in
+     */
+    public GamePieceLevelOfDetail(World<Body> physicsWorld) {
+        this.physicsWorld = physicsWorld;
+    }
+
+    /**
+     *
+     *
+     * <h2>Sets the Wake Radius.</h2>
+     *
+     * <p>Should cover a robot's half diagonal plus its intake and the distance it travels in one robot period.
+     *
+     * @param wakeRadiusMeters distance in meters within which sleeping pieces wake, 1.5 by default
+     * @param sleepMarginMeters extra distance in meters beyond the wake radius before a piece may sleep, 0.5 by default
+     */
+    public void setRadii(double wakeRadiusMeters, double sleepMarginMeters) {
+        this.wakeRadiusMeters = wakeRadiusMeters;
+        this.sleepMarginMeters = sleepMarginMeters;
+    }
+
+    /**
+     *
+     *
+     * <h2>Updates Which Pieces Sleep.</h2>
+     *
+     * <p>Called once per robot period, before the sub-ticks.
+     *
+     * @param driveTrains the drivetrains in the arena
+     * @param gamePieces all game pieces in the arena
+     */
+    public void update(Collection<AbstractDriveTrainSimulation> driveTrains, Collection<GamePiece> gamePieces) {
+        wakerCount = 0;
+        for (AbstractDriveTrainSimulation driveTrain : driveTrains) {
+            addWaker(driveTrain.getTransform().getTranslationX(), driveTrain.getTransform().getTranslationY());
+        }
+        for (GamePiece gamePiece : gamePieces) {
+            if (!gamePiece.isGrounded()) {
+                Pose3d pose = gamePiece.getPose3d();
+                if (pose.getZ() < LANDING_HEIGHT_METERS) addWaker(pose.getX(), pose.getY());
+            } else if (!sleepingPieces.contains(gamePiece) && isMoving((GamePieceOnFieldSimulation) gamePiece)) {
+                Body piece = (Body) gamePiece;
+                addWaker(piece.getTransform().getTranslationX(), piece.getTransform().getTranslationY());
+            }
+        }
+
+        for (Iterator<GamePieceOnFieldSimulation> iterator = sleepingPieces.iterator(); iterator.hasNext(); ) {
+            GamePieceOnFieldSimulation piece = iterator.next();
+            if (isNearWaker(piece, wakeRadiusMeters)) {
+                physicsWorld.addBody(piece);
+                iterator.remove();
+            }
+        }
+
+        double sleepRadius = wakeRadiusMeters + sleepMarginMeters;
+        for (GamePiece gamePiece : gamePieces) {
+            if (!gamePiece.isGrounded() || sleepingPieces.contains(gamePiece)) continue;
+            GamePieceOnFieldSimulation piece = (GamePieceOnFieldSimulation) gamePiece;
+            if (!isMoving(piece) && !isNearWaker(piece, sleepRadius)) {
+                piece.setLinearVelocity(0, 0);
+                piece.setAngularVelocity(0);
+                physicsWorld.removeBody(piece);
+                sleepingPieces.add(piece);
+            }
+        }
+    }
+
+    /**
+     *
+     *
+     * <h2>Forgets a Piece Removed from the Arena.</h2>
+     *
+     * @param piece the game piece removed from the arena
+     */
+    public void remove(GamePieceOnFieldSimulation piece) {
+        sleepingPieces.remove(piece);
+    }
+
+    /**
+     *
+     *
+     * <h2>Wakes Every Sleeping Piece.</h2>
+     *
+     * <p>Puts the body of every sleeping piece back into the physics world.
+     */
+    public void wakeAll() {
+        for (GamePieceOnFieldSimulation piece : sleepingPieces) physicsWorld.addBody(piece);
+        sleepingPieces.clear();
+    }
+
+    /**
+     *
+     *
+     * <h2>Forgets Every Sleeping Piece.</h2>
+     *
+     * <p>Used when the arena removes all of its game pieces.
+     */
+    public void clear() {
+        sleepingPieces.clear();
+    }
+
+    /**
+     *
+     *
+     * <h2>Checks Whether a Piece is Sleeping.</h2>
+     *
+     * @param piece the game piece
+     * @return whether its body is out of the physics world
+     */
+    public boolean isSleeping(GamePieceOnFieldSimulation piece) {
+        return sleepingPieces.contains(piece);
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Number of Sleeping Pieces.</h2>
+     *
+     * @return the number of pieces whose bodies are out of the physics world
+     */
+    public int getSleepingCount() {
+        return sleepingPieces.size();
+    }
+
+    private void addWaker(double x, double y) {
+        if (wakerCount == wakerX.length) {
+            wakerX = Arrays.copyOf(wakerX, wakerCount * 2);
+            wakerY = Arrays.copyOf(wakerY, wakerCount * 2);
+        }
+        wakerX[wakerCount] = x;
+        wakerY[wakerCount] = y;
+        wakerCount++;
+    }
+
+    private boolean isNearWaker(Body piece, double radius) {
+        double x = piece.getTransform().getTranslationX(), y = piece.getTransform().getTranslationY();
+        double radiusSquared = radius * radius;
+        for (int i = 0; i < wakerCount; i++) {
+            double dx = wakerX[i] - x, dy = wakerY[i] - y;
+            if (dx * dx + dy * dy < radiusSquared) return true;
+        }
+        return false;
+    }
+
+    private static boolean isMoving(Body piece) {
+        return !piece.isAtRest() && piece.getLinearVelocity().getMagnitudeSquared() > REST_SPEED_MPS * REST_SPEED_MPS;
+    }
+}
@@ -42,7 +42,12 @@ public class GamePieceOnFieldSimulation extends Body implements GamePiece {
      *
      * <p>If the game piece is flying at a low height, the height is calculated using the law of free-fall.
      */
-    private final DoubleSupplier zPositionSupplier;
+    private DoubleSupplier zPositionSupplier;
+
+    private final double restingHeightMeters;
+    private final DoubleSupplier restingHeightSupplier = this::getRestingHeight;
+    private final DoubleSupplier landingHeightSupplier = this::getLandingHeight;
+    private double landingHeightMeters, landingVerticalSpeedMPS, landingTimestampSeconds;
     /**
      *
      *
@@ -82,6 +87,7 @@ public class GamePieceOnFieldSimulation extends Body implements GamePiece {
         super();
         this.type = info.type;
         this.zPositionSupplier = zPositionSupplier;
+        this.restingHeightMeters = info.gamePieceHeight.in(Meters) / 2;
 
         BodyFixture bodyFixture = super.addFixture(info.shape);
 
@@ -100,6 +106,67 @@ public class GamePieceOnFieldSimulation extends Body implements GamePiece {
         super.setLinearVelocity(GeometryConvertor.toDyn4jVector2(initialVelocityMPS));
     }
 
+    /**
+     *
+     *
+     * <h2>Reinitializes a Recycled Game Piece.</h2>
+     *
+     * <p>Moves the piece and clears its motion, keeping its fixture, shape and mass, so a {@link GamePiecePool} can
+     * hand it out again without building a new body. The piece rests on the ground afterward. It must not be in the arena.
+     *
+     * @param pose the position of the game piece on the field
+     * @param velocityMPS the velocity of the game piece, in meters per second
+     * @return this game piece, for chaining
+     */
+    public GamePieceOnFieldSimulation reset(Pose2d pose, Translation2d velocityMPS) {
+        super.getTransform().setTranslation(pose.getX(), pose.getY());
+        super.getTransform().setRotation(pose.getRotation().getRadians());
+        // Without this the continuous collision detection would sweep the piece from where it was last removed.
+        super.getPreviousTransform().set(super.getTransform());
+        super.setLinearVelocity(velocityMPS.getX(), velocityMPS.getY());
+        super.setAngularVelocity(0);
+        super.clearForce();
+        super.clearTorque();
+        super.setAtRest(false);
+        this.zPositionSupplier = restingHeightSupplier;
+        return this;
+    }
+
+    /**
+     *
+     *
+     * <h2>Reinitializes a Recycled Game Piece Which is Landing.</h2>
+     *
+     * <p>Like {@link #reset(Pose2d, Translation2d)}, but the height falls freely from the given height and vertical
+     * speed until the piece rests on the ground, as for a {@link GamePieceProjectile} that touched ground.
+     *
+     * @param pose the position of the game piece on the field
+     * @param velocityMPS the velocity of the game piece, in meters per second
+     * @param heightMeters the height of the game piece now, in meters
+     * @param verticalSpeedMPS the vertical speed of the game piece now, in meters per second
+     * @return this game piece, for chaining
+     */
+    public GamePieceOnFieldSimulation resetLanding(
+            Pose2d pose, Translation2d velocityMPS, double heightMeters, double verticalSpeedMPS) {
+        reset(pose, velocityMPS);
+        this.landingHeightMeters = heightMeters;
+        this.landingVerticalSpeedMPS = verticalSpeedMPS;
+        this.landingTimestampSeconds = SimulatedArena.getTimeSeconds();
+        this.zPositionSupplier = landingHeightSupplier;
+        return this;
+    }
+
+    private double getRestingHeight() {
+        return restingHeightMeters;
+    }
+
+    private double getLandingHeight() {
+        final double t = SimulatedArena.getTimeSeconds() - landingTimestampSeconds;
+        return Math.max(
+                restingHeightMeters,
+                landingHeightMeters + landingVerticalSpeedMPS * t - GamePieceProjectile.GRAVITY / 2 * t * t);
+    }
+
     /**
      *
      *
@@ -0,0 +1,126 @@
+package swervelib.simulation.ironmaple.simulation.gamepieces;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ *
+ *
+ * <h1>Pool of Recycled Game Pieces.</h1>
+ *
+ * <p>Building a {@link GamePieceOnFieldSimulation} creates a dyn4j body, a fixture and its mass, and every shot creates
+ * a {@link GamePieceProjectile}. At the fire rates of the 2026 game that is a steady stream of garbage. A pool keeps
+ * the pieces the arena removed and hands them out again, to be reinitialized with
+ * {@link GamePieceOnFieldSimulation#reset} or {@link GamePieceProjectile#reset} instead of being rebuilt.
+ *
+ * <p>Only pieces the pool created are taken back, so pieces built by the user are never reused behind their back.
+ *
+ * @param <T> the type of the pooled game piece
+ */
+public class GamePiecePool<T extends GamePiece> {
+    private final Supplier<T> factory;
+    private final int capacity;
+    private final ArrayDeque<T> idle;
+    private final Set<T> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<T> idleSet = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long created = 0, reused = 0;
+
+    /**
+     *
+     *
+     * <h2>Creates a Pool.</h2>
+     *
+     * @param factory creates a new piece when the pool is empty, in any state as it is reset before use
+     * @param capacity the most idle pieces kept, pieces released beyond it are left to the garbage collector
+     */
+    public GamePiecePool(Supplier<T> factory, int capacity) {
+        this.factory = factory;
+        this.capacity = capacity;
+        this.idle = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains a Piece.</h2>
+     *
+     * <p>The piece must be reset before it is added to the arena.
+     *
+     * @return an idle piece, or a new one if the pool is empty
+     */
+    public synchronized T obtain() {
+        T piece = idle.pollLast();
+        if (piece != null) {
+            idleSet.remove(piece);
+            reused++;
+            return piece;
+        }
+        piece = factory.get();
+        owned.add(piece);
+        created++;
+        return piece;
+    }
+
+    /**
+     *
+     *
+     * <h2>Returns a Piece to the Pool.</h2>
+     *
+     * <p>Called by the arena once the piece is out of the simulation and nothing references it anymore.
+     *
+     * @param piece the piece
+     * @return whether the piece was taken back, false if the pool did not create it, already holds it or is full
+     */
+    public synchronized boolean release(T piece) {
+        if (!owned.contains(piece) || idleSet.contains(piece)) return false;
+        if (idle.size() >= capacity) {
+            owned.remove(piece);
+            return false;
+        }
+        idle.addLast(piece);
+        idleSet.add(piece);
+        return true;
+    }
+
+    /**
+     *
+     *
+     * <h2>Fills the Pool Ahead of Time.</h2>
+     *
+     * @param count the number of idle pieces to reach, at most the capacity
+     */
+    public synchronized void prefill(int count) {
+        while (idle.size() < Math.min(count, capacity)) {
+            T piece = factory.get();
+            owned.add(piece);
+            created++;
+            idle.addLast(piece);
+            idleSet.add(piece);
+        }
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Number of Idle Pieces.</h2>
+     *
+     * @return the number of pieces waiting in the pool
+     */
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Allocation Counts.</h2>
+     *
+     * @return [pieces created, pieces reused], reuse should dominate once the simulation reaches a steady state
+     */
+    public synchronized long[] getCounts() {
+        return new long[] {created, reused};
+    }
+}
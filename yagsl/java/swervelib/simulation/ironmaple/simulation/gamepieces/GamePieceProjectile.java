@@ -5,15 +5,12 @@ import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.units.measure.Angle;
 import edu.wpi.first.units.measure.Distance;
 import edu.wpi.first.units.measure.LinearVelocity;
-import edu.wpi.first.wpilibj.Timer;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 import swervelib.simulation.ironmaple.utils.LegacyFieldMirroringUtils2024;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -57,10 +54,11 @@ public class GamePieceProjectile implements GamePiece {
     protected final GamePieceOnFieldSimulation.GamePieceInfo info;
     public final String gamePieceType;
     protected Translation2d initialPosition;
-    protected final Translation2d initialLaunchingVelocityMPS;
-    protected final double initialHeight, initialVerticalSpeedMPS;
-    protected final Rotation3d gamePieceRotation;
-    protected final Timer launchedTimer;
+    protected Translation2d initialLaunchingVelocityMPS;
+    protected double initialHeight, initialVerticalSpeedMPS;
+    protected Rotation3d gamePieceRotation;
+    /** Simulation time at launch, in seconds, {@link Double#NaN} before launch. */
+    protected double launchedTimestampSeconds = Double.NaN;
 
     /**
      *
@@ -70,22 +68,30 @@ public class GamePieceProjectile implements GamePiece {
      * <p>Optionally, this callback will be used to visualize the projectile flight trajectory in a telemetry system,
      * such as <a href='https://github.com/Mechanical-Advantage/AdvantageScope'>Advantage Scope</a>.
      */
-    private Consumer<List<Pose3d>> projectileTrajectoryDisplayCallBackHitTarget = projectileTrajectory -> {
+    private Consumer<List<Pose3d>> projectileTrajectoryDisplayCallBackHitTarget = NO_TRAJECTORY_DISPLAY;
+
+    private Consumer<List<Pose3d>> projectileTrajectoryDisplayCallBackMiss = NO_TRAJECTORY_DISPLAY;
+
+    /** The default display, which lets {@link #launch()} skip building the preview trajectory. */
+    private static final Consumer<List<Pose3d>> NO_TRAJECTORY_DISPLAY = projectileTrajectory -> {
     };
 
-    private Consumer<List<Pose3d>> projectileTrajectoryDisplayCallBackMiss = projectileTrajectory -> {
+    // Defaults of the optional properties, restored by reset() so a recycled projectile starts unconfigured.
+    private static final Translation3d DEFAULT_TOLERANCE = new Translation3d(0.2, 0.2, 0.2);
+    private static final Supplier<Translation3d> NO_TARGET = () -> new Translation3d(0, 0, -100);
+    private static final Runnable NO_HIT_TARGET_CALLBACK = () -> {
     };
+    private static final double DEFAULT_TOUCH_GROUND_HEIGHT = 0.5;
 
     // Optional properties of the game piece, used if we want it to become a
     // GamePieceOnFieldSimulation upon touching ground:
     protected boolean becomesGamePieceOnGroundAfterTouchGround = false;
 
     // Optional properties of the game piece, used if we want it to have a target:
-    private Translation3d tolerance = new Translation3d(0.2, 0.2, 0.2);
-    private Supplier<Translation3d> targetPositionSupplier = () -> new Translation3d(0, 0, -100);
-    private Runnable hitTargetCallBack = () -> {
-    };
-    private double heightAsTouchGround = 0.5;
+    private Translation3d tolerance = DEFAULT_TOLERANCE;
+    private Supplier<Translation3d> targetPositionSupplier = NO_TARGET;
+    private Runnable hitTargetCallBack = NO_HIT_TARGET_CALLBACK;
+    private double heightAsTouchGround = DEFAULT_TOUCH_GROUND_HEIGHT;
 
     /**
      *
@@ -206,7 +212,86 @@ public class GamePieceProjectile implements GamePiece {
         this.initialHeight = initialHeight;
         this.initialVerticalSpeedMPS = initialVerticalSpeedMPS;
         this.gamePieceRotation = gamePieceRotation;
-        this.launchedTimer = new Timer();
+    }
+
+    /**
+     *
+     *
+     * <h2>Reinitializes a Recycled Projectile Ejected from a Shooter.</h2>
+     *
+     * <p>Takes the same parameters as the constructor, so a {@link GamePiecePool} can hand out the projectile again
+     * instead of building a new one. The configuration set through the <code>with</code> and <code>enable</code>
+     * methods is restored to its defaults, so a recycled projectile never fires the callbacks of its previous user.
+     * Subclasses re-apply their own defaults by overriding
+     * {@link #reset(Translation2d, Translation2d, double, double, Rotation3d)}. The projectile must not be in the
+     * arena, call {@link #launch()} (through
+     * {@link SimulatedArena#addGamePieceProjectile(GamePieceProjectile)}) afterward.
+     *
+     * @param robotPosition the position of the robot (not the shooter) at the time of launching the game piece
+     * @param shooterPositionOnRobot the translation from the shooter's position to the robot's center, in the robot's
+     *     frame of reference
+     * @param chassisSpeedsFieldRelative the field-relative velocity of the robot chassis when launching the game piece
+     * @param shooterFacing the direction in which the shooter is facing at launch
+     * @param initialHeight the initial height of the game piece when launched
+     * @param launchingSpeed the speed at which the game piece is launched
+     * @param shooterAngle the pitch angle of the shooter when launching
+     * @return this projectile, for chaining
+     */
+    public GamePieceProjectile reset(
+            Translation2d robotPosition,
+            Translation2d shooterPositionOnRobot,
+            ChassisSpeeds chassisSpeedsFieldRelative,
+            Rotation2d shooterFacing,
+            Distance initialHeight,
+            LinearVelocity launchingSpeed,
+            Angle shooterAngle) {
+        return reset(
+                robotPosition.plus(shooterPositionOnRobot.rotateBy(shooterFacing)),
+                calculateInitialProjectileVelocityMPS(
+                        shooterPositionOnRobot,
+                        chassisSpeedsFieldRelative,
+                        shooterFacing,
+                        launchingSpeed.in(MetersPerSecond) * Math.cos(shooterAngle.in(Radians))),
+                initialHeight.in(Meters),
+                launchingSpeed.in(MetersPerSecond) * Math.sin(shooterAngle.in(Radians)),
+                new Rotation3d(0, -shooterAngle.in(Radians), shooterFacing.getRadians()));
+    }
+
+    /**
+     *
+     *
+     * <h2>Reinitializes a Recycled Projectile.</h2>
+     *
+     * @param initialPosition the position of the game piece at the moment it is launched into the air
+     * @param initialLaunchingVelocityMPS the horizontal component of the initial velocity, in meters per second
+     * @param initialHeight the initial height of the game piece when launched
+     * @param initialVerticalSpeedMPS the vertical component of the initial velocity, in meters per second
+     * @param gamePieceRotation the 3D rotation of the game piece during flight
+     * @return this projectile, for chaining
+     * @see #reset(Translation2d, Translation2d, ChassisSpeeds, Rotation2d, Distance, LinearVelocity, Angle)
+     */
+    public GamePieceProjectile reset(
+            Translation2d initialPosition,
+            Translation2d initialLaunchingVelocityMPS,
+            double initialHeight,
+            double initialVerticalSpeedMPS,
+            Rotation3d gamePieceRotation) {
+        this.initialPosition = initialPosition;
+        this.initialLaunchingVelocityMPS = initialLaunchingVelocityMPS;
+        this.initialHeight = initialHeight;
+        this.initialVerticalSpeedMPS = initialVerticalSpeedMPS;
+        this.gamePieceRotation = gamePieceRotation;
+        this.launchedTimestampSeconds = Double.NaN;
+        this.calculatedHitTargetTime = -1;
+        this.hitTargetCallBackCalled = false;
+        this.projectileTrajectoryDisplayCallBackHitTarget = NO_TRAJECTORY_DISPLAY;
+        this.projectileTrajectoryDisplayCallBackMiss = NO_TRAJECTORY_DISPLAY;
+        this.becomesGamePieceOnGroundAfterTouchGround = false;
+        this.tolerance = DEFAULT_TOLERANCE;
+        this.targetPositionSupplier = NO_TARGET;
+        this.hitTargetCallBack = NO_HIT_TARGET_CALLBACK;
+        this.heightAsTouchGround = DEFAULT_TOUCH_GROUND_HEIGHT;
+        return this;
     }
 
     /**
@@ -226,18 +311,21 @@ public class GamePieceProjectile implements GamePiece {
      *   <li>If specified, displays the trajectory using
      *       {@link GamePieceProjectile#projectileTrajectoryDisplayCallBackHitTarget}, which can be set via
      *       {@link GamePieceProjectile#withProjectileTrajectoryDisplayCallBack(Consumer)}.
-     *   <li>Starts the {@link #launchedTimer}, which stores the amount of time elapsed after the game piece is launched
+     *   <li>Stores the launch time, used by {@link #getTimeSinceLaunch()} to obtain the time elapsed after the game
+     *       piece is launched
      * </ul>
      */
     public void launch() {
         final int maxIterations = 100;
         final double stepSeconds = 0.02;
-        List<Pose3d> trajectoryPoints = new ArrayList<>();
+        final boolean displayed = projectileTrajectoryDisplayCallBackHitTarget != NO_TRAJECTORY_DISPLAY
+                || projectileTrajectoryDisplayCallBackMiss != NO_TRAJECTORY_DISPLAY;
+        List<Pose3d> trajectoryPoints = displayed ? new ArrayList<>() : List.of();
 
         for (int i = 0; i < maxIterations; i++) {
             final double t = i * stepSeconds;
             final Translation3d currentPosition = getPositionAtTime(t);
-            trajectoryPoints.add(new Pose3d(currentPosition, gamePieceRotation));
+            if (displayed) trajectoryPoints.add(new Pose3d(currentPosition, gamePieceRotation));
 
             if (currentPosition.getZ() < heightAsTouchGround && t * GRAVITY > initialVerticalSpeedMPS) break;
             if (isOutOfField(t)) break;
@@ -254,7 +342,20 @@ public class GamePieceProjectile implements GamePiece {
         else projectileTrajectoryDisplayCallBackMiss.accept(trajectoryPoints);
         this.hitTargetCallBackCalled = false;
 
-        launchedTimer.start();
+        launchedTimestampSeconds = SimulatedArena.getTimeSeconds();
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Time Elapsed Since Launch.</h2>
+     *
+     * <p>Measured on {@link SimulatedArena#getTimeSeconds()}, so the flight is deterministic in lockstep mode.
+     *
+     * @return the time since {@link #launch()} was called, in seconds, or 0 if it has not been launched
+     */
+    protected double getTimeSinceLaunch() {
+        return Double.isNaN(launchedTimestampSeconds) ? 0 : SimulatedArena.getTimeSeconds() - launchedTimestampSeconds;
     }
 
     /**
@@ -273,8 +374,8 @@ public class GamePieceProjectile implements GamePiece {
      * </code>
      */
     public boolean hasHitGround() {
-        return getPositionAtTime(launchedTimer.get()).getZ() <= heightAsTouchGround
-                && launchedTimer.get() * GRAVITY > initialVerticalSpeedMPS;
+        return getPositionAtTime(getTimeSinceLaunch()).getZ() <= heightAsTouchGround
+                && getTimeSinceLaunch() * GRAVITY > initialVerticalSpeedMPS;
     }
 
     /**
@@ -292,7 +393,7 @@ public class GamePieceProjectile implements GamePiece {
      * @return <code>true</code> if the game piece has flown out of the field's boundaries, otherwise <code>false</code>
      */
     public boolean hasGoneOutOfField() {
-        return isOutOfField(launchedTimer.get());
+        return isOutOfField(getTimeSinceLaunch());
     }
 
     private boolean isOutOfField(double time) {
@@ -336,7 +437,7 @@ public class GamePieceProjectile implements GamePiece {
      * @return <code>true</code> if the projectile has hit the target at the current time, otherwise <code>false</code>
      */
     public boolean hasHitTarget() {
-        return willHitTarget() && launchedTimer.get() >= calculatedHitTargetTime;
+        return willHitTarget() && getTimeSinceLaunch() >= calculatedHitTargetTime;
     }
 
     /**
@@ -347,8 +448,8 @@ public class GamePieceProjectile implements GamePiece {
      * @return this instance
      */
     public GamePieceProjectile cleanUp() {
-        this.projectileTrajectoryDisplayCallBackHitTarget.accept(new ArrayList<>());
-        this.projectileTrajectoryDisplayCallBackMiss.accept(new ArrayList<>());
+        this.projectileTrajectoryDisplayCallBackHitTarget.accept(List.of());
+        this.projectileTrajectoryDisplayCallBackMiss.accept(List.of());
         return this;
     }
 
@@ -398,7 +499,7 @@ public class GamePieceProjectile implements GamePiece {
      */
     @Override
     public Pose3d getPose3d() {
-        return new Pose3d(getPositionAtTime(launchedTimer.get()), gamePieceRotation);
+        return new Pose3d(getPositionAtTime(getTimeSinceLaunch()), gamePieceRotation);
     }
 
     /**
@@ -412,7 +513,7 @@ public class GamePieceProjectile implements GamePiece {
      */
     @Override
     public Translation3d getVelocity3dMPS() {
-        return getVelocityMPSAtTime(launchedTimer.get());
+        return getVelocityMPSAtTime(getTimeSinceLaunch());
     }
 
     /**
@@ -428,18 +529,23 @@ public class GamePieceProjectile implements GamePiece {
      * <p>The added {@link GamePieceOnFieldSimulation} will always have collision space on the field, even before
      * touching the ground.
      *
+     * <p>The piece comes from {@link SimulatedArena#obtainGamePieceOnField(GamePieceOnFieldSimulation.GamePieceInfo)},
+     * which season arenas may serve from a {@link GamePiecePool}.
+     *
      * @param simulatedArena the arena simulation to which the game piece will be added, usually obtained from
      *                       {@link SimulatedArena#getInstance()}
      */
     public void addGamePieceAfterTouchGround(SimulatedArena simulatedArena) {
         if (!becomesGamePieceOnGroundAfterTouchGround) return;
-        simulatedArena.addGamePiece(new GamePieceOnFieldSimulation(
-                info,
-                () -> Math.max(
-                        info.gamePieceHeight().in(Meters) / 2,
-                        getPositionAtTime(launchedTimer.get()).getZ()),
-                new Pose2d(getPositionAtTime(launchedTimer.get()).toTranslation2d(), new Rotation2d()),
-                initialLaunchingVelocityMPS));
+        final double t = getTimeSinceLaunch();
+        final Translation3d position = getPositionAtTime(t);
+        simulatedArena.addGamePiece(simulatedArena
+                .obtainGamePieceOnField(info)
+                .resetLanding(
+                        new Pose2d(position.toTranslation2d(), new Rotation2d()),
+                        initialLaunchingVelocityMPS,
+                        position.getZ(),
+                        initialVerticalSpeedMPS - GRAVITY * t));
     }
 
     /**
@@ -457,11 +563,15 @@ public class GamePieceProjectile implements GamePiece {
      */
     public static void updateGamePieceProjectiles(
             SimulatedArena simulatedArena, Set<GamePieceProjectile> gamePieceProjectiles) {
-        final Queue<GamePieceProjectile> toRemoves = new ArrayBlockingQueue<>(5);
+        // Allocated only when a projectile finishes. Unbounded, as a projectile left behind would land again.
+        List<GamePieceProjectile> toRemoves = null;
         for (GamePieceProjectile gamePieceProjectile : gamePieceProjectiles) {
             if (gamePieceProjectile.hasHitTarget()
                     || gamePieceProjectile.hasHitGround()
-                    || gamePieceProjectile.hasGoneOutOfField()) toRemoves.offer(gamePieceProjectile);
+                    || gamePieceProjectile.hasGoneOutOfField()) {
+                if (toRemoves == null) toRemoves = new ArrayList<>();
+                toRemoves.add(gamePieceProjectile);
+            }
             if (gamePieceProjectile.hasHitTarget() && !gamePieceProjectile.hitTargetCallBackCalled) {
                 gamePieceProjectile.hitTargetCallBack.run();
                 gamePieceProjectile.hitTargetCallBackCalled = true;
@@ -469,7 +579,8 @@ public class GamePieceProjectile implements GamePiece {
             if (gamePieceProjectile.hasHitGround()) gamePieceProjectile.addGamePieceAfterTouchGround(simulatedArena);
         }
 
-        while (!toRemoves.isEmpty()) simulatedArena.removePiece(toRemoves.poll().cleanUp());
+        if (toRemoves == null) return;
+        for (GamePieceProjectile toRemove : toRemoves) simulatedArena.removePiece(toRemove.cleanUp());
     }
 
     // The rest are methods to configure a game piece projectile simulation
@@ -543,6 +654,32 @@ public class GamePieceProjectile implements GamePiece {
         return this;
     }
 
+    /**
+     *
+     *
+     * <h2>Obtains the Target Position.</h2>
+     *
+     * <p>Together with {@link #getTargetTolerance()}, {@link #getPose3d()} and {@link #getVelocity3dMPS()} before
+     * {@link #launch()}, describes the shot to a Monte-Carlo evaluator such as <code>SwerveShotEvaluator</code>, to
+     * estimate the probability of hitting the target under launch noise.
+     *
+     * @return the current position of the target set with {@link #withTargetPosition(Supplier)}
+     */
+    public Translation3d getTargetPosition() {
+        return targetPositionSupplier.get();
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Target Tolerance.</h2>
+     *
+     * @return the tolerance set with {@link #withTargetTolerance(Translation3d)}
+     */
+    public Translation3d getTargetTolerance() {
+        return tolerance;
+    }
+
     /**
      *
      *
@@ -7,7 +7,6 @@ import edu.wpi.first.units.measure.Voltage;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.simulation.BatterySim;
 import edu.wpi.first.wpilibj.simulation.RoboRioSim;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -36,6 +35,9 @@ public class SimulatedBattery {
     // The current battery voltage in volts.
     private static double batteryVoltageVolts = BATTERY_NOMINAL_VOLTAGE;
 
+    // The smoothed current drawn in the last sub-tick in amps, published by the arena once per period.
+    private static double filteredCurrentAmps = 0;
+
     private static boolean disableBatterySim = false;
 
     /**
@@ -105,8 +107,7 @@ public class SimulatedBattery {
         }
 
         RoboRioSim.setVInVoltage(batteryVoltageVolts);
-        SmartDashboard.putNumber("BatterySim/TotalCurrent (Amps)", totalCurrentAmps);
-        SmartDashboard.putNumber("BatterySim/BatteryVoltage (Volts)", batteryVoltageVolts);
+        filteredCurrentAmps = totalCurrentAmps;
     }
 
     /**
@@ -120,6 +121,20 @@ public class SimulatedBattery {
         return Volts.of(batteryVoltageVolts);
     }
 
+    /**
+     *
+     *
+     * <h2>Obtains the smoothed current drawn from the battery.</h2>
+     *
+     * <p>Unlike {@link #getTotalCurrentDrawn()} this does not poll the appliances, it returns the moving average
+     * computed in the last {@link #simulationSubTick()}.
+     *
+     * @return The smoothed current as a {@link Current} object.
+     */
+    public static Current getFilteredCurrentDrawn() {
+        return Amps.of(filteredCurrentAmps);
+    }
+
     /**
      *
      *
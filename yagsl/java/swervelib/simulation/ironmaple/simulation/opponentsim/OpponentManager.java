@@ -9,6 +9,7 @@ import edu.wpi.first.units.measure.Distance;
 import edu.wpi.first.units.measure.Time;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 import swervelib.simulation.ironmaple.simulation.opponentsim.pathfinding.MapleADStar;
 
 import java.util.*;
@@ -24,25 +25,25 @@ public class OpponentManager {
     /// Cached opponent data for dynamic polling.
     // Cached list of all opponent obstacles.
     protected static final List<Pair<Translation2d, Translation2d>> opponentObstacles = new ArrayList<>();
-    protected double lastObstaclePoll = 0;
+    protected double lastObstaclePoll = Double.NEGATIVE_INFINITY;
     protected static final List<Pair<Translation2d, Translation2d>> blueOpponentObstacles = new ArrayList<>();
-    protected double lastBlueObstaclePoll = 0;
+    protected double lastBlueObstaclePoll = Double.NEGATIVE_INFINITY;
     protected static final List<Pair<Translation2d, Translation2d>> redOpponentObstacles = new ArrayList<>();
-    protected double lastRedObstaclePoll = 0;
+    protected double lastRedObstaclePoll = Double.NEGATIVE_INFINITY;
     // Cached list of all opponent targets.
     protected static final List<Pair<String, Pose2d>> opponentTargets = new ArrayList<>();
-    protected double lastTargetPoll = 0;
+    protected double lastTargetPoll = Double.NEGATIVE_INFINITY;
     protected static final List<Pair<String, Pose2d>> blueOpponentTargets = new ArrayList<>();
-    protected double lastBlueTargetPoll = 0;
+    protected double lastBlueTargetPoll = Double.NEGATIVE_INFINITY;
     protected static final List<Pair<String, Pose2d>> redOpponentTargets = new ArrayList<>();
-    protected double lastRedTargetPoll = 0;
+    protected double lastRedTargetPoll = Double.NEGATIVE_INFINITY;
     // Cached list of all opponent poses.
     protected static final List<Pose2d> opponentPoses = new ArrayList<>();
-    protected double lastPosePoll = 0;
+    protected double lastPosePoll = Double.NEGATIVE_INFINITY;
     protected static final List<Pose2d> blueOpponentPoses = new ArrayList<>();
-    protected double lastBluePosePoll = 0;
+    protected double lastBluePosePoll = Double.NEGATIVE_INFINITY;
     protected static final List<Pose2d> redOpponentPoses = new ArrayList<>();
-    protected double lastRedPosePoll = 0;
+    protected double lastRedPosePoll = Double.NEGATIVE_INFINITY;
     // List of possible starting poses
     protected static final List<Pose2d> initialBluePoses = new ArrayList<>();
     protected static final List<Pose2d> initialRedPoses = new ArrayList<>();
@@ -55,6 +56,10 @@ public class OpponentManager {
 
     /// List of all opponent robots.
     protected static final List<SmartOpponent> opponents = new ArrayList<>();
+    /// Spreads opponent decisions across loops.
+    protected final OpponentScheduler scheduler = new OpponentScheduler(Milliseconds.of(1));
+    // Time the current robot loop started, NaN until an opponent ticks.
+    protected double loopStartMillis = Double.NaN;
 
     /**
      * MapleSim Opponent currently relies on Pathplanner with a modified pathfinder. This is to be changed soon. ^TM
@@ -132,6 +137,27 @@ public class OpponentManager {
         return this;
     }
 
+    /**
+     * Gets the scheduler spreading opponent decisions across loops, to set its budget or read its counters.
+     *
+     * @return the {@link OpponentScheduler} of this manager.
+     */
+    public OpponentScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Called by every registered opponent at the start of its periodic update. Starts a new loop in the scheduler, so
+     * the dynamic lists below are rebuilt at most once per loop.
+     *
+     * @param opponent the ticking opponent.
+     */
+    public void tick(SmartOpponent opponent) {
+        if (scheduler.tick(opponent)) {
+            loopStartMillis = currentTimeMillis();
+        }
+    }
+
     /**
      * Makes a list of opponents on the given alliance.
      *
@@ -164,10 +190,10 @@ public class OpponentManager {
      * @return a list of poses targeted by opponents on the given alliance.
      */
     public List<Pair<String, Pose2d>> getOpponentTargetsDynamic(DriverStation.Alliance alliance, Time pollRate) {
-        // If elapsed time is less than pollRate return our cached list.
+        // If refreshed this loop or within the pollRate, return our cached list.
         final var isBlue = alliance == DriverStation.Alliance.Blue;
         final var targetList = isBlue ? blueOpponentTargets : redOpponentTargets;
-        if (System.currentTimeMillis() - (isBlue ? lastBlueTargetPoll : lastRedTargetPoll) < pollRate.in(Milliseconds)) {
+        if (isFresh(isBlue ? lastBlueTargetPoll : lastRedTargetPoll, pollRate)) {
             return targetList;
         }
         // New list to filter.
@@ -181,9 +207,9 @@ public class OpponentManager {
                 .forEach(opponent -> targetList.add(opponent.getTarget()));
         // Update our refresh timestamp.
         if (isBlue) {
-            lastBlueTargetPoll = System.currentTimeMillis();
+            lastBlueTargetPoll = currentTimeMillis();
         } else {
-            lastRedTargetPoll = System.currentTimeMillis();
+            lastRedTargetPoll = currentTimeMillis();
         }
         return targetList;
     }
@@ -195,8 +221,8 @@ public class OpponentManager {
      * @return the list of registered opponent target poses.
      */
     public List<Pair<String, Pose2d>> getOpponentTargetsDynamic(Time pollRate) {
-        // If elapsed time is less than pollRate return our cached list.
-        if (System.currentTimeMillis() - lastTargetPoll < pollRate.in(Milliseconds)) {
+        // If refreshed this loop or within the pollRate, return our cached list.
+        if (isFresh(lastTargetPoll, pollRate)) {
             return opponentTargets;
         }
         // If elapsed time exceeds our pollRate, refresh the list.
@@ -205,7 +231,7 @@ public class OpponentManager {
         opponentTargets.addAll(getOpponentTargetsDynamic(DriverStation.Alliance.Blue, pollRate));
         opponentTargets.addAll(getOpponentTargetsDynamic(DriverStation.Alliance.Red, pollRate));
         // Update our refresh timestamp.
-        lastTargetPoll = System.currentTimeMillis();
+        lastTargetPoll = currentTimeMillis();
         return opponentTargets;
     }
 
@@ -218,10 +244,24 @@ public class OpponentManager {
      * @return
      */
     public boolean isNearTarget(Pose2d pose, Time pollRate, Distance tolerance) {
-        for (Pair<String, Pose2d> existingTarget : getOpponentTargetsDynamic(pollRate)) {
+        return isNearTarget(pose, getOpponentTargetsDynamic(pollRate), tolerance);
+    }
+
+    /**
+     * Checks if the given pose is near any of the given targets. Lets a caller checking many poses fetch the targets
+     * once.
+     *
+     * @param pose      the pose to check against.
+     * @param targets   the targets, such as from {@link #getOpponentTargetsDynamic(Time)}.
+     * @param tolerance the translation tolerance in {@link Distance}.
+     * @return whether the pose is within the tolerance of any target.
+     */
+    public static boolean isNearTarget(Pose2d pose, List<Pair<String, Pose2d>> targets, Distance tolerance) {
+        final double toleranceMeters = tolerance.in(Meters);
+        for (Pair<String, Pose2d> existingTarget : targets) {
             // Check if the new target is within the tolerance distance of any existing target
             if (Objects.nonNull(existingTarget)) {
-                if (existingTarget.getSecond().getTranslation().getDistance(pose.getTranslation()) < tolerance.in(Meters)) {
+                if (existingTarget.getSecond().getTranslation().getDistance(pose.getTranslation()) < toleranceMeters) {
                     return true;
                 }
             }
@@ -236,10 +276,10 @@ public class OpponentManager {
      * @return a list of opponent poses on the given alliance.
      */
     public List<Pose2d> getOpponentPosesDynamic(DriverStation.Alliance alliance, Time pollRate) {
-        // If elapsed time is less than pollRate return our cached list.
+        // If refreshed this loop or within the pollRate, return our cached list.
         final var isBlue = alliance == DriverStation.Alliance.Blue;
         final var poseList = isBlue ? blueOpponentPoses : redOpponentPoses;
-        if (System.currentTimeMillis() - (isBlue ? lastBluePosePoll : lastRedPosePoll) < pollRate.in(Milliseconds)) {
+        if (isFresh(isBlue ? lastBluePosePoll : lastRedPosePoll, pollRate)) {
             return poseList;
         }
         // New list to filter.
@@ -253,9 +293,9 @@ public class OpponentManager {
                 .forEach(opponent -> poseList.add(opponent.getOpponentPose()));
         // Update our refresh timestamp.
         if (isBlue) {
-            lastBluePosePoll = System.currentTimeMillis();
+            lastBluePosePoll = currentTimeMillis();
         } else {
-            lastRedPosePoll = System.currentTimeMillis();
+            lastRedPosePoll = currentTimeMillis();
         }
         return poseList;
     }
@@ -266,8 +306,8 @@ public class OpponentManager {
      * @return a list of all opponents poses on the given alliance.
      */
     public List<Pose2d> getOpponentPosesDynamic(Time pollRate) {
-        // If elapsed time is less than pollRate return our cached list.
-        if (System.currentTimeMillis() - lastPosePoll < pollRate.in(Milliseconds)) {
+        // If refreshed this loop or within the pollRate, return our cached list.
+        if (isFresh(lastPosePoll, pollRate)) {
             return opponentPoses;
         }
         // If elapsed time exceeds our pollRate, refresh the list.
@@ -276,7 +316,7 @@ public class OpponentManager {
         opponentPoses.addAll(getOpponentPosesDynamic(DriverStation.Alliance.Blue, pollRate));
         opponentPoses.addAll(getOpponentPosesDynamic(DriverStation.Alliance.Red, pollRate));
         // Update our refresh timestamp.
-        lastPosePoll = System.currentTimeMillis();
+        lastPosePoll = currentTimeMillis();
         return opponentPoses;
     }
 
@@ -288,10 +328,10 @@ public class OpponentManager {
      * @return a list of obstacles usable by {@link MapleADStar}.
      */
     protected List<Pair<Translation2d, Translation2d>> getObstaclesDynamic(DriverStation.Alliance alliance, Time pollRate) {
-        // If elapsed time is less than pollRate return our cached list.
+        // If refreshed this loop or within the pollRate, return our cached list.
         final var isBlue = alliance == DriverStation.Alliance.Blue;
         final var obstacleList = isBlue ? blueOpponentObstacles : redOpponentObstacles;
-        if (System.currentTimeMillis() - (isBlue ? lastBlueObstaclePoll : lastRedObstaclePoll) < pollRate.in(Milliseconds)) {
+        if (isFresh(isBlue ? lastBlueObstaclePoll : lastRedObstaclePoll, pollRate)) {
             return obstacleList;
         }
         // New list to filter.
@@ -311,9 +351,9 @@ public class OpponentManager {
         });
         // Update our refresh timestamp.
         if (isBlue) {
-            lastBlueObstaclePoll = System.currentTimeMillis();
+            lastBlueObstaclePoll = currentTimeMillis();
         } else {
-            lastRedObstaclePoll = System.currentTimeMillis();
+            lastRedObstaclePoll = currentTimeMillis();
         }
         return obstacleList;
     }
@@ -326,8 +366,8 @@ public class OpponentManager {
      * @return a list of obstacles usable by {@link MapleADStar}.
      */
     protected List<Pair<Translation2d, Translation2d>> getObstaclesDynamic(Time pollRate) {
-        // If elapsed time is less than pollRate return our cached list.
-        if (System.currentTimeMillis() - lastObstaclePoll < pollRate.in(Milliseconds)) {
+        // If refreshed this loop or within the pollRate, return our cached list.
+        if (isFresh(lastObstaclePoll, pollRate)) {
             return opponentObstacles;
         }
         // If elapsed time exceeds our pollRate, refresh the list.
@@ -336,7 +376,7 @@ public class OpponentManager {
         opponentObstacles.addAll(getObstaclesDynamic(DriverStation.Alliance.Blue, pollRate));
         opponentObstacles.addAll(getObstaclesDynamic(DriverStation.Alliance.Red, pollRate));
         // Update our refresh timestamp.
-        lastObstaclePoll = System.currentTimeMillis();
+        lastObstaclePoll = currentTimeMillis();
         return opponentObstacles;
     }
 
@@ -479,4 +519,27 @@ public class OpponentManager {
         collectingMap.forEach((poseType, poseMap) -> poseMap.forEach((poseName, pose) -> collectingPoses.add(pose)));
         return collectingPoses;
     }
+
+    /**
+     * Checks whether a cached list is still valid. Lists are rebuilt at most once per robot loop, and only once the
+     * poll rate has elapsed.
+     *
+     * @param lastPoll when the list was last rebuilt, in milliseconds.
+     * @param pollRate how long to wait before refreshing, null to refresh every loop.
+     * @return whether the cached list can be returned.
+     */
+    protected boolean isFresh(double lastPoll, Time pollRate) {
+        return lastPoll >= loopStartMillis
+                || (pollRate != null && currentTimeMillis() - lastPoll < pollRate.in(Milliseconds));
+    }
+
+    /**
+     * Obtains the time used for the poll rates, on {@link SimulatedArena#getTimeSeconds()} so polling is deterministic
+     * in lockstep mode.
+     *
+     * @return the current simulation time, in milliseconds.
+     */
+    protected double currentTimeMillis() {
+        return SimulatedArena.getTimeSeconds() * 1000.0;
+    }
 }
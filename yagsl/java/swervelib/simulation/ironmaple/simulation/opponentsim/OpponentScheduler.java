@@ -0,0 +1,221 @@
+package swervelib.simulation.ironmaple.simulation.opponentsim;
+
+import edu.wpi.first.units.measure.Time;
+import swervelib.simulation.ironmaple.simulation.SimulatedArena;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static edu.wpi.first.units.Units.Milliseconds;
+import static edu.wpi.first.units.Units.Nanoseconds;
+
+/**
+ * Spreads the decisions of {@link SmartOpponent}s across robot loops under a CPU budget per loop.
+ * <p>
+ * A decision is an opponent scheduling its next state, which picks a target and starts pathfinding. Opponents tend to
+ * finish their commands together, so without a budget all of their decisions land in the same loop. Before deciding an
+ * opponent asks {@link #tryAcquire(SmartOpponent)}, and reports how long the decision took with
+ * {@link #release(SmartOpponent, long)}. Opponents turned away wait in line and ask again next loop. The first in line
+ * is always let through, so every opponent decides within a few loops, the others only while the budget left in the
+ * loop covers their expected cost and that of everyone ahead of them.
+ * <p>
+ * A new loop starts when an opponent ticks a second time, so the scheduler follows the robot loop without a timer.
+ * <p>
+ * Measured decision times differ from run to run, so in lockstep mode ({@link SimulatedArena#isLockstep()}) the budget
+ * is bypassed and a fixed number of opponents decide per loop, in line order, see
+ * {@link #setLockstepDecisionsPerLoop(int)}. The times are still measured for telemetry.
+ */
+public class OpponentScheduler {
+    // Weight of the newest decision time in the expected cost of an opponent.
+    private static final double ESTIMATE_SMOOTHING = 0.25;
+
+    private long budgetNanos;
+    private long remainingNanos;
+    private long cycle = 0;
+    private int grantedThisCycle = 0;
+    private long deferredDecisions = 0;
+    private int lockstepDecisionsPerLoop = 1;
+    // Opponents which ticked during the current loop.
+    private final Set<SmartOpponent> tickedThisCycle = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Opponents waiting for a turn, oldest first, with the last loop they asked in.
+    private final LinkedHashMap<SmartOpponent, Long> waiting = new LinkedHashMap<>();
+    // Expected decision time of each opponent, in nanoseconds.
+    private final Map<SmartOpponent, Double> estimates = new IdentityHashMap<>();
+    // Expected decision time of an opponent which has not decided yet, NaN until any opponent has.
+    private double defaultEstimateNanos = Double.NaN;
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param budget CPU time opponents may spend deciding per robot loop.
+     */
+    public OpponentScheduler(Time budget) {
+        setBudget(budget);
+        this.remainingNanos = budgetNanos;
+    }
+
+    /**
+     * Sets the CPU time opponents may spend deciding per robot loop, from the next loop on.
+     *
+     * @param budget the budget per loop.
+     * @return this, for chaining.
+     */
+    public OpponentScheduler setBudget(Time budget) {
+        this.budgetNanos = (long) budget.in(Nanoseconds);
+        return this;
+    }
+
+    /**
+     * Sets how many opponents may decide per robot loop in lockstep mode, where the CPU budget is not used.
+     *
+     * @param decisions the decisions per loop, at least one.
+     * @return this, for chaining.
+     */
+    public OpponentScheduler setLockstepDecisionsPerLoop(int decisions) {
+        if (decisions < 1) {
+            throw new IllegalArgumentException("At least one decision per loop is required");
+        }
+        this.lockstepDecisionsPerLoop = decisions;
+        return this;
+    }
+
+    /**
+     * Gets how many opponents may decide per robot loop in lockstep mode.
+     *
+     * @return the decisions per loop.
+     */
+    public int getLockstepDecisionsPerLoop() {
+        return lockstepDecisionsPerLoop;
+    }
+
+    /**
+     * Gets the CPU time opponents may spend deciding per robot loop.
+     *
+     * @return the budget per loop.
+     */
+    public Time getBudget() {
+        return Nanoseconds.of(budgetNanos);
+    }
+
+    /**
+     * Records that an opponent started its periodic update. Called once per loop by every opponent, before it decides.
+     *
+     * @param opponent the ticking opponent.
+     * @return whether this tick started a new loop.
+     */
+    public boolean tick(SmartOpponent opponent) {
+        if (!tickedThisCycle.isEmpty() && tickedThisCycle.add(opponent)) {
+            return false;
+        }
+        // The first tick, or an opponent ticking again, starts a new loop.
+        cycle++;
+        tickedThisCycle.clear();
+        tickedThisCycle.add(opponent);
+        remainingNanos = budgetNanos;
+        grantedThisCycle = 0;
+        // Opponents which did not ask last loop no longer need a turn.
+        waiting.values().removeIf(lastAsked -> lastAsked < cycle - 1);
+        return true;
+    }
+
+    /**
+     * Asks for a turn to decide in the current loop. A granted turn must be followed by
+     * {@link #release(SmartOpponent, long)}, a denied one is kept in line for the next loop.
+     *
+     * @param opponent the opponent which wants to decide.
+     * @return whether the opponent may decide now.
+     */
+    public boolean tryAcquire(SmartOpponent opponent) {
+        // Budget and turns reserved for the opponents which have waited longer.
+        double ahead = 0;
+        int aheadCount = 0;
+        for (Iterator<SmartOpponent> it = waiting.keySet().iterator(); it.hasNext(); ) {
+            SmartOpponent waitingOpponent = it.next();
+            if (waitingOpponent == opponent) {
+                break;
+            }
+            ahead += getEstimateNanos(waitingOpponent);
+            aheadCount++;
+        }
+        final double estimate = getEstimateNanos(opponent);
+        final boolean granted = SimulatedArena.isLockstep()
+                ? grantedThisCycle + aheadCount < lockstepDecisionsPerLoop
+                : (grantedThisCycle == 0 && ahead == 0) || remainingNanos >= ahead + estimate;
+        if (granted) {
+            waiting.remove(opponent);
+            grantedThisCycle++;
+            return true;
+        }
+        waiting.put(opponent, cycle);
+        deferredDecisions++;
+        return false;
+    }
+
+    /**
+     * Reports the end of a granted decision. In lockstep mode the time only feeds the telemetry.
+     *
+     * @param opponent     the opponent which decided.
+     * @param elapsedNanos how long the decision took, in nanoseconds.
+     */
+    public void release(SmartOpponent opponent, long elapsedNanos) {
+        remainingNanos -= elapsedNanos;
+        estimates.merge(opponent, (double) elapsedNanos, this::smooth);
+        defaultEstimateNanos = Double.isNaN(defaultEstimateNanos)
+                ? elapsedNanos
+                : smooth(defaultEstimateNanos, elapsedNanos);
+    }
+
+    /**
+     * Gets the expected decision time of an opponent.
+     *
+     * @param opponent the opponent.
+     * @return the smoothed time of its past decisions, or of any opponent's if it has not decided yet.
+     */
+    public Time getExpectedDecisionTime(SmartOpponent opponent) {
+        return Nanoseconds.of(getEstimateNanos(opponent));
+    }
+
+    /**
+     * Gets the number of opponents waiting for a turn.
+     *
+     * @return the opponents turned away in the current or last loop.
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Gets the number of times an opponent was turned away.
+     *
+     * @return the deferred decisions since the scheduler was created.
+     */
+    public long getDeferredDecisions() {
+        return deferredDecisions;
+    }
+
+    /**
+     * Gets the budget left in the current loop.
+     *
+     * @return the remaining budget in milliseconds, negative if the loop went over.
+     */
+    public double getRemainingBudgetMillis() {
+        return Nanoseconds.of(remainingNanos).in(Milliseconds);
+    }
+
+    private double getEstimateNanos(SmartOpponent opponent) {
+        final Double estimate = estimates.get(opponent);
+        if (estimate != null) {
+            return estimate;
+        }
+        // Until anything is measured, assume a decision takes the whole budget so only one is made per loop.
+        return Double.isNaN(defaultEstimateNanos) ? budgetNanos : defaultEstimateNanos;
+    }
+
+    private double smooth(double estimate, double elapsedNanos) {
+        return estimate + (elapsedNanos - estimate) * ESTIMATE_SMOOTHING;
+    }
+}
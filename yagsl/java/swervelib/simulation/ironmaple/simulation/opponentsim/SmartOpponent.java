@@ -14,6 +14,7 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.networktables.DoublePublisher;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.networktables.StructPublisher;
@@ -33,6 +34,7 @@ import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 import swervelib.simulation.ironmaple.simulation.drivesims.SelfControlledSwerveDriveSimulation;
 import swervelib.simulation.ironmaple.simulation.opponentsim.pathfinding.MapleADStar;
 import swervelib.simulation.ironmaple.utils.FieldMirroringUtils;
+import swervelib.simulation.ironmaple.utils.mathutils.MapleCommonMath;
 
 import java.util.*;
 import java.util.function.Supplier;
@@ -43,6 +45,7 @@ public abstract class SmartOpponent extends SubsystemBase {
     /// Publishers
     protected StringPublisher statePublisher;
     protected StructPublisher<Pose2d> posePublisher;
+    protected DoublePublisher decisionTimePublisher;
     // String used in telemetry for alliance.
     protected String allianceString;
     /// The SmartOpponentConfig to use.
@@ -59,10 +62,14 @@ public abstract class SmartOpponent extends SubsystemBase {
     protected PPHolonomicDriveController driveController;
     // Pathfinding class cloned for modification.
     protected final MapleADStar mapleADStar;
+    // Node size of a generated pathfinding grid in meters, the same as PathPlanner's.
+    private static final double NAV_GRID_NODE_SIZE = 0.2;
     // Behavior Chooser Publisher
     protected StringPublisher selectedBehaviorPublisher;
     // Target Pose
     protected Pair<String, Pose2d> target;
+    // Weight of each cached entry during a target selection, reused between selections.
+    private double[] entryWeights = new double[0];
     // Whether the state was interrupted and should restart.
     protected boolean restartInterrupt;
     /// Collision Detection
@@ -87,7 +94,19 @@ public abstract class SmartOpponent extends SubsystemBase {
                 new PIDConstants(5),
                 new PIDConstants(5));
         // Cloned Pathfinder for use here.
-        this.mapleADStar = new MapleADStar();
+        this.mapleADStar = Double.isNaN(config.navGridClearance)
+                ? new MapleADStar()
+                : new MapleADStar(
+                        SimulatedArena.getInstance()
+                                .getFieldMap()
+                                .getNavGrid(
+                                        NAV_GRID_NODE_SIZE,
+                                        FieldMirroringUtils.FIELD_WIDTH,
+                                        FieldMirroringUtils.FIELD_HEIGHT,
+                                        config.navGridClearance),
+                        NAV_GRID_NODE_SIZE,
+                        FieldMirroringUtils.FIELD_WIDTH,
+                        FieldMirroringUtils.FIELD_HEIGHT);
         // Preset an empty manipulator
         this.manipulatorSim = new ManipulatorSim();
         /// Initialize simulations
@@ -102,6 +121,9 @@ public abstract class SmartOpponent extends SubsystemBase {
         this.posePublisher = NetworkTableInstance.getDefault()
                 .getStructTopic(config.telemetryPath + "SimulatedOpponents/Poses/"
                         + allianceString + config.name + "'s Pose2d", Pose2d.struct).publish();
+        this.decisionTimePublisher = NetworkTableInstance.getDefault()
+                .getDoubleTopic(config.telemetryPath + "SimulatedOpponents/DecisionTimes/"
+                        + allianceString + config.name + "'s Decision Time (ms)").publish();
         this.selectedBehaviorPublisher = NetworkTableInstance.getDefault()
                 .getTable(config.telemetryPath + "SimulatedOpponents/Behaviors/"
                         + allianceString + config.name + "'s Behaviors")
@@ -211,20 +233,29 @@ public abstract class SmartOpponent extends SubsystemBase {
 
     @Override
     public void simulationPeriodic() {
-        // If command not in progress and standby isn't the desired state. Or if a restartInterrupt occurred, restarting the current state.
-        if (!config.commandInProgress && !Objects.equals("Standby", config.desiredState)) {
-          CommandScheduler.getInstance().schedule(runState(config.desiredState, false));
+        if (manager != null) {
+            manager.tick(this);
         }
-        // If restart requested, do that now.
-        if (restartInterrupt) {
-          CommandScheduler.getInstance().schedule(runState(config.desiredState, true));
-            notMovingTimer.restart();
-            restartInterrupt = false;
-        }
-        // If we are very stuck reload from start.
-        if (notMovingTimer.hasElapsed(5)) {
-            drivetrainSim.setSimulationWorldPose(config.initialPose);
-          CommandScheduler.getInstance().schedule(runState(config.desiredState, true));
+        // Scheduling a state picks a target and starts pathfinding, so it waits for a turn from the scheduler.
+        final boolean wantsState = !config.commandInProgress && !Objects.equals("Standby", config.desiredState);
+        if ((wantsState || restartInterrupt || notMovingTimer.hasElapsed(5)) && acquireDecision()) {
+            final long decisionStart = System.nanoTime();
+            // If command not in progress and standby isn't the desired state.
+            if (wantsState) {
+                CommandScheduler.getInstance().schedule(runState(config.desiredState, false));
+            }
+            // If restart requested, do that now.
+            if (restartInterrupt) {
+                CommandScheduler.getInstance().schedule(runState(config.desiredState, true));
+                notMovingTimer.restart();
+                restartInterrupt = false;
+            }
+            // If we are very stuck reload from start.
+            if (notMovingTimer.hasElapsed(5)) {
+                drivetrainSim.setSimulationWorldPose(config.initialPose);
+                CommandScheduler.getInstance().schedule(runState(config.desiredState, true));
+            }
+            releaseDecision(System.nanoTime() - decisionStart);
         }
         // If the timer is not running and a command is running and the opponent is not moving, start the timer.
         if (!notMovingTimer.isRunning() && config.commandInProgress && !isMoving(notMovingThreshold)) {
@@ -236,6 +267,28 @@ public abstract class SmartOpponent extends SubsystemBase {
         posePublisher.set(drivetrainSim.getActualPoseInSimulationWorld());
     }
 
+    /**
+     * Asks the manager's {@link OpponentScheduler} for a turn to decide. Opponents without a manager always decide.
+     *
+     * @return whether the opponent may decide in this loop.
+     */
+    protected boolean acquireDecision() {
+        return manager == null || manager.getScheduler().tryAcquire(this);
+    }
+
+    /**
+     * Reports the end of a decision to the scheduler and publishes how long it took. The wall clock time only paces the
+     * scheduler outside of lockstep mode, so lockstep runs stay reproducible.
+     *
+     * @param elapsedNanos how long the decision took, in nanoseconds.
+     */
+    protected void releaseDecision(long elapsedNanos) {
+        if (manager != null) {
+            manager.getScheduler().release(this, elapsedNanos);
+        }
+        decisionTimePublisher.set(elapsedNanos / 1e6);
+    }
+
     /**
      * Sets the current state of the robot. This waits its turn patiently for the command to finish.
      *
@@ -414,7 +467,7 @@ public abstract class SmartOpponent extends SubsystemBase {
      */
     protected Pair<String, Pose2d> getRandomFromMap(Map<String, Pose2d> poseMap) {
         Map.Entry<String, Pose2d> randomEntry = poseMap.entrySet().stream()
-                .skip(new Random().nextInt(poseMap.size()))
+                .skip(MapleCommonMath.generateRandomInt(poseMap.size()))
                 .findFirst()
                 .orElse(null);
 
@@ -442,47 +495,7 @@ public abstract class SmartOpponent extends SubsystemBase {
      * @return a random scoring target based on pose weights.
      */
     protected Pair<String, Pose2d> getScoringTarget() {
-        // If no entries exist, fail.
-        if (config.cachedScoringEntries.isEmpty()) {
-            return null;
-        }
-
-        // Cache opponent targets and weight map to avoid repeated calls.
-        final var opponentTargets = manager.getOpponentTargetsDynamic(config.alliance, config.pollRate);
-        final var scoringWeights = config.getScoringWeights();
-        double random = Math.random();
-        double cumulativeWeight = 0;
-        double totalWeight = 0;
-
-        // First pass: calculate total weight of available entries.
-        for (var entry : config.cachedScoringEntries) {
-            // Check both that the target is not already taken and not near any existing targets
-            if (!opponentTargets.contains(entry.getValue()) &&
-                    !manager.isNearTarget(entry.getValue(), config.pollRate, Meters.of(1.0))) {
-                totalWeight += scoringWeights.getOrDefault(entry.getKey(), 1.0);
-            }
-        }
-
-        // If no available targets, fail.
-        if (totalWeight == 0) {
-            return null;
-        }
-
-        // Scale random value by total weight for weighted selection.
-        random *= totalWeight;
-
-        // Second pass: find weighted target using cumulative weights.
-        for (var entry : config.cachedScoringEntries) {
-            if (!opponentTargets.contains(entry.getValue())) {
-                cumulativeWeight += scoringWeights.getOrDefault(entry.getKey(), 1.0);
-                if (random <= cumulativeWeight) {
-                    return Pair.of(entry.getKey(), entry.getValue());
-                }
-            }
-        }
-
-        // No target found (shouldn't happen if totalWeight > 0).
-        return null;
+        return getWeightedTarget(config.cachedScoringEntries, config.getScoringWeights());
     }
 
     /**
@@ -491,24 +504,42 @@ public abstract class SmartOpponent extends SubsystemBase {
      * @return a random collect target based on pose weights.
      */
     protected Pair<String, Pose2d> getCollectTarget() {
+        return getWeightedTarget(config.cachedCollectingEntries, config.getCollectWeights());
+    }
+
+    /**
+     * Gets a random target among the entries not targeted by other opponents, based on pose weights.
+     *
+     * @param entries the cached entries to pick from.
+     * @param weights the weights of the entries, 1.0 when missing.
+     * @return a random target based on pose weights, or null if none is available.
+     */
+    protected Pair<String, Pose2d> getWeightedTarget(
+            List<Map.Entry<String, Pose2d>> entries, Map<String, Double> weights) {
         // If no entries exist, fail.
-        if (config.cachedCollectingEntries.isEmpty()) {
+        if (entries.isEmpty()) {
             return null;
         }
 
+        // Fetch the opponent targets once, the manager rebuilds them at most once per loop.
         final var opponentTargets = manager.getOpponentTargetsDynamic(config.alliance, config.pollRate);
-        final var collectWeights = config.getCollectWeights();
-        double random = Math.random();
+        final var allTargets = manager.getOpponentTargetsDynamic(config.pollRate);
+        double random = MapleCommonMath.generateRandomUniform();
         double cumulativeWeight = 0;
         double totalWeight = 0;
+        final Distance nearTolerance = Meters.of(1.0);
+        if (entryWeights.length < entries.size()) {
+            entryWeights = new double[entries.size()];
+        }
 
-        // First pass: calculate total weight of available entries.
-        for (var entry : config.cachedCollectingEntries) {
+        // First pass: weigh each entry once, unavailable entries weigh nothing.
+        for (int i = 0; i < entries.size(); i++) {
+            final var entry = entries.get(i);
             // Check both that the target is not already taken and not near any existing targets
-            if (!opponentTargets.contains(entry.getValue()) &&
-                    !manager.isNearTarget(entry.getValue(), config.pollRate, Meters.of(1.0))) {
-                totalWeight += collectWeights.getOrDefault(entry.getKey(), 1.0);
-            }
+            final boolean available = !opponentTargets.contains(entry.getValue())
+                    && !OpponentManager.isNearTarget(entry.getValue(), allTargets, nearTolerance);
+            entryWeights[i] = available ? weights.getOrDefault(entry.getKey(), 1.0) : 0;
+            totalWeight += entryWeights[i];
         }
 
         // If no available targets, fail.
@@ -520,12 +551,13 @@ public abstract class SmartOpponent extends SubsystemBase {
         random *= totalWeight;
 
         // Second pass: find weighted target using cumulative weights.
-        for (var entry : config.cachedCollectingEntries) {
-            if (!opponentTargets.contains(entry.getValue())) {
-                cumulativeWeight += collectWeights.getOrDefault(entry.getKey(), 1.0);
-                if (random <= cumulativeWeight) {
-                    return Pair.of(entry.getKey(), entry.getValue());
-                }
+        for (int i = 0; i < entries.size(); i++) {
+            if (entryWeights[i] == 0) {
+                continue;
+            }
+            cumulativeWeight += entryWeights[i];
+            if (random <= cumulativeWeight) {
+                return Pair.of(entries.get(i).getKey(), entries.get(i).getValue());
             }
         }
 
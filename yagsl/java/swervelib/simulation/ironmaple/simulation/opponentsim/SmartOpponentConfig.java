@@ -40,6 +40,8 @@ public class SmartOpponentConfig {
     public double joystickDeadband = 0.15;
     // Pathfind pose offset translation to compensate for different chassis'
     public Transform2d pathfindOffset;
+    // Plan on a grid generated from the arena's field obstacles instead of navgrid.json, NaN to use navgrid.json
+    public double navGridClearance = Double.NaN;
     // Auto Enable and Disable Opponent Support
     public boolean isAutoEnable;
 
@@ -291,6 +293,18 @@ public class SmartOpponentConfig {
         return this;
     }
 
+    /**
+     * Plans paths on a grid generated from the obstacles of the arena instead of the deploy navgrid.json, so the
+     * opponent avoids exactly what it collides with. The grid has the 0.2 meter nodes of PathPlanner.
+     *
+     * @param clearanceMeters how far node centers must be from obstacles, about half the width of the chassis.
+     * @return this, for chaining.
+     */
+    public SmartOpponentConfig withFieldNavGrid(double clearanceMeters) {
+        this.navGridClearance = clearanceMeters;
+        return this;
+    }
+
     /**
      * This sets a dynamic poll rate for various obstacle and pose getters.
      *
@@ -66,15 +66,7 @@ public class MapleADStar implements Pathfinder {
      */
     public MapleADStar() {
         planningThread = new Thread(this::runThread);
-        planningThread.setPriority(7); // Priority is 1-10. Higher is a greater priority.
-
-        requestStart = new GridPosition(0, 0);
-        requestRealStartPos = Translation2d.kZero;
-        requestGoal = new GridPosition(0, 0);
-        requestRealGoalPos = Translation2d.kZero;
-
-        staticObstacles.clear();
-        dynamicObstacles.clear();
+        initialize();
 
         File navGridFile = new File(Filesystem.getDeployDirectory(), "pathplanner/navgrid.json");
         if (navGridFile.exists()) {
@@ -112,6 +104,52 @@ public class MapleADStar implements Pathfinder {
             }
         }
 
+        startPlanning();
+    }
+
+    /**
+     * Create a new pathfinder that runs AD* locally in a background thread on a generated grid instead of the
+     * navgrid.json in the deploy directory, such as the grid of
+     * {@link swervelib.simulation.ironmaple.simulation.BakedFieldMap#getNavGrid(double, double, double, double)}.
+     *
+     * @param navGrid        blocked nodes as [row along y][column along x], like the grid of a navgrid.json.
+     * @param nodeSizeMeters side of a node in meters.
+     * @param fieldLength    length of the field in meters.
+     * @param fieldWidth     width of the field in meters.
+     */
+    public MapleADStar(boolean[][] navGrid, double nodeSizeMeters, double fieldLength, double fieldWidth) {
+        planningThread = new Thread(this::runThread);
+        initialize();
+
+        this.nodeSize = nodeSizeMeters;
+        this.fieldLength = fieldLength;
+        this.fieldWidth = fieldWidth;
+        nodesY = navGrid.length;
+        nodesX = navGrid.length == 0 ? 0 : navGrid[0].length;
+        for (int row = 0; row < navGrid.length; row++) {
+            for (int col = 0; col < navGrid[row].length; col++) {
+                if (navGrid[row][col]) {
+                    staticObstacles.add(new GridPosition(col, row));
+                }
+            }
+        }
+
+        startPlanning();
+    }
+
+    private void initialize() {
+        planningThread.setPriority(7); // Priority is 1-10. Higher is a greater priority.
+
+        requestStart = new GridPosition(0, 0);
+        requestRealStartPos = Translation2d.kZero;
+        requestGoal = new GridPosition(0, 0);
+        requestRealGoalPos = Translation2d.kZero;
+
+        staticObstacles.clear();
+        dynamicObstacles.clear();
+    }
+
+    private void startPlanning() {
         requestObstacles.clear();
         requestObstacles.addAll(staticObstacles);
         requestObstacles.addAll(dynamicObstacles);
@@ -6,6 +6,7 @@ import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.networktables.BooleanPublisher;
 import edu.wpi.first.units.Units;
 import edu.wpi.first.wpilibj.DriverStation;
+import swervelib.simulation.ironmaple.simulation.BakedFieldMap;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 
 public class Arena2024Crescendo extends SimulatedArena {
@@ -91,7 +92,7 @@ public class Arena2024Crescendo extends SimulatedArena {
     };
 
     public Arena2024Crescendo() {
-        super(new CrescendoFieldObstaclesMap());
+        super(BakedFieldMap.of(CrescendoFieldObstaclesMap.class, CrescendoFieldObstaclesMap::new));
 
         redSpeaker = new CrescendoSpeaker(this, false);
         super.addCustomSimulation(redSpeaker);
@@ -2,7 +2,6 @@ package swervelib.simulation.ironmaple.simulation.seasonspecific.crescendo2024;
 
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.Timer;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 import swervelib.simulation.ironmaple.simulation.gamepieces.GamePieceOnFieldSimulation;
 
@@ -21,7 +20,7 @@ public class CrescendoHumanPlayerSimulation implements SimulatedArena.Simulatabl
     public void simulationSubTick(int subTickNum) {
         if (!DriverStation.isTeleopEnabled()) return;
 
-        if (Timer.getFPGATimestamp() - previousThrowTimeSeconds < 1) return;
+        if (SimulatedArena.getTimeSeconds() - previousThrowTimeSeconds < 1) return;
 
         final Translation2d sourcePosition = toCurrentAllianceTranslation(BLUE_SOURCE_POSITION);
         /* if there is any game-piece 0.5 meters within the human player station, we don't throw a new note */
@@ -31,6 +30,6 @@ public class CrescendoHumanPlayerSimulation implements SimulatedArena.Simulatabl
 
         /* otherwise, place a note */
         arena.addGamePiece(new CrescendoNoteOnField(sourcePosition));
-        previousThrowTimeSeconds = Timer.getFPGATimestamp();
+        previousThrowTimeSeconds = SimulatedArena.getTimeSeconds();
     }
 }
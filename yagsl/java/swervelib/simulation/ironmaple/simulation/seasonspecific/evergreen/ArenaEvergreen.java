@@ -2,6 +2,8 @@ package swervelib.simulation.ironmaple.simulation.seasonspecific.evergreen;
 
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj.DriverStation;
+import java.util.List;
+import swervelib.simulation.ironmaple.simulation.BakedFieldMap;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 
 /**
@@ -45,7 +47,9 @@ public class ArenaEvergreen extends SimulatedArena {
      * @param withWalls used to add wall obstacles when desired.
      */
     public ArenaEvergreen(boolean withWalls) {
-        super(withWalls ? new EvergreenFieldObstacleMap().withWalls() : new EvergreenFieldObstacleMap());
+        super(BakedFieldMap.of(
+                List.of(EvergreenFieldObstacleMap.class, withWalls),
+                () -> withWalls ? new EvergreenFieldObstacleMap().withWalls() : new EvergreenFieldObstacleMap()));
     }
 
     /**
@@ -18,8 +18,13 @@ import edu.wpi.first.units.measure.Distance;
 import edu.wpi.first.units.measure.LinearVelocity;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import swervelib.simulation.ironmaple.simulation.BakedFieldMap;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena.FieldMap;
+import swervelib.simulation.ironmaple.simulation.gamepieces.GamePiece;
+import swervelib.simulation.ironmaple.simulation.gamepieces.GamePieceOnFieldSimulation;
+import swervelib.simulation.ironmaple.simulation.gamepieces.GamePiecePool;
+import swervelib.simulation.ironmaple.utils.mathutils.MapleCommonMath;
 
 import java.util.List;
 import org.dyn4j.dynamics.Settings;
@@ -34,7 +39,7 @@ public class Arena2026Rebuilt extends SimulatedArena {
 
 
     protected double nextClockSwapTime=0;
-    protected boolean blueIsOnClock = Math.random() < 0.5;
+    protected boolean blueIsOnClock = MapleCommonMath.generateRandomUniform() < 0.5;
 
     protected DoublePublisher phaseClockPublisher =
             genericInfoTable.getDoubleTopic("Time left in current phase").publish();
@@ -44,13 +49,22 @@ public class Arena2026Rebuilt extends SimulatedArena {
     protected BooleanPublisher blueActivePublisher =
             blueTable.getBooleanTopic("Blue is active").publish();
 
+    protected double phaseTimeLeft = 25;
+    private final int phaseClockHandle, redActiveHandle, blueActiveHandle;
+
+    /** Recycled FUEL on the field, enough for a full field so resetting it reuses every body. */
+    protected final GamePiecePool<RebuiltFuelOnField> fuelOnFieldPool =
+            new GamePiecePool<>(() -> new RebuiltFuelOnField(new Translation2d()), 512);
+    /** Recycled FUEL in the air. */
+    protected final GamePiecePool<RebuiltFuelOnFly> fuelOnFlyPool = new GamePiecePool<>(RebuiltFuelOnFly::new, 128);
+
     protected RebuiltHub blueHub;
     protected RebuiltHub redHub;
 
     protected RebuiltOutpost blueOutpost;
     protected RebuiltOutpost redOutpost;
 
-    protected boolean isInEfficiencyMode = true;
+    protected boolean isInEfficiencyMode = false;
 
     protected static Translation2d centerPieceBottomRightCorner = new Translation2d(7.35737, 1.724406);
     protected static Translation2d redDepotBottomRightCorner = new Translation2d(0.02, 5.53);
@@ -141,8 +155,8 @@ public class Arena2026Rebuilt extends SimulatedArena {
      * <h2>Creates an Arena for the 2026 FRC game rebuilt </h2>
      *
      * <p>This will create an Arena with the ramp areas marked as inaccessible. If you would like to change that use
-     * {@link #Arena2026Rebuilt(boolean)}. Additionally due to performance issues the arena will not spawn all fuel by
-     * default. If you would like to change this use {@link #setEfficiencyMode(boolean)}
+     * {@link #Arena2026Rebuilt(boolean)}. All fuel is spawned, resting fuel away from the robots sleeps through
+     * {@link #setLevelOfDetail(boolean)}. To spawn less fuel use {@link #setEfficiencyMode(boolean)}
      */
     public Arena2026Rebuilt() {
         this(true);
@@ -154,14 +168,16 @@ public class Arena2026Rebuilt extends SimulatedArena {
      * <h2>Creates an Arena for the 2026 FRC game rebuilt </h2>
      *
      * <p>Due to the nature of maple sim they can not be fully simulated and so ether must be non existent or treated as
-     * full colliders. This behavior can be changed with the AddRampCollider variable. Additionally due to performance
-     * issues the arena will not spawn all fuel by default. If you would like to change this use
+     * full colliders. This behavior can be changed with the AddRampCollider variable. All fuel is spawned, resting fuel
+     * away from the robots sleeps through {@link #setLevelOfDetail(boolean)}. To spawn less fuel use
      * {@link #setEfficiencyMode(boolean)}
      *
      * @param AddRampCollider Whether or not the ramps should be added as colliders.
      */
     public Arena2026Rebuilt(boolean AddRampCollider) {
-        super(new RebuiltFieldObstaclesMap(AddRampCollider));
+        super(BakedFieldMap.of(
+                List.of(RebuiltFieldObstaclesMap.class, AddRampCollider),
+                () -> new RebuiltFieldObstaclesMap(AddRampCollider)));
 
         Settings settings = physicsWorld.getSettings();
 
@@ -171,6 +187,13 @@ public class Arena2026Rebuilt extends SimulatedArena {
 
         physicsWorld.setSettings(settings);
 
+        // Most of the 400 fuel lie still far from the robots, let them sleep instead of stepping them every sub-tick.
+        setLevelOfDetail(true);
+
+        phaseClockHandle = telemetry.addDouble(phaseClockPublisher);
+        redActiveHandle = telemetry.addBoolean(redActivePublisher);
+        blueActiveHandle = telemetry.addBoolean(blueActivePublisher);
+
         blueHub = new RebuiltHub(this, true);
         super.addCustomSimulation(blueHub);
 
@@ -193,7 +216,7 @@ public class Arena2026Rebuilt extends SimulatedArena {
      * @return A random number in range.
      */
     public static double randomInRange(double variance) {
-        return (Math.random() - 0.5) * variance;
+        return (MapleCommonMath.generateRandomUniform() - 0.5) * variance;
     }
 
     /**
@@ -232,7 +255,7 @@ public class Arena2026Rebuilt extends SimulatedArena {
             double yawVariance,
             double speedVariance,
             double pitchVariance) {
-        addGamePieceProjectile(new RebuiltFuelOnFly(
+        addGamePieceProjectile(fuelOnFlyPool.obtain().reset(
                 piecePose.plus(new Translation2d(randomInRange(xVariance), randomInRange(yVariance))),
                 new Translation2d(),
                 new ChassisSpeeds(),
@@ -249,8 +272,8 @@ public class Arena2026Rebuilt extends SimulatedArena {
 
         for (int x = 0; x < 12; x += 1) {
             for (int y = 0; y < 30; y += isInEfficiencyMode ? 3 : 1) {
-                addGamePiece(new RebuiltFuelOnField(centerPieceBottomRightCorner.plus(
-                        new Translation2d(Inches.of(5.991 * x), Inches.of(5.95 * y)))));
+                addFuel(centerPieceBottomRightCorner.plus(
+                        new Translation2d(Inches.of(5.991 * x), Inches.of(5.95 * y))));
             }
         }
 
@@ -260,8 +283,8 @@ public class Arena2026Rebuilt extends SimulatedArena {
         if (isOnBlue || !isInEfficiencyMode) {
             for (int x = 0; x < 4; x++) {
                 for (int y = 0; y < 6; y++) {
-                    addGamePiece(new RebuiltFuelOnField(blueDepotBottomRightCorner.plus(
-                            new Translation2d(Inches.of(5.991 * x), Inches.of(5.95 * y)))));
+                    addFuel(blueDepotBottomRightCorner.plus(
+                            new Translation2d(Inches.of(5.991 * x), Inches.of(5.95 * y))));
                 }
             }
         }
@@ -269,8 +292,8 @@ public class Arena2026Rebuilt extends SimulatedArena {
         if (!isOnBlue || !isInEfficiencyMode) {
             for (int x = 0; x < 4; x++) {
                 for (int y = 0; y < 6; y++) {
-                    addGamePiece(new RebuiltFuelOnField(redDepotBottomRightCorner.plus(
-                            new Translation2d(Inches.of(5.991 * x), Inches.of(5.95 * y)))));
+                    addFuel(redDepotBottomRightCorner.plus(
+                            new Translation2d(Inches.of(5.991 * x), Inches.of(5.95 * y))));
                 }
             }
         }
@@ -281,6 +304,55 @@ public class Arena2026Rebuilt extends SimulatedArena {
         setupValueForMatchBreakdown("WastedFuel");
     }
 
+    /**
+     *
+     *
+     * <h2>Adds a FUEL at Rest on the Field, Reusing a Recycled One if Possible.</h2>
+     *
+     * @param position the position of the FUEL on the field
+     */
+    public void addFuel(Translation2d position) {
+        addGamePiece(fuelOnFieldPool.obtain().reset(new Pose2d(position, new Rotation2d()), new Translation2d()));
+    }
+
+    @Override
+    public GamePieceOnFieldSimulation obtainGamePieceOnField(GamePieceOnFieldSimulation.GamePieceInfo info) {
+        if (info == RebuiltFuelOnField.REBUILT_FUEL_INFO) return fuelOnFieldPool.obtain();
+        return super.obtainGamePieceOnField(info);
+    }
+
+    @Override
+    protected void recycleGamePiece(GamePiece gamePiece) {
+        if (gamePiece instanceof RebuiltFuelOnField fuel) fuelOnFieldPool.release(fuel);
+        else if (gamePiece instanceof RebuiltFuelOnFly fuel) fuelOnFlyPool.release(fuel);
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Pool of FUEL in the Air.</h2>
+     *
+     * <p>To shoot without allocating a projectile, obtain a FUEL from this pool, reset it and add it with
+     * {@link #addGamePieceProjectile(swervelib.simulation.ironmaple.simulation.gamepieces.GamePieceProjectile)}. It
+     * returns to the pool once it is removed from the arena.
+     *
+     * @return the pool of {@link RebuiltFuelOnFly}
+     */
+    public GamePiecePool<RebuiltFuelOnFly> getFuelOnFlyPool() {
+        return fuelOnFlyPool;
+    }
+
+    /**
+     *
+     *
+     * <h2>Obtains the Pool of FUEL on the Field.</h2>
+     *
+     * @return the pool of {@link RebuiltFuelOnField}, also used when FUEL in the air touches ground
+     */
+    public GamePiecePool<RebuiltFuelOnField> getFuelOnFieldPool() {
+        return fuelOnFieldPool;
+    }
+
     @Override
     public synchronized List<Pose3d> getGamePiecesPosesByType(String type) {
         List<Pose3d> poses = super.getGamePiecesPosesByType(type);
@@ -300,17 +372,22 @@ public class Arena2026Rebuilt extends SimulatedArena {
                 nextClockSwapTime = matchClock + 25;
                 blueIsOnClock = !blueIsOnClock;
             }
-            phaseClockPublisher.set((nextClockSwapTime-matchClock));
+            phaseTimeLeft = nextClockSwapTime - matchClock;
 
 
         } else {
-            phaseClockPublisher.set((25));
+            phaseTimeLeft = 25;
         }
 
         super.simulationSubTick(tickNum);
+    }
 
-        blueActivePublisher.set(isActive(true));
-        redActivePublisher.set(isActive(false));
+    @Override
+    protected void publishTelemetry() {
+        super.publishTelemetry();
+        telemetry.set(phaseClockHandle, phaseTimeLeft);
+        telemetry.set(blueActiveHandle, isActive(true));
+        telemetry.set(redActiveHandle, isActive(false));
     }
 
     /**
@@ -413,9 +490,9 @@ public class Arena2026Rebuilt extends SimulatedArena {
      *
      * <h3>For changes too take effect call {@link #resetFieldForAuto()}. </h3>
      *
-     * <p>Efficiency mode reduces the amount of game pieces on the field too increase performance. MapleSim was not
-     * designed with 400 game pieces in mind and so can struggle with the large number of game pieces present in
-     * rebuilt.
+     * <p>Efficiency mode reduces the amount of game pieces on the field too increase performance. It is off by default
+     * as resting fuel away from the robots sleeps, see {@link #setLevelOfDetail(boolean)}, it can still help on slow
+     * machines or with level of detail disabled.
      *
      * @param efficiencyMode Wether efficiency mode should be on or off.
      */
@@ -3,8 +3,11 @@ package swervelib.simulation.ironmaple.simulation.seasonspecific.rebuilt2026;
 import static edu.wpi.first.units.Units.Centimeter;
 import static edu.wpi.first.units.Units.Inches;
 import static edu.wpi.first.units.Units.Meters;
+import static edu.wpi.first.units.Units.MetersPerSecond;
+import static edu.wpi.first.units.Units.Radians;
 
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.units.measure.Angle;
@@ -47,7 +50,63 @@ public class RebuiltFuelOnFly extends GamePieceProjectile {
                 launchingSpeed,
                 shooterAngle);
 
+        applyDefaults();
+    }
+
+    private void applyDefaults() {
         super.withTouchGroundHeight(Centimeter.of(7.5).in(Meters));
         super.enableBecomesGamePieceOnFieldAfterTouchGround();
     }
+
+    /**
+     *
+     *
+     * <h2>Reinitializes a Recycled FUEL.</h2>
+     *
+     * <p>Restores the FUEL defaults, the touch ground height and becoming a FUEL on the field once it lands, after the
+     * base reset clears the previous configuration.
+     *
+     * @param initialPosition the position of the FUEL at the moment it is launched into the air
+     * @param initialLaunchingVelocityMPS the horizontal component of the initial velocity, in meters per second
+     * @param initialHeight the initial height of the FUEL when launched
+     * @param initialVerticalSpeedMPS the vertical component of the initial velocity, in meters per second
+     * @param gamePieceRotation the 3D rotation of the FUEL during flight
+     * @return this FUEL, for chaining
+     */
+    @Override
+    public RebuiltFuelOnFly reset(
+            Translation2d initialPosition,
+            Translation2d initialLaunchingVelocityMPS,
+            double initialHeight,
+            double initialVerticalSpeedMPS,
+            Rotation3d gamePieceRotation) {
+        super.reset(
+                initialPosition,
+                initialLaunchingVelocityMPS,
+                initialHeight,
+                initialVerticalSpeedMPS,
+                gamePieceRotation);
+        applyDefaults();
+        return this;
+    }
+
+    /**
+     *
+     *
+     * <h2>Creates a FUEL to be Reset Before Launch.</h2>
+     *
+     * <p>Used by the {@link swervelib.simulation.ironmaple.simulation.gamepieces.GamePiecePool} of
+     * {@link Arena2026Rebuilt}, the FUEL is positioned with {@link #reset(Translation2d, Translation2d, ChassisSpeeds,
+     * Rotation2d, Distance, LinearVelocity, Angle)}.
+     */
+    public RebuiltFuelOnFly() {
+        this(
+                new Translation2d(),
+                new Translation2d(),
+                new ChassisSpeeds(),
+                new Rotation2d(),
+                Meters.of(0),
+                MetersPerSecond.of(0),
+                Radians.of(0));
+    }
 }
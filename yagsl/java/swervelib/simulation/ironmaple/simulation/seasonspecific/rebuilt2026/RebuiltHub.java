@@ -10,6 +10,7 @@ import edu.wpi.first.networktables.StructPublisher;
 import swervelib.simulation.ironmaple.simulation.Goal;
 import swervelib.simulation.ironmaple.simulation.gamepieces.GamePiece;
 import swervelib.simulation.ironmaple.utils.FieldMirroringUtils;
+import swervelib.simulation.ironmaple.utils.mathutils.MapleCommonMath;
 
 import java.util.*;
 
@@ -41,7 +42,6 @@ public class RebuiltHub extends Goal {
     };
 
     public static final double GoalRadius = 0.5969;
-    static final Random rng = new Random();
 
     public static final Pose3d[] redShootPoses = Arrays.stream(blueShootPoses)
             .map(FieldMirroringUtils::flip)
@@ -93,13 +93,18 @@ public class RebuiltHub extends Goal {
                 < Math.pow(GoalRadius, 2);
     }
 
+    @Override
+    public ScoringBounds getScoringBounds() {
+        return ScoringBounds.ofSphere(position, GoalRadius);
+    }
+
     @Override
     protected void addPoints() {
         arena.addValueToMatchBreakdown(isBlue, "TotalFuelInHub", 1);
         arena.addValueToMatchBreakdown(isBlue, "WastedFuel", arena.isActive(isBlue) ? 0 : 1);
         arena.addToScore(isBlue, arena.isActive(isBlue) ? 1 : 0);
 
-        Pose3d shootPose = isBlue ? blueShootPoses[rng.nextInt(4)] : redShootPoses[rng.nextInt(4)];
+        Pose3d shootPose = isBlue ? blueShootPoses[MapleCommonMath.generateRandomInt(4)] : redShootPoses[MapleCommonMath.generateRandomInt(4)];
 
         arena.addPieceWithVariance(
                 shootPose.getTranslation().toTranslation2d(),
@@ -5,6 +5,7 @@ import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj.DriverStation;
+import swervelib.simulation.ironmaple.simulation.BakedFieldMap;
 import swervelib.simulation.ironmaple.simulation.SimulatedArena;
 import swervelib.simulation.ironmaple.simulation.seasonspecific.reefscape2025.opponentsim.ReefscapeOpponentManager;
 import swervelib.simulation.ironmaple.utils.FieldMirroringUtils;
@@ -78,7 +79,7 @@ public class Arena2025Reefscape extends SimulatedArena {
     public final ReefscapeProcessorSimulation blueProcessor;
 
     public Arena2025Reefscape() {
-        super(new ReefscapeFieldObstacleMap());
+        super(BakedFieldMap.of(ReefscapeFieldObstacleMap.class, ReefscapeFieldObstacleMap::new));
         super.withOpponentManager(new ReefscapeOpponentManager());
 
         redReefSimulation = new ReefscapeReefSimulation(this, false);
@@ -89,9 +89,9 @@ public class ReefscapeCoralOnFly extends GamePieceProjectile {
                                 .gamePieceHeight()
                                 .in(Meters)
                                 / 2,
-                        getPositionAtTime(super.launchedTimer.get()).getZ()),
+                        getPositionAtTime(getTimeSinceLaunch()).getZ()),
                 new Pose2d(
-                        getPositionAtTime(launchedTimer.get()).toTranslation2d(),
+                        getPositionAtTime(getTimeSinceLaunch()).toTranslation2d(),
                         initialLaunchingVelocityMPS.getAngle()),
                 super.initialLaunchingVelocityMPS));
     }
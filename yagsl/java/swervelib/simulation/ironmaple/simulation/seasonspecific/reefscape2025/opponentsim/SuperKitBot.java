@@ -17,6 +17,7 @@ import swervelib.simulation.ironmaple.simulation.opponentsim.SmartOpponentConfig
 import swervelib.simulation.ironmaple.simulation.seasonspecific.reefscape2025.Arena2025Reefscape;
 import swervelib.simulation.ironmaple.simulation.seasonspecific.reefscape2025.ReefscapeAlgaeOnFly;
 import swervelib.simulation.ironmaple.simulation.seasonspecific.reefscape2025.ReefscapeCoralOnFly;
+import swervelib.simulation.ironmaple.utils.mathutils.MapleCommonMath;
 
 import java.util.Objects;
 
@@ -136,7 +137,7 @@ public class SuperKitBot extends SmartOpponent {
      */
     private Command scoreReef() {
         // Random integer from 0-4;
-        final int target = (int) (Math.random() * 4);
+        final int target = MapleCommonMath.generateRandomInt(4);
         return switch (target) {
             case 1 -> manipulatorSim.score("Reef L2");
             case 2 -> manipulatorSim.score("Reef L3");
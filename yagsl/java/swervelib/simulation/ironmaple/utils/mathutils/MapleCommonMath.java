@@ -6,7 +6,40 @@ import edu.wpi.first.math.geometry.Translation2d;
 import java.util.Random;
 
 public class MapleCommonMath {
-    private static final Random random = new Random();
+    private static Random random = new Random();
+
+    /**
+     *
+     *
+     * <h2>Seeds the random number generator used by the simulation.</h2>
+     *
+     * <p>All randomness in the simulation (gyro noise, encoder offsets, opponent decisions, shot variance) is drawn from
+     * this generator, so seeding it before the simulation objects are created makes runs reproducible.
+     *
+     * @param seed the seed
+     */
+    public static synchronized void setRandomSeed(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * generate the next uniformly distributed random variable
+     *
+     * @return the next random variable x in [0, 1)
+     */
+    public static double generateRandomUniform() {
+        return random.nextDouble();
+    }
+
+    /**
+     * generate the next uniformly distributed random integer
+     *
+     * @param bound the upper bound, exclusive
+     * @return the next random integer in [0, bound)
+     */
+    public static int generateRandomInt(int bound) {
+        return random.nextInt(bound);
+    }
 
     /**
      * using the random number generator of a fixed seed, generate the next random normal variable
@@ -0,0 +1,243 @@
+package swervelib.telemetry;
+
+import edu.wpi.first.wpilibj.Alert.AlertType;
+
+/**
+ * Health monitor for a single swerve device. Tracks the error rate and read latency and moves the device into a
+ * degraded state when reads keep failing or are too slow. A degraded device is not read every cycle, it is probed again
+ * after a backoff which doubles with every failed probe, so a flaky device costs one read per backoff instead of
+ * retries every cycle. The first good probe restores it.
+ * <p>
+ * Backoff is counted in reads rather than time so it scales with how often the device is used.
+ */
+public class SwerveDeviceHealth
+{
+
+  /**
+   * Smoothing factor of the error rate and latency averages.
+   */
+  private static final double    SMOOTHING              = 0.2;
+  /**
+   * Error rate above which the device is degraded.
+   */
+  public static        double    ERROR_RATE_THRESHOLD   = 0.5;
+  /**
+   * Consecutive failed reads after which the device is degraded.
+   */
+  public static        int       CONSECUTIVE_ERRORS     = 3;
+  /**
+   * Read latency above which a read counts as failed, in seconds.
+   */
+  public static        double    LATENCY_THRESHOLD      = 0.01;
+  /**
+   * Reads skipped before the first probe of a degraded device.
+   */
+  public static        int       INITIAL_BACKOFF        = 5;
+  /**
+   * Most reads skipped between probes of a degraded device.
+   */
+  public static        int       MAX_BACKOFF            = 250;
+  /**
+   * Name of the device.
+   */
+  private final        String    name;
+  /**
+   * Alert raised while the device is degraded.
+   */
+  private final        Alert     degradedAlert;
+  /**
+   * Current state, written by the reading thread and read from any thread.
+   */
+  private volatile     State     state                  = State.HEALTHY;
+  /**
+   * Averaged error rate in [0, 1].
+   */
+  private              double    errorRate              = 0;
+  /**
+   * Averaged read latency in seconds.
+   */
+  private              double    latencySeconds         = 0;
+  /**
+   * Consecutive failed reads.
+   */
+  private              int       consecutiveErrors      = 0;
+  /**
+   * Consecutive good reads.
+   */
+  private              int       consecutiveGoodReads   = 0;
+  /**
+   * Reads skipped between probes.
+   */
+  private              int       backoff                = INITIAL_BACKOFF;
+  /**
+   * Reads left to skip before the next probe.
+   */
+  private              int       skipsUntilProbe        = 0;
+  /**
+   * Total reads.
+   */
+  private              long      reads                  = 0;
+  /**
+   * Total failed reads.
+   */
+  private              long      errors                 = 0;
+
+  /**
+   * Create a health monitor.
+   *
+   * @param name Name of the device used in telemetry and alerts.
+   */
+  public SwerveDeviceHealth(String name)
+  {
+    this.name = name;
+    degradedAlert = new Alert("Health", name + " is degraded, using estimates.", AlertType.kWarning);
+  }
+
+  /**
+   * Whether the device should be read this cycle. Always true while healthy, while degraded only once the backoff has
+   * passed.
+   *
+   * @return True to read the device and {@link SwerveDeviceHealth#record(boolean, double)} the outcome, false to use
+   * an estimate.
+   */
+  public boolean shouldRead()
+  {
+    if (state == State.HEALTHY)
+    {
+      return true;
+    }
+    if (skipsUntilProbe > 0)
+    {
+      skipsUntilProbe--;
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Record the outcome of a read.
+   *
+   * @param error          Whether the read failed.
+   * @param latencySeconds How long the read took in seconds.
+   */
+  public void record(boolean error, double latencySeconds)
+  {
+    boolean failed = error || latencySeconds > LATENCY_THRESHOLD;
+    reads++;
+    errors += failed ? 1 : 0;
+    errorRate += SMOOTHING * ((failed ? 1 : 0) - errorRate);
+    this.latencySeconds += SMOOTHING * (latencySeconds - this.latencySeconds);
+    consecutiveErrors = failed ? consecutiveErrors + 1 : 0;
+    consecutiveGoodReads = failed ? 0 : consecutiveGoodReads + 1;
+
+    if (state == State.HEALTHY)
+    {
+      if (consecutiveErrors >= CONSECUTIVE_ERRORS || errorRate > ERROR_RATE_THRESHOLD)
+      {
+        state = State.DEGRADED;
+        skipsUntilProbe = backoff;
+        degradedAlert.set(true);
+      } else if (consecutiveGoodReads >= MAX_BACKOFF)
+      {
+        // Stable for a while, forget previous flapping.
+        backoff = INITIAL_BACKOFF;
+      }
+    } else if (failed)
+    {
+      backoff = Math.min(backoff * 2, MAX_BACKOFF);
+      skipsUntilProbe = backoff;
+    } else
+    {
+      // Fast recovery on the first good probe, the backoff is kept in case the device starts flapping.
+      state = State.HEALTHY;
+      errorRate = 0;
+      consecutiveErrors = 0;
+      degradedAlert.set(false);
+    }
+  }
+
+  /**
+   * Get the state of the device.
+   *
+   * @return {@link State} of the device.
+   */
+  public State getState()
+  {
+    return state;
+  }
+
+  /**
+   * Whether the device is healthy.
+   *
+   * @return True if healthy.
+   */
+  public boolean isHealthy()
+  {
+    return state == State.HEALTHY;
+  }
+
+  /**
+   * Get the averaged error rate.
+   *
+   * @return Error rate in [0, 1].
+   */
+  public double getErrorRate()
+  {
+    return errorRate;
+  }
+
+  /**
+   * Get the averaged read latency.
+   *
+   * @return Latency in seconds.
+   */
+  public double getLatency()
+  {
+    return latencySeconds;
+  }
+
+  /**
+   * Get the total number of reads and failed reads.
+   *
+   * @return [reads, errors]
+   */
+  public long[] getCounts()
+  {
+    return new long[]{reads, errors};
+  }
+
+  /**
+   * Get the name of the device.
+   *
+   * @return Device name.
+   */
+  public String getName()
+  {
+    return name;
+  }
+
+  /**
+   * Get a compact summary of the device health for telemetry.
+   *
+   * @return Summary such as "FL absolute encoder DEGRADED 62% 0.4ms".
+   */
+  public String getSummary()
+  {
+    return String.format("%s %s %d%% %.1fms", name, state, Math.round(errorRate * 100), latencySeconds * 1000);
+  }
+
+  /**
+   * Health state of a device.
+   */
+  public enum State
+  {
+    /**
+     * Read every cycle.
+     */
+    HEALTHY,
+    /**
+     * Read only on probes, estimates are used in between.
+     */
+    DEGRADED
+  }
+}
@@ -5,6 +5,7 @@ import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.networktables.DoubleArrayPublisher;
 import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.networktables.StructArrayPublisher;
@@ -13,10 +14,15 @@ import edu.wpi.first.wpilibj.Alert.AlertType;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.Timer;
+import java.util.HashSet;
+import java.util.Set;
 import swervelib.SwerveDrive;
 
 /**
  * Telemetry to describe the {@link swervelib.SwerveDrive} following frc-web-components. (Which follows AdvantageKit)
+ * <p>
+ * Each drive owns its telemetry, published under its own name, so several drives can be simulated in one JVM. Alerts,
+ * the verbosity and the simulation state are shared.
  */
 public class SwerveDriveTelemetry
 {
@@ -39,317 +45,281 @@ public class SwerveDriveTelemetry
   public static final  Alert                                   serialCommsIssueWarning  = new Alert("IMU",
                                                                                                     "Serial comms is interrupted with USB and other serial traffic and causes intermittent connected/disconnection issues. Please consider another protocol or be mindful of this.",
                                                                                                     AlertType.kWarning);
+  /**
+   * An {@link Alert} for if the planned CAN bus utilization of the drivetrain is over budget.
+   */
+  public static final  Alert                                   canUtilizationWarning    = new Alert("CAN",
+                                                                                                    "CAN bus utilization is over budget.",
+                                                                                                    AlertType.kWarning);
+  /**
+   * The current telemetry verbosity level.
+   */
+  public static        TelemetryVerbosity                      verbosity                = TelemetryVerbosity.MACHINE;
+  /**
+   * State of simulation of the Robot, used to optimize retrieval.
+   */
+  public static        boolean                                 isSimulation             = RobotBase.isSimulation();
+  /**
+   * Telemetry names in use, each drive in the JVM publishes under its own name.
+   */
+  private static final Set<String>                             names                    = new HashSet<>();
+  /**
+   * Name of the drive, the root of every topic, "swerve" for the first drive.
+   */
+  public final         String                                  name;
   /**
    * Module counter publisher for NT4
    */
-  private static final DoublePublisher                         moduleCountPublisher
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getDoubleTopic(
-                                                                                                                  "swerve/moduleCount")
-                                                                                                              .publish();
+  private final        DoublePublisher                         moduleCountPublisher;
   /**
    * Module measured states for Nt4
    */
-  private static final DoubleArrayPublisher                    measuredStatesArrayPublisher
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getDoubleArrayTopic(
-                                                                                                                  "swerve/measuredStates")
-                                                                                                              .publish();
+  private final        DoubleArrayPublisher                    measuredStatesArrayPublisher;
   /**
-   * Desired states for NT4
+   * Module desired states for NT4
    */
-  private static final DoubleArrayPublisher                    desiredStatesArrayPublisher
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getDoubleArrayTopic(
-                                                                                                                  "swerve/desiredStates")
-                                                                                                              .publish();
+  private final        DoubleArrayPublisher                    desiredStatesArrayPublisher;
   /**
    * Measured chassis speeds array publisher.
    */
-  private static final DoubleArrayPublisher                    measuredChassisSpeedsArrayPublisher
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getDoubleArrayTopic(
-                                                                                                                  "swerve/measuredChassisSpeeds")
-                                                                                                              .publish();
+  private final        DoubleArrayPublisher                    measuredChassisSpeedsArrayPublisher;
   /**
    * Desired chassis speeds array publisher.
    */
-  private static final DoubleArrayPublisher                    desiredChassisSpeedsArrayPublisher
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getDoubleArrayTopic(
-                                                                                                                  "swerve/desiredChassisSpeeds")
-                                                                                                              .publish();
+  private final        DoubleArrayPublisher                    desiredChassisSpeedsArrayPublisher;
   /**
    * Robot rotation publisher.
    */
-  private static final DoublePublisher                         robotRotationPublisher
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getDoubleTopic(
-                                                                                                                  "swerve/robotRotation")
-                                                                                                              .publish();
+  private final        DoublePublisher                         robotRotationPublisher;
+  /**
+   * Device health summary publisher.
+   */
+  private final        StringPublisher                         deviceHealthPublisher;
+  /**
+   * Encoder drift summary publisher.
+   */
+  private final        StringPublisher                         encoderDriftPublisher;
   /**
    * Max angular velocity publisher.
    */
-  private static final DoublePublisher                         maxAngularVelocityPublisher
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getDoubleTopic(
-                                                                                                                  "swerve/maxAngularVelocity")
-                                                                                                              .publish();
+  private final        DoublePublisher                         maxAngularVelocityPublisher;
   /**
    * Struct publisher for AdvantageScope swerve widgets.
    */
-  private static final StructArrayPublisher<SwerveModuleState> measuredStatesStruct
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getStructArrayTopic(
-                                                                                                                  "swerve/advantagescope/currentStates",
-                                                                                                                  SwerveModuleState.struct)
-                                                                                                              .publish();
+  private final        StructArrayPublisher<SwerveModuleState> measuredStatesStruct;
   /**
    * Struct publisher for AdvantageScope swerve widgets.
    */
-  private static final StructArrayPublisher<SwerveModuleState> desiredStatesStruct
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getStructArrayTopic(
-                                                                                                                  "swerve/advantagescope/desiredStates",
-                                                                                                                  SwerveModuleState.struct)
-                                                                                                              .publish();
-  /**
-   * Measured {@link ChassisSpeeds} for NT4 AdvantageScope swerve widgets.
-   */
-  private static final StructPublisher<ChassisSpeeds>          measuredChassisSpeedsStruct
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getStructTopic(
-                                                                                                                  "swerve/advantagescope/measuredChassisSpeeds",
-                                                                                                                  ChassisSpeeds.struct)
-                                                                                                              .publish();
-  /**
-   * Desired {@link ChassisSpeeds} for NT4 AdvantageScope swerve widgets.
-   */
-  private static final StructPublisher<ChassisSpeeds>          desiredChassisSpeedsStruct
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getStructTopic(
-                                                                                                                  "swerve/advantagescope/desiredChassisSpeeds",
-                                                                                                                  ChassisSpeeds.struct)
-                                                                                                              .publish();
-  /**
-   * Robot {@link Rotation2d} for AdvantageScope swerve widgets.
-   */
-  private static final StructPublisher<Rotation2d>             robotRotationStruct
-                                                                                        = NetworkTableInstance.getDefault()
-                                                                                                              .getTable(
-                                                                                                                  "SmartDashboard")
-                                                                                                              .getStructTopic(
-                                                                                                                  "swerve/advantagescope/robotRotation",
-                                                                                                                  Rotation2d.struct)
-                                                                                                              .publish();
+  private final        StructArrayPublisher<SwerveModuleState> desiredStatesStruct;
+  /**
+   * Measured chassis speeds struct publisher for AdvantageScope.
+   */
+  private final        StructPublisher<ChassisSpeeds>          measuredChassisSpeedsStruct;
+  /**
+   * Desired chassis speeds struct publisher for AdvantageScope.
+   */
+  private final        StructPublisher<ChassisSpeeds>          desiredChassisSpeedsStruct;
+  /**
+   * Robot rotation struct publisher for AdvantageScope.
+   */
+  private final        StructPublisher<Rotation2d>             robotRotationStruct;
   /**
    * Wheel locations array publisher for NT4.
    */
-  private static final DoubleArrayPublisher wheelLocationsArrayPublisher
-                                                                     = NetworkTableInstance.getDefault()
-                                                                                           .getTable(
-                                                                                               "SmartDashboard")
-                                                                                           .getDoubleArrayTopic(
-                                                                                               "swerve/wheelLocation")
-                                                                                           .publish();
+  private final        DoubleArrayPublisher                    wheelLocationsArrayPublisher;
   /**
    * Max speed publisher for NT4.
    */
-  private static final DoublePublisher      maxSpeedPublisher
-                                                                     = NetworkTableInstance.getDefault()
-                                                                                           .getTable(
-                                                                                               "SmartDashboard")
-                                                                                           .getDoubleTopic(
-                                                                                               "swerve/maxSpeed")
-                                                                                           .publish();
+  private final        DoublePublisher                         maxSpeedPublisher;
   /**
    * Rotation unit for NT4.
    */
-  private static final StringPublisher      rotationUnitPublisher
-                                                                     = NetworkTableInstance.getDefault()
-                                                                                           .getTable(
-                                                                                               "SmartDashboard")
-                                                                                           .getStringTopic(
-                                                                                               "swerve/rotationUnit")
-                                                                                           .publish();
+  private final        StringPublisher                         rotationUnitPublisher;
   /**
    * Chassis width publisher
    */
-  private static final DoublePublisher      sizeLeftRightPublisher
-                                                                     = NetworkTableInstance.getDefault()
-                                                                                           .getTable(
-                                                                                               "SmartDashboard")
-                                                                                           .getDoubleTopic(
-                                                                                               "swerve/sizeLeftRight")
-                                                                                           .publish();
+  private final        DoublePublisher                         sizeLeftRightPublisher;
   /**
    * Chassis Length publisher.
    */
-  private static final DoublePublisher      sizeFrontBackPublisher
-                                                                     = NetworkTableInstance.getDefault()
-                                                                                           .getTable(
-                                                                                               "SmartDashboard")
-                                                                                           .getDoubleTopic(
-                                                                                               "swerve/sizeFrontBack")
-                                                                                           .publish();
+  private final        DoublePublisher                         sizeFrontBackPublisher;
   /**
    * Chassis direction widget publisher.
    */
-  private static final StringPublisher      forwardDirectionPublisher
-                                                                     = NetworkTableInstance.getDefault()
-                                                                                           .getTable(
-                                                                                               "SmartDashboard")
-                                                                                           .getStringTopic(
-                                                                                               "swerve/forwardDirection")
-                                                                                           .publish();
+  private final        StringPublisher                         forwardDirectionPublisher;
   /**
    * Odometry cycle time, updated whenever {@link SwerveDrive#updateOdometry()} is called.
    */
-  private static final DoublePublisher      odomCycleTime
-                                                                     = NetworkTableInstance.getDefault()
-                                                                                           .getTable(
-                                                                                               "SmartDashboard")
-                                                                                           .getDoubleTopic(
-                                                                                               "swerve/odomCycleMS")
-                                                                                           .publish();
-  /**
-   * Control cycle time, updated whenever
-   * {@link swervelib.SwerveModule#setDesiredState(SwerveModuleState, boolean, double)} is called for the last module.
-   */
-  private static final DoublePublisher      ctrlCycleTime
-                                                                     = NetworkTableInstance.getDefault()
-                                                                                           .getTable(
-                                                                                               "SmartDashboard")
-                                                                                           .getDoubleTopic(
-                                                                                               "swerve/controlCycleMS")
-                                                                                           .publish();
+  private final        DoublePublisher                         odomCycleTime;
+  /**
+   * Control cycle time, updated whenever the desired state of the last module is set.
+   */
+  private final        DoublePublisher                         ctrlCycleTime;
   /**
    * Odometry timer to track cycle times.
    */
-  private static final Timer                odomTimer                = new Timer();
+  private final        Timer                                   odomTimer                = new Timer();
   /**
    * Control timer to track cycle times.
    */
-  private static final Timer                ctrlTimer                = new Timer();
+  private final        Timer                                   ctrlTimer                = new Timer();
   /**
    * Measured swerve module states object.
    */
-  public static        SwerveModuleState[]  measuredStatesObj
-                                                                     = new SwerveModuleState[4];
+  public               SwerveModuleState[]                     measuredStatesObj        = new SwerveModuleState[4];
   /**
    * Desired swerve module states object
    */
-  public static        SwerveModuleState[]  desiredStatesObj
-                                                                     = new SwerveModuleState[4];
+  public               SwerveModuleState[]                     desiredStatesObj         = new SwerveModuleState[4];
   /**
    * The maximum achievable angular velocity of the robot. This is used to visualize the angular velocity from the
    * chassis speeds properties.
    */
-  public static        ChassisSpeeds        measuredChassisSpeedsObj = new ChassisSpeeds();
+  public               ChassisSpeeds                           measuredChassisSpeedsObj = new ChassisSpeeds();
   /**
    * Describes the desired forward, sideways and angular velocity of the robot.
    */
-  public static        ChassisSpeeds        desiredChassisSpeedsObj  = new ChassisSpeeds();
+  public               ChassisSpeeds                           desiredChassisSpeedsObj  = new ChassisSpeeds();
   /**
    * The robot's current rotation based on odometry or gyro readings
    */
-  public static        Rotation2d           robotRotationObj         = new Rotation2d();
-  /**
-   * The current telemetry verbosity level.
-   */
-  public static        TelemetryVerbosity   verbosity
-                                                                     = TelemetryVerbosity.MACHINE;
-  /**
-   * State of simulation of the Robot, used to optimize retrieval.
-   */
-  public static        boolean              isSimulation
-                                                                     = RobotBase.isSimulation();
+  public               Rotation2d                              robotRotationObj         = new Rotation2d();
   /**
    * The number of swerve modules
    */
-  public static        int                  moduleCount;
+  public               int                                     moduleCount;
   /**
    * The Locations of the swerve drive wheels.
    */
-  public static        double[]             wheelLocations;
+  public               double[]                                wheelLocations;
   /**
    * An array of rotation and velocity values describing the measured state of each swerve module
    */
-  public static        double[]             measuredStates;
+  public               double[]                                measuredStates;
   /**
    * An array of rotation and velocity values describing the desired state of each swerve module
    */
-  public static        double[]             desiredStates;
+  public               double[]                                desiredStates;
   /**
    * The robot's current rotation based on odometry or gyro readings
    */
-  public static        double               robotRotation            = 0;
+  public               double                                  robotRotation            = 0;
+  /**
+   * Compact summary of the degraded devices, "OK" when every device is healthy.
+   */
+  public               String                                  deviceHealth             = "OK";
+  /**
+   * Compact summary of the drift between the angle motor and absolute encoders of each module.
+   */
+  public               String                                  encoderDrift             = "";
   /**
    * The maximum achievable speed of the modules, used to adjust the size of the vectors.
    */
-  public static        double               maxSpeed;
+  public               double                                  maxSpeed;
   /**
    * The units of the module rotations and robot rotation
    */
-  public static        String               rotationUnit             = "degrees";
+  public               String                                  rotationUnit             = "degrees";
   /**
    * The distance between the left and right modules.
    */
-  public static        double               sizeLeftRight;
+  public               double                                  sizeLeftRight;
   /**
    * The distance between the front and back modules.
    */
-  public static        double               sizeFrontBack;
+  public               double                                  sizeFrontBack;
   /**
    * The direction the robot should be facing when the "Robot Rotation" is zero or blank. This option is often useful to
    * align with odometry data or match videos. 'up', 'right', 'down' or 'left'
    */
-  public static        String               forwardDirection         = "up";
+  public               String                                  forwardDirection         = "up";
   /**
    * The maximum achievable angular velocity of the robot. This is used to visualize the angular velocity from the
    * chassis speeds properties.
    */
-  public static        double               maxAngularVelocity;
+  public               double                                  maxAngularVelocity;
   /**
    * The maximum achievable angular velocity of the robot. This is used to visualize the angular velocity from the
    * chassis speeds properties.
    */
-  public static        double[]             measuredChassisSpeeds    = new double[3];
+  public               double[]                                measuredChassisSpeeds    = new double[3];
   /**
    * Describes the desired forward, sideways and angular velocity of the robot.
    */
-  public static        double[]             desiredChassisSpeeds     = new double[3];
+  public               double[]                                desiredChassisSpeeds     = new double[3];
   /**
    * Update the telemetry settings that infrequently change.
    */
-  public static        boolean              updateSettings           = true;
+  public               boolean                                 updateSettings           = true;
+
+  /**
+   * Create the telemetry of a drive, publishing under "SmartDashboard/{name}/".
+   *
+   * @param name Name claimed with {@link SwerveDriveTelemetry#claimName(String)}.
+   */
+  public SwerveDriveTelemetry(String name)
+  {
+    this.name = name;
+    NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+    moduleCountPublisher = table.getDoubleTopic(name + "/moduleCount").publish();
+    measuredStatesArrayPublisher = table.getDoubleArrayTopic(name + "/measuredStates").publish();
+    desiredStatesArrayPublisher = table.getDoubleArrayTopic(name + "/desiredStates").publish();
+    measuredChassisSpeedsArrayPublisher = table.getDoubleArrayTopic(name + "/measuredChassisSpeeds").publish();
+    desiredChassisSpeedsArrayPublisher = table.getDoubleArrayTopic(name + "/desiredChassisSpeeds").publish();
+    robotRotationPublisher = table.getDoubleTopic(name + "/robotRotation").publish();
+    deviceHealthPublisher = table.getStringTopic(name + "/deviceHealth").publish();
+    encoderDriftPublisher = table.getStringTopic(name + "/encoderDrift").publish();
+    maxAngularVelocityPublisher = table.getDoubleTopic(name + "/maxAngularVelocity").publish();
+    measuredStatesStruct = table.getStructArrayTopic(name + "/advantagescope/currentStates",
+                                                     SwerveModuleState.struct).publish();
+    desiredStatesStruct = table.getStructArrayTopic(name + "/advantagescope/desiredStates",
+                                                    SwerveModuleState.struct).publish();
+    measuredChassisSpeedsStruct = table.getStructTopic(name + "/advantagescope/measuredChassisSpeeds",
+                                                       ChassisSpeeds.struct).publish();
+    desiredChassisSpeedsStruct = table.getStructTopic(name + "/advantagescope/desiredChassisSpeeds",
+                                                      ChassisSpeeds.struct).publish();
+    robotRotationStruct = table.getStructTopic(name + "/advantagescope/robotRotation", Rotation2d.struct).publish();
+    wheelLocationsArrayPublisher = table.getDoubleArrayTopic(name + "/wheelLocation").publish();
+    maxSpeedPublisher = table.getDoubleTopic(name + "/maxSpeed").publish();
+    rotationUnitPublisher = table.getStringTopic(name + "/rotationUnit").publish();
+    sizeLeftRightPublisher = table.getDoubleTopic(name + "/sizeLeftRight").publish();
+    sizeFrontBackPublisher = table.getDoubleTopic(name + "/sizeFrontBack").publish();
+    forwardDirectionPublisher = table.getStringTopic(name + "/forwardDirection").publish();
+    odomCycleTime = table.getDoubleTopic(name + "/odomCycleMS").publish();
+    ctrlCycleTime = table.getDoubleTopic(name + "/controlCycleMS").publish();
+  }
+
+  /**
+   * Claim a telemetry name for a drive. The first drive gets the requested name, later drives requesting the same name
+   * get it with a number appended, so several drives can run in one JVM without overwriting each other's topics.
+   *
+   * @param requested Requested name, usually "swerve".
+   * @return Name which is unique in this JVM.
+   */
+  public static synchronized String claimName(String requested)
+  {
+    String name = requested;
+    for (int i = 1; !names.add(name); i++)
+    {
+      name = requested + i;
+    }
+    return name;
+  }
+
+  /**
+   * Release a name claimed with {@link SwerveDriveTelemetry#claimName(String)} once its drive is closed.
+   *
+   * @param name Claimed name.
+   */
+  public static synchronized void releaseName(String name)
+  {
+    names.remove(name);
+  }
 
   /**
    * Start the ctrl timer to measure cycle time, independent of periodic loops.
    */
-  public static void startCtrlCycle()
+  public void startCtrlCycle()
   {
     if (ctrlTimer.isRunning())
     {
@@ -363,7 +333,7 @@ public class SwerveDriveTelemetry
   /**
    * Update the Control cycle time.
    */
-  public static void endCtrlCycle()
+  public void endCtrlCycle()
   {
     if (DriverStation.isTeleopEnabled() || DriverStation.isAutonomousEnabled() || DriverStation.isTestEnabled())
     {
@@ -376,7 +346,7 @@ public class SwerveDriveTelemetry
   /**
    * Start the odom cycle timer to calculate how long each odom took. Independent of periodic loops.
    */
-  public static void startOdomCycle()
+  public void startOdomCycle()
   {
     if (odomTimer.isRunning())
     {
@@ -392,7 +362,7 @@ public class SwerveDriveTelemetry
   /**
    * Update the odom cycle time.
    */
-  public static void endOdomCycle()
+  public void endOdomCycle()
   {
     if (DriverStation.isTeleopEnabled() || DriverStation.isAutonomousEnabled() || DriverStation.isTestEnabled())
     {
@@ -404,7 +374,7 @@ public class SwerveDriveTelemetry
   /**
    * Update only the settings that infrequently or never change.
    */
-  public static void updateSwerveTelemetrySettings()
+  public void updateSwerveTelemetrySettings()
   {
     if (updateSettings)
     {
@@ -421,7 +391,7 @@ public class SwerveDriveTelemetry
   /**
    * Upload data to smartdashboard
    */
-  public static void updateData()
+  public void updateData()
   {
     if (updateSettings)
     {
@@ -461,6 +431,8 @@ public class SwerveDriveTelemetry
     measuredStatesArrayPublisher.set(measuredStates);
     desiredStatesArrayPublisher.set(desiredStates);
     robotRotationPublisher.set(robotRotation);
+    deviceHealthPublisher.set(deviceHealth);
+    encoderDriftPublisher.set(encoderDrift);
     maxAngularVelocityPublisher.set(maxAngularVelocity);
 
     measuredChassisSpeedsArrayPublisher.set(measuredChassisSpeeds);
@@ -0,0 +1,156 @@
+package swervelib.telemetry;
+
+import edu.wpi.first.wpilibj.Alert.AlertType;
+
+/**
+ * Drift statistics between the integrated angle encoder and the absolute encoder of a swerve module. A healthy module
+ * drifts slowly from backlash and slip, an absolute encoder which is loose, noisy or losing its magnet shows large or
+ * quickly growing drift and frequent synchronizations.
+ */
+public class SwerveEncoderDrift
+{
+
+  /**
+   * Smoothing factor of the averages.
+   */
+  private static final double SMOOTHING        = 0.2;
+  /**
+   * Averaged absolute drift in degrees above which the encoder is reported as drifting.
+   */
+  public static        double DRIFT_THRESHOLD  = 10;
+  /**
+   * Name of the module.
+   */
+  private final        String name;
+  /**
+   * Alert raised while the averaged drift is above {@link SwerveEncoderDrift#DRIFT_THRESHOLD}.
+   */
+  private final        Alert  driftAlert;
+  /**
+   * Last measured drift in degrees.
+   */
+  private              double drift            = 0;
+  /**
+   * Averaged absolute drift in degrees.
+   */
+  private              double averageDrift     = 0;
+  /**
+   * Largest absolute drift measured in degrees.
+   */
+  private              double maxDrift         = 0;
+  /**
+   * Averaged drift rate in degrees per second.
+   */
+  private              double trend            = 0;
+  /**
+   * Timestamp of the last measurement in seconds, NaN before the first one.
+   */
+  private              double lastTimestamp    = Double.NaN;
+  /**
+   * Total measurements.
+   */
+  private              long   measurements     = 0;
+  /**
+   * Total synchronizations.
+   */
+  private              long   synchronizations = 0;
+
+  /**
+   * Create drift statistics.
+   *
+   * @param name Name of the module used in telemetry and alerts.
+   */
+  public SwerveEncoderDrift(String name)
+  {
+    this.name = name;
+    driftAlert = new Alert("Health", name + " encoders are drifting apart.", AlertType.kWarning);
+  }
+
+  /**
+   * Record a drift measurement.
+   *
+   * @param driftDegrees Absolute encoder angle minus integrated encoder angle, wrapped to [-180, 180) degrees.
+   * @param timestamp    Timestamp of the measurement in seconds.
+   * @param resynced     Whether the measurement triggered a synchronization, which resets the drift.
+   */
+  public void record(double driftDegrees, double timestamp, boolean resynced)
+  {
+    if (!Double.isNaN(lastTimestamp) && timestamp > lastTimestamp)
+    {
+      trend += SMOOTHING * ((driftDegrees - drift) / (timestamp - lastTimestamp) - trend);
+    }
+    measurements++;
+    drift = driftDegrees;
+    averageDrift += SMOOTHING * (Math.abs(driftDegrees) - averageDrift);
+    maxDrift = Math.max(maxDrift, Math.abs(driftDegrees));
+    if (resynced)
+    {
+      synchronizations++;
+      // The next measurement starts from zero drift, do not count the jump as a trend.
+      drift = 0;
+    }
+    lastTimestamp = timestamp;
+    driftAlert.set(averageDrift > DRIFT_THRESHOLD);
+  }
+
+  /**
+   * Get the last measured drift.
+   *
+   * @return Drift in degrees.
+   */
+  public double getDrift()
+  {
+    return drift;
+  }
+
+  /**
+   * Get the averaged absolute drift.
+   *
+   * @return Drift in degrees.
+   */
+  public double getAverageDrift()
+  {
+    return averageDrift;
+  }
+
+  /**
+   * Get the largest absolute drift measured.
+   *
+   * @return Drift in degrees.
+   */
+  public double getMaxDrift()
+  {
+    return maxDrift;
+  }
+
+  /**
+   * Get the averaged drift rate.
+   *
+   * @return Drift rate in degrees per second.
+   */
+  public double getTrend()
+  {
+    return trend;
+  }
+
+  /**
+   * Get the total number of measurements and synchronizations.
+   *
+   * @return [measurements, synchronizations]
+   */
+  public long[] getCounts()
+  {
+    return new long[]{measurements, synchronizations};
+  }
+
+  /**
+   * Get a compact summary of the drift for telemetry.
+   *
+   * @return Summary such as "FL 1.2deg avg 4.0deg max 0.10deg/s 3 syncs".
+   */
+  public String getSummary()
+  {
+    return String.format("%s %.1fdeg avg %.1fdeg max %.2fdeg/s %d syncs", name, averageDrift, maxDrift, trend,
+                         synchronizations);
+  }
+}